@@ -431,6 +431,19 @@ public class CSVDatabaseProcessor {
         }
     }
 
+    /**
+     * Parses one line of an attendance CSV file read by the caller.
+     * Lets streaming importers reuse the attendance parsing without loading the whole file.
+     * @param line A data line (not the header)
+     * @return Parsed values keyed by column name ("Date" and "Log In"/"Log Out" are parsed, null if invalid)
+     */
+    public Map<String, Object> parseAttendanceLine(String line) {
+        if (attendanceColumnIndexMap.isEmpty()) {
+            defineAttendanceColumnMapping();
+        }
+        return parseAttendanceRecord(line);
+    }
+
     /**
      * Parses a single line of attendance data from the CSV file.
      */
@@ -0,0 +1,392 @@
+package DAOs;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AttendanceArchiveDAO - Cold storage for attendance of closed months
+ * Payroll audits need years of attendance, but punches and daily reads only touch recent
+ * months. Closed months are moved out of the attendance table into:
+ *   - attendancearchive: the same rows, clustered by (employeeId, date) and stored compressed
+ *   - tardinessrecordarchive: the tardiness records of the moved rows
+ *   - attendancearchivemanifest: one row per archived month with its row counts and date span
+ * Rollups are kept, so monthly statistics need no change. Reads of raw rows use rows(), which
+ * adds the archive only when a range reaches an archived month. A day written again in the
+ * attendance table after its month was archived is read from the attendance table, and replaces
+ * the archived day the next time the month is archived.
+ * @author User
+ */
+public class AttendanceArchiveDAO {
+
+    // Re-read the manifest at least this often to see months archived by other processes
+    private static final long MAX_AGE_MILLIS = 5 * 60 * 1000;
+
+    private static final String COLUMNS = "attendanceId, employeeId, date, timeIn, timeOut";
+
+    private static volatile boolean tablesReady = false;
+
+    // Last day of the latest archived month (null if nothing is archived), and when it was read
+    private static volatile LocalDate archivedThrough;
+    private static volatile long manifestReadAt = 0;
+
+    private final DatabaseConnection databaseConnection;
+
+    /**
+     * Constructor that accepts a DatabaseConnection instance
+     * @param databaseConnection The database connection to use for all operations
+     */
+    public AttendanceArchiveDAO(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+    }
+
+
+    // TABLE SETUP
+
+
+    /**
+     * Creates the archive tables if needed
+     * @return true if the archive is available
+     */
+    public boolean ensureTables() {
+        if (tablesReady) {
+            return true;
+        }
+
+        synchronized (AttendanceArchiveDAO.class) {
+            if (tablesReady) {
+                return true;
+            }
+
+            String attendanceArchive = "CREATE TABLE IF NOT EXISTS attendancearchive (" +
+                    "attendanceId INT NOT NULL, " +
+                    "employeeId INT NOT NULL, " +
+                    "date DATE NOT NULL, " +
+                    "timeIn TIME NULL, " +
+                    "timeOut TIME NULL, " +
+                    "PRIMARY KEY (employeeId, date), " +
+                    "INDEX idx_attendancearchive_date (date), " +
+                    "INDEX idx_attendancearchive_id (attendanceId))";
+
+            String[] statements = {
+                "CREATE TABLE IF NOT EXISTS tardinessrecordarchive LIKE tardinessrecord",
+
+                "CREATE TABLE IF NOT EXISTS attendancearchivemanifest (" +
+                    "year SMALLINT NOT NULL, " +
+                    "month TINYINT NOT NULL, " +
+                    "attendanceRows INT NOT NULL, " +
+                    "tardinessRows INT NOT NULL, " +
+                    "employees INT NOT NULL, " +
+                    "firstDate DATE NULL, " +
+                    "lastDate DATE NULL, " +
+                    "archivedAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                    "PRIMARY KEY (year, month))"
+            };
+
+            try (Connection conn = databaseConnection.createConnection();
+                 Statement stmt = conn.createStatement()) {
+
+                try {
+                    stmt.execute(attendanceArchive + " ROW_FORMAT=COMPRESSED");
+                } catch (SQLException e) {
+                    // Compression needs innodb_file_per_table; store uncompressed without it
+                    System.err.println("Compressed attendance archive unavailable, using plain rows: " + e.getMessage());
+                    stmt.execute(attendanceArchive);
+                }
+                for (String sql : statements) {
+                    stmt.execute(sql);
+                }
+                tablesReady = true;
+            } catch (SQLException e) {
+                System.err.println("Error creating attendance archive tables: " + e.getMessage());
+            }
+
+            return tablesReady;
+        }
+    }
+
+
+    // READS - Used by AttendanceDAO, AttendanceRollupDAO and TardinessRecordDAO
+
+
+    /**
+     * Tells whether a range starting at a date reaches an archived month
+     * @param startDate First date of the range (null for all dates)
+     * @return true if the archive must be read as well
+     */
+    public boolean covers(LocalDate startDate) {
+        LocalDate through = getArchivedThrough();
+        return through != null && (startDate == null || !startDate.isAfter(through));
+    }
+
+    /**
+     * @return Last day of the latest archived month, or null if nothing is archived
+     */
+    public LocalDate getArchivedThrough() {
+        if (System.currentTimeMillis() - manifestReadAt < MAX_AGE_MILLIS) {
+            return archivedThrough;
+        }
+
+        synchronized (AttendanceArchiveDAO.class) {
+            if (System.currentTimeMillis() - manifestReadAt < MAX_AGE_MILLIS) {
+                return archivedThrough;
+            }
+            if (!ensureTables()) {
+                return null;
+            }
+
+            try (Connection conn = databaseConnection.createConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT MAX(lastDate) FROM attendancearchivemanifest")) {
+                Date lastDate = rs.next() ? rs.getDate(1) : null;
+                archivedThrough = lastDate != null ? YearMonth.from(lastDate.toLocalDate()).atEndOfMonth() : null;
+                manifestReadAt = System.currentTimeMillis();
+            } catch (SQLException e) {
+                System.err.println("Error reading attendance archive manifest: " + e.getMessage());
+            }
+            return archivedThrough;
+        }
+    }
+
+    /**
+     * Builds a derived table of attendance rows matching a filter
+     * The archive branch skips days that exist again in the attendance table. The filter must use
+     * unqualified column names, and its parameters are bound once per branch, in order.
+     * @param filter WHERE condition on the attendance columns
+     * @param includeArchive Whether to read the archive as well (see covers())
+     * @return "(SELECT ...)" with the columns attendanceId, employeeId, date, timeIn, timeOut
+     */
+    public static String rows(String filter, boolean includeArchive) {
+        String hot = "SELECT " + COLUMNS + " FROM attendance WHERE (" + filter + ")";
+        if (!includeArchive) {
+            return "(" + hot + ")";
+        }
+        return "(" + hot + " UNION ALL " +
+               "SELECT " + COLUMNS + " FROM attendancearchive x WHERE (" + filter + ") " +
+               "AND NOT EXISTS (SELECT 1 FROM attendance h WHERE h.employeeId = x.employeeId AND h.date = x.date))";
+    }
+
+    /**
+     * @return Number of times the filter parameters of rows() must be bound
+     */
+    public static int branches(boolean includeArchive) {
+        return includeArchive ? 2 : 1;
+    }
+
+    /**
+     * Gets the manifest of archived months
+     * @return Archived months, oldest first (empty if nothing is archived or on error)
+     */
+    public List<ArchivedMonth> getManifest() {
+        List<ArchivedMonth> months = new ArrayList<>();
+        if (!ensureTables()) {
+            return months;
+        }
+
+        try (Connection conn = databaseConnection.createConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM attendancearchivemanifest ORDER BY year, month")) {
+            while (rs.next()) {
+                ArchivedMonth month = new ArchivedMonth(YearMonth.of(rs.getInt("year"), rs.getInt("month")));
+                month.setAttendanceRows(rs.getInt("attendanceRows"));
+                month.setTardinessRows(rs.getInt("tardinessRows"));
+                month.setEmployees(rs.getInt("employees"));
+                Date firstDate = rs.getDate("firstDate");
+                month.setFirstDate(firstDate != null ? firstDate.toLocalDate() : null);
+                Date lastDate = rs.getDate("lastDate");
+                month.setLastDate(lastDate != null ? lastDate.toLocalDate() : null);
+                Timestamp archivedAt = rs.getTimestamp("archivedAt");
+                month.setArchivedAt(archivedAt != null ? archivedAt.toLocalDateTime() : null);
+                months.add(month);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading attendance archive manifest: " + e.getMessage());
+        }
+
+        return months;
+    }
+
+
+    // ARCHIVING
+
+
+    /**
+     * Archives every month before a given month that still has rows in the attendance table
+     * Only closed months can be archived, so firstKept is capped at the current month.
+     * @param firstKept First month that stays in the attendance table
+     * @return Number of attendance rows moved, or -1 if a month failed (earlier months stay archived)
+     */
+    public int archiveMonthsBefore(YearMonth firstKept) {
+        if (!ensureTables()) {
+            return -1;
+        }
+
+        YearMonth currentMonth = YearMonth.from(TodayAttendanceIndex.today());
+        YearMonth limit = firstKept.isAfter(currentMonth) ? currentMonth : firstKept;
+
+        List<YearMonth> months = new ArrayList<>();
+        String sql = "SELECT DISTINCT YEAR(date) AS y, MONTH(date) AS m FROM attendance WHERE date < ? ORDER BY y, m";
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(limit.atDay(1)));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    months.add(YearMonth.of(rs.getInt("y"), rs.getInt("m")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finding attendance months to archive: " + e.getMessage());
+            return -1;
+        }
+
+        int moved = 0;
+        for (YearMonth month : months) {
+            int rows = archiveMonth(month);
+            if (rows < 0) {
+                return -1;
+            }
+            moved += rows;
+        }
+        return moved;
+    }
+
+    /**
+     * Moves one month of attendance and its tardiness records into the archive in one transaction
+     * Archived days that were written again in the attendance table are replaced.
+     * @param yearMonth The month to archive
+     * @return Number of attendance rows moved, or -1 if the month was rolled back
+     */
+    public int archiveMonth(YearMonth yearMonth) {
+        if (!ensureTables()) {
+            return -1;
+        }
+        if (!yearMonth.isBefore(YearMonth.from(TodayAttendanceIndex.today()))) {
+            System.err.println("Cannot archive attendance for " + yearMonth + ": the month is not closed");
+            return -1;
+        }
+
+        Date first = Date.valueOf(yearMonth.atDay(1));
+        Date last = Date.valueOf(yearMonth.atEndOfMonth());
+        String hotMonth = "a.date BETWEEN ? AND ?";
+
+        String[] replaceArchived = {
+            "DELETE ta FROM tardinessrecordarchive ta " +
+                "JOIN attendancearchive x ON ta.attendanceId = x.attendanceId " +
+                "JOIN attendance a ON a.employeeId = x.employeeId AND a.date = x.date WHERE " + hotMonth,
+            "DELETE x FROM attendancearchive x " +
+                "JOIN attendance a ON a.employeeId = x.employeeId AND a.date = x.date WHERE " + hotMonth
+        };
+        String copyTardiness = "INSERT INTO tardinessrecordarchive " +
+                "SELECT t.* FROM tardinessrecord t JOIN attendance a ON t.attendanceId = a.attendanceId WHERE " + hotMonth;
+        String copyAttendance = "INSERT INTO attendancearchive (" + COLUMNS + ") " +
+                "SELECT " + COLUMNS + " FROM attendance a WHERE " + hotMonth + " ORDER BY employeeId, date";
+        String deleteTardiness = "DELETE t FROM tardinessrecord t JOIN attendance a ON t.attendanceId = a.attendanceId WHERE " + hotMonth;
+        String deleteAttendance = "DELETE a FROM attendance a WHERE " + hotMonth;
+        String manifest = "INSERT INTO attendancearchivemanifest " +
+                "(year, month, attendanceRows, tardinessRows, employees, firstDate, lastDate) " +
+                "SELECT ?, ?, COUNT(*), " +
+                "(SELECT COUNT(*) FROM tardinessrecordarchive ta JOIN attendancearchive y ON ta.attendanceId = y.attendanceId " +
+                "WHERE y.date BETWEEN ? AND ?), " +
+                "COUNT(DISTINCT employeeId), MIN(date), MAX(date) " +
+                "FROM attendancearchive WHERE date BETWEEN ? AND ? " +
+                "ON DUPLICATE KEY UPDATE attendanceRows = VALUES(attendanceRows), tardinessRows = VALUES(tardinessRows), " +
+                "employees = VALUES(employees), firstDate = VALUES(firstDate), lastDate = VALUES(lastDate), " +
+                "archivedAt = CURRENT_TIMESTAMP";
+
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (String sql : replaceArchived) {
+                    executeForMonth(conn, sql, first, last);
+                }
+                executeForMonth(conn, copyTardiness, first, last);
+                int copied = executeForMonth(conn, copyAttendance, first, last);
+                executeForMonth(conn, deleteTardiness, first, last);
+                int deleted = executeForMonth(conn, deleteAttendance, first, last);
+                if (copied != deleted) {
+                    throw new SQLException("copied " + copied + " rows but deleted " + deleted);
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(manifest)) {
+                    stmt.setInt(1, yearMonth.getYear());
+                    stmt.setInt(2, yearMonth.getMonthValue());
+                    stmt.setDate(3, first);
+                    stmt.setDate(4, last);
+                    stmt.setDate(5, first);
+                    stmt.setDate(6, last);
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+                manifestReadAt = 0;
+                System.out.println("🗄️ Archived " + copied + " attendance rows for " + yearMonth);
+                return copied;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error archiving attendance for " + yearMonth + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private int executeForMonth(Connection conn, String sql, Date first, Date last) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, first);
+            stmt.setDate(2, last);
+            return stmt.executeUpdate();
+        }
+    }
+
+
+    // INNER CLASSES
+
+
+    /**
+     * One month of the archive manifest
+     */
+    public static class ArchivedMonth {
+        private final YearMonth yearMonth;
+        private int attendanceRows;
+        private int tardinessRows;
+        private int employees;
+        private LocalDate firstDate;
+        private LocalDate lastDate;
+        private LocalDateTime archivedAt;
+
+        public ArchivedMonth(YearMonth yearMonth) {
+            this.yearMonth = yearMonth;
+        }
+
+        // Getters and setters
+        public YearMonth getYearMonth() { return yearMonth; }
+
+        public int getAttendanceRows() { return attendanceRows; }
+        public void setAttendanceRows(int attendanceRows) { this.attendanceRows = attendanceRows; }
+
+        public int getTardinessRows() { return tardinessRows; }
+        public void setTardinessRows(int tardinessRows) { this.tardinessRows = tardinessRows; }
+
+        public int getEmployees() { return employees; }
+        public void setEmployees(int employees) { this.employees = employees; }
+
+        public LocalDate getFirstDate() { return firstDate; }
+        public void setFirstDate(LocalDate firstDate) { this.firstDate = firstDate; }
+
+        public LocalDate getLastDate() { return lastDate; }
+        public void setLastDate(LocalDate lastDate) { this.lastDate = lastDate; }
+
+        public LocalDateTime getArchivedAt() { return archivedAt; }
+        public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+
+        @Override
+        public String toString() {
+            return String.format("ArchivedMonth{%s, attendanceRows=%d, tardinessRows=%d, employees=%d}",
+                    yearMonth, attendanceRows, tardinessRows, employees);
+        }
+    }
+}
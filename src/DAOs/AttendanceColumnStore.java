@@ -0,0 +1,400 @@
+package DAOs;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AttendanceColumnStore - Compact in-memory attendance columns for analytics
+ * Analytics over a month or a year used to load List<AttendanceModel>, several boxed objects
+ * per row. This store keeps the same rows as primitive arrays sorted by employee and date:
+ *   - int epoch day, short minute of day for time in and time out (-1 when not set)
+ *   - one byte of flags per row (complete, incomplete, late, late beyond grace, undertime)
+ * About 9 bytes per row, so a year of company-wide attendance is a few MB, and range
+ * operators (counts, sums, percentiles) scan the arrays directly.
+ * Times are compared at minute resolution, as TIMESTAMPDIFF(MINUTE, ...) does.
+ * A store is a snapshot; forYear() keeps one per year for at most MAX_AGE_MILLIS, and
+ * AttendanceDAO drops a cached year through invalidate() whenever it writes a row in it.
+ * @author User
+ */
+public final class AttendanceColumnStore {
+
+    // Row flags
+    public static final int FLAG_COMPLETE = 1;
+    public static final int FLAG_INCOMPLETE = 1 << 1;
+    public static final int FLAG_LATE = 1 << 2;
+    public static final int FLAG_LATE_BEYOND_GRACE = 1 << 3;
+    public static final int FLAG_UNDERTIME = 1 << 4;
+
+    /**
+     * Per-row values the sum and percentile operators work on
+     */
+    public enum Measure {
+        MINUTES_WORKED,     // complete rows only
+        LATE_MINUTES,       // rows with a time in
+        UNDERTIME_MINUTES,  // rows with a time out
+        TIME_IN_MINUTE,     // minute of day, rows with a time in
+        TIME_OUT_MINUTE     // minute of day, rows with a time out
+    }
+
+    // Reload a cached year at least this often
+    private static final long MAX_AGE_MILLIS = 5 * 60 * 1000;
+
+    private static final int START_MINUTE = AttendanceRollupDAO.STANDARD_START_TIME.toSecondOfDay() / 60;
+    private static final int END_MINUTE = AttendanceRollupDAO.STANDARD_END_TIME.toSecondOfDay() / 60;
+
+    private static final Map<Integer, AttendanceColumnStore> YEARS = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation, so a load that overlaps a write is not kept
+    private static long generation = 0;
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final long loadedAt = System.currentTimeMillis();
+
+    // Employee index: rows of employeeIds[i] are offsets[i] until offsets[i + 1]
+    private final int[] employeeIds;
+    private final int[] offsets;
+
+    // Row columns
+    private final int[] epochDays;
+    private final short[] inMinutes;
+    private final short[] outMinutes;
+    private final byte[] flags;
+
+    private AttendanceColumnStore(LocalDate startDate, LocalDate endDate, Builder builder) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.employeeIds = Arrays.copyOf(builder.employeeIds, builder.employeeCount);
+        this.offsets = Arrays.copyOf(builder.offsets, builder.employeeCount + 1);
+        this.offsets[builder.employeeCount] = builder.rowCount;
+        this.epochDays = Arrays.copyOf(builder.epochDays, builder.rowCount);
+        this.inMinutes = Arrays.copyOf(builder.inMinutes, builder.rowCount);
+        this.outMinutes = Arrays.copyOf(builder.outMinutes, builder.rowCount);
+        this.flags = Arrays.copyOf(builder.flags, builder.rowCount);
+    }
+
+
+    // LOADING
+
+
+    /**
+     * Loads a date range by streaming it from the attendance table
+     * @param attendanceDAO DAO to read with
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (inclusive)
+     * @return The store, or null if the attendance could not be read
+     */
+    public static AttendanceColumnStore load(AttendanceDAO attendanceDAO, LocalDate startDate, LocalDate endDate) {
+        Builder builder = new Builder();
+        if (attendanceDAO.streamAttendanceColumns(startDate, endDate, builder::add) < 0) {
+            return null;
+        }
+        return new AttendanceColumnStore(startDate, endDate, builder);
+    }
+
+    /**
+     * Gets a whole year, reusing a recent load
+     * @param attendanceDAO DAO to read with
+     * @param year The year
+     * @return The store, or null if the attendance could not be read
+     */
+    public static AttendanceColumnStore forYear(AttendanceDAO attendanceDAO, int year) {
+        AttendanceColumnStore cached = YEARS.get(year);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < MAX_AGE_MILLIS) {
+            return cached;
+        }
+
+        long loadGeneration;
+        synchronized (AttendanceColumnStore.class) {
+            loadGeneration = generation;
+        }
+        AttendanceColumnStore loaded = load(attendanceDAO, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+        synchronized (AttendanceColumnStore.class) {
+            if (loaded != null && generation == loadGeneration) {
+                YEARS.put(year, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the cached years a date range touches; the next forYear() for them reloads
+     * @param from First written date (inclusive)
+     * @param to Last written date (inclusive)
+     */
+    public static synchronized void invalidate(LocalDate from, LocalDate to) {
+        generation++;
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            YEARS.remove(year);
+        }
+    }
+
+    /**
+     * Drops the cached years; the next forYear() reloads
+     */
+    public static synchronized void invalidateCache() {
+        generation++;
+        YEARS.clear();
+    }
+
+
+    // QUERY OPERATORS
+
+
+    /**
+     * Counts rows in a date range that have all the given flags
+     * @param employeeId The employee (null for all employees)
+     * @param from Start date (inclusive)
+     * @param to End date (inclusive)
+     * @param flagMask Flags every counted row must have (0 counts all rows)
+     * @return Number of matching rows
+     */
+    public int count(Integer employeeId, LocalDate from, LocalDate to, int flagMask) {
+        int count = 0;
+        for (int e = firstEmployee(employeeId); e < lastEmployee(employeeId); e++) {
+            int end = upperBound(e, to);
+            for (int row = lowerBound(e, from); row < end; row++) {
+                if ((flags[row] & flagMask) == flagMask) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts rows in a date range that have any of the given flags
+     */
+    public int countAny(Integer employeeId, LocalDate from, LocalDate to, int flagMask) {
+        int count = 0;
+        for (int e = firstEmployee(employeeId); e < lastEmployee(employeeId); e++) {
+            int end = upperBound(e, to);
+            for (int row = lowerBound(e, from); row < end; row++) {
+                if ((flags[row] & flagMask) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sums a measure over a date range
+     * @param employeeId The employee (null for all employees)
+     * @param from Start date (inclusive)
+     * @param to End date (inclusive)
+     * @param measure What to sum
+     * @return The sum over rows where the measure is defined
+     */
+    public long sum(Integer employeeId, LocalDate from, LocalDate to, Measure measure) {
+        long sum = 0;
+        for (int e = firstEmployee(employeeId); e < lastEmployee(employeeId); e++) {
+            int end = upperBound(e, to);
+            for (int row = lowerBound(e, from); row < end; row++) {
+                int value = value(row, measure);
+                if (value >= 0) {
+                    sum += value;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Gets a percentile of a measure over a date range (nearest rank)
+     * @param employeeId The employee (null for all employees)
+     * @param from Start date (inclusive)
+     * @param to End date (inclusive)
+     * @param measure The measure
+     * @param percentile Between 0 and 100 (50 is the median)
+     * @return The value, or -1 if no row has the measure
+     */
+    public int percentile(Integer employeeId, LocalDate from, LocalDate to, Measure measure, double percentile) {
+        int[] values = new int[16];
+        int size = 0;
+        for (int e = firstEmployee(employeeId); e < lastEmployee(employeeId); e++) {
+            int end = upperBound(e, to);
+            for (int row = lowerBound(e, from); row < end; row++) {
+                int value = value(row, measure);
+                if (value >= 0) {
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    values[size++] = value;
+                }
+            }
+        }
+        if (size == 0) {
+            return -1;
+        }
+
+        Arrays.sort(values, 0, size);
+        int rank = (int) Math.ceil(Math.max(0.0, Math.min(100.0, percentile)) / 100.0 * size);
+        return values[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * @return Employees with at least one row, in ascending order
+     */
+    public int[] getEmployeeIds() {
+        return employeeIds.clone();
+    }
+
+    /**
+     * @return Number of rows held
+     */
+    public int size() {
+        return epochDays.length;
+    }
+
+    /**
+     * @return Approximate heap used by the columns, in bytes
+     */
+    public long estimatedBytes() {
+        return (long) epochDays.length * (Integer.BYTES + 2 * Short.BYTES + Byte.BYTES)
+             + (long) employeeIds.length * 2 * Integer.BYTES;
+    }
+
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+
+
+    // HELPER METHODS
+
+
+    private int value(int row, Measure measure) {
+        int in = inMinutes[row];
+        int out = outMinutes[row];
+        switch (measure) {
+            case MINUTES_WORKED:
+                return in >= 0 && out >= 0 ? out - in : -1;
+            case LATE_MINUTES:
+                return in >= 0 ? Math.max(0, in - START_MINUTE) : -1;
+            case UNDERTIME_MINUTES:
+                return out >= 0 ? Math.max(0, END_MINUTE - out) : -1;
+            case TIME_IN_MINUTE:
+                return in;
+            case TIME_OUT_MINUTE:
+                return out;
+            default:
+                return -1;
+        }
+    }
+
+    private int firstEmployee(Integer employeeId) {
+        if (employeeId == null) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(employeeIds, employeeId);
+        return index >= 0 ? index : employeeIds.length;
+    }
+
+    private int lastEmployee(Integer employeeId) {
+        if (employeeId == null) {
+            return employeeIds.length;
+        }
+        int index = Arrays.binarySearch(employeeIds, employeeId);
+        return index >= 0 ? index + 1 : employeeIds.length;
+    }
+
+    /**
+     * First row of an employee on or after a date
+     */
+    private int lowerBound(int employee, LocalDate from) {
+        int day = (int) from.toEpochDay();
+        int low = offsets[employee];
+        int high = offsets[employee + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First row of an employee after a date
+     */
+    private int upperBound(int employee, LocalDate to) {
+        int day = (int) to.toEpochDay();
+        int low = offsets[employee];
+        int high = offsets[employee + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static byte flagsFor(int inMinute, int outMinute) {
+        int rowFlags = 0;
+        if (inMinute >= 0 && outMinute >= 0) {
+            rowFlags |= FLAG_COMPLETE;
+        } else if (inMinute >= 0) {
+            rowFlags |= FLAG_INCOMPLETE;
+        }
+        if (inMinute > START_MINUTE) {
+            rowFlags |= FLAG_LATE;
+            if (inMinute - START_MINUTE > AttendanceRollupDAO.GRACE_PERIOD_MINUTES) {
+                rowFlags |= FLAG_LATE_BEYOND_GRACE;
+            }
+        }
+        if (outMinute >= 0 && outMinute < END_MINUTE) {
+            rowFlags |= FLAG_UNDERTIME;
+        }
+        return (byte) rowFlags;
+    }
+
+
+    // INNER CLASSES
+
+
+    /**
+     * Growable columns filled while streaming rows ordered by employee and date
+     */
+    private static class Builder {
+        private int[] employeeIds = new int[64];
+        private int[] offsets = new int[65];
+        private int employeeCount = 0;
+
+        private int[] epochDays = new int[1024];
+        private short[] inMinutes = new short[1024];
+        private short[] outMinutes = new short[1024];
+        private byte[] flags = new byte[1024];
+        private int rowCount = 0;
+
+        void add(int employeeId, int epochDay, int inMinute, int outMinute) {
+            if (employeeCount == 0 || employeeIds[employeeCount - 1] != employeeId) {
+                if (employeeCount == employeeIds.length) {
+                    employeeIds = Arrays.copyOf(employeeIds, employeeCount * 2);
+                    offsets = Arrays.copyOf(offsets, employeeCount * 2 + 1);
+                }
+                employeeIds[employeeCount] = employeeId;
+                offsets[employeeCount] = rowCount;
+                employeeCount++;
+            }
+
+            if (rowCount == epochDays.length) {
+                int capacity = rowCount * 2;
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                inMinutes = Arrays.copyOf(inMinutes, capacity);
+                outMinutes = Arrays.copyOf(outMinutes, capacity);
+                flags = Arrays.copyOf(flags, capacity);
+            }
+            epochDays[rowCount] = epochDay;
+            inMinutes[rowCount] = (short) inMinute;
+            outMinutes[rowCount] = (short) outMinute;
+            flags[rowCount] = flagsFor(inMinute, outMinute);
+            rowCount++;
+        }
+    }
+}
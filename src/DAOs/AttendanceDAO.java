@@ -6,7 +6,16 @@ import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for AttendanceModel entities.
@@ -22,8 +31,22 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
      */
     public AttendanceDAO(DatabaseConnection databaseConnection) {
         super(databaseConnection);
+        this.rollupDAO = new AttendanceRollupDAO(databaseConnection);
+        this.archiveDAO = new AttendanceArchiveDAO(databaseConnection);
     }
     
+    // Daily and monthly totals, refreshed after every write
+    private final AttendanceRollupDAO rollupDAO;
+    
+    // Closed months moved out of the attendance table, read along with it when a range reaches them
+    private final AttendanceArchiveDAO archiveDAO;
+    
+    // Name of the unique (employeeId, date) key the single-statement punches rely on
+    private static final String UNIQUE_KEY = "uk_attendance_employee_date";
+    
+    // Set once the unique key is known to exist; null until checked
+    private static volatile Boolean uniqueKeyReady = null;
+    
 
     // ABSTRACT METHOD IMPLEMENTATIONS - Required by BaseDAO
 
@@ -196,11 +219,22 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
     /**
      * Finds an attendance record by employee ID and date
      * This is useful for checking if an employee has already marked attendance for a specific date
+     * A date in an archived month is read from the attendance archive
      * @param employeeId The employee ID to search for
      * @param date The date to search for
      * @return The AttendanceModel if found, null if not found
      */
     public AttendanceModel findByEmployeeAndDate(Integer employeeId, LocalDate date) {
+        List<AttendanceModel> found = queryRows("employeeId = ? AND date = ?", archiveDAO.covers(date), "",
+                                                employeeId, Date.valueOf(date));
+        return found.isEmpty() ? null : found.get(0);
+    }
+    
+    /**
+     * Finds the attendance table row of an employee and date, ignoring the archive
+     * Write paths update rows by attendanceId, which only works on the attendance table
+     */
+    private AttendanceModel findHotByEmployeeAndDate(Integer employeeId, LocalDate date) {
         String sql = "SELECT * FROM attendance WHERE employeeId = ? AND date = ?";
         return executeSingleQuery(sql, employeeId, Date.valueOf(date));
     }
@@ -213,17 +247,25 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
      * @return The total hours worked as BigDecimal
      */
     public BigDecimal calculateMonthlyHours(Integer employeeId, YearMonth yearMonth) {
+        AttendanceStatistics rollup = rollupDAO.getMonthlyStatistics(employeeId, yearMonth);
+        if (rollup != null) {
+            return rollup.getTotalHours();
+        }
+        
+        boolean archived = archiveDAO.covers(yearMonth.atDay(1));
         String sql = "SELECT SUM(TIMESTAMPDIFF(MINUTE, timeIn, timeOut)) as totalMinutes " +
-                    "FROM attendance " +
-                    "WHERE employeeId = ? AND YEAR(date) = ? AND MONTH(date) = ? " +
-                    "AND timeIn IS NOT NULL AND timeOut IS NOT NULL";
+                    "FROM " + AttendanceArchiveDAO.rows("employeeId = ? AND YEAR(date) = ? AND MONTH(date) = ? " +
+                    "AND timeIn IS NOT NULL AND timeOut IS NOT NULL", archived) + " a";
         
         try (Connection conn = databaseConnection.createConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, employeeId);
-            stmt.setInt(2, yearMonth.getYear());
-            stmt.setInt(3, yearMonth.getMonthValue());
+            int paramIndex = 1;
+            for (int branch = 0; branch < AttendanceArchiveDAO.branches(archived); branch++) {
+                stmt.setInt(paramIndex++, employeeId);
+                stmt.setInt(paramIndex++, yearMonth.getYear());
+                stmt.setInt(paramIndex++, yearMonth.getMonthValue());
+            }
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -246,14 +288,101 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
     /**
      * Gets the attendance history for an employee within a date range
      * This is useful for generating attendance reports
+     * Archived months in the range are read from the attendance archive
      * @param employeeId The employee ID
      * @param startDate The start date of the range
      * @param endDate The end date of the range
      * @return List of attendance records within the date range
      */
     public List<AttendanceModel> getAttendanceHistory(Integer employeeId, LocalDate startDate, LocalDate endDate) {
-        String sql = "SELECT * FROM attendance WHERE employeeId = ? AND date BETWEEN ? AND ? ORDER BY date DESC";
-        return executeQuery(sql, employeeId, Date.valueOf(startDate), Date.valueOf(endDate));
+        if (!archiveDAO.covers(startDate)) {
+            String sql = "SELECT * FROM attendance WHERE employeeId = ? AND date BETWEEN ? AND ? ORDER BY date DESC";
+            return executeQuery(sql, employeeId, Date.valueOf(startDate), Date.valueOf(endDate));
+        }
+        
+        String sql = "SELECT * FROM " + AttendanceArchiveDAO.rows("employeeId = ? AND date BETWEEN ? AND ?", true) +
+                    " a ORDER BY date DESC";
+        return executeQuery(sql, employeeId, Date.valueOf(startDate), Date.valueOf(endDate),
+                            employeeId, Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+    
+    /**
+     * Streams every attendance record in a date range, ordered by employee and date
+     * Rows are handed to the consumer one at a time as MySQL sends them, so a full year
+     * of company attendance can be processed without holding it all in memory
+     * @param startDate The start date of the range
+     * @param endDate The end date of the range
+     * @param consumer Receives each attendance record in (employeeId, date) order
+     * @return Number of records streamed
+     */
+    public int streamAttendanceForRange(LocalDate startDate, LocalDate endDate, Consumer<AttendanceModel> consumer) {
+        boolean archived = archiveDAO.covers(startDate);
+        String sql = "SELECT * FROM " + AttendanceArchiveDAO.rows("date BETWEEN ? AND ?", archived) +
+                    " a ORDER BY employeeId, date";
+        int count = 0;
+        
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            // Integer.MIN_VALUE tells the MySQL driver to stream rows instead of buffering the result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            setDateRange(stmt, startDate, endDate, archived);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapResultSetToEntity(rs));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error streaming attendance records: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Streams attendance in a date range as primitive columns, without creating objects per row
+     * Dates are given as epoch days and times as minute of day (-1 when not set).
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (inclusive)
+     * @param visitor Receives each row, ordered by employeeId and date
+     * @return Number of rows streamed, or -1 if the query failed
+     */
+    public int streamAttendanceColumns(LocalDate startDate, LocalDate endDate, AttendanceColumnVisitor visitor) {
+        boolean archived = archiveDAO.covers(startDate);
+        String sql = "SELECT employeeId, DATEDIFF(date, '1970-01-01') AS epochDay, " +
+                    "TIME_TO_SEC(timeIn) DIV 60 AS inMinute, TIME_TO_SEC(timeOut) DIV 60 AS outMinute " +
+                    "FROM " + AttendanceArchiveDAO.rows("date BETWEEN ? AND ?", archived) + " a ORDER BY employeeId, date";
+        int count = 0;
+        
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            setDateRange(stmt, startDate, endDate, archived);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int inMinute = rs.getInt("inMinute");
+                    if (rs.wasNull()) {
+                        inMinute = -1;
+                    }
+                    int outMinute = rs.getInt("outMinute");
+                    if (rs.wasNull()) {
+                        outMinute = -1;
+                    }
+                    visitor.visit(rs.getInt("employeeId"), rs.getInt("epochDay"), inMinute, outMinute);
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error streaming attendance columns: " + e.getMessage());
+            return -1;
+        }
+        
+        return count;
     }
     
     /**
@@ -266,39 +395,21 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
      * @return true if attendance was successfully marked, false otherwise
      */
     public boolean markAttendance(Integer employeeId, LocalDate date, LocalTime timeIn, LocalTime timeOut) {
-        // First, check if attendance record already exists for this employee and date
-        AttendanceModel existingRecord = findByEmployeeAndDate(employeeId, date);
-        
-        if (existingRecord != null) {
-            // Update existing record
-            if (timeIn != null) {
-                existingRecord.setTimeIn(timeIn);
-            }
-            if (timeOut != null) {
-                existingRecord.setTimeOut(timeOut);
-            }
-            return update(existingRecord);
-        } else {
-            // Create new record
-            AttendanceModel newRecord = new AttendanceModel();
-            newRecord.setEmployeeId(employeeId);
-            newRecord.setDate(date);
-            newRecord.setTimeIn(timeIn);
-            newRecord.setTimeOut(timeOut);
-            return save(newRecord);
-        }
+        return upsertAttendance(employeeId, date, timeIn, timeOut) != null;
     }
     
     /**
      * Marks time in for an employee
-     * Convenience method for marking time in only
+     * Convenience method for marking time in only. A time in already on the row is kept,
+     * so when two terminals punch at once only the first one counts.
      * @param employeeId The employee ID
      * @param date The date
      * @param timeIn The time in
-     * @return true if successful, false otherwise
+     * @return true if this punch set the time in, false otherwise
      */
     public boolean markTimeIn(Integer employeeId, LocalDate date, LocalTime timeIn) {
-        return markAttendance(employeeId, date, timeIn, null);
+        AttendanceModel row = upsertTimeIn(employeeId, date, timeIn);
+        return row != null && row.getTimeIn() != null && row.getTimeIn().withNano(0).equals(timeIn.withNano(0));
     }
     
     /**
@@ -310,41 +421,210 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
      * @return true if successful, false otherwise
      */
     public boolean markTimeOut(Integer employeeId, LocalDate date, LocalTime timeOut) {
-        return markAttendance(employeeId, date, null, timeOut);
+        return upsertAttendance(employeeId, date, null, timeOut) != null;
+    }
+    
+
+    // SINGLE-STATEMENT PUNCHES - INSERT ... ON DUPLICATE KEY UPDATE on (employeeId, date)
+
+    
+    /**
+     * Writes an employee's attendance for a date with one statement and returns the resulting row
+     * Creates the row if there is none, otherwise sets the given times; null times are left as they are.
+     * @param employeeId The employee ID
+     * @param date The date of attendance
+     * @param timeIn The time in (null to keep the current one)
+     * @param timeOut The time out (null to keep the current one)
+     * @return The attendance row after the write, or null if it failed
+     */
+    public AttendanceModel upsertAttendance(Integer employeeId, LocalDate date, LocalTime timeIn, LocalTime timeOut) {
+        return upsert(employeeId, date, timeIn, timeOut, "COALESCE(VALUES(timeIn), timeIn)");
+    }
+    
+    /**
+     * Writes an employee's time in for a date unless the row already has one
+     * @param employeeId The employee ID
+     * @param date The date of attendance
+     * @param timeIn The time in
+     * @return The attendance row after the write (its time in is the earlier punch if there was one),
+     *         or null if it failed
+     */
+    public AttendanceModel upsertTimeIn(Integer employeeId, LocalDate date, LocalTime timeIn) {
+        return upsert(employeeId, date, timeIn, null, "COALESCE(timeIn, VALUES(timeIn))");
+    }
+    
+    /**
+     * Runs the upsert and reads the row back by primary key on the same connection
+     * LAST_INSERT_ID(attendanceId) makes the generated key the row's ID on update as well as insert.
+     */
+    private AttendanceModel upsert(Integer employeeId, LocalDate date, LocalTime timeIn, LocalTime timeOut,
+                                   String timeInAssignment) {
+        if (!ensureUniqueKey()) {
+            return checkThenWrite(employeeId, date, timeIn, timeOut, timeInAssignment.startsWith("COALESCE(timeIn"));
+        }
+        
+        String sql = buildInsertSQL() + " ON DUPLICATE KEY UPDATE " +
+                    "attendanceId = LAST_INSERT_ID(attendanceId), " +
+                    "timeIn = " + timeInAssignment + ", " +
+                    "timeOut = COALESCE(VALUES(timeOut), timeOut)";
+        
+        AttendanceModel punch = new AttendanceModel();
+        punch.setEmployeeId(employeeId);
+        punch.setDate(date);
+        punch.setTimeIn(timeIn);
+        punch.setTimeOut(timeOut);
+        
+        rollupDAO.ensureTables();
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Integer attendanceId = null;
+                try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    setInsertParameters(stmt, punch);
+                    stmt.executeUpdate();
+                    try (ResultSet keys = stmt.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            attendanceId = keys.getInt(1);
+                        }
+                    }
+                }
+                
+                AttendanceModel row = null;
+                if (attendanceId != null) {
+                    try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM attendance WHERE attendanceId = ?")) {
+                        stmt.setInt(1, attendanceId);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            if (rs.next()) {
+                                row = mapResultSetToEntity(rs);
+                            }
+                        }
+                    }
+                }
+                if (row == null) {
+                    conn.rollback();
+                    return null;
+                }
+                
+                rollupDAO.refresh(conn, row.getEmployeeId(), row.getDate());
+                conn.commit();
+                afterWrite(row);
+                return row;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error writing attendance for employee " + employeeId + ": " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Adds the unique (employeeId, date) key if it is missing
+     * Fails while duplicate rows exist; those have to be merged by hand first, and until then
+     * punches use the older check-then-write path.
+     * @return true if the key exists
+     */
+    public boolean ensureUniqueKey() {
+        Boolean ready = uniqueKeyReady;
+        if (ready != null) {
+            return ready;
+        }
+        
+        synchronized (AttendanceDAO.class) {
+            if (uniqueKeyReady != null) {
+                return uniqueKeyReady;
+            }
+            
+            String checkSql = "SELECT COUNT(*) FROM information_schema.STATISTICS " +
+                             "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'attendance' AND INDEX_NAME = ?";
+            
+            try (Connection conn = databaseConnection.createConnection()) {
+                boolean exists;
+                try (PreparedStatement stmt = conn.prepareStatement(checkSql)) {
+                    stmt.setString(1, UNIQUE_KEY);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        exists = rs.next() && rs.getInt(1) > 0;
+                    }
+                }
+                if (!exists) {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute("ALTER TABLE attendance ADD UNIQUE KEY " + UNIQUE_KEY + " (employeeId, date)");
+                    }
+                }
+                uniqueKeyReady = true;
+            } catch (SQLException e) {
+                System.err.println("Error adding unique (employeeId, date) key to attendance " +
+                                   "(merge duplicate rows first): " + e.getMessage());
+                uniqueKeyReady = false;
+            }
+            return uniqueKeyReady;
+        }
+    }
+    
+    /**
+     * Check-then-write path for databases without the unique key
+     */
+    private AttendanceModel checkThenWrite(Integer employeeId, LocalDate date, LocalTime timeIn, LocalTime timeOut,
+                                           boolean keepExistingTimeIn) {
+        // First, check if attendance record already exists for this employee and date
+        AttendanceModel existingRecord = findHotByEmployeeAndDate(employeeId, date);
+        
+        if (existingRecord != null) {
+            // Update existing record
+            if (timeIn != null && !(keepExistingTimeIn && existingRecord.getTimeIn() != null)) {
+                existingRecord.setTimeIn(timeIn);
+            }
+            if (timeOut != null) {
+                existingRecord.setTimeOut(timeOut);
+            }
+            return update(existingRecord) ? existingRecord : null;
+        } else {
+            // Create new record
+            AttendanceModel newRecord = new AttendanceModel();
+            newRecord.setEmployeeId(employeeId);
+            newRecord.setDate(date);
+            newRecord.setTimeIn(timeIn);
+            newRecord.setTimeOut(timeOut);
+            return save(newRecord) ? newRecord : null;
+        }
     }
     
     /**
      * Gets all attendance records for a specific employee
      * This is useful for employee-specific reports
+     * Archived months are read from the attendance archive
      * @param employeeId The employee ID
      * @return List of all attendance records for the employee
      */
     public List<AttendanceModel> getAttendanceByEmployee(Integer employeeId) {
-        String sql = "SELECT * FROM attendance WHERE employeeId = ? ORDER BY date DESC";
-        return executeQuery(sql, employeeId);
+        return queryRows("employeeId = ?", archiveDAO.covers(null), " ORDER BY date DESC", employeeId);
     }
     
     /**
      * Gets all attendance records for a specific date
      * This is useful for daily attendance reports
+     * A date in an archived month is read from the attendance archive
      * @param date The date to search for
      * @return List of attendance records for the specified date
      */
     public List<AttendanceModel> getAttendanceByDate(LocalDate date) {
-        String sql = "SELECT * FROM attendance WHERE date = ? ORDER BY employeeId";
-        return executeQuery(sql, Date.valueOf(date));
+        return queryRows("date = ?", archiveDAO.covers(date), " ORDER BY employeeId", Date.valueOf(date));
     }
     
     /**
      * Gets attendance records for employees who haven't marked time out
      * This is useful for finding employees who are still "clocked in"
+     * A date in an archived month is read from the attendance archive
      * @param date The date to check (optional, uses current date if null)
      * @return List of attendance records without time out
      */
     public List<AttendanceModel> getIncompleteAttendance(LocalDate date) {
         LocalDate searchDate = date != null ? date : LocalDate.now();
-        String sql = "SELECT * FROM attendance WHERE date = ? AND timeIn IS NOT NULL AND timeOut IS NULL";
-        return executeQuery(sql, Date.valueOf(searchDate));
+        return queryRows("date = ? AND timeIn IS NOT NULL AND timeOut IS NULL", archiveDAO.covers(searchDate), "",
+                         Date.valueOf(searchDate));
     }
     
     /**
@@ -355,33 +635,56 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
      * @return List of attendance records where time in is after standard start time
      */
     public List<AttendanceModel> getLateAttendance(LocalDate date, LocalTime standardStartTime) {
-        String sql = "SELECT * FROM attendance WHERE date = ? AND timeIn > ?";
-        return executeQuery(sql, Date.valueOf(date), Time.valueOf(standardStartTime));
+        return queryRows("date = ? AND timeIn > ?", archiveDAO.covers(date), "",
+                         Date.valueOf(date), Time.valueOf(standardStartTime));
+    }
+    
+    /**
+     * Reads attendance rows through AttendanceArchiveDAO.rows(), binding the filter parameters
+     * once per branch
+     */
+    private List<AttendanceModel> queryRows(String filter, boolean archived, String orderBy, Object... params) {
+        String sql = "SELECT * FROM " + AttendanceArchiveDAO.rows(filter, archived) + " a" + orderBy;
+        int branches = AttendanceArchiveDAO.branches(archived);
+        Object[] bound = new Object[params.length * branches];
+        for (int branch = 0; branch < branches; branch++) {
+            System.arraycopy(params, 0, bound, branch * params.length, params.length);
+        }
+        return executeQuery(sql, bound);
     }
     
     /**
      * Gets attendance statistics for an employee in a specific month
      * This returns various statistics like total days worked, total hours, etc.
+     * Read from the monthly rollup; falls back to the attendance rows if rollups are unavailable
      * @param employeeId The employee ID
      * @param yearMonth The year and month
      * @return AttendanceStatistics object containing various metrics
      */
     public AttendanceStatistics getMonthlyAttendanceStatistics(Integer employeeId, YearMonth yearMonth) {
+        AttendanceStatistics rollup = rollupDAO.getMonthlyStatistics(employeeId, yearMonth);
+        if (rollup != null) {
+            return rollup;
+        }
+        
+        boolean archived = archiveDAO.covers(yearMonth.atDay(1));
         String sql = "SELECT " +
                     "COUNT(*) as totalDays, " +
                     "COUNT(CASE WHEN timeIn IS NOT NULL AND timeOut IS NOT NULL THEN 1 END) as completeDays, " +
                     "COUNT(CASE WHEN timeIn IS NOT NULL AND timeOut IS NULL THEN 1 END) as incompleteDays, " +
                     "SUM(CASE WHEN timeIn IS NOT NULL AND timeOut IS NOT NULL " +
                     "THEN TIMESTAMPDIFF(MINUTE, timeIn, timeOut) ELSE 0 END) as totalMinutes " +
-                    "FROM attendance " +
-                    "WHERE employeeId = ? AND YEAR(date) = ? AND MONTH(date) = ?";
+                    "FROM " + AttendanceArchiveDAO.rows("employeeId = ? AND YEAR(date) = ? AND MONTH(date) = ?", archived) + " a";
         
         try (Connection conn = databaseConnection.createConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, employeeId);
-            stmt.setInt(2, yearMonth.getYear());
-            stmt.setInt(3, yearMonth.getMonthValue());
+            int paramIndex = 1;
+            for (int branch = 0; branch < AttendanceArchiveDAO.branches(archived); branch++) {
+                stmt.setInt(paramIndex++, employeeId);
+                stmt.setInt(paramIndex++, yearMonth.getYear());
+                stmt.setInt(paramIndex++, yearMonth.getMonthValue());
+            }
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -409,42 +712,439 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
     }
     
     /**
-     * Deletes attendance records older than a specified number of days
-     * This is useful for data cleanup and archiving
-     * @param daysToKeep Number of days to keep (records older than this will be deleted)
-     * @return Number of records deleted
+     * Gets the month's attendance and tardiness totals of every active employee with one query
+     * Attendance comes from the monthly rollup (or is grouped from the attendance rows if rollups
+     * are unavailable) and tardiness is grouped from tardinessrecord by creation date, the same
+     * month window TardinessRecordDAO.getTardinessRecordsForMonth uses.
+     * @param yearMonth The year and month
+     * @return One row per active employee (zeros if no attendance), ordered by employee ID
+     */
+    public List<MonthlyAttendanceRow> getMonthlyAttendanceForActiveEmployees(YearMonth yearMonth) {
+        boolean useRollup = rollupDAO.ensureTables();
+        boolean archived = archiveDAO.covers(yearMonth.atDay(1));
+        String attendanceTotals = useRollup
+            ? "SELECT employeeId, totalDays, completeDays, incompleteDays, minutesWorked " +
+              "FROM attendancemonthlyrollup WHERE year = ? AND month = ?"
+            : "SELECT employeeId, COUNT(*) AS totalDays, " +
+              "SUM(CASE WHEN timeIn IS NOT NULL AND timeOut IS NOT NULL THEN 1 ELSE 0 END) AS completeDays, " +
+              "SUM(CASE WHEN timeIn IS NOT NULL AND timeOut IS NULL THEN 1 ELSE 0 END) AS incompleteDays, " +
+              "SUM(CASE WHEN timeIn IS NOT NULL AND timeOut IS NOT NULL " +
+              "THEN TIMESTAMPDIFF(MINUTE, timeIn, timeOut) ELSE 0 END) AS minutesWorked " +
+              "FROM " + AttendanceArchiveDAO.rows("date BETWEEN ? AND ?", archived) + " a GROUP BY employeeId";
+        String tardiness = "SELECT a.employeeId, t.tardinessType, t.tardinessHours " +
+                          "FROM tardinessrecord t JOIN attendance a ON t.attendanceId = a.attendanceId " +
+                          "WHERE t.createdAt BETWEEN ? AND ?" +
+                          (archived
+                              ? " UNION ALL SELECT a.employeeId, t.tardinessType, t.tardinessHours " +
+                                "FROM tardinessrecordarchive t JOIN attendancearchive a ON t.attendanceId = a.attendanceId " +
+                                "WHERE t.createdAt BETWEEN ? AND ?"
+                              : "");
+        
+        String sql = "SELECT e.employeeId, e.firstName, e.lastName, " +
+                    "COALESCE(m.totalDays, 0) AS totalDays, COALESCE(m.completeDays, 0) AS completeDays, " +
+                    "COALESCE(m.incompleteDays, 0) AS incompleteDays, COALESCE(m.minutesWorked, 0) AS minutesWorked, " +
+                    "COALESCE(t.lateInstances, 0) AS lateInstances, COALESCE(t.undertimeInstances, 0) AS undertimeInstances, " +
+                    "COALESCE(t.lateHours, 0) AS lateHours " +
+                    "FROM employee e " +
+                    "LEFT JOIN (" + attendanceTotals + ") m ON m.employeeId = e.employeeId " +
+                    "LEFT JOIN (" +
+                        "SELECT employeeId, " +
+                        "SUM(CASE WHEN tardinessType = 'Late' THEN 1 ELSE 0 END) AS lateInstances, " +
+                        "SUM(CASE WHEN tardinessType = 'Undertime' THEN 1 ELSE 0 END) AS undertimeInstances, " +
+                        "SUM(CASE WHEN tardinessType = 'Late' THEN tardinessHours ELSE 0 END) AS lateHours " +
+                        "FROM (" + tardiness + ") tr GROUP BY employeeId" +
+                    ") t ON t.employeeId = e.employeeId " +
+                    "WHERE e.status != 'Terminated' " +
+                    "ORDER BY e.employeeId";
+        
+        List<MonthlyAttendanceRow> rows = new ArrayList<>();
+        
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int paramIndex = 1;
+            if (useRollup) {
+                stmt.setInt(paramIndex++, yearMonth.getYear());
+                stmt.setInt(paramIndex++, yearMonth.getMonthValue());
+            } else {
+                for (int branch = 0; branch < AttendanceArchiveDAO.branches(archived); branch++) {
+                    stmt.setDate(paramIndex++, Date.valueOf(yearMonth.atDay(1)));
+                    stmt.setDate(paramIndex++, Date.valueOf(yearMonth.atEndOfMonth()));
+                }
+            }
+            for (int branch = 0; branch < AttendanceArchiveDAO.branches(archived); branch++) {
+                stmt.setTimestamp(paramIndex++, Timestamp.valueOf(yearMonth.atDay(1).atStartOfDay()));
+                stmt.setTimestamp(paramIndex++, Timestamp.valueOf(yearMonth.atEndOfMonth().atTime(23, 59, 59)));
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    AttendanceStatistics stats = new AttendanceStatistics();
+                    stats.setTotalDays(rs.getInt("totalDays"));
+                    stats.setCompleteDays(rs.getInt("completeDays"));
+                    stats.setIncompleteDays(rs.getInt("incompleteDays"));
+                    stats.setTotalHours(new BigDecimal(rs.getLong("minutesWorked")).divide(new BigDecimal(60), 2, BigDecimal.ROUND_HALF_UP));
+                    
+                    MonthlyAttendanceRow row = new MonthlyAttendanceRow(rs.getInt("employeeId"),
+                        rs.getString("firstName") + " " + rs.getString("lastName"), stats);
+                    row.setLateInstances(rs.getInt("lateInstances"));
+                    row.setUndertimeInstances(rs.getInt("undertimeInstances"));
+                    row.setTotalLateHours(rs.getBigDecimal("lateHours"));
+                    rows.add(row);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting monthly attendance for active employees: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+        
+        return rows;
+    }
+    
+    /**
+     * Moves attendance records older than a specified number of days to the attendance archive
+     * Records are no longer deleted: whole months before the cutoff's month are archived with
+     * their tardiness records (see AttendanceArchiveDAO) and stay readable through this DAO.
+     * @param daysToKeep Number of days to keep (whole months older than this are archived)
+     * @return Number of records moved, or -1 on error
      */
     public int deleteOldAttendanceRecords(int daysToKeep) {
-        String sql = "DELETE FROM attendance WHERE date < DATE_SUB(CURRENT_DATE, INTERVAL ? DAY)";
-        return executeUpdate(sql, daysToKeep);
+        return archiveDAO.archiveMonthsBefore(YearMonth.from(TodayAttendanceIndex.today().minusDays(daysToKeep)));
     }
     
     /**
      * Checks if an employee has already marked time in for today
+     * Answered from TodayAttendanceIndex once today is loaded, without a query
      * @param employeeId The employee ID
      * @return true if time in is already marked for today, false otherwise
      */
     public boolean hasMarkedTimeInToday(Integer employeeId) {
-        AttendanceModel todayRecord = findByEmployeeAndDate(employeeId, LocalDate.now());
-        return todayRecord != null && todayRecord.getTimeIn() != null;
+        return hasMarkedTimeIn(employeeId, LocalDate.now());
+    }
+    
+    /**
+     * Checks if an employee has already marked time in on a date
+     * Answered from TodayAttendanceIndex when the date is the loaded day, otherwise queried
+     * @param employeeId The employee ID
+     * @param date The date to check
+     * @return true if time in is already marked on that date, false otherwise
+     */
+    public boolean hasMarkedTimeIn(Integer employeeId, LocalDate date) {
+        Boolean timedIn = TodayAttendanceIndex.getInstance().hasTimedIn(employeeId, date);
+        if (timedIn != null) {
+            return timedIn;
+        }
+        AttendanceModel record = findByEmployeeAndDate(employeeId, date);
+        return record != null && record.getTimeIn() != null;
     }
     
     /**
      * Checks if an employee has already marked time out for today
+     * Answered from TodayAttendanceIndex once today is loaded, without a query
      * @param employeeId The employee ID
      * @return true if time out is already marked for today, false otherwise
      */
     public boolean hasMarkedTimeOutToday(Integer employeeId) {
+        Boolean timedOut = TodayAttendanceIndex.getInstance().hasTimedOut(employeeId, LocalDate.now());
+        if (timedOut != null) {
+            return timedOut;
+        }
         AttendanceModel todayRecord = findByEmployeeAndDate(employeeId, LocalDate.now());
         return todayRecord != null && todayRecord.getTimeOut() != null;
     }
     
 
+    // BATCH TIME IN - Group commit for shift-start bursts
+
+    
+    /**
+     * Records time in for many employees on one date in a single transaction
+     * Employees and today's rows are read with one query each, new rows are inserted and
+     * existing rows updated with JDBC batches, and tardiness rows are added in the same commit.
+     * @param date The attendance date
+     * @param timeIns Time in per employee (one punch per employee)
+     * @param tardinessHours Late hours to record per employee, only for punches beyond the grace period
+     * @param tardinessNotes Supervisor notes for the generated tardiness rows
+     * @return Outcome per employee, or null if the batch was rolled back
+     */
+    public Map<Integer, TimeInOutcome> markTimeInBatch(LocalDate date, Map<Integer, LocalTime> timeIns,
+                                                       Map<Integer, BigDecimal> tardinessHours, String tardinessNotes) {
+        Map<Integer, TimeInOutcome> outcomes = new LinkedHashMap<>();
+        if (timeIns.isEmpty()) {
+            return outcomes;
+        }
+        
+        String placeholders = inPlaceholders(timeIns.size());
+        String employeeSql = "SELECT employeeId, firstName, lastName FROM employee WHERE employeeId IN (" + placeholders + ")";
+        String existingSql = "SELECT attendanceId, employeeId, timeIn FROM attendance " +
+                            "WHERE date = ? AND employeeId IN (" + placeholders + ") ORDER BY attendanceId FOR UPDATE";
+        String updateSql = "UPDATE attendance SET timeIn = ? WHERE attendanceId = ?";
+        String idSql = "SELECT attendanceId, employeeId FROM attendance " +
+                      "WHERE date = ? AND employeeId IN (" + placeholders + ") ORDER BY attendanceId";
+        String tardinessSql = "INSERT INTO tardinessrecord (attendanceId, tardinessHours, tardinessType, supervisorNotes) " +
+                             "VALUES (?, ?, 'Late', ?)";
+        
+        rollupDAO.ensureTables();
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // 1. Which employees exist
+                try (PreparedStatement stmt = conn.prepareStatement(employeeSql)) {
+                    setIds(stmt, 1, timeIns.keySet());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            int employeeId = rs.getInt("employeeId");
+                            outcomes.put(employeeId, new TimeInOutcome(employeeId,
+                                rs.getString("firstName") + " " + rs.getString("lastName"), TimeInOutcome.Status.RECORDED));
+                        }
+                    }
+                }
+                for (Integer employeeId : timeIns.keySet()) {
+                    outcomes.putIfAbsent(employeeId, new TimeInOutcome(employeeId, null, TimeInOutcome.Status.EMPLOYEE_NOT_FOUND));
+                }
+                
+                // 2. Today's rows, locked so a concurrent punch cannot slip in between
+                Map<Integer, Integer> openRows = new LinkedHashMap<>();
+                try (PreparedStatement stmt = conn.prepareStatement(existingSql)) {
+                    stmt.setDate(1, Date.valueOf(date));
+                    setIds(stmt, 2, timeIns.keySet());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            int employeeId = rs.getInt("employeeId");
+                            if (rs.getTime("timeIn") != null) {
+                                outcomes.get(employeeId).setStatus(TimeInOutcome.Status.ALREADY_TIMED_IN);
+                                openRows.remove(employeeId);
+                            } else if (outcomes.get(employeeId).getStatus() == TimeInOutcome.Status.RECORDED) {
+                                openRows.putIfAbsent(employeeId, rs.getInt("attendanceId"));
+                            }
+                        }
+                    }
+                }
+                
+                // 3. Fill existing rows without a time in, insert the rest
+                try (PreparedStatement update = conn.prepareStatement(updateSql);
+                     PreparedStatement insert = conn.prepareStatement(buildInsertSQL())) {
+                    for (TimeInOutcome outcome : outcomes.values()) {
+                        if (outcome.getStatus() != TimeInOutcome.Status.RECORDED) {
+                            continue;
+                        }
+                        Time timeIn = Time.valueOf(timeIns.get(outcome.getEmployeeId()));
+                        Integer attendanceId = openRows.get(outcome.getEmployeeId());
+                        if (attendanceId != null) {
+                            update.setTime(1, timeIn);
+                            update.setInt(2, attendanceId);
+                            update.addBatch();
+                        } else {
+                            insert.setDate(1, Date.valueOf(date));
+                            insert.setInt(2, outcome.getEmployeeId());
+                            insert.setTime(3, timeIn);
+                            insert.setNull(4, Types.TIME);
+                            insert.addBatch();
+                        }
+                    }
+                    update.executeBatch();
+                    insert.executeBatch();
+                }
+                
+                // 4. Attendance IDs for the recorded punches and their tardiness rows
+                try (PreparedStatement stmt = conn.prepareStatement(idSql)) {
+                    stmt.setDate(1, Date.valueOf(date));
+                    setIds(stmt, 2, timeIns.keySet());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            TimeInOutcome outcome = outcomes.get(rs.getInt("employeeId"));
+                            if (outcome.getAttendanceId() == null) {
+                                outcome.setAttendanceId(rs.getInt("attendanceId"));
+                            }
+                        }
+                    }
+                }
+                
+                try (PreparedStatement stmt = conn.prepareStatement(tardinessSql)) {
+                    for (TimeInOutcome outcome : outcomes.values()) {
+                        BigDecimal hours = tardinessHours.get(outcome.getEmployeeId());
+                        if (hours != null && outcome.getStatus() == TimeInOutcome.Status.RECORDED
+                                && outcome.getAttendanceId() != null) {
+                            stmt.setInt(1, outcome.getAttendanceId());
+                            stmt.setBigDecimal(2, hours);
+                            stmt.setString(3, tardinessNotes);
+                            stmt.addBatch();
+                        }
+                    }
+                    stmt.executeBatch();
+                }
+                
+                List<Integer> recorded = new ArrayList<>();
+                for (TimeInOutcome outcome : outcomes.values()) {
+                    if (outcome.getStatus() == TimeInOutcome.Status.RECORDED) {
+                        recorded.add(outcome.getEmployeeId());
+                    }
+                }
+                rollupDAO.refresh(conn, recorded, date, date);
+                
+                conn.commit();
+                
+                TodayAttendanceIndex index = TodayAttendanceIndex.getInstance();
+                for (Integer employeeId : recorded) {
+                    TimeInOutcome outcome = outcomes.get(employeeId);
+                    index.record(employeeId, date, outcome.getAttendanceId(), timeIns.get(employeeId), null);
+                }
+                AttendanceColumnStore.invalidate(date, date);
+                return outcomes;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error recording batched time in: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private static String inPlaceholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+    
+    /**
+     * Binds a date range once per branch of AttendanceArchiveDAO.rows()
+     */
+    private static void setDateRange(PreparedStatement stmt, LocalDate startDate, LocalDate endDate, boolean archived)
+            throws SQLException {
+        int paramIndex = 1;
+        for (int branch = 0; branch < AttendanceArchiveDAO.branches(archived); branch++) {
+            stmt.setDate(paramIndex++, Date.valueOf(startDate));
+            stmt.setDate(paramIndex++, Date.valueOf(endDate));
+        }
+    }
+    
+    private static void setIds(PreparedStatement stmt, int firstIndex, Collection<Integer> ids) throws SQLException {
+        int paramIndex = firstIndex;
+        for (Integer id : ids) {
+            stmt.setInt(paramIndex++, id);
+        }
+    }
+    
+
+    // BULK IMPORT - Chunked reads and writes for attendance log files
+
+    
+    /**
+     * Gets the attendance rows of a set of employees within a date range with one query
+     * Archived months in the range are read from the attendance archive, so an import counts
+     * archived days as already recorded instead of writing them again.
+     * @param employeeIds The employee IDs
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (inclusive)
+     * @return Rows keyed by importKey(employeeId, date)
+     */
+    public Map<String, AttendanceModel> findByEmployeesAndDateRange(Collection<Integer> employeeIds,
+                                                                   LocalDate startDate, LocalDate endDate) {
+        Map<String, AttendanceModel> rows = new HashMap<>();
+        if (employeeIds.isEmpty()) {
+            return rows;
+        }
+        
+        boolean archived = archiveDAO.covers(startDate);
+        String sql = "SELECT * FROM " + AttendanceArchiveDAO.rows("date BETWEEN ? AND ? " +
+                    "AND employeeId IN (" + inPlaceholders(employeeIds.size()) + ")", archived) + " a ORDER BY attendanceId";
+        
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int paramIndex = 1;
+            for (int branch = 0; branch < AttendanceArchiveDAO.branches(archived); branch++) {
+                stmt.setDate(paramIndex++, Date.valueOf(startDate));
+                stmt.setDate(paramIndex++, Date.valueOf(endDate));
+                setIds(stmt, paramIndex, employeeIds);
+                paramIndex += employeeIds.size();
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    AttendanceModel row = mapResultSetToEntity(rs);
+                    rows.putIfAbsent(importKey(row.getEmployeeId(), row.getDate()), row);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading attendance for import: " + e.getMessage());
+            return null;
+        }
+        
+        return rows;
+    }
+    
+    /**
+     * Writes many attendance rows in one transaction with a batched upsert
+     * New (employeeId, date) pairs are inserted; on existing rows only missing times are filled,
+     * so punches already recorded are never overwritten by an import.
+     * @param rows Rows to write (at most one per employee and date)
+     * @return Number of rows written, or -1 if the batch was rolled back
+     */
+    public int upsertAttendanceBatch(List<AttendanceModel> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        if (!ensureUniqueKey()) {
+            System.err.println("Error importing attendance: unique (employeeId, date) key is missing");
+            return -1;
+        }
+        
+        String sql = buildInsertSQL() + " ON DUPLICATE KEY UPDATE " +
+                    "timeIn = COALESCE(timeIn, VALUES(timeIn)), " +
+                    "timeOut = COALESCE(timeOut, VALUES(timeOut))";
+        
+        Set<Integer> employeeIds = new HashSet<>();
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        for (AttendanceModel row : rows) {
+            employeeIds.add(row.getEmployeeId());
+            startDate = startDate == null || row.getDate().isBefore(startDate) ? row.getDate() : startDate;
+            endDate = endDate == null || row.getDate().isAfter(endDate) ? row.getDate() : endDate;
+        }
+        
+        rollupDAO.ensureTables();
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (AttendanceModel row : rows) {
+                    setInsertParameters(stmt, row);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                rollupDAO.refresh(conn, employeeIds, startDate, endDate);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error importing attendance batch: " + e.getMessage());
+            return -1;
+        }
+        
+        TodayAttendanceIndex index = TodayAttendanceIndex.getInstance();
+        for (AttendanceModel row : rows) {
+            index.record(row.getEmployeeId(), row.getDate(), null, row.getTimeIn(), row.getTimeOut());
+        }
+        AttendanceColumnStore.invalidate(startDate, endDate);
+        return rows.size();
+    }
+    
+    /**
+     * Key used to match import rows against existing rows
+     */
+    public static String importKey(Integer employeeId, LocalDate date) {
+        return employeeId + "|" + date;
+    }
+    
+
     // OVERRIDE METHODS - Use custom SQL instead of BaseDAO defaults
 
     
     /**
      * Override the save method to use custom INSERT SQL
+     * The row and its attendance rollups are written in one transaction
      * @param attendance The attendance record to save
      * @return true if save was successful, false otherwise
      */
@@ -452,21 +1152,30 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
     public boolean save(AttendanceModel attendance) {
         String sql = buildInsertSQL();
         
-        try (Connection conn = databaseConnection.createConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            setInsertParameters(stmt, attendance);
-            int rowsAffected = stmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        handleGeneratedKey(attendance, generatedKeys);
+        rollupDAO.ensureTables();
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                setInsertParameters(stmt, attendance);
+                int rowsAffected = stmt.executeUpdate();
+                
+                if (rowsAffected > 0) {
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            handleGeneratedKey(attendance, generatedKeys);
+                        }
                     }
+                    rollupDAO.refresh(conn, attendance.getEmployeeId(), attendance.getDate());
+                    conn.commit();
+                    afterWrite(attendance);
+                    return true;
                 }
-                return true;
+                conn.rollback();
+                return false;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
-            return false;
             
         } catch (SQLException e) {
             System.err.println("Error saving attendance: " + e.getMessage());
@@ -477,6 +1186,7 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
     
     /**
      * Override the update method to use custom UPDATE SQL
+     * The row and its attendance rollups are written in one transaction
      * @param attendance The attendance record to update
      * @return true if update was successful, false otherwise
      */
@@ -484,12 +1194,24 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
     public boolean update(AttendanceModel attendance) {
         String sql = buildUpdateSQL();
         
-        try (Connection conn = databaseConnection.createConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            setUpdateParameters(stmt, attendance);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+        rollupDAO.ensureTables();
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                setUpdateParameters(stmt, attendance);
+                int rowsAffected = stmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    rollupDAO.refresh(conn, attendance.getEmployeeId(), attendance.getDate());
+                    conn.commit();
+                    afterWrite(attendance);
+                    return true;
+                }
+                conn.rollback();
+                return false;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
             
         } catch (SQLException e) {
             System.err.println("Error updating attendance: " + e.getMessage());
@@ -498,8 +1220,138 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
         }
     }
     
+    /**
+     * Override delete so today's in-memory state and the rollups do not keep a deleted row
+     * The row is removed and its rollups refreshed in one transaction
+     * @param attendanceId The attendance ID to delete
+     * @return true if delete was successful, false otherwise
+     */
+    @Override
+    public boolean delete(Integer attendanceId) {
+        String sql = "DELETE FROM attendance WHERE attendanceId = ?";
+        
+        AttendanceModel existing = null;
+        rollupDAO.ensureTables();
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM attendance WHERE attendanceId = ? FOR UPDATE")) {
+                    stmt.setInt(1, attendanceId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            existing = mapResultSetToEntity(rs);
+                        }
+                    }
+                }
+                if (existing == null) {
+                    conn.rollback();
+                    return false;
+                }
+                
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, attendanceId);
+                    stmt.executeUpdate();
+                }
+                rollupDAO.refresh(conn, existing.getEmployeeId(), existing.getDate());
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error deleting attendance with ID " + attendanceId + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+        
+        TodayAttendanceIndex.getInstance().invalidate();
+        AttendanceColumnStore.invalidate(existing.getDate(), existing.getDate());
+        return true;
+    }
+    
+    /**
+     * Keeps today's in-memory state and the cached column store in step with a committed row
+     * (the rollups were already refreshed inside the write's transaction)
+     */
+    private void afterWrite(AttendanceModel attendance) {
+        TodayAttendanceIndex.getInstance().replace(attendance.getEmployeeId(), attendance.getDate(),
+            attendance.getAttendanceId(), attendance.getTimeIn(), attendance.getTimeOut());
+        AttendanceColumnStore.invalidate(attendance.getDate(), attendance.getDate());
+    }
+    
+
+    // INNER CLASSES
 
-    // INNER CLASS - For attendance statistics
+
+    /**
+     * Receives rows from streamAttendanceColumns
+     */
+    @FunctionalInterface
+    public interface AttendanceColumnVisitor {
+        void visit(int employeeId, int epochDay, int timeInMinute, int timeOutMinute);
+    }
+    
+    /**
+     * One employee's line in getMonthlyAttendanceForActiveEmployees
+     */
+    public static class MonthlyAttendanceRow {
+        private final Integer employeeId;
+        private final String employeeName;
+        private final AttendanceStatistics statistics;
+        private int lateInstances;
+        private int undertimeInstances;
+        private BigDecimal totalLateHours = BigDecimal.ZERO;
+        
+        public MonthlyAttendanceRow(Integer employeeId, String employeeName, AttendanceStatistics statistics) {
+            this.employeeId = employeeId;
+            this.employeeName = employeeName;
+            this.statistics = statistics;
+        }
+        
+        // Getters and setters
+        public Integer getEmployeeId() { return employeeId; }
+        public String getEmployeeName() { return employeeName; }
+        public AttendanceStatistics getStatistics() { return statistics; }
+        
+        public int getLateInstances() { return lateInstances; }
+        public void setLateInstances(int lateInstances) { this.lateInstances = lateInstances; }
+        
+        public int getUndertimeInstances() { return undertimeInstances; }
+        public void setUndertimeInstances(int undertimeInstances) { this.undertimeInstances = undertimeInstances; }
+        
+        public BigDecimal getTotalLateHours() { return totalLateHours; }
+        public void setTotalLateHours(BigDecimal totalLateHours) { this.totalLateHours = totalLateHours; }
+    }
+    
+    /**
+     * What happened to one employee's punch in markTimeInBatch
+     */
+    public static class TimeInOutcome {
+        public enum Status { RECORDED, ALREADY_TIMED_IN, EMPLOYEE_NOT_FOUND }
+        
+        private final Integer employeeId;
+        private final String employeeName;
+        private Status status;
+        private Integer attendanceId;
+        
+        public TimeInOutcome(Integer employeeId, String employeeName, Status status) {
+            this.employeeId = employeeId;
+            this.employeeName = employeeName;
+            this.status = status;
+        }
+        
+        // Getters and setters
+        public Integer getEmployeeId() { return employeeId; }
+        public String getEmployeeName() { return employeeName; }
+        
+        public Status getStatus() { return status; }
+        public void setStatus(Status status) { this.status = status; }
+        
+        public Integer getAttendanceId() { return attendanceId; }
+        public void setAttendanceId(Integer attendanceId) { this.attendanceId = attendanceId; }
+    }
+    
 
     
     /**
@@ -510,6 +1362,8 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
         private int completeDays;
         private int incompleteDays;
         private BigDecimal totalHours;
+        private int lateMinutes;
+        private int undertimeMinutes;
         
         public AttendanceStatistics() {
             this.totalHours = BigDecimal.ZERO;
@@ -528,6 +1382,12 @@ public class AttendanceDAO extends BaseDAO<AttendanceModel, Integer> {
         public BigDecimal getTotalHours() { return totalHours; }
         public void setTotalHours(BigDecimal totalHours) { this.totalHours = totalHours; }
         
+        public int getLateMinutes() { return lateMinutes; }
+        public void setLateMinutes(int lateMinutes) { this.lateMinutes = lateMinutes; }
+        
+        public int getUndertimeMinutes() { return undertimeMinutes; }
+        public void setUndertimeMinutes(int undertimeMinutes) { this.undertimeMinutes = undertimeMinutes; }
+        
         @Override
         public String toString() {
             return String.format("AttendanceStatistics{totalDays=%d, completeDays=%d, incompleteDays=%d, totalHours=%s}",
@@ -0,0 +1,408 @@
+package DAOs;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AttendanceRollupDAO - Per-employee daily and monthly attendance totals
+ * Monthly statistics used to re-aggregate every raw attendance row of the month on each call.
+ * The totals are now kept in two rollup tables:
+ *   - attendancedailyrollup: one row per employee and date (rows, complete, incomplete,
+ *     minutes worked, late minutes, undertime minutes)
+ *   - attendancemonthlyrollup: the same totals summed per employee and month
+ * AttendanceDAO refreshes the affected days and months inside each write's own transaction, so a
+ * write and its rollups always commit together. A refresh recomputes them from the base rows, so
+ * it never drifts and running it again is harmless; rebuild() repairs rollups after writes made
+ * outside the DAOs.
+ * @author User
+ */
+public class AttendanceRollupDAO {
+
+    // Work schedule used for late and undertime minutes (AttendanceService uses the same values)
+    public static final LocalTime STANDARD_START_TIME = LocalTime.of(8, 0);
+    public static final LocalTime STANDARD_END_TIME = LocalTime.of(17, 0);
+    public static final int GRACE_PERIOD_MINUTES = 15;
+
+    private static volatile boolean tablesReady = false;
+
+    private final DatabaseConnection databaseConnection;
+
+    // Archived months are rolled up from the archive, so rebuilding them keeps their totals
+    private final AttendanceArchiveDAO archiveDAO;
+
+    /**
+     * Constructor that accepts a DatabaseConnection instance
+     * @param databaseConnection The database connection to use for all operations
+     */
+    public AttendanceRollupDAO(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+        this.archiveDAO = new AttendanceArchiveDAO(databaseConnection);
+    }
+
+
+    // TABLE SETUP
+
+
+    /**
+     * Creates the rollup tables if needed and builds them once from existing attendance
+     * @return true if the rollups are available
+     */
+    public boolean ensureTables() {
+        if (tablesReady) {
+            return true;
+        }
+
+        synchronized (AttendanceRollupDAO.class) {
+            if (tablesReady) {
+                return true;
+            }
+
+            String[] statements = {
+                "CREATE TABLE IF NOT EXISTS attendancedailyrollup (" +
+                    "employeeId INT NOT NULL, " +
+                    "date DATE NOT NULL, " +
+                    "recordCount INT NOT NULL, " +
+                    "completeCount INT NOT NULL, " +
+                    "incompleteCount INT NOT NULL, " +
+                    "minutesWorked INT NOT NULL, " +
+                    "lateMinutes INT NOT NULL, " +
+                    "undertimeMinutes INT NOT NULL, " +
+                    "PRIMARY KEY (employeeId, date), " +
+                    "INDEX idx_dailyrollup_date (date))",
+
+                "CREATE TABLE IF NOT EXISTS attendancemonthlyrollup (" +
+                    "employeeId INT NOT NULL, " +
+                    "year SMALLINT NOT NULL, " +
+                    "month TINYINT NOT NULL, " +
+                    "totalDays INT NOT NULL, " +
+                    "completeDays INT NOT NULL, " +
+                    "incompleteDays INT NOT NULL, " +
+                    "minutesWorked INT NOT NULL, " +
+                    "lateMinutes INT NOT NULL, " +
+                    "undertimeMinutes INT NOT NULL, " +
+                    "updatedAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                    "PRIMARY KEY (year, month, employeeId))",
+
+                "CREATE TABLE IF NOT EXISTS attendancerollupstate (" +
+                    "id TINYINT NOT NULL PRIMARY KEY, " +
+                    "builtAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)"
+            };
+
+            try (Connection conn = databaseConnection.createConnection()) {
+                try (Statement stmt = conn.createStatement()) {
+                    for (String sql : statements) {
+                        stmt.execute(sql);
+                    }
+                }
+
+                // First use: build the rollups from the attendance already recorded
+                boolean built;
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM attendancerollupstate WHERE id = 1")) {
+                    built = rs.next() && rs.getInt(1) > 0;
+                }
+                if (!built) {
+                    rebuildAll(conn);
+                }
+                tablesReady = true;
+            } catch (SQLException e) {
+                System.err.println("Error creating attendance rollup tables: " + e.getMessage());
+            }
+
+            return tablesReady;
+        }
+    }
+
+
+    // REFRESH - Called by AttendanceDAO inside its write transactions
+
+
+    /**
+     * Recomputes the rollups of some employees over a date range, and of the months it touches,
+     * on the caller's connection so they commit or roll back with the attendance write
+     * Callers run ensureTables() before opening their transaction: the first-time build reads
+     * attendance on its own connection and would wait on the caller's uncommitted rows.
+     * @param conn Connection with the write's open transaction
+     * @param employeeIds The employees whose attendance changed
+     * @param startDate First changed date (inclusive)
+     * @param endDate Last changed date (inclusive)
+     * @throws SQLException if the rollups cannot be refreshed (the caller rolls back)
+     */
+    public void refresh(Connection conn, Collection<Integer> employeeIds, LocalDate startDate, LocalDate endDate)
+            throws SQLException {
+        if (employeeIds.isEmpty() || !ensureTables()) {
+            return;
+        }
+        refreshRange(conn, employeeIds, startDate, endDate);
+    }
+
+    /**
+     * Recomputes the rollups of one employee and date on the caller's connection
+     */
+    public void refresh(Connection conn, Integer employeeId, LocalDate date) throws SQLException {
+        refresh(conn, Collections.singletonList(employeeId), date, date);
+    }
+
+
+    // REBUILD
+
+
+    /**
+     * Rebuilds the rollups of every employee for one month from attendance (archived or not)
+     * @param yearMonth The month to rebuild
+     * @return true if the month was rebuilt
+     */
+    public boolean rebuild(YearMonth yearMonth) {
+        if (!ensureTables()) {
+            return false;
+        }
+
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                refreshRange(conn, null, yearMonth.atDay(1), yearMonth.atEndOfMonth());
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding attendance rollups for " + yearMonth + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Rebuilds all rollups from attendance (archived or not)
+     * @return true if the rollups were rebuilt
+     */
+    public boolean rebuildAll() {
+        if (!ensureTables()) {
+            return false;
+        }
+
+        try (Connection conn = databaseConnection.createConnection()) {
+            rebuildAll(conn);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding attendance rollups: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void rebuildAll(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM attendancedailyrollup");
+                stmt.executeUpdate("DELETE FROM attendancemonthlyrollup");
+            }
+            insertDaily(conn, null, null, null);
+            try (PreparedStatement stmt = conn.prepareStatement(monthlyInsertSql(null, false))) {
+                stmt.executeUpdate();
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("INSERT INTO attendancerollupstate (id) VALUES (1) " +
+                                   "ON DUPLICATE KEY UPDATE builtAt = CURRENT_TIMESTAMP");
+            }
+            conn.commit();
+            System.out.println("✅ Attendance rollups rebuilt");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+
+    // READS
+
+
+    /**
+     * Gets one employee's totals for a month
+     * @param employeeId The employee ID
+     * @param yearMonth The year and month
+     * @return The month's statistics (empty if no attendance), or null if the rollups are not available
+     */
+    public AttendanceDAO.AttendanceStatistics getMonthlyStatistics(Integer employeeId, YearMonth yearMonth) {
+        if (!ensureTables()) {
+            return null;
+        }
+
+        String sql = "SELECT * FROM attendancemonthlyrollup WHERE year = ? AND month = ? AND employeeId = ?";
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, yearMonth.getYear());
+            stmt.setInt(2, yearMonth.getMonthValue());
+            stmt.setInt(3, employeeId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapStatistics(rs) : new AttendanceDAO.AttendanceStatistics();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading attendance rollup: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Gets the totals of every employee with attendance in a month with one query
+     * @param yearMonth The year and month
+     * @return Statistics by employee ID, or null if the rollups are not available
+     */
+    public Map<Integer, AttendanceDAO.AttendanceStatistics> getMonthlyStatistics(YearMonth yearMonth) {
+        if (!ensureTables()) {
+            return null;
+        }
+
+        String sql = "SELECT * FROM attendancemonthlyrollup WHERE year = ? AND month = ?";
+        Map<Integer, AttendanceDAO.AttendanceStatistics> statistics = new HashMap<>();
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, yearMonth.getYear());
+            stmt.setInt(2, yearMonth.getMonthValue());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    statistics.put(rs.getInt("employeeId"), mapStatistics(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading attendance rollups: " + e.getMessage());
+            return null;
+        }
+
+        return statistics;
+    }
+
+
+    // HELPER METHODS
+
+
+    /**
+     * Replaces the daily rollups in a range and then the monthly rollups of its months
+     * @param employeeIds The employees to refresh (null for all)
+     */
+    private void refreshRange(Connection conn, Collection<Integer> employeeIds, LocalDate startDate, LocalDate endDate)
+            throws SQLException {
+        String sql = "DELETE FROM attendancedailyrollup WHERE date BETWEEN ? AND ?" + employeeFilter(employeeIds);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(startDate));
+            stmt.setDate(2, Date.valueOf(endDate));
+            setIds(stmt, 3, employeeIds);
+            stmt.executeUpdate();
+        }
+        insertDaily(conn, employeeIds, startDate, endDate);
+        refreshMonths(conn, employeeIds, YearMonth.from(startDate), YearMonth.from(endDate));
+    }
+
+    /**
+     * Aggregates attendance rows into daily rollups (all dates when startDate is null)
+     * Rows of archived months are read from the archive
+     */
+    private void insertDaily(Connection conn, Collection<Integer> employeeIds, LocalDate startDate, LocalDate endDate)
+            throws SQLException {
+        boolean archived = archiveDAO.covers(startDate);
+        String sql = "INSERT INTO attendancedailyrollup " +
+                    "(employeeId, date, recordCount, completeCount, incompleteCount, minutesWorked, lateMinutes, undertimeMinutes) " +
+                    "SELECT employeeId, date, COUNT(*), " +
+                    "SUM(CASE WHEN timeIn IS NOT NULL AND timeOut IS NOT NULL THEN 1 ELSE 0 END), " +
+                    "SUM(CASE WHEN timeIn IS NOT NULL AND timeOut IS NULL THEN 1 ELSE 0 END), " +
+                    "SUM(CASE WHEN timeIn IS NOT NULL AND timeOut IS NOT NULL " +
+                    "THEN TIMESTAMPDIFF(MINUTE, timeIn, timeOut) ELSE 0 END), " +
+                    "SUM(CASE WHEN timeIn > ? THEN TIMESTAMPDIFF(MINUTE, ?, timeIn) ELSE 0 END), " +
+                    "SUM(CASE WHEN timeOut IS NOT NULL AND timeOut < ? THEN TIMESTAMPDIFF(MINUTE, timeOut, ?) ELSE 0 END) " +
+                    "FROM " + AttendanceArchiveDAO.rows(startDate != null
+                        ? "date BETWEEN ? AND ?" + employeeFilter(employeeIds) : "1 = 1", archived) + " a" +
+                    " GROUP BY employeeId, date";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int paramIndex = 1;
+            stmt.setTime(paramIndex++, Time.valueOf(STANDARD_START_TIME));
+            stmt.setTime(paramIndex++, Time.valueOf(STANDARD_START_TIME));
+            stmt.setTime(paramIndex++, Time.valueOf(STANDARD_END_TIME));
+            stmt.setTime(paramIndex++, Time.valueOf(STANDARD_END_TIME));
+            for (int branch = 0; startDate != null && branch < AttendanceArchiveDAO.branches(archived); branch++) {
+                stmt.setDate(paramIndex++, Date.valueOf(startDate));
+                stmt.setDate(paramIndex++, Date.valueOf(endDate));
+                setIds(stmt, paramIndex, employeeIds);
+                paramIndex += employeeIds != null ? employeeIds.size() : 0;
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Replaces the monthly rollups of a range of months from the daily rollups
+     */
+    private void refreshMonths(Connection conn, Collection<Integer> employeeIds, YearMonth first, YearMonth last)
+            throws SQLException {
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            String deleteSql = "DELETE FROM attendancemonthlyrollup WHERE year = ? AND month = ?" + employeeFilter(employeeIds);
+            try (PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
+                stmt.setInt(1, month.getYear());
+                stmt.setInt(2, month.getMonthValue());
+                setIds(stmt, 3, employeeIds);
+                stmt.executeUpdate();
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(monthlyInsertSql(employeeIds, true))) {
+                stmt.setDate(1, Date.valueOf(month.atDay(1)));
+                stmt.setDate(2, Date.valueOf(month.atEndOfMonth()));
+                setIds(stmt, 3, employeeIds);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private String monthlyInsertSql(Collection<Integer> employeeIds, boolean oneMonth) {
+        return "INSERT INTO attendancemonthlyrollup " +
+               "(employeeId, year, month, totalDays, completeDays, incompleteDays, minutesWorked, lateMinutes, undertimeMinutes) " +
+               "SELECT employeeId, YEAR(date), MONTH(date), SUM(recordCount), SUM(completeCount), SUM(incompleteCount), " +
+               "SUM(minutesWorked), SUM(lateMinutes), SUM(undertimeMinutes) " +
+               "FROM attendancedailyrollup " +
+               (oneMonth ? "WHERE date BETWEEN ? AND ?" + employeeFilter(employeeIds) : "") +
+               " GROUP BY employeeId, YEAR(date), MONTH(date)";
+    }
+
+    private String employeeFilter(Collection<Integer> employeeIds) {
+        if (employeeIds == null) {
+            return "";
+        }
+        return " AND employeeId IN (" + String.join(", ", Collections.nCopies(employeeIds.size(), "?")) + ")";
+    }
+
+    private void setIds(PreparedStatement stmt, int firstIndex, Collection<Integer> employeeIds) throws SQLException {
+        if (employeeIds == null) {
+            return;
+        }
+        int paramIndex = firstIndex;
+        for (Integer employeeId : employeeIds) {
+            stmt.setInt(paramIndex++, employeeId);
+        }
+    }
+
+    private AttendanceDAO.AttendanceStatistics mapStatistics(ResultSet rs) throws SQLException {
+        AttendanceDAO.AttendanceStatistics stats = new AttendanceDAO.AttendanceStatistics();
+        stats.setTotalDays(rs.getInt("totalDays"));
+        stats.setCompleteDays(rs.getInt("completeDays"));
+        stats.setIncompleteDays(rs.getInt("incompleteDays"));
+        stats.setTotalHours(new BigDecimal(rs.getLong("minutesWorked")).divide(new BigDecimal(60), 2, BigDecimal.ROUND_HALF_UP));
+        stats.setLateMinutes(rs.getInt("lateMinutes"));
+        stats.setUndertimeMinutes(rs.getInt("undertimeMinutes"));
+        return stats;
+    }
+}
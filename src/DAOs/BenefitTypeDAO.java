@@ -136,7 +136,11 @@ public class BenefitTypeDAO {
             pstmt.setString(2, benefitType.getBenefitDescription());
             pstmt.setInt(3, benefitType.getBenefitTypeId());
             
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            if (updated) {
+                PositionBenefitCache.getInstance().invalidate();
+            }
+            return updated;
         } catch (SQLException e) {
             System.err.println("Error updating benefit type: " + e.getMessage());
         }
@@ -170,7 +174,11 @@ public class BenefitTypeDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, benefitTypeId);
-            return pstmt.executeUpdate() > 0;
+            boolean deleted = pstmt.executeUpdate() > 0;
+            if (deleted) {
+                PositionBenefitCache.getInstance().invalidate();
+            }
+            return deleted;
         } catch (SQLException e) {
             System.err.println("Error deleting benefit type: " + e.getMessage());
         }
@@ -233,14 +241,18 @@ public class BenefitTypeDAO {
                     updateStmt.setBigDecimal(1, amount);
                     updateStmt.setInt(2, benefitTypeId);
                     updateStmt.setInt(3, positionId);
-                    return updateStmt.executeUpdate() > 0;
+                    boolean updated = updateStmt.executeUpdate() > 0;
+                    PositionBenefitCache.getInstance().invalidate();
+                    return updated;
                 }
             } else {
                 try (PreparedStatement insertStmt = conn.prepareStatement(insertSql)) {
                     insertStmt.setInt(1, benefitTypeId);
                     insertStmt.setInt(2, positionId);
                     insertStmt.setBigDecimal(3, amount);
-                    return insertStmt.executeUpdate() > 0;
+                    boolean inserted = insertStmt.executeUpdate() > 0;
+                    PositionBenefitCache.getInstance().invalidate();
+                    return inserted;
                 }
             }
         } catch (SQLException e) {
@@ -285,7 +297,9 @@ public class BenefitTypeDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, benefitTypeId);
-            return pstmt.executeUpdate() >= 0; // Returns true even if 0 rows affected
+            pstmt.executeUpdate();
+            PositionBenefitCache.getInstance().invalidate();
+            return true; // Returns true even if 0 rows affected
         } catch (SQLException e) {
             System.err.println("Error removing benefit from positions: " + e.getMessage());
         }
@@ -341,37 +355,36 @@ public class BenefitTypeDAO {
     
     /**
      * Get benefit types for a specific position
+     * Served from PositionBenefitCache; the returned list and maps are copies the caller may change
      * @param positionId
      * @return 
      */
     public List<Map<String, Object>> getBenefitsForPosition(int positionId) {
         List<Map<String, Object>> benefits = new ArrayList<>();
-        String sql = "SELECT bt.benefitTypeId, bt.benefitName, bt.benefitDescription, pb.benefitValue " +
-                    "FROM benefittype bt " +
-                    "JOIN positionbenefit pb ON bt.benefitTypeId = pb.benefitTypeId " +
-                    "WHERE pb.positionId = ? " +
-                    "ORDER BY bt.benefitName";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, positionId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                Map<String, Object> benefit = new HashMap<>();
-                benefit.put("benefitTypeId", rs.getInt("benefitTypeId"));
-                benefit.put("benefitName", rs.getString("benefitName"));
-                benefit.put("benefitDescription", rs.getString("benefitDescription"));
-                benefit.put("benefitValue", rs.getBigDecimal("benefitValue"));
-                benefits.add(benefit);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting benefits for position: " + e.getMessage());
+        for (Map<String, Object> benefit : PositionBenefitCache.getInstance().getBenefitsForPosition(positionId)) {
+            benefits.add(new HashMap<>(benefit));
         }
         return benefits;
     }
     
+    /**
+     * Get the total benefit value of a position
+     * @param positionId
+     * @return Sum of the position's benefit values (zero if it has none)
+     */
+    public BigDecimal getTotalBenefitsForPosition(int positionId) {
+        return PositionBenefitCache.getInstance().getTotalForPosition(positionId);
+    }
+    
+    /**
+     * Get the total benefit value for every position
+     * Batch payroll runs use this instead of calling getBenefitsForPosition per employee
+     * @return Map of positionId to the sum of its benefit values
+     */
+    public Map<Integer, BigDecimal> getBenefitTotalsByPosition() {
+        return new HashMap<>(PositionBenefitCache.getInstance().getTotalsByPosition());
+    }
+    
     /**
      * Check if benefit type exists
      * @param benefitTypeId
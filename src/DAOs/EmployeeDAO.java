@@ -4,6 +4,7 @@ import Models.EmployeeModel;
 import Models.EmployeeModel.EmployeeStatus;
 import java.math.BigDecimal;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -327,18 +328,33 @@ public class EmployeeDAO extends BaseDAO<EmployeeModel, Integer> {
     /**
      * Updates the salary information for an employee
      * This is a convenient method for salary adjustments
+     * The change is effective today and is recorded in the salary history
      * @param employeeId The employee ID to update
      * @param basicSalary The new basic salary
      * @param hourlyRate The new hourly rate
      * @return true if update was successful, false otherwise
      */
     public boolean updateSalary(Integer employeeId, BigDecimal basicSalary, BigDecimal hourlyRate) {
-        if (employeeId == null || basicSalary == null || hourlyRate == null) {
+        return updateSalary(employeeId, basicSalary, hourlyRate, LocalDate.now());
+    }
+    
+    /**
+     * Updates the salary information for an employee from an effective date
+     * The change is added to the salary history and the employee row is set to the salary
+     * in effect today. Back-dated changes do not touch processed payroll; use
+     * RetroPayService to generate the adjustments for closed periods.
+     * @param employeeId The employee ID to update
+     * @param basicSalary The new basic salary
+     * @param hourlyRate The new hourly rate
+     * @param effectiveDate The first day the new salary applies (today or earlier)
+     * @return true if update was successful, false otherwise
+     */
+    public boolean updateSalary(Integer employeeId, BigDecimal basicSalary, BigDecimal hourlyRate, LocalDate effectiveDate) {
+        if (employeeId == null || basicSalary == null || hourlyRate == null || effectiveDate == null) {
         return false;
         }
-        String sql = "UPDATE employee SET basicSalary = ?, hourlyRate = ?, updatedAt = CURRENT_TIMESTAMP WHERE employeeId = ?";
-        int rowsAffected = executeUpdate(sql, basicSalary, hourlyRate, employeeId);
-        return rowsAffected > 0;
+        return new SalaryHistoryDAO(databaseConnection)
+            .recordSalaryChange(employeeId, basicSalary, hourlyRate, effectiveDate) != null;
     }
     
     /**
@@ -572,7 +588,12 @@ public class EmployeeDAO extends BaseDAO<EmployeeModel, Integer> {
             
             setUpdateParameters(stmt, employee);
             int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+            if (rowsAffected > 0) {
+                // Supervisor or position may have changed; move the employee's leave to the new team
+                LeaveCalendarIndex.getInstance().recordEmployee(employee.getEmployeeId());
+                return true;
+            }
+            return false;
             
         } catch (SQLException e) {
             System.err.println("Error updating employee: " + e.getMessage());
@@ -0,0 +1,146 @@
+package DAOs;
+
+import Models.LeaveBalance;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LeaveBalanceCache - Shared per-employee, per-year leave balances
+ * Leave request validation and balance pages read the same few balances over and over, so an
+ * employee's balances for a year are loaded with one query and kept in memory.
+ * LeaveBalanceDAO calls invalidate() after every write (approvals included), and entries are
+ * reloaded after MAX_AGE_MILLIS to pick up writes made by other processes. Callers get copies,
+ * so changing a returned balance never changes the cache.
+ * @author User
+ */
+public final class LeaveBalanceCache {
+
+    // Reload at least this often even without an invalidation from this JVM
+    private static final long MAX_AGE_MILLIS = 5 * 60 * 1000;
+
+    private static final LeaveBalanceCache INSTANCE = new LeaveBalanceCache();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private long generation = 0;
+
+    private LeaveBalanceCache() {
+    }
+
+    /**
+     * @return The shared cache instance
+     */
+    public static LeaveBalanceCache getInstance() {
+        return INSTANCE;
+    }
+
+
+    // LOOKUPS
+
+
+    /**
+     * Gets an employee's balance for one leave type and year
+     * @param leaveBalanceDAO DAO used to load the employee's balances on a miss
+     * @param employeeId The employee ID
+     * @param leaveTypeId The leave type ID
+     * @param year The balance year
+     * @return A copy of the balance, or null if the employee has none for that type and year
+     */
+    public LeaveBalance get(LeaveBalanceDAO leaveBalanceDAO, Integer employeeId, Integer leaveTypeId, Integer year) {
+        for (LeaveBalance balance : current(leaveBalanceDAO, employeeId, year)) {
+            if (balance.getLeaveTypeId() != null && balance.getLeaveTypeId().equals(leaveTypeId)) {
+                return copy(balance);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets all of an employee's balances for a year
+     * @param leaveBalanceDAO DAO used to load the employee's balances on a miss
+     * @param employeeId The employee ID
+     * @param year The balance year
+     * @return Copies of the balances (empty if there are none)
+     */
+    public List<LeaveBalance> getAll(LeaveBalanceDAO leaveBalanceDAO, Integer employeeId, Integer year) {
+        List<LeaveBalance> balances = new ArrayList<>();
+        for (LeaveBalance balance : current(leaveBalanceDAO, employeeId, year)) {
+            balances.add(copy(balance));
+        }
+        return balances;
+    }
+
+    /**
+     * Drops one employee's balances for a year; the next lookup reloads them
+     */
+    public synchronized void invalidate(Integer employeeId, Integer year) {
+        generation++;
+        entries.remove(key(employeeId, year));
+    }
+
+    /**
+     * Drops every cached balance
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+
+    // LOADING
+
+
+    private List<LeaveBalance> current(LeaveBalanceDAO leaveBalanceDAO, Integer employeeId, Integer year) {
+        String key = key(employeeId, year);
+        Entry cached = entries.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < MAX_AGE_MILLIS) {
+            return cached.balances;
+        }
+
+        // A load that overlaps an invalidate() is returned to its caller but not kept
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        List<LeaveBalance> loaded = Collections.unmodifiableList(
+            new ArrayList<>(leaveBalanceDAO.findByEmployeeAndYear(employeeId, year)));
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry(loaded));
+            }
+        }
+        return loaded;
+    }
+
+    private static String key(Integer employeeId, Integer year) {
+        return employeeId + ":" + year;
+    }
+
+    private static LeaveBalance copy(LeaveBalance balance) {
+        LeaveBalance copy = new LeaveBalance();
+        copy.setLeaveBalanceId(balance.getLeaveBalanceId());
+        copy.setEmployeeId(balance.getEmployeeId());
+        copy.setLeaveTypeId(balance.getLeaveTypeId());
+        copy.setTotalLeaveDays(balance.getTotalLeaveDays());
+        copy.setUsedLeaveDays(balance.getUsedLeaveDays());
+        copy.setRemainingLeaveDays(balance.getRemainingLeaveDays());
+        copy.setCarryOverDays(balance.getCarryOverDays());
+        copy.setBalanceYear(balance.getBalanceYear());
+        copy.setLastUpdated(balance.getLastUpdated());
+        return copy;
+    }
+
+    /**
+     * One employee's balances for a year at one point in time
+     */
+    private static final class Entry {
+        private final List<LeaveBalance> balances;
+        private final long loadedAt = System.currentTimeMillis();
+
+        private Entry(List<LeaveBalance> balances) {
+            this.balances = balances;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package DAOs;
 
 import Models.LeaveBalance;
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -12,6 +13,17 @@ import java.util.List;
  */
 public class LeaveBalanceDAO extends BaseDAO<LeaveBalance, Integer> {
     
+    // Relative used-days update shared with LeaveDAO's approvals.
+    // Parameters: days, days, employeeId, leaveTypeId, balanceYear, days, days.
+    // remainingLeaveDays is assigned first so it reads usedLeaveDays before the increment.
+    // Positive days only match a row with enough remaining days, so an approval never overdraws.
+    static final String ADD_USED_LEAVE_DAYS_SQL = "UPDATE leavebalance SET " +
+            "remainingLeaveDays = COALESCE(totalLeaveDays, 0) + COALESCE(carryOverDays, 0) - (COALESCE(usedLeaveDays, 0) + ?), " +
+            "usedLeaveDays = COALESCE(usedLeaveDays, 0) + ?, " +
+            "lastUpdated = CURRENT_TIMESTAMP " +
+            "WHERE employeeId = ? AND leaveTypeId = ? AND balanceYear = ? " +
+            "AND (? <= 0 OR COALESCE(remainingLeaveDays, 0) >= ?)";
+    
     /**
      * Constructor that accepts a DatabaseConnection instance
      * @param databaseConnection The database connection to use for all operations
@@ -182,7 +194,28 @@ public class LeaveBalanceDAO extends BaseDAO<LeaveBalance, Integer> {
                     "remainingLeaveDays = totalLeaveDays + carryOverDays - ?, " +
                     "lastUpdated = CURRENT_TIMESTAMP " +
                     "WHERE leaveBalanceId = ?";
-        return executeUpdate(sql, usedDays, usedDays, leaveBalanceId) > 0;
+        boolean updated = executeUpdate(sql, usedDays, usedDays, leaveBalanceId) > 0;
+        if (updated) {
+            LeaveBalanceCache.getInstance().invalidateAll();
+        }
+        return updated;
+    }
+    
+    /**
+     * Adds days to an employee's used leave in a single statement
+     * The new totals are computed by the database from the current row, so concurrent approvals
+     * for the same balance cannot overwrite each other the way a read-then-set would.
+     * @param employeeId The employee ID
+     * @param leaveTypeId The leave type ID
+     * @param year The balance year
+     * @param days Number of days to add (negative to give days back)
+     * @return true if a balance row was updated, false if none exists, it has fewer remaining days
+     *         than are being added, or the update failed
+     */
+    public boolean addUsedLeaveDays(Integer employeeId, Integer leaveTypeId, Integer year, int days) {
+        boolean updated = executeUpdate(ADD_USED_LEAVE_DAYS_SQL, days, days, employeeId, leaveTypeId, year, days, days) > 0;
+        LeaveBalanceCache.getInstance().invalidate(employeeId, year);
+        return updated;
     }
     
     /**
@@ -201,7 +234,116 @@ public class LeaveBalanceDAO extends BaseDAO<LeaveBalance, Integer> {
                     "AND NOT EXISTS (SELECT 1 FROM leavebalance lb " +
                     "WHERE lb.employeeId = e.employeeId AND lb.leaveTypeId = lt.leaveTypeId AND lb.balanceYear = ?)";
         
-        return executeUpdate(sql, defaultLeaveDays, defaultLeaveDays, year, year);
+        int created = executeUpdate(sql, defaultLeaveDays, defaultLeaveDays, year, year);
+        if (created > 0) {
+            LeaveBalanceCache.getInstance().invalidateAll();
+        }
+        return created;
+    }
+    
+    /**
+     * Creates next year's leave balances for every active employee with per-type entitlements
+     * and capped carry-over from the previous year's remaining days.
+     * Employees are processed in chunks of consecutive IDs; each chunk is one INSERT ... SELECT
+     * committed on its own, so a failure only loses that chunk. Balances that already exist are
+     * left untouched, which makes the rollover safe to rerun after a partial failure.
+     * @param year The year to create balances for
+     * @param entitlements Entitled days and carry-over cap per leave type
+     * @param chunkSize Employees per transaction
+     * @return Rollover counts, or null if the employee list could not be read
+     */
+    public RolloverResult rolloverYearlyLeaveBalances(int year, List<LeaveEntitlement> entitlements, int chunkSize) {
+        RolloverResult result = new RolloverResult(year);
+        if (entitlements == null || entitlements.isEmpty()) {
+            return result;
+        }
+        long startTime = System.currentTimeMillis();
+        
+        List<Integer> employeeIds = new ArrayList<>();
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT employeeId FROM employee WHERE status != 'Terminated' ORDER BY employeeId");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                employeeIds.add(rs.getInt("employeeId"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading employees for leave rollover: " + e.getMessage());
+            return null;
+        }
+        result.setEmployees(employeeIds.size());
+        
+        String sql = buildRolloverSQL(entitlements.size());
+        int size = Math.max(1, chunkSize);
+        
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            for (int from = 0; from < employeeIds.size(); from += size) {
+                int to = Math.min(from + size, employeeIds.size()) - 1;
+                
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    int paramIndex = 1;
+                    stmt.setInt(paramIndex++, year);
+                    for (LeaveEntitlement entitlement : entitlements) {
+                        stmt.setInt(paramIndex++, entitlement.getLeaveTypeId());
+                        stmt.setInt(paramIndex++, entitlement.getEntitledDays());
+                        stmt.setInt(paramIndex++, entitlement.getCarryOverCap());
+                    }
+                    stmt.setInt(paramIndex++, year - 1);
+                    stmt.setInt(paramIndex++, employeeIds.get(from));
+                    stmt.setInt(paramIndex++, employeeIds.get(to));
+                    stmt.setInt(paramIndex++, year);
+                    
+                    int created = stmt.executeUpdate();
+                    conn.commit();
+                    result.addChunk(created);
+                } catch (SQLException e) {
+                    conn.rollback();
+                    result.addFailedChunk();
+                    System.err.println("Leave rollover chunk for employees " + employeeIds.get(from) + "-" +
+                                       employeeIds.get(to) + " failed: " + e.getMessage());
+                }
+                
+                System.out.println("📅 Leave rollover " + year + ": " + (to + 1) + "/" + employeeIds.size() +
+                                   " employees, " + result.getBalancesCreated() + " balances created");
+            }
+        } catch (SQLException e) {
+            System.err.println("Error rolling over leave balances for " + year + ": " + e.getMessage());
+            result.addFailedChunk();
+        }
+        
+        if (result.getBalancesCreated() > 0) {
+            LeaveBalanceCache.getInstance().invalidateAll();
+        }
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        return result;
+    }
+    
+    /**
+     * Builds the rollover INSERT ... SELECT for a number of leave type entitlements.
+     * Parameters: year, (leaveTypeId, entitledDays, carryOverCap) per entitlement, previous year,
+     * first and last employee ID of the chunk, year.
+     */
+    private String buildRolloverSQL(int entitlementCount) {
+        StringBuilder entitlementRows = new StringBuilder();
+        for (int i = 0; i < entitlementCount; i++) {
+            entitlementRows.append(i == 0
+                ? "SELECT ? AS leaveTypeId, ? AS entitledDays, ? AS carryOverCap"
+                : " UNION ALL SELECT ?, ?, ?");
+        }
+        String carryOver = "LEAST(ent.carryOverCap, GREATEST(COALESCE(prev.remainingLeaveDays, 0), 0))";
+        
+        return "INSERT INTO leavebalance (employeeId, leaveTypeId, totalLeaveDays, usedLeaveDays, " +
+               "remainingLeaveDays, carryOverDays, balanceYear) " +
+               "SELECT e.employeeId, ent.leaveTypeId, ent.entitledDays, 0, " +
+               "ent.entitledDays + " + carryOver + ", " + carryOver + ", ? " +
+               "FROM employee e " +
+               "CROSS JOIN (" + entitlementRows + ") ent " +
+               "LEFT JOIN leavebalance prev ON prev.employeeId = e.employeeId " +
+               "AND prev.leaveTypeId = ent.leaveTypeId AND prev.balanceYear = ? " +
+               "WHERE e.status != 'Terminated' AND e.employeeId BETWEEN ? AND ? " +
+               "AND NOT EXISTS (SELECT 1 FROM leavebalance lb " +
+               "WHERE lb.employeeId = e.employeeId AND lb.leaveTypeId = ent.leaveTypeId AND lb.balanceYear = ?)";
     }
     
 
@@ -224,6 +366,7 @@ public class LeaveBalanceDAO extends BaseDAO<LeaveBalance, Integer> {
                         handleGeneratedKey(leaveBalance, generatedKeys);
                     }
                 }
+                LeaveBalanceCache.getInstance().invalidate(leaveBalance.getEmployeeId(), leaveBalance.getBalanceYear());
                 return true;
             }
             return false;
@@ -234,6 +377,15 @@ public class LeaveBalanceDAO extends BaseDAO<LeaveBalance, Integer> {
         }
     }
     
+    @Override
+    public boolean delete(Integer leaveBalanceId) {
+        boolean deleted = super.delete(leaveBalanceId);
+        if (deleted) {
+            LeaveBalanceCache.getInstance().invalidateAll();
+        }
+        return deleted;
+    }
+    
     @Override
     public boolean update(LeaveBalance leaveBalance) {
         String sql = buildUpdateSQL();
@@ -243,6 +395,8 @@ public class LeaveBalanceDAO extends BaseDAO<LeaveBalance, Integer> {
             
             setUpdateParameters(stmt, leaveBalance);
             int rowsAffected = stmt.executeUpdate();
+            // The row may have moved employee or year, so drop everything rather than one key
+            LeaveBalanceCache.getInstance().invalidateAll();
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -250,4 +404,74 @@ public class LeaveBalanceDAO extends BaseDAO<LeaveBalance, Integer> {
             return false;
         }
     }
-}
\ No newline at end of file
+    
+
+    // INNER CLASSES
+
+    
+    /**
+     * Yearly entitlement for one leave type used by the rollover
+     */
+    public static class LeaveEntitlement {
+        private final int leaveTypeId;
+        private final int entitledDays;
+        private final int carryOverCap;
+        
+        /**
+         * @param leaveTypeId The leave type ID
+         * @param entitledDays Days granted for the new year
+         * @param carryOverCap Most unused days that carry over from the previous year (0 for none)
+         */
+        public LeaveEntitlement(int leaveTypeId, int entitledDays, int carryOverCap) {
+            this.leaveTypeId = leaveTypeId;
+            this.entitledDays = entitledDays;
+            this.carryOverCap = Math.max(0, carryOverCap);
+        }
+        
+        public int getLeaveTypeId() { return leaveTypeId; }
+        public int getEntitledDays() { return entitledDays; }
+        public int getCarryOverCap() { return carryOverCap; }
+    }
+    
+    /**
+     * Counts from one yearly rollover run
+     */
+    public static class RolloverResult {
+        private final int year;
+        private int employees = 0;
+        private int chunks = 0;
+        private int failedChunks = 0;
+        private int balancesCreated = 0;
+        private long elapsedMillis = 0;
+        
+        public RolloverResult(int year) {
+            this.year = year;
+        }
+        
+        void addChunk(int created) {
+            chunks++;
+            balancesCreated += created;
+        }
+        
+        void addFailedChunk() {
+            chunks++;
+            failedChunks++;
+        }
+        
+        public int getYear() { return year; }
+        public int getEmployees() { return employees; }
+        public void setEmployees(int employees) { this.employees = employees; }
+        public int getChunks() { return chunks; }
+        public int getFailedChunks() { return failedChunks; }
+        public int getBalancesCreated() { return balancesCreated; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+        public boolean isSuccess() { return failedChunks == 0; }
+        
+        @Override
+        public String toString() {
+            return String.format("RolloverResult{year=%d, employees=%d, chunks=%d, failedChunks=%d, balancesCreated=%d, elapsedMillis=%d}",
+                                 year, employees, chunks, failedChunks, balancesCreated, elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,673 @@
+package DAOs;
+
+import Models.LeaveRequestModel;
+import Models.LeaveRequestModel.ApprovalStatus;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LeaveCalendarIndex - In-memory interval index of pending and approved leave
+ * Overlap checks used to query one employee at a time, and "who on my team is out this week"
+ * had no cheap answer at all. Pending and approved leave requests are loaded once and kept in
+ * interval trees per employee, per supervisor and per department, so overlap checks and team
+ * or department calendars for any date range are answered in O(log n + k).
+ * LeaveDAO and LeaveRequestDAO record every write here, inserting or removing the one interval,
+ * and EmployeeDAO records supervisor and department changes so an employee's leave moves to the
+ * new team; the index is also reloaded after MAX_AGE_MILLIS to pick up writes made by other processes. Lookups answer null while the
+ * index cannot be loaded, and the caller falls back to the database.
+ * @author User
+ */
+public final class LeaveCalendarIndex {
+
+    // Reload at least this often even without writes from this JVM
+    private static final long MAX_AGE_MILLIS = 5 * 60 * 1000;
+
+    private static final LeaveCalendarIndex INSTANCE = new LeaveCalendarIndex();
+
+    private volatile Snapshot snapshot;
+    private long generation = 0;
+
+    private LeaveCalendarIndex() {
+    }
+
+    /**
+     * @return The shared index instance
+     */
+    public static LeaveCalendarIndex getInstance() {
+        return INSTANCE;
+    }
+
+
+    // LOOKUPS
+
+
+    /**
+     * Tells whether an employee has pending or approved leave overlapping a date range
+     * @param employeeId The employee ID
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @param excludeRequestId Request to ignore (the one being edited), or null
+     * @return true/false, or null when the database must be asked
+     */
+    public Boolean hasOverlap(Integer employeeId, LocalDate startDate, LocalDate endDate, Integer excludeRequestId) {
+        List<LeaveInterval> overlapping = findForEmployee(employeeId, startDate, endDate);
+        if (overlapping == null) {
+            return null;
+        }
+        for (LeaveInterval interval : overlapping) {
+            if (!interval.getLeaveRequestId().equals(excludeRequestId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets an employee's pending and approved leave overlapping a date range
+     * @param employeeId The employee ID
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @return Overlapping leave ordered by start date, or null when the database must be asked
+     */
+    public List<LeaveInterval> findForEmployee(Integer employeeId, LocalDate startDate, LocalDate endDate) {
+        Snapshot current = current();
+        return current == null ? null : query(current.byEmployee.get(employeeId), startDate, endDate);
+    }
+
+    /**
+     * Gets pending and approved leave of a supervisor's direct reports overlapping a date range
+     * @param supervisorId The supervisor's employee ID
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @return Overlapping leave ordered by start date, or null when the database must be asked
+     */
+    public List<LeaveInterval> findForSupervisor(Integer supervisorId, LocalDate startDate, LocalDate endDate) {
+        Snapshot current = current();
+        return current == null ? null : query(current.bySupervisor.get(supervisorId), startDate, endDate);
+    }
+
+    /**
+     * Gets pending and approved leave of a department's employees overlapping a date range
+     * @param department The department name
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @return Overlapping leave ordered by start date, or null when the database must be asked
+     */
+    public List<LeaveInterval> findForDepartment(String department, LocalDate startDate, LocalDate endDate) {
+        Snapshot current = current();
+        return current == null ? null : query(current.byDepartment.get(department), startDate, endDate);
+    }
+
+    /**
+     * Finds which of the given intervals overlap a date range, using the same tree as the index
+     * Nothing is loaded or cached; this answers one query over a caller's own list.
+     * @param intervals The intervals to search
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @return Overlapping intervals ordered by start date (empty if the range is invalid)
+     */
+    public static List<LeaveInterval> findOverlapping(Collection<LeaveInterval> intervals, LocalDate startDate, LocalDate endDate) {
+        Map<Integer, LeaveInterval> byId = new LinkedHashMap<>();
+        for (LeaveInterval interval : intervals) {
+            byId.put(interval.leaveRequestId, interval);
+        }
+        // Inserted one at a time, as writes to the index are
+        Group group = new Group();
+        for (LeaveInterval interval : byId.values()) {
+            group.insert(interval);
+        }
+        return query(group, startDate, endDate);
+    }
+
+    private static List<LeaveInterval> query(Group group, LocalDate startDate, LocalDate endDate) {
+        List<LeaveInterval> result = new ArrayList<>();
+        if (group != null && startDate != null && endDate != null && !endDate.isBefore(startDate)) {
+            group.tree.query(startDate.toEpochDay(), endDate.toEpochDay(), result);
+        }
+        return result;
+    }
+
+
+    // WRITES
+
+
+    /**
+     * Records a leave request as saved or updated
+     * Pending and approved requests are (re)indexed; any other status removes the request.
+     * @param leave The leave request as written to the database
+     */
+    public synchronized void record(LeaveRequestModel leave) {
+        generation++;
+        Snapshot current = snapshot;
+        if (current == null || leave == null || leave.getLeaveRequestId() == null) {
+            return;
+        }
+        current.remove(leave.getLeaveRequestId());
+        if (isIndexed(leave.getApprovalStatus()) && leave.getLeaveStart() != null && leave.getLeaveEnd() != null) {
+            Placement placement = current.placements.get(leave.getEmployeeId());
+            if (placement == null) {
+                placement = loadPlacement(leave.getEmployeeId());
+                if (placement == null) {
+                    snapshot = null;
+                    return;
+                }
+                current.placements.put(leave.getEmployeeId(), placement);
+            }
+            current.add(LeaveInterval.from(leave));
+        }
+    }
+
+    /**
+     * Records a status change made by ID (approve or reject)
+     * @param leaveRequestId The leave request ID
+     * @param status The new approval status
+     */
+    public synchronized void recordStatus(Integer leaveRequestId, ApprovalStatus status) {
+        generation++;
+        Snapshot current = snapshot;
+        if (current == null || leaveRequestId == null) {
+            return;
+        }
+        LeaveInterval existing = current.remove(leaveRequestId);
+        if (isIndexed(status)) {
+            if (existing == null) {
+                // Not pending before, so its dates are not known here; reload on the next lookup
+                snapshot = null;
+                return;
+            }
+            current.add(new LeaveInterval(existing.leaveRequestId, existing.employeeId, existing.leaveTypeId,
+                                          existing.leaveStart, existing.leaveEnd, status));
+        }
+    }
+
+    /**
+     * Removes a deleted leave request
+     * @param leaveRequestId The leave request ID
+     */
+    public synchronized void remove(Integer leaveRequestId) {
+        generation++;
+        Snapshot current = snapshot;
+        if (current != null && leaveRequestId != null) {
+            current.remove(leaveRequestId);
+        }
+    }
+
+    /**
+     * Records a change to an employee's supervisor or position
+     * Their indexed leave is moved from the old team and department calendars to the new ones.
+     * @param employeeId The employee ID
+     */
+    public synchronized void recordEmployee(Integer employeeId) {
+        generation++;
+        Snapshot current = snapshot;
+        if (current == null || employeeId == null) {
+            return;
+        }
+        Placement placement = loadPlacement(employeeId);
+        if (placement == null) {
+            snapshot = null;
+            return;
+        }
+        current.move(employeeId, placement);
+    }
+
+    /**
+     * Drops the index; the next lookup loads it again
+     */
+    public synchronized void invalidate() {
+        generation++;
+        snapshot = null;
+    }
+
+    private static boolean isIndexed(ApprovalStatus status) {
+        return status == ApprovalStatus.PENDING || status == ApprovalStatus.APPROVED;
+    }
+
+
+    // LOADING
+
+
+    /**
+     * Returns the loaded index, loading it first if it is missing or too old
+     * A load that overlaps a write is returned to its caller but not kept.
+     */
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && System.currentTimeMillis() - current.loadedAt < MAX_AGE_MILLIS) {
+            return current;
+        }
+
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        Snapshot loaded = load();
+        if (loaded == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Loads every employee's supervisor and department, then all pending and approved leave
+     */
+    private Snapshot load() {
+        String placementSql = "SELECT e.employeeId, e.supervisorId, p.department FROM employee e " +
+                              "LEFT JOIN position p ON e.positionId = p.positionId";
+        String leaveSql = "SELECT leaveRequestId, employeeId, leaveTypeId, leaveStart, leaveEnd, approvalStatus " +
+                          "FROM leaverequest WHERE approvalStatus IN (?, ?) " +
+                          "AND leaveStart IS NOT NULL AND leaveEnd IS NOT NULL";
+
+        Snapshot loaded = new Snapshot();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(placementSql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    loaded.placements.put(rs.getInt("employeeId"), mapPlacement(rs));
+                }
+            }
+
+            List<LeaveInterval> intervals = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(leaveSql)) {
+                stmt.setString(1, ApprovalStatus.PENDING.getValue());
+                stmt.setString(2, ApprovalStatus.APPROVED.getValue());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        intervals.add(new LeaveInterval(rs.getInt("leaveRequestId"), rs.getInt("employeeId"),
+                            rs.getInt("leaveTypeId"), rs.getDate("leaveStart").toLocalDate(),
+                            rs.getDate("leaveEnd").toLocalDate(), ApprovalStatus.fromString(rs.getString("approvalStatus"))));
+                    }
+                }
+            }
+            loaded.build(intervals);
+            System.out.println("📆 Loaded leave calendar: " + intervals.size() + " pending/approved requests");
+            return loaded;
+
+        } catch (SQLException | IllegalArgumentException e) {
+            System.err.println("Error loading leave calendar: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Placement loadPlacement(Integer employeeId) {
+        String sql = "SELECT e.employeeId, e.supervisorId, p.department FROM employee e " +
+                     "LEFT JOIN position p ON e.positionId = p.positionId WHERE e.employeeId = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, employeeId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapPlacement(rs) : new Placement(null, null);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading employee " + employeeId + " for leave calendar: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Placement mapPlacement(ResultSet rs) throws SQLException {
+        int supervisorId = rs.getInt("supervisorId");
+        return new Placement(rs.wasNull() ? null : supervisorId, rs.getString("department"));
+    }
+
+
+    // INNER CLASSES
+
+
+    /**
+     * One pending or approved leave request
+     */
+    public static final class LeaveInterval {
+        private final Integer leaveRequestId;
+        private final Integer employeeId;
+        private final Integer leaveTypeId;
+        private final LocalDate leaveStart;
+        private final LocalDate leaveEnd;
+        private final ApprovalStatus approvalStatus;
+
+        LeaveInterval(Integer leaveRequestId, Integer employeeId, Integer leaveTypeId,
+                      LocalDate leaveStart, LocalDate leaveEnd, ApprovalStatus approvalStatus) {
+            this.leaveRequestId = leaveRequestId;
+            this.employeeId = employeeId;
+            this.leaveTypeId = leaveTypeId;
+            this.leaveStart = leaveStart;
+            this.leaveEnd = leaveEnd;
+            this.approvalStatus = approvalStatus;
+        }
+
+        /**
+         * Creates an interval from a leave request read from the database
+         * @param leave The leave request (must have start and end dates)
+         * @return The interval
+         */
+        public static LeaveInterval from(LeaveRequestModel leave) {
+            return new LeaveInterval(leave.getLeaveRequestId(), leave.getEmployeeId(), leave.getLeaveTypeId(),
+                                     leave.getLeaveStart(), leave.getLeaveEnd(), leave.getApprovalStatus());
+        }
+
+        public Integer getLeaveRequestId() { return leaveRequestId; }
+        public Integer getEmployeeId() { return employeeId; }
+        public Integer getLeaveTypeId() { return leaveTypeId; }
+        public LocalDate getLeaveStart() { return leaveStart; }
+        public LocalDate getLeaveEnd() { return leaveEnd; }
+        public ApprovalStatus getApprovalStatus() { return approvalStatus; }
+
+        @Override
+        public String toString() {
+            return String.format("LeaveInterval{leaveRequestId=%d, employeeId=%d, %s to %s, %s}",
+                                 leaveRequestId, employeeId, leaveStart, leaveEnd, approvalStatus);
+        }
+    }
+
+    /**
+     * An employee's supervisor and department
+     */
+    private static final class Placement {
+        private final Integer supervisorId;
+        private final String department;
+
+        Placement(Integer supervisorId, String department) {
+            this.supervisorId = supervisorId;
+            this.department = department;
+        }
+
+        boolean samePlace(Placement other) {
+            return other != null && Objects.equals(supervisorId, other.supervisorId)
+                && Objects.equals(department, other.department);
+        }
+    }
+
+    /**
+     * The loaded index; mutated only while holding the LeaveCalendarIndex lock
+     */
+    private static final class Snapshot {
+        private final long loadedAt = System.currentTimeMillis();
+        private final Map<Integer, Placement> placements = new HashMap<>();
+        private final Map<Integer, LeaveInterval> byId = new HashMap<>();
+        private final Map<Integer, Group> byEmployee = new ConcurrentHashMap<>();
+        private final Map<Integer, Group> bySupervisor = new ConcurrentHashMap<>();
+        private final Map<String, Group> byDepartment = new ConcurrentHashMap<>();
+
+        void build(List<LeaveInterval> intervals) {
+            Map<Group, List<LeaveInterval>> members = new IdentityHashMap<>();
+            for (LeaveInterval interval : intervals) {
+                byId.put(interval.leaveRequestId, interval);
+                for (Group group : groupsFor(interval.employeeId, true)) {
+                    members.computeIfAbsent(group, g -> new ArrayList<>()).add(interval);
+                }
+            }
+            for (Map.Entry<Group, List<LeaveInterval>> entry : members.entrySet()) {
+                entry.getKey().tree = IntervalTree.of(entry.getValue());
+            }
+        }
+
+        void add(LeaveInterval interval) {
+            byId.put(interval.leaveRequestId, interval);
+            for (Group group : groupsFor(interval.employeeId, true)) {
+                group.insert(interval);
+            }
+        }
+
+        LeaveInterval remove(Integer leaveRequestId) {
+            LeaveInterval removed = byId.remove(leaveRequestId);
+            if (removed != null) {
+                for (Group group : groupsFor(removed.employeeId, false)) {
+                    group.remove(removed);
+                }
+            }
+            return removed;
+        }
+
+        /**
+         * Moves an employee's leave to the team and department groups of a new placement
+         */
+        void move(Integer employeeId, Placement placement) {
+            Placement previous = placements.put(employeeId, placement);
+            Group own = byEmployee.get(employeeId);
+            if (own == null || placement.samePlace(previous)) {
+                return;
+            }
+
+            List<LeaveInterval> intervals = new ArrayList<>();
+            own.tree.collect(intervals);
+            List<Group> oldGroups = teamGroups(previous, false);
+            List<Group> newGroups = teamGroups(placement, true);
+            for (LeaveInterval interval : intervals) {
+                for (Group group : oldGroups) {
+                    group.remove(interval);
+                }
+                for (Group group : newGroups) {
+                    group.insert(interval);
+                }
+            }
+        }
+
+        private List<Group> groupsFor(Integer employeeId, boolean create) {
+            List<Group> groups = new ArrayList<>(3);
+            addGroup(groups, byEmployee, employeeId, create);
+            groups.addAll(teamGroups(placements.get(employeeId), create));
+            return groups;
+        }
+
+        private List<Group> teamGroups(Placement placement, boolean create) {
+            List<Group> groups = new ArrayList<>(2);
+            if (placement != null) {
+                addGroup(groups, bySupervisor, placement.supervisorId, create);
+                addGroup(groups, byDepartment, placement.department, create);
+            }
+            return groups;
+        }
+
+        private static <K> void addGroup(List<Group> groups, Map<K, Group> index, K key, boolean create) {
+            if (key == null) {
+                return;
+            }
+            Group group = create ? index.computeIfAbsent(key, k -> new Group()) : index.get(key);
+            if (group != null) {
+                groups.add(group);
+            }
+        }
+    }
+
+    /**
+     * The leave of one employee, team or department
+     * Each write swaps in a new tree, so lookups read the tree without locking.
+     */
+    private static final class Group {
+        private volatile IntervalTree tree = IntervalTree.EMPTY;
+
+        void insert(LeaveInterval interval) {
+            tree = tree.insert(interval);
+        }
+
+        void remove(LeaveInterval interval) {
+            tree = tree.remove(interval);
+        }
+    }
+
+    /**
+     * Persistent interval tree over leave requests
+     * An AVL tree ordered by start date (then request ID), where every node also holds the latest
+     * end date in its subtree. Insert and remove copy only the O(log n) nodes on the path they
+     * change and return a new tree, leaving the old one intact for readers still using it.
+     * A query skips every subtree whose latest end is before the range and every node (with its
+     * right subtree) that starts after it.
+     */
+    private static final class IntervalTree {
+        private static final IntervalTree EMPTY = new IntervalTree(null);
+
+        private final Node root;
+
+        private IntervalTree(Node root) {
+            this.root = root;
+        }
+
+        /**
+         * Builds a balanced tree from a whole group at once (used when loading)
+         */
+        static IntervalTree of(Collection<LeaveInterval> members) {
+            LeaveInterval[] sorted = members.toArray(new LeaveInterval[0]);
+            Arrays.sort(sorted, IntervalTree::compare);
+            return new IntervalTree(build(sorted, 0, sorted.length - 1));
+        }
+
+        private static Node build(LeaveInterval[] sorted, int lo, int hi) {
+            if (lo > hi) {
+                return null;
+            }
+            int mid = (lo + hi) >>> 1;
+            return new Node(sorted[mid], build(sorted, lo, mid - 1), build(sorted, mid + 1, hi));
+        }
+
+        IntervalTree insert(LeaveInterval interval) {
+            return new IntervalTree(insert(root, interval));
+        }
+
+        IntervalTree remove(LeaveInterval interval) {
+            Node newRoot = remove(root, interval);
+            return newRoot == root ? this : new IntervalTree(newRoot);
+        }
+
+        void query(long from, long to, List<LeaveInterval> out) {
+            query(root, from, to, out);
+        }
+
+        /**
+         * Adds every interval in the tree to out, ordered by start date
+         */
+        void collect(List<LeaveInterval> out) {
+            query(root, Long.MIN_VALUE, Long.MAX_VALUE, out);
+        }
+
+        private static Node insert(Node node, LeaveInterval interval) {
+            if (node == null) {
+                return new Node(interval, null, null);
+            }
+            int cmp = compare(interval, node.interval);
+            if (cmp < 0) {
+                return balance(node.interval, insert(node.left, interval), node.right);
+            }
+            if (cmp > 0) {
+                return balance(node.interval, node.left, insert(node.right, interval));
+            }
+            return new Node(interval, node.left, node.right);
+        }
+
+        private static Node remove(Node node, LeaveInterval interval) {
+            if (node == null) {
+                return null;
+            }
+            int cmp = compare(interval, node.interval);
+            if (cmp < 0) {
+                Node left = remove(node.left, interval);
+                return left == node.left ? node : balance(node.interval, left, node.right);
+            }
+            if (cmp > 0) {
+                Node right = remove(node.right, interval);
+                return right == node.right ? node : balance(node.interval, node.left, right);
+            }
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            return balance(successor.interval, node.left, remove(node.right, successor.interval));
+        }
+
+        /**
+         * Creates a node, rotating once or twice when its subtrees differ in height by more than one
+         */
+        private static Node balance(LeaveInterval interval, Node left, Node right) {
+            int diff = height(left) - height(right);
+            if (diff > 1) {
+                if (height(left.left) < height(left.right)) {
+                    Node pivot = left.right;
+                    return new Node(pivot.interval,
+                                    new Node(left.interval, left.left, pivot.left),
+                                    new Node(interval, pivot.right, right));
+                }
+                return new Node(left.interval, left.left, new Node(interval, left.right, right));
+            }
+            if (diff < -1) {
+                if (height(right.right) < height(right.left)) {
+                    Node pivot = right.left;
+                    return new Node(pivot.interval,
+                                    new Node(interval, left, pivot.left),
+                                    new Node(right.interval, pivot.right, right.right));
+                }
+                return new Node(right.interval, new Node(interval, left, right.left), right.right);
+            }
+            return new Node(interval, left, right);
+        }
+
+        private static void query(Node node, long from, long to, List<LeaveInterval> out) {
+            if (node == null || node.maxEnd < from) {
+                return;
+            }
+            query(node.left, from, to, out);
+            if (node.start > to) {
+                return;
+            }
+            if (node.end >= from) {
+                out.add(node.interval);
+            }
+            query(node.right, from, to, out);
+        }
+
+        private static int compare(LeaveInterval a, LeaveInterval b) {
+            int byStart = a.leaveStart.compareTo(b.leaveStart);
+            return byStart != 0 ? byStart : a.leaveRequestId.compareTo(b.leaveRequestId);
+        }
+
+        private static int height(Node node) {
+            return node == null ? 0 : node.height;
+        }
+
+        private static long maxEnd(Node node) {
+            return node == null ? Long.MIN_VALUE : node.maxEnd;
+        }
+
+        /**
+         * Immutable tree node
+         */
+        private static final class Node {
+            private final LeaveInterval interval;
+            private final long start;
+            private final long end;
+            private final Node left;
+            private final Node right;
+            private final int height;
+            private final long maxEnd;
+
+            Node(LeaveInterval interval, Node left, Node right) {
+                this.interval = interval;
+                this.start = interval.leaveStart.toEpochDay();
+                this.end = interval.leaveEnd.toEpochDay();
+                this.left = left;
+                this.right = right;
+                this.height = 1 + Math.max(height(left), height(right));
+                this.maxEnd = Math.max(end, Math.max(maxEnd(left), maxEnd(right)));
+            }
+        }
+    }
+}
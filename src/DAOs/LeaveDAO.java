@@ -3,7 +3,15 @@ package DAOs;
 import Models.LeaveRequestModel;
 import Models.LeaveRequestModel.ApprovalStatus;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for LeaveRequestModel entities.
@@ -271,29 +279,168 @@ public class LeaveDAO extends BaseDAO<LeaveRequestModel, Integer> {
     }
     
     /**
-     * Approves a leave request
+     * Approves a leave request that is still pending
+     * Only the status is changed; LeaveService approves through applyDecisions so the leave
+     * balance is updated in the same transaction.
      * @param leaveRequestId The leave request ID
      * @param supervisorNotes Optional notes from supervisor
-     * @return true if approval was successful
+     * @return true if approval was successful, false if the request is not pending
      */
     public boolean approveLeaveRequest(Integer leaveRequestId, String supervisorNotes) {
-        String sql = "UPDATE leaverequest SET approvalStatus = ?, dateApproved = CURRENT_TIMESTAMP, supervisorNotes = ? WHERE leaveRequestId = ?";
-        int rowsAffected = executeUpdate(sql, ApprovalStatus.APPROVED.getValue(), supervisorNotes, leaveRequestId);
+        String sql = "UPDATE leaverequest SET approvalStatus = ?, dateApproved = CURRENT_TIMESTAMP, supervisorNotes = ? " +
+                     "WHERE leaveRequestId = ? AND approvalStatus = ?";
+        int rowsAffected = executeUpdate(sql, ApprovalStatus.APPROVED.getValue(), supervisorNotes, leaveRequestId,
+                                         ApprovalStatus.PENDING.getValue());
+        if (rowsAffected > 0) {
+            LeaveCalendarIndex.getInstance().recordStatus(leaveRequestId, ApprovalStatus.APPROVED);
+        }
         return rowsAffected > 0;
     }
     
     /**
-     * Rejects a leave request
+     * Rejects a leave request that is still pending
      * @param leaveRequestId The leave request ID
      * @param supervisorNotes Required notes explaining rejection
-     * @return true if rejection was successful
+     * @return true if rejection was successful, false if the request is not pending
      */
     public boolean rejectLeaveRequest(Integer leaveRequestId, String supervisorNotes) {
-        String sql = "UPDATE leaverequest SET approvalStatus = ?, dateApproved = CURRENT_TIMESTAMP, supervisorNotes = ? WHERE leaveRequestId = ?";
-        int rowsAffected = executeUpdate(sql, ApprovalStatus.REJECTED.getValue(), supervisorNotes, leaveRequestId);
+        String sql = "UPDATE leaverequest SET approvalStatus = ?, dateApproved = CURRENT_TIMESTAMP, supervisorNotes = ? " +
+                     "WHERE leaveRequestId = ? AND approvalStatus = ?";
+        int rowsAffected = executeUpdate(sql, ApprovalStatus.REJECTED.getValue(), supervisorNotes, leaveRequestId,
+                                         ApprovalStatus.PENDING.getValue());
+        if (rowsAffected > 0) {
+            LeaveCalendarIndex.getInstance().recordStatus(leaveRequestId, ApprovalStatus.REJECTED);
+        }
         return rowsAffected > 0;
     }
     
+    
+    /**
+     * Loads several leave requests with one query
+     * @param leaveRequestIds The leave request IDs
+     * @return Requests found, by ID (IDs that don't exist are absent), or null if the query failed
+     */
+    public Map<Integer, LeaveRequestModel> findByIds(Collection<Integer> leaveRequestIds) {
+        Map<Integer, LeaveRequestModel> requests = new LinkedHashMap<>();
+        if (leaveRequestIds.isEmpty()) {
+            return requests;
+        }
+        String sql = "SELECT * FROM leaverequest WHERE leaveRequestId IN (" +
+                     String.join(", ", Collections.nCopies(leaveRequestIds.size(), "?")) + ")";
+        
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int paramIndex = 1;
+            for (Integer leaveRequestId : leaveRequestIds) {
+                stmt.setInt(paramIndex++, leaveRequestId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    LeaveRequestModel leave = mapResultSetToEntity(rs);
+                    requests.put(leave.getLeaveRequestId(), leave);
+                }
+            }
+            return requests;
+            
+        } catch (SQLException e) {
+            System.err.println("Error loading leave requests: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Approves or rejects several pending leave requests in one transaction
+     * Status changes are one batched UPDATE that only touches requests still pending, so a
+     * request decided elsewhere in the meantime is skipped rather than decided twice. When
+     * approving, the used days of the requests that changed are added to the leave balances
+     * with a second batch (one relative update per employee, leave type and year). If any
+     * balance row is missing or has fewer remaining days than are being used, nothing is
+     * committed.
+     * @param requests The requests to decide (already validated as pending)
+     * @param status APPROVED or REJECTED
+     * @param supervisorNotes Notes stored on every request
+     * @return IDs of the requests that were decided, or null if the transaction failed
+     */
+    public Set<Integer> applyDecisions(List<LeaveRequestModel> requests, ApprovalStatus status, String supervisorNotes) {
+        Set<Integer> decided = new HashSet<>();
+        if (requests.isEmpty()) {
+            return decided;
+        }
+        String statusSql = "UPDATE leaverequest SET approvalStatus = ?, dateApproved = CURRENT_TIMESTAMP, supervisorNotes = ? " +
+                           "WHERE leaveRequestId = ? AND approvalStatus = ?";
+        // employeeId, leaveTypeId, year -> days
+        Map<List<Integer>, Integer> balanceChanges = new LinkedHashMap<>();
+        
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(statusSql)) {
+                    for (LeaveRequestModel request : requests) {
+                        stmt.setString(1, status.getValue());
+                        stmt.setString(2, supervisorNotes);
+                        stmt.setInt(3, request.getLeaveRequestId());
+                        stmt.setString(4, ApprovalStatus.PENDING.getValue());
+                        stmt.addBatch();
+                    }
+                    int[] counts = stmt.executeBatch();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                            LeaveRequestModel request = requests.get(i);
+                            decided.add(request.getLeaveRequestId());
+                            if (status == ApprovalStatus.APPROVED) {
+                                balanceChanges.merge(balanceKey(request), (int) request.getLeaveDays(), Integer::sum);
+                            }
+                        }
+                    }
+                }
+                
+                if (!balanceChanges.isEmpty()) {
+                    try (PreparedStatement stmt = conn.prepareStatement(LeaveBalanceDAO.ADD_USED_LEAVE_DAYS_SQL)) {
+                        List<List<Integer>> keys = new ArrayList<>(balanceChanges.keySet());
+                        for (List<Integer> key : keys) {
+                            int days = balanceChanges.get(key);
+                            stmt.setInt(1, days);
+                            stmt.setInt(2, days);
+                            stmt.setInt(3, key.get(0));
+                            stmt.setInt(4, key.get(1));
+                            stmt.setInt(5, key.get(2));
+                            stmt.setInt(6, days);
+                            stmt.setInt(7, days);
+                            stmt.addBatch();
+                        }
+                        int[] counts = stmt.executeBatch();
+                        for (int i = 0; i < counts.length; i++) {
+                            if (counts[i] == 0) {
+                                throw new SQLException("No leave balance with enough remaining days for employee " + keys.get(i).get(0) +
+                                                       ", leave type " + keys.get(i).get(1) + ", year " + keys.get(i).get(2));
+                            }
+                        }
+                    }
+                }
+                
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error applying leave decisions: " + e.getMessage());
+            return null;
+        }
+        
+        for (Integer leaveRequestId : decided) {
+            LeaveCalendarIndex.getInstance().recordStatus(leaveRequestId, status);
+        }
+        for (List<Integer> key : balanceChanges.keySet()) {
+            LeaveBalanceCache.getInstance().invalidate(key.get(0), key.get(2));
+        }
+        return decided;
+    }
+    
+    private static List<Integer> balanceKey(LeaveRequestModel request) {
+        return Arrays.asList(request.getEmployeeId(), request.getLeaveTypeId(), request.getLeaveStart().getYear());
+    }
 
     // OVERRIDE METHODS
 
@@ -319,6 +466,7 @@ public class LeaveDAO extends BaseDAO<LeaveRequestModel, Integer> {
                         handleGeneratedKey(leave, generatedKeys);
                     }
                 }
+                LeaveCalendarIndex.getInstance().record(leave);
                 return true;
             }
             return false;
@@ -330,6 +478,20 @@ public class LeaveDAO extends BaseDAO<LeaveRequestModel, Integer> {
         }
     }
     
+    /**
+     * Override the delete method to keep the leave calendar index in sync
+     * @param leaveRequestId The leave request ID to delete
+     * @return true if delete was successful, false otherwise
+     */
+    @Override
+    public boolean delete(Integer leaveRequestId) {
+        boolean deleted = super.delete(leaveRequestId);
+        if (deleted) {
+            LeaveCalendarIndex.getInstance().remove(leaveRequestId);
+        }
+        return deleted;
+    }
+    
     /**
      * Override the update method to use custom UPDATE SQL
      * @param leave The leave request to update
@@ -344,6 +506,9 @@ public class LeaveDAO extends BaseDAO<LeaveRequestModel, Integer> {
             
             setUpdateParameters(stmt, leave);
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) {
+                LeaveCalendarIndex.getInstance().record(leave);
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
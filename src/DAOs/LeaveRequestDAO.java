@@ -236,6 +236,9 @@ public class LeaveRequestDAO extends BaseDAO<LeaveRequestModel, Integer> {
     public boolean approveLeaveRequest(Integer leaveRequestId, String supervisorNotes) {
         String sql = "UPDATE leaverequest SET approvalStatus = ?, dateApproved = CURRENT_TIMESTAMP, supervisorNotes = ? WHERE leaveRequestId = ?";
         int rowsAffected = executeUpdate(sql, ApprovalStatus.APPROVED.getValue(), supervisorNotes, leaveRequestId);
+        if (rowsAffected > 0) {
+            LeaveCalendarIndex.getInstance().recordStatus(leaveRequestId, ApprovalStatus.APPROVED);
+        }
         return rowsAffected > 0;
     }
     
@@ -248,6 +251,9 @@ public class LeaveRequestDAO extends BaseDAO<LeaveRequestModel, Integer> {
     public boolean rejectLeaveRequest(Integer leaveRequestId, String supervisorNotes) {
         String sql = "UPDATE leaverequest SET approvalStatus = ?, dateApproved = CURRENT_TIMESTAMP, supervisorNotes = ? WHERE leaveRequestId = ?";
         int rowsAffected = executeUpdate(sql, ApprovalStatus.REJECTED.getValue(), supervisorNotes, leaveRequestId);
+        if (rowsAffected > 0) {
+            LeaveCalendarIndex.getInstance().recordStatus(leaveRequestId, ApprovalStatus.REJECTED);
+        }
         return rowsAffected > 0;
     }
     
@@ -273,6 +279,11 @@ public class LeaveRequestDAO extends BaseDAO<LeaveRequestModel, Integer> {
     public boolean hasConflictingLeaveRequests(Integer employeeId, java.time.LocalDate startDate, 
             java.time.LocalDate endDate, Integer excludeRequestId) {
         
+        Boolean indexed = LeaveCalendarIndex.getInstance().hasOverlap(employeeId, startDate, endDate, excludeRequestId);
+        if (indexed != null) {
+            return indexed;
+        }
+        
         String sql = "SELECT COUNT(*) FROM leaverequest WHERE employeeId = ? " +
                     "AND approvalStatus IN ('PENDING', 'APPROVED') " +
                     "AND ((leaveStart <= ? AND leaveEnd >= ?) OR " +
@@ -338,6 +349,7 @@ public class LeaveRequestDAO extends BaseDAO<LeaveRequestModel, Integer> {
                         handleGeneratedKey(leave, generatedKeys);
                     }
                 }
+                LeaveCalendarIndex.getInstance().record(leave);
                 return true;
             }
             return false;
@@ -349,6 +361,20 @@ public class LeaveRequestDAO extends BaseDAO<LeaveRequestModel, Integer> {
         }
     }
     
+    /**
+     * Override the delete method to keep the leave calendar index in sync
+     * @param leaveRequestId The leave request ID to delete
+     * @return true if delete was successful, false otherwise
+     */
+    @Override
+    public boolean delete(Integer leaveRequestId) {
+        boolean deleted = super.delete(leaveRequestId);
+        if (deleted) {
+            LeaveCalendarIndex.getInstance().remove(leaveRequestId);
+        }
+        return deleted;
+    }
+    
     /**
      * Override the update method to use custom UPDATE SQL
      * @param leave The leave request to update
@@ -366,6 +392,9 @@ public class LeaveRequestDAO extends BaseDAO<LeaveRequestModel, Integer> {
             
             setUpdateParameters(stmt, leave);
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) {
+                LeaveCalendarIndex.getInstance().record(leave);
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
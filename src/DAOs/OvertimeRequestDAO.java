@@ -5,7 +5,13 @@ import Models.OvertimeRequestModel.ApprovalStatus;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for OvertimeRequestModel entities.
@@ -387,6 +393,20 @@ public class OvertimeRequestDAO extends BaseDAO<OvertimeRequestModel, Integer> {
         return executeQuery(sql, Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
     }
     
+    /**
+     * Finds all approved overtime requests that start within a date/time range
+     * Ordered by employee and start time so batch payroll runs can group them in one pass
+     * @param startDate The start date/time (inclusive)
+     * @param endDate The end date/time (exclusive)
+     * @return List of approved overtime requests within the range
+     */
+    public List<OvertimeRequestModel> findApprovedByStartRange(LocalDateTime startDate, LocalDateTime endDate) {
+        String sql = "SELECT * FROM overtimerequest " +
+                    "WHERE approvalStatus = 'Approved' AND overtimeStart >= ? AND overtimeStart < ? " +
+                    "ORDER BY employeeId, overtimeStart";
+        return executeQuery(sql, Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
+    }
+    
     /**
      * Gets total overtime hours for an employee in a specific month
      * Only includes approved overtime requests
@@ -478,6 +498,86 @@ public class OvertimeRequestDAO extends BaseDAO<OvertimeRequestModel, Integer> {
         return totalPay.setScale(2, BigDecimal.ROUND_HALF_UP);
     }
     
+    /**
+     * Loads several overtime requests with one query
+     * @param overtimeRequestIds The overtime request IDs
+     * @return Requests found, by ID (IDs that don't exist are absent), or null if the query failed
+     */
+    public Map<Integer, OvertimeRequestModel> findByIds(Collection<Integer> overtimeRequestIds) {
+        Map<Integer, OvertimeRequestModel> requests = new LinkedHashMap<>();
+        if (overtimeRequestIds.isEmpty()) {
+            return requests;
+        }
+        String sql = "SELECT * FROM overtimerequest WHERE overtimeRequestId IN (" +
+                     String.join(", ", Collections.nCopies(overtimeRequestIds.size(), "?")) + ")";
+        
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int paramIndex = 1;
+            for (Integer overtimeRequestId : overtimeRequestIds) {
+                stmt.setInt(paramIndex++, overtimeRequestId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    OvertimeRequestModel overtime = mapResultSetToEntity(rs);
+                    requests.put(overtime.getOvertimeRequestId(), overtime);
+                }
+            }
+            return requests;
+            
+        } catch (SQLException e) {
+            System.err.println("Error loading overtime requests: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Approves or rejects several pending overtime requests with one batched UPDATE in one transaction
+     * Only requests that are still pending are changed, so a request decided elsewhere in the
+     * meantime is skipped rather than decided twice.
+     * @param overtimeRequestIds The requests to decide (already validated as pending)
+     * @param status APPROVED or REJECTED
+     * @param supervisorNotes Notes stored on every request
+     * @return IDs of the requests that were decided, or null if the transaction failed
+     */
+    public Set<Integer> applyDecisions(List<Integer> overtimeRequestIds, ApprovalStatus status, String supervisorNotes) {
+        Set<Integer> decided = new HashSet<>();
+        if (overtimeRequestIds.isEmpty()) {
+            return decided;
+        }
+        String sql = "UPDATE overtimerequest SET approvalStatus = ?, dateApproved = CURRENT_TIMESTAMP, supervisorNotes = ? " +
+                     "WHERE overtimeRequestId = ? AND approvalStatus = ?";
+        
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (Integer overtimeRequestId : overtimeRequestIds) {
+                    stmt.setString(1, status.getValue());
+                    stmt.setString(2, supervisorNotes);
+                    stmt.setInt(3, overtimeRequestId);
+                    stmt.setString(4, ApprovalStatus.PENDING.getValue());
+                    stmt.addBatch();
+                }
+                int[] counts = stmt.executeBatch();
+                conn.commit();
+                
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                        decided.add(overtimeRequestIds.get(i));
+                    }
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error applying overtime decisions: " + e.getMessage());
+            return null;
+        }
+        return decided;
+    }
+    
 
     // OVERRIDE METHODS
 
@@ -384,6 +384,45 @@ public class PayPeriodDAO {
         return null;
     }
     
+    /**
+     * Get the earliest pay period starting after a date that has no payroll yet
+     * Used as the target for retroactive adjustments of already-processed periods
+     * @param afterDate Only periods starting after this date are considered
+     * @return The next open pay period, or null if none is set up yet
+     */
+    public PayPeriodModel findNextOpenPeriod(LocalDate afterDate) {
+        String sql = "SELECT * FROM payperiod pp WHERE pp.startDate > ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM payroll p WHERE p.payPeriodId = pp.payPeriodId) " +
+                    "ORDER BY pp.startDate ASC LIMIT 1";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setDate(1, java.sql.Date.valueOf(afterDate));
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return mapResultSetToPayPeriod(rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finding next open pay period: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Count the working days in a pay period
+     * Rest days and non-working holidays come from the compiled WorkCalendar
+     * @param payPeriod
+     * @return 
+     */
+    public int getWorkingDays(PayPeriodModel payPeriod) {
+        if (payPeriod == null || payPeriod.getStartDate() == null || payPeriod.getEndDate() == null) {
+            return 0;
+        }
+        return WorkCalendar.getInstance().countWorkingDays(payPeriod.getStartDate(), payPeriod.getEndDate());
+    }
+    
     /**
      * Check if pay period exists
      * @param payPeriodId
@@ -0,0 +1,618 @@
+package DAOs;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Data Access Object for the payperiodtotals table.
+ * Keeps running totals per pay period, per source table (payroll or payslip) and per department,
+ * so period summaries are read from one row instead of aggregating the whole period.
+ * PayrollDAO and PayslipDAO apply deltas here inside the same transaction as their own writes.
+ * @author User
+ */
+public class PayPeriodTotalsDAO {
+
+    // Department key of the row holding the totals for the whole period
+    public static final String ALL_DEPARTMENTS = "*";
+
+    // Department key for employees without a position/department
+    public static final String UNASSIGNED_DEPARTMENT = "Unassigned";
+
+    private static volatile boolean tableReady = false;
+
+    private final DatabaseConnection databaseConnection;
+
+    /**
+     * Constructor that accepts a DatabaseConnection instance
+     * @param databaseConnection The database connection to use for all operations
+     */
+    public PayPeriodTotalsDAO(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+    }
+
+    /**
+     * Default constructor using default database connection
+     */
+    public PayPeriodTotalsDAO() {
+        this(new DatabaseConnection());
+    }
+
+
+    // SOURCE TABLES
+
+
+    /**
+     * Base tables whose rows are totalled, with the column expressions that feed each total
+     * Expressions use the alias "b" for the base table
+     */
+    public enum Source {
+        PAYROLL("payroll", "b.grossIncome", "b.netSalary", "b.totalDeduction", "b.totalBenefit"),
+        PAYSLIP("payslip", "b.grossIncome", "b.takeHomePay",
+                "COALESCE(b.sss, 0) + COALESCE(b.philhealth, 0) + COALESCE(b.pagibig, 0) + COALESCE(b.withholdingTax, 0)",
+                "COALESCE(b.riceSubsidy, 0) + COALESCE(b.phoneAllowance, 0) + COALESCE(b.clothingAllowance, 0)");
+
+        private final String tableName;
+        private final String grossExpression;
+        private final String netExpression;
+        private final String deductionsExpression;
+        private final String benefitsExpression;
+
+        Source(String tableName, String grossExpression, String netExpression,
+               String deductionsExpression, String benefitsExpression) {
+            this.tableName = tableName;
+            this.grossExpression = grossExpression;
+            this.netExpression = netExpression;
+            this.deductionsExpression = deductionsExpression;
+            this.benefitsExpression = benefitsExpression;
+        }
+
+        public String getTableName() { return tableName; }
+
+        /**
+         * @return SELECT list of count and sums over the base table, named after the totals columns
+         */
+        private String aggregateColumns() {
+            return "COUNT(*) AS employeeCount, " +
+                   "COALESCE(SUM(" + grossExpression + "), 0) AS totalGrossIncome, " +
+                   "COALESCE(SUM(" + netExpression + "), 0) AS totalNetPay, " +
+                   "COALESCE(SUM(" + deductionsExpression + "), 0) AS totalDeductions, " +
+                   "COALESCE(SUM(" + benefitsExpression + "), 0) AS totalBenefits";
+        }
+    }
+
+
+    // TABLE SETUP
+
+
+    /**
+     * Creates the payperiodtotals table if it does not exist yet
+     * Runs on its own connection because DDL commits any open transaction
+     * @return true if the table is available
+     */
+    public boolean ensureTable() {
+        if (tableReady) {
+            return true;
+        }
+
+        String sql = "CREATE TABLE IF NOT EXISTS payperiodtotals (" +
+                    "payPeriodId INT NOT NULL, " +
+                    "source VARCHAR(10) NOT NULL, " +
+                    "department VARCHAR(100) NOT NULL, " +
+                    "employeeCount INT NOT NULL DEFAULT 0, " +
+                    "totalGrossIncome DECIMAL(15,2) NOT NULL DEFAULT 0, " +
+                    "totalNetPay DECIMAL(15,2) NOT NULL DEFAULT 0, " +
+                    "totalDeductions DECIMAL(15,2) NOT NULL DEFAULT 0, " +
+                    "totalBenefits DECIMAL(15,2) NOT NULL DEFAULT 0, " +
+                    "updatedAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                    "PRIMARY KEY (payPeriodId, source, department))";
+
+        try (Connection conn = databaseConnection.createConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+            tableReady = true;
+        } catch (SQLException e) {
+            System.err.println("Error creating pay period totals table: " + e.getMessage());
+        }
+
+        return tableReady;
+    }
+
+
+    // READ METHODS
+
+
+    /**
+     * Gets the stored totals for a whole pay period
+     * A period that has never been totalled is built from the base table first
+     * @param source The base table
+     * @param payPeriodId The pay period ID
+     * @return The period totals, or null if they could not be read
+     */
+    public PeriodTotals getPeriodTotals(Source source, Integer payPeriodId) {
+        PeriodTotals totals = findStoredTotals(source, payPeriodId, ALL_DEPARTMENTS);
+        if (totals == null && rebuild(source, payPeriodId)) {
+            totals = findStoredTotals(source, payPeriodId, ALL_DEPARTMENTS);
+        }
+        return totals;
+    }
+
+    /**
+     * Gets the stored totals of each department for a pay period
+     * @param source The base table
+     * @param payPeriodId The pay period ID
+     * @return Map of department name to totals (empty if the period has no rows)
+     */
+    public Map<String, PeriodTotals> getDepartmentTotals(Source source, Integer payPeriodId) {
+        if (getPeriodTotals(source, payPeriodId) == null) {
+            return new HashMap<>();
+        }
+
+        String sql = "SELECT * FROM payperiodtotals " +
+                    "WHERE payPeriodId = ? AND source = ? AND department <> ? " +
+                    "ORDER BY department";
+
+        Map<String, PeriodTotals> totals = new HashMap<>();
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, payPeriodId);
+            stmt.setString(2, source.name());
+            stmt.setString(3, ALL_DEPARTMENTS);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    PeriodTotals departmentTotals = mapTotals(rs);
+                    totals.put(departmentTotals.getDepartment(), departmentTotals);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting department totals: " + e.getMessage());
+        }
+
+        return totals;
+    }
+
+    /**
+     * Reads one stored totals row without rebuilding
+     * @return The stored totals, or null if there is no row
+     */
+    private PeriodTotals findStoredTotals(Source source, Integer payPeriodId, String department) {
+        if (payPeriodId == null || !ensureTable()) {
+            return null;
+        }
+
+        String sql = "SELECT * FROM payperiodtotals WHERE payPeriodId = ? AND source = ? AND department = ?";
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, payPeriodId);
+            stmt.setString(2, source.name());
+            stmt.setString(3, department);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapTotals(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading pay period totals: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+
+    // TRANSACTIONAL MAINTENANCE - called by PayrollDAO and PayslipDAO inside their transactions
+
+
+    /**
+     * Locks the period's totals row for the rest of the transaction, building it first if missing
+     * Call before changing base rows so that a first-time build does not include the change
+     * @param conn Connection with an open transaction
+     * @param source The base table being changed
+     * @param payPeriodId The pay period being changed
+     * @throws SQLException if the totals cannot be locked or built
+     */
+    public void lockPeriod(Connection conn, Source source, Integer payPeriodId) throws SQLException {
+        if (payPeriodId == null) {
+            return;
+        }
+        if (!ensureTable()) {
+            throw new SQLException("Pay period totals table is not available");
+        }
+
+        String sql = "SELECT employeeCount FROM payperiodtotals " +
+                    "WHERE payPeriodId = ? AND source = ? AND department = ? FOR UPDATE";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, payPeriodId);
+            stmt.setString(2, source.name());
+            stmt.setString(3, ALL_DEPARTMENTS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+        }
+
+        rebuild(conn, source, payPeriodId);
+    }
+
+    /**
+     * Prepares the statement used by addDelta
+     * @param conn Connection with an open transaction
+     * @return Statement to pass to addDelta
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public PreparedStatement prepareDelta(Connection conn) throws SQLException {
+        // One upsert touches both the whole-period row and the employee's department row
+        String sql = "INSERT INTO payperiodtotals " +
+                    "(payPeriodId, source, department, employeeCount, totalGrossIncome, totalNetPay, totalDeductions, totalBenefits) " +
+                    "SELECT ?, ?, d.department, ?, ?, ?, ?, ? FROM (" +
+                    "SELECT '" + ALL_DEPARTMENTS + "' AS department " +
+                    "UNION ALL " +
+                    "SELECT COALESCE((SELECT pos.department FROM employee e " +
+                    "JOIN position pos ON pos.positionId = e.positionId " +
+                    "WHERE e.employeeId = ?), '" + UNASSIGNED_DEPARTMENT + "')" +
+                    ") d " +
+                    "ON DUPLICATE KEY UPDATE " +
+                    "employeeCount = employeeCount + VALUES(employeeCount), " +
+                    "totalGrossIncome = totalGrossIncome + VALUES(totalGrossIncome), " +
+                    "totalNetPay = totalNetPay + VALUES(totalNetPay), " +
+                    "totalDeductions = totalDeductions + VALUES(totalDeductions), " +
+                    "totalBenefits = totalBenefits + VALUES(totalBenefits)";
+        return conn.prepareStatement(sql);
+    }
+
+    /**
+     * Adds one base row to (sign 1) or removes it from (sign -1) the totals as a batch entry
+     * @param stmt Statement from prepareDelta
+     * @param source The base table
+     * @param payPeriodId The row's pay period
+     * @param employeeId The row's employee, used to find the department
+     * @param amounts The row's amounts
+     * @param sign 1 to add the row, -1 to remove it
+     * @throws SQLException if the parameters cannot be set
+     */
+    public void addDelta(PreparedStatement stmt, Source source, Integer payPeriodId, Integer employeeId,
+                         PeriodTotals amounts, int sign) throws SQLException {
+        BigDecimal factor = new BigDecimal(sign);
+        int paramIndex = 1;
+        stmt.setInt(paramIndex++, payPeriodId);
+        stmt.setString(paramIndex++, source.name());
+        stmt.setInt(paramIndex++, sign * amounts.getEmployeeCount());
+        stmt.setBigDecimal(paramIndex++, amounts.getTotalGrossIncome().multiply(factor));
+        stmt.setBigDecimal(paramIndex++, amounts.getTotalNetPay().multiply(factor));
+        stmt.setBigDecimal(paramIndex++, amounts.getTotalDeductions().multiply(factor));
+        stmt.setBigDecimal(paramIndex++, amounts.getTotalBenefits().multiply(factor));
+        if (employeeId != null) {
+            stmt.setInt(paramIndex++, employeeId);
+        } else {
+            stmt.setNull(paramIndex++, Types.INTEGER);
+        }
+        stmt.addBatch();
+    }
+
+    /**
+     * Applies a single base row change to the totals
+     * @param conn Connection with an open transaction (period already locked)
+     * @see #addDelta
+     * @throws SQLException if the totals cannot be updated
+     */
+    public void applyDelta(Connection conn, Source source, Integer payPeriodId, Integer employeeId,
+                           PeriodTotals amounts, int sign) throws SQLException {
+        if (payPeriodId == null) {
+            return;
+        }
+        try (PreparedStatement stmt = prepareDelta(conn)) {
+            addDelta(stmt, source, payPeriodId, employeeId, amounts, sign);
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Replaces a period's totals with fresh aggregates of the base table
+     * @param conn Connection with an open transaction
+     * @param source The base table
+     * @param payPeriodId The pay period ID
+     * @throws SQLException if the totals cannot be rebuilt
+     */
+    public void rebuild(Connection conn, Source source, Integer payPeriodId) throws SQLException {
+        String deleteSql = "DELETE FROM payperiodtotals WHERE payPeriodId = ? AND source = ?";
+
+        // The whole-period row is always written, even for an empty period
+        String periodSql = "INSERT INTO payperiodtotals " +
+                          "(payPeriodId, source, department, employeeCount, totalGrossIncome, totalNetPay, totalDeductions, totalBenefits) " +
+                          "SELECT ?, ?, '" + ALL_DEPARTMENTS + "', " + source.aggregateColumns() + " " +
+                          "FROM " + source.getTableName() + " b WHERE b.payPeriodId = ?";
+
+        String departmentSql = "INSERT INTO payperiodtotals " +
+                              "(payPeriodId, source, department, employeeCount, totalGrossIncome, totalNetPay, totalDeductions, totalBenefits) " +
+                              "SELECT ?, ?, " + departmentExpression() + ", " + source.aggregateColumns() + " " +
+                              departmentJoin(source) +
+                              "WHERE b.payPeriodId = ? " +
+                              "GROUP BY " + departmentExpression();
+
+        try (PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
+            stmt.setInt(1, payPeriodId);
+            stmt.setString(2, source.name());
+            stmt.executeUpdate();
+        }
+
+        for (String sql : new String[]{periodSql, departmentSql}) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, payPeriodId);
+                stmt.setString(2, source.name());
+                stmt.setInt(3, payPeriodId);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+
+    // CONSISTENCY CHECKER
+
+
+    /**
+     * Rebuilds a period's totals for one source in its own transaction
+     * @param source The base table
+     * @param payPeriodId The pay period ID
+     * @return true if the totals were rebuilt
+     */
+    public boolean rebuild(Source source, Integer payPeriodId) {
+        if (payPeriodId == null || !ensureTable()) {
+            return false;
+        }
+
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                rebuild(conn, source, payPeriodId);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding pay period totals: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Compares a period's stored totals with fresh aggregates of the payroll and payslip tables
+     * @param payPeriodId The pay period ID
+     * @return Every department (and the whole-period row) whose stored totals differ
+     */
+    public List<TotalsMismatch> reconcile(Integer payPeriodId) {
+        List<TotalsMismatch> mismatches = new ArrayList<>();
+        if (payPeriodId == null || !ensureTable()) {
+            return mismatches;
+        }
+
+        for (Source source : Source.values()) {
+            Map<String, PeriodTotals> stored = loadTotals(source, payPeriodId, true);
+            if (stored.isEmpty()) {
+                continue; // Never built; built from the base table on first read
+            }
+            Map<String, PeriodTotals> actual = loadTotals(source, payPeriodId, false);
+
+            Set<String> departments = new HashSet<>(stored.keySet());
+            departments.addAll(actual.keySet());
+
+            for (String department : departments) {
+                PeriodTotals storedTotals = stored.getOrDefault(department, new PeriodTotals(department));
+                PeriodTotals actualTotals = actual.getOrDefault(department, new PeriodTotals(department));
+                if (!storedTotals.matches(actualTotals)) {
+                    mismatches.add(new TotalsMismatch(payPeriodId, source, department, storedTotals, actualTotals));
+                }
+            }
+        }
+
+        return mismatches;
+    }
+
+    /**
+     * Reconciles a period and rebuilds every source that has a mismatch
+     * @param payPeriodId The pay period ID
+     * @return The mismatches that were found (and repaired)
+     */
+    public List<TotalsMismatch> reconcileAndRepair(Integer payPeriodId) {
+        List<TotalsMismatch> mismatches = reconcile(payPeriodId);
+
+        Set<Source> toRebuild = new HashSet<>();
+        for (TotalsMismatch mismatch : mismatches) {
+            toRebuild.add(mismatch.getSource());
+        }
+        for (Source source : toRebuild) {
+            if (rebuild(source, payPeriodId)) {
+                System.out.println("✅ Rebuilt " + source + " totals for period " + payPeriodId);
+            }
+        }
+
+        return mismatches;
+    }
+
+    /**
+     * Loads totals keyed by department, either as stored or freshly aggregated from the base table
+     */
+    private Map<String, PeriodTotals> loadTotals(Source source, Integer payPeriodId, boolean stored) {
+        Map<String, PeriodTotals> totals = new HashMap<>();
+
+        String sql;
+        if (stored) {
+            sql = "SELECT * FROM payperiodtotals WHERE payPeriodId = ? AND source = '" + source.name() + "'";
+        } else {
+            sql = "SELECT '" + ALL_DEPARTMENTS + "' AS department, " + source.aggregateColumns() + " " +
+                  "FROM " + source.getTableName() + " b WHERE b.payPeriodId = ? " +
+                  "UNION ALL " +
+                  "SELECT " + departmentExpression() + " AS department, " + source.aggregateColumns() + " " +
+                  departmentJoin(source) +
+                  "WHERE b.payPeriodId = ? " +
+                  "GROUP BY " + departmentExpression();
+        }
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, payPeriodId);
+            if (!stored) {
+                stmt.setInt(2, payPeriodId);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    PeriodTotals row = mapTotals(rs);
+                    totals.put(row.getDepartment(), row);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading pay period totals: " + e.getMessage());
+        }
+
+        return totals;
+    }
+
+
+    // HELPER METHODS
+
+
+    private static String departmentExpression() {
+        return "COALESCE(pos.department, '" + UNASSIGNED_DEPARTMENT + "')";
+    }
+
+    private static String departmentJoin(Source source) {
+        return "FROM " + source.getTableName() + " b " +
+               "LEFT JOIN employee e ON e.employeeId = b.employeeId " +
+               "LEFT JOIN position pos ON pos.positionId = e.positionId ";
+    }
+
+    private PeriodTotals mapTotals(ResultSet rs) throws SQLException {
+        PeriodTotals totals = new PeriodTotals(rs.getString("department"));
+        totals.setEmployeeCount(rs.getInt("employeeCount"));
+        totals.setTotalGrossIncome(rs.getBigDecimal("totalGrossIncome"));
+        totals.setTotalNetPay(rs.getBigDecimal("totalNetPay"));
+        totals.setTotalDeductions(rs.getBigDecimal("totalDeductions"));
+        totals.setTotalBenefits(rs.getBigDecimal("totalBenefits"));
+        return totals;
+    }
+
+
+    // INNER CLASSES
+
+
+    /**
+     * Count and money totals for a period (or department), also used for a single row's amounts
+     */
+    public static class PeriodTotals {
+        private final String department;
+        private int employeeCount;
+        private BigDecimal totalGrossIncome = BigDecimal.ZERO;
+        private BigDecimal totalNetPay = BigDecimal.ZERO;
+        private BigDecimal totalDeductions = BigDecimal.ZERO;
+        private BigDecimal totalBenefits = BigDecimal.ZERO;
+
+        public PeriodTotals(String department) {
+            this.department = department;
+        }
+
+        /**
+         * Amounts of a single base row
+         */
+        public static PeriodTotals ofRow(BigDecimal grossIncome, BigDecimal netPay,
+                                         BigDecimal deductions, BigDecimal benefits) {
+            PeriodTotals totals = new PeriodTotals(null);
+            totals.setEmployeeCount(1);
+            totals.setTotalGrossIncome(grossIncome);
+            totals.setTotalNetPay(netPay);
+            totals.setTotalDeductions(deductions);
+            totals.setTotalBenefits(benefits);
+            return totals;
+        }
+
+        /**
+         * @return true if the count and all amounts are equal
+         */
+        public boolean matches(PeriodTotals other) {
+            return employeeCount == other.employeeCount &&
+                   totalGrossIncome.compareTo(other.totalGrossIncome) == 0 &&
+                   totalNetPay.compareTo(other.totalNetPay) == 0 &&
+                   totalDeductions.compareTo(other.totalDeductions) == 0 &&
+                   totalBenefits.compareTo(other.totalBenefits) == 0;
+        }
+
+        // Getters and setters
+        public String getDepartment() { return department; }
+
+        public int getEmployeeCount() { return employeeCount; }
+        public void setEmployeeCount(int employeeCount) { this.employeeCount = employeeCount; }
+
+        public BigDecimal getTotalGrossIncome() { return totalGrossIncome; }
+        public void setTotalGrossIncome(BigDecimal totalGrossIncome) {
+            this.totalGrossIncome = totalGrossIncome != null ? totalGrossIncome : BigDecimal.ZERO;
+        }
+
+        public BigDecimal getTotalNetPay() { return totalNetPay; }
+        public void setTotalNetPay(BigDecimal totalNetPay) {
+            this.totalNetPay = totalNetPay != null ? totalNetPay : BigDecimal.ZERO;
+        }
+
+        public BigDecimal getTotalDeductions() { return totalDeductions; }
+        public void setTotalDeductions(BigDecimal totalDeductions) {
+            this.totalDeductions = totalDeductions != null ? totalDeductions : BigDecimal.ZERO;
+        }
+
+        public BigDecimal getTotalBenefits() { return totalBenefits; }
+        public void setTotalBenefits(BigDecimal totalBenefits) {
+            this.totalBenefits = totalBenefits != null ? totalBenefits : BigDecimal.ZERO;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PeriodTotals{department=%s, employees=%d, gross=%s, net=%s, deductions=%s, benefits=%s}",
+                    department, employeeCount, totalGrossIncome, totalNetPay, totalDeductions, totalBenefits);
+        }
+    }
+
+    /**
+     * A stored totals row that disagrees with the base table
+     */
+    public static class TotalsMismatch {
+        private final Integer payPeriodId;
+        private final Source source;
+        private final String department;
+        private final PeriodTotals stored;
+        private final PeriodTotals actual;
+
+        public TotalsMismatch(Integer payPeriodId, Source source, String department,
+                              PeriodTotals stored, PeriodTotals actual) {
+            this.payPeriodId = payPeriodId;
+            this.source = source;
+            this.department = department;
+            this.stored = stored;
+            this.actual = actual;
+        }
+
+        // Getters
+        public Integer getPayPeriodId() { return payPeriodId; }
+        public Source getSource() { return source; }
+        public String getDepartment() { return department; }
+        public PeriodTotals getStored() { return stored; }
+        public PeriodTotals getActual() { return actual; }
+
+        @Override
+        public String toString() {
+            return String.format("TotalsMismatch{payPeriodId=%d, source=%s, department=%s, stored=%s, actual=%s}",
+                    payPeriodId, source, department, stored, actual);
+        }
+    }
+}
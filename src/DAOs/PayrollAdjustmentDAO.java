@@ -0,0 +1,373 @@
+package DAOs;
+
+import Models.PayrollAdjustmentModel;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for PayrollAdjustmentModel entities.
+ * Stores adjustment lines that correct processed pay periods and are paid out in a later open period.
+ * @author User
+ */
+public class PayrollAdjustmentDAO extends BaseDAO<PayrollAdjustmentModel, Integer> {
+
+    private static volatile boolean tableReady = false;
+
+    /**
+     * Constructor that accepts a DatabaseConnection instance
+     * @param databaseConnection The database connection to use for all operations
+     */
+    public PayrollAdjustmentDAO(DatabaseConnection databaseConnection) {
+        super(databaseConnection);
+    }
+
+    /**
+     * Default constructor using default database connection
+     */
+    public PayrollAdjustmentDAO() {
+        super(new DatabaseConnection());
+    }
+
+
+    // ABSTRACT METHOD IMPLEMENTATIONS - Required by BaseDAO
+
+
+    @Override
+    protected PayrollAdjustmentModel mapResultSetToEntity(ResultSet rs) throws SQLException {
+        PayrollAdjustmentModel adjustment = new PayrollAdjustmentModel();
+        adjustment.setAdjustmentId(rs.getInt("adjustmentId"));
+        adjustment.setEmployeeId(rs.getInt("employeeId"));
+        adjustment.setSourcePayPeriodId(rs.getInt("sourcePayPeriodId"));
+        adjustment.setTargetPayPeriodId(rs.getInt("targetPayPeriodId"));
+        adjustment.setSalaryHistoryId(rs.getInt("salaryHistoryId"));
+        adjustment.setGrossAdjustment(rs.getBigDecimal("grossAdjustment"));
+        adjustment.setDeductionAdjustment(rs.getBigDecimal("deductionAdjustment"));
+        adjustment.setNetAdjustment(rs.getBigDecimal("netAdjustment"));
+        adjustment.setReason(rs.getString("reason"));
+
+        Timestamp createdAt = rs.getTimestamp("createdAt");
+        if (createdAt != null) {
+            adjustment.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        return adjustment;
+    }
+
+    @Override
+    protected String getTableName() {
+        return "payrolladjustment";
+    }
+
+    @Override
+    protected String getPrimaryKeyColumn() {
+        return "adjustmentId";
+    }
+
+    @Override
+    protected void setInsertParameters(PreparedStatement stmt, PayrollAdjustmentModel adjustment) throws SQLException {
+        int paramIndex = 1;
+        stmt.setInt(paramIndex++, adjustment.getEmployeeId());
+        stmt.setInt(paramIndex++, adjustment.getSourcePayPeriodId());
+        stmt.setInt(paramIndex++, adjustment.getTargetPayPeriodId());
+        stmt.setInt(paramIndex++, adjustment.getSalaryHistoryId());
+        stmt.setBigDecimal(paramIndex++, adjustment.getGrossAdjustment());
+        stmt.setBigDecimal(paramIndex++, adjustment.getDeductionAdjustment());
+        stmt.setBigDecimal(paramIndex++, adjustment.getNetAdjustment());
+        stmt.setString(paramIndex++, adjustment.getReason());
+    }
+
+    @Override
+    protected void setUpdateParameters(PreparedStatement stmt, PayrollAdjustmentModel adjustment) throws SQLException {
+        setInsertParameters(stmt, adjustment);
+        stmt.setInt(9, adjustment.getAdjustmentId());
+    }
+
+    @Override
+    protected Integer getEntityId(PayrollAdjustmentModel adjustment) {
+        return adjustment.getAdjustmentId();
+    }
+
+
+    // CUSTOM SQL BUILDERS
+
+
+    /**
+     * Plain insert; saveAdjustments() removes the unpaid line it replaces first
+     */
+    private String buildInsertSQL() {
+        return "INSERT INTO payrolladjustment " +
+               "(employeeId, sourcePayPeriodId, targetPayPeriodId, salaryHistoryId, " +
+               "grossAdjustment, deductionAdjustment, netAdjustment, reason) " +
+               "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    /**
+     * Existing lines for a set of (employee, source period, salary change) keys, locked for the
+     * rest of the transaction. A line counts as paid once payroll exists for its employee in its
+     * target period.
+     */
+    private String buildExistingLinesSQL(int keyCount) {
+        String keys = String.join(", ", java.util.Collections.nCopies(keyCount, "(?, ?, ?)"));
+        return "SELECT a.*, EXISTS (SELECT 1 FROM payroll p WHERE p.employeeId = a.employeeId " +
+               "AND p.payPeriodId = a.targetPayPeriodId) AS paid " +
+               "FROM payrolladjustment a " +
+               "WHERE (a.employeeId, a.sourcePayPeriodId, a.salaryHistoryId) IN (" + keys + ") FOR UPDATE";
+    }
+
+    private String buildUpdateSQL() {
+        return "UPDATE payrolladjustment SET employeeId = ?, sourcePayPeriodId = ?, targetPayPeriodId = ?, " +
+               "salaryHistoryId = ?, grossAdjustment = ?, deductionAdjustment = ?, netAdjustment = ?, reason = ? " +
+               "WHERE adjustmentId = ?";
+    }
+
+
+    // TABLE SETUP
+
+
+    /**
+     * Creates the payrolladjustment table if it does not exist yet
+     * @return true if the table is available
+     */
+    public boolean ensureTable() {
+        if (tableReady) {
+            return true;
+        }
+
+        String sql = "CREATE TABLE IF NOT EXISTS payrolladjustment (" +
+                    "adjustmentId INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "employeeId INT NOT NULL, " +
+                    "sourcePayPeriodId INT NOT NULL, " +
+                    "targetPayPeriodId INT NOT NULL, " +
+                    "salaryHistoryId INT NOT NULL, " +
+                    "grossAdjustment DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+                    "deductionAdjustment DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+                    "netAdjustment DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+                    "reason VARCHAR(255), " +
+                    "createdAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                    "UNIQUE KEY uk_adjustment_change (employeeId, sourcePayPeriodId, salaryHistoryId, targetPayPeriodId), " +
+                    "INDEX idx_adjustment_target (targetPayPeriodId, employeeId))";
+
+        try (Connection conn = databaseConnection.createConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+            tableReady = true;
+        } catch (SQLException e) {
+            System.err.println("Error creating payroll adjustment table: " + e.getMessage());
+        }
+
+        return tableReady;
+    }
+
+
+    // CUSTOM ADJUSTMENT METHODS
+
+
+    /**
+     * Writes adjustment lines with one batched statement in a single transaction
+     * Each line is the full difference a salary change makes to one source period. Lines already
+     * paid out are never touched: only what they have not covered yet is written, as a new line in
+     * the given target period. An earlier line that has not been paid yet is replaced, so rerunning
+     * the retro engine never doubles an adjustment.
+     * @param adjustments The adjustment lines to write
+     * @return Number of lines written, or -1 if the batch was rolled back
+     */
+    public int saveAdjustments(List<PayrollAdjustmentModel> adjustments) {
+        if (adjustments == null || adjustments.isEmpty()) {
+            return 0;
+        }
+        if (!ensureTable()) {
+            return -1;
+        }
+
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // 1. What each change has already paid, and the unpaid lines being replaced
+                Map<String, PayrollAdjustmentModel> paidTotals = new HashMap<>();
+                List<Integer> replaced = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(buildExistingLinesSQL(adjustments.size()))) {
+                    int paramIndex = 1;
+                    for (PayrollAdjustmentModel adjustment : adjustments) {
+                        stmt.setInt(paramIndex++, adjustment.getEmployeeId());
+                        stmt.setInt(paramIndex++, adjustment.getSourcePayPeriodId());
+                        stmt.setInt(paramIndex++, adjustment.getSalaryHistoryId());
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            PayrollAdjustmentModel line = mapResultSetToEntity(rs);
+                            if (!rs.getBoolean("paid")) {
+                                replaced.add(line.getAdjustmentId());
+                                continue;
+                            }
+                            PayrollAdjustmentModel paid = paidTotals.computeIfAbsent(changeKey(line), k -> new PayrollAdjustmentModel());
+                            paid.setGrossAdjustment(paid.getGrossAdjustment().add(line.getGrossAdjustment()));
+                            paid.setDeductionAdjustment(paid.getDeductionAdjustment().add(line.getDeductionAdjustment()));
+                            paid.setNetAdjustment(paid.getNetAdjustment().add(line.getNetAdjustment()));
+                        }
+                    }
+                }
+
+                if (!replaced.isEmpty()) {
+                    String placeholders = String.join(", ", java.util.Collections.nCopies(replaced.size(), "?"));
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                            "DELETE FROM payrolladjustment WHERE adjustmentId IN (" + placeholders + ")")) {
+                        for (int i = 0; i < replaced.size(); i++) {
+                            stmt.setInt(i + 1, replaced.get(i));
+                        }
+                        stmt.executeUpdate();
+                    }
+                }
+
+                // 2. Insert whatever the paid lines do not cover yet
+                int written = 0;
+                try (PreparedStatement stmt = conn.prepareStatement(buildInsertSQL())) {
+                    for (PayrollAdjustmentModel adjustment : adjustments) {
+                        PayrollAdjustmentModel line = adjustment;
+                        PayrollAdjustmentModel paid = paidTotals.get(changeKey(adjustment));
+                        if (paid != null) {
+                            line = new PayrollAdjustmentModel(adjustment.getEmployeeId(), adjustment.getSourcePayPeriodId(),
+                                                              adjustment.getTargetPayPeriodId(), adjustment.getSalaryHistoryId());
+                            line.setGrossAdjustment(adjustment.getGrossAdjustment().subtract(paid.getGrossAdjustment()));
+                            line.setDeductionAdjustment(adjustment.getDeductionAdjustment().subtract(paid.getDeductionAdjustment()));
+                            line.setNetAdjustment(adjustment.getNetAdjustment().subtract(paid.getNetAdjustment()));
+                            line.setReason(adjustment.getReason());
+                        }
+                        if (line.isZero()) {
+                            continue;
+                        }
+                        setInsertParameters(stmt, line);
+                        stmt.addBatch();
+                        written++;
+                    }
+                    if (written > 0) {
+                        stmt.executeBatch();
+                    }
+                }
+                conn.commit();
+                return written;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saving payroll adjustments: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static String changeKey(PayrollAdjustmentModel adjustment) {
+        return adjustment.getEmployeeId() + ":" + adjustment.getSourcePayPeriodId() + ":" + adjustment.getSalaryHistoryId();
+    }
+
+    /**
+     * Finds all adjustment lines to be paid in a pay period
+     * @param targetPayPeriodId The pay period the adjustments are paid in
+     * @return List of adjustment lines
+     */
+    public List<PayrollAdjustmentModel> findByTargetPeriod(Integer targetPayPeriodId) {
+        if (targetPayPeriodId == null || !ensureTable()) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT * FROM payrolladjustment WHERE targetPayPeriodId = ? ORDER BY employeeId, sourcePayPeriodId";
+        return executeQuery(sql, targetPayPeriodId);
+    }
+
+    /**
+     * Finds all adjustment lines for an employee
+     * @param employeeId The employee ID
+     * @return List of adjustment lines, newest first
+     */
+    public List<PayrollAdjustmentModel> findByEmployee(Integer employeeId) {
+        if (employeeId == null || !ensureTable()) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT * FROM payrolladjustment WHERE employeeId = ? ORDER BY createdAt DESC";
+        return executeQuery(sql, employeeId);
+    }
+
+    /**
+     * Sums the adjustment lines each employee is owed in a pay period
+     * @param targetPayPeriodId The pay period the adjustments are paid in
+     * @return Map of employeeId to the summed adjustment (ids are left null)
+     */
+    public Map<Integer, PayrollAdjustmentModel> getAdjustmentTotalsForPeriod(Integer targetPayPeriodId) {
+        Map<Integer, PayrollAdjustmentModel> totals = new HashMap<>();
+        for (PayrollAdjustmentModel line : findByTargetPeriod(targetPayPeriodId)) {
+            PayrollAdjustmentModel total = totals.computeIfAbsent(line.getEmployeeId(), id -> {
+                PayrollAdjustmentModel sum = new PayrollAdjustmentModel();
+                sum.setEmployeeId(id);
+                sum.setTargetPayPeriodId(targetPayPeriodId);
+                return sum;
+            });
+            total.setGrossAdjustment(total.getGrossAdjustment().add(line.getGrossAdjustment()));
+            total.setDeductionAdjustment(total.getDeductionAdjustment().add(line.getDeductionAdjustment()));
+            total.setNetAdjustment(total.getNetAdjustment().add(line.getNetAdjustment()));
+        }
+        return totals;
+    }
+
+    /**
+     * Gets the total adjustment an employee is owed in a pay period
+     * @param employeeId The employee ID
+     * @param targetPayPeriodId The pay period the adjustments are paid in
+     * @return Summed adjustment (all zero if there are none)
+     */
+    public PayrollAdjustmentModel getAdjustmentTotal(Integer employeeId, Integer targetPayPeriodId) {
+        PayrollAdjustmentModel total = new PayrollAdjustmentModel();
+        total.setEmployeeId(employeeId);
+        total.setTargetPayPeriodId(targetPayPeriodId);
+        if (employeeId == null || targetPayPeriodId == null || !ensureTable()) {
+            return total;
+        }
+
+        String sql = "SELECT COALESCE(SUM(grossAdjustment), 0) AS gross, " +
+                    "COALESCE(SUM(deductionAdjustment), 0) AS deductions, " +
+                    "COALESCE(SUM(netAdjustment), 0) AS net " +
+                    "FROM payrolladjustment WHERE employeeId = ? AND targetPayPeriodId = ?";
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, employeeId);
+            stmt.setInt(2, targetPayPeriodId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    total.setGrossAdjustment(rs.getBigDecimal("gross"));
+                    total.setDeductionAdjustment(rs.getBigDecimal("deductions"));
+                    total.setNetAdjustment(rs.getBigDecimal("net"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting adjustment total: " + e.getMessage());
+        }
+
+        return total;
+    }
+
+
+    // OVERRIDE METHODS
+
+
+    @Override
+    public boolean save(PayrollAdjustmentModel adjustment) {
+        List<PayrollAdjustmentModel> single = new ArrayList<>();
+        single.add(adjustment);
+        // Nothing is written when paid lines already cover the adjustment
+        return saveAdjustments(single) >= 0;
+    }
+
+    @Override
+    public boolean update(PayrollAdjustmentModel adjustment) {
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(buildUpdateSQL())) {
+            setUpdateParameters(stmt, adjustment);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating payroll adjustment: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -5,7 +5,10 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.*;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Data Access Object for PayrollModel entities.
@@ -15,12 +18,29 @@ import java.util.List;
  */
 public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
     
+    // Running per-period totals, kept in step with every payroll write
+    private final PayPeriodTotalsDAO totalsDAO;
+    
+    // Content hashes and per-period Merkle trees, kept in step with every payroll write
+    private final PayrollIntegrityDAO integrityDAO;
+    
+    // Name of the unique (employeeId, payPeriodId) key that backs saveIfAbsent()
+    private static final String UNIQUE_KEY = "uk_payroll_employee_period";
+    
+    // Set once the unique key is known to exist; null until checked
+    private static volatile Boolean uniqueKeyReady = null;
+    
+    // Times update()/delete() re-read a row's period if it moves before the row is locked
+    private static final int MAX_LOCK_ATTEMPTS = 3;
+    
     /**
      * Constructor that accepts a DatabaseConnection instance
      * @param databaseConnection The database connection to use for all operations
      */
     public PayrollDAO(DatabaseConnection databaseConnection) {
         super(databaseConnection);
+        this.totalsDAO = new PayPeriodTotalsDAO(databaseConnection);
+        this.integrityDAO = new PayrollIntegrityDAO(databaseConnection);
     }
     
 
@@ -169,6 +189,14 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
                "VALUES (?, ?, ?, ?, ?, ?, ?)";
     }
     
+    /**
+     * Insert that does nothing when the employee already has payroll for the period
+     * Only used once the unique (employeeId, payPeriodId) key exists
+     */
+    private String buildInsertIfAbsentSQL() {
+        return buildInsertSQL() + " ON DUPLICATE KEY UPDATE payrollId = payrollId";
+    }
+    
     /**
      * Builds the complete UPDATE SQL statement for payroll
      * @return The complete UPDATE SQL statement
@@ -198,6 +226,46 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
         return executeQuery(sql, payPeriodId);
     }
     
+    /**
+     * Loads every payroll record of a pay period together with the employee's current salary data
+     * One LEFT JOIN replaces a findById per payroll row; rows whose employee no longer exists
+     * come back with a null employee salary
+     * @param payPeriodId The pay period ID
+     * @return List of payroll rows with employee data, ordered by employee ID
+     */
+    public List<PayrollEmployeeRow> findPayrollWithEmployee(Integer payPeriodId) {
+        String sql = "SELECT p.*, e.employeeId AS empId, e.firstName, e.lastName, " +
+                    "e.basicSalary AS employeeBasicSalary, e.hourlyRate AS employeeHourlyRate " +
+                    "FROM payroll p " +
+                    "LEFT JOIN employee e ON p.employeeId = e.employeeId " +
+                    "WHERE p.payPeriodId = ? " +
+                    "ORDER BY p.employeeId";
+        
+        List<PayrollEmployeeRow> rows = new java.util.ArrayList<>();
+        
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, payPeriodId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    PayrollEmployeeRow row = new PayrollEmployeeRow();
+                    row.setPayroll(mapResultSetToEntity(rs));
+                    row.setEmployeeFound(rs.getObject("empId") != null);
+                    row.setEmployeeName(rs.getString("firstName") + " " + rs.getString("lastName"));
+                    row.setEmployeeBasicSalary(rs.getBigDecimal("employeeBasicSalary"));
+                    row.setEmployeeHourlyRate(rs.getBigDecimal("employeeHourlyRate"));
+                    rows.add(row);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading payroll with employee data: " + e.getMessage());
+        }
+        
+        return rows;
+    }
+    
     /**
      * Generates payroll for all active employees in a specific pay period
      * This method creates payroll records by calculating salary, benefits, and deductions
@@ -229,7 +297,7 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
         }
         
         // Generate payroll for all active employees
-        String employeeSql = "SELECT employeeId, firstName, lastName, basicSalary, hourlyRate " +
+        String employeeSql = "SELECT employeeId, firstName, lastName, basicSalary, hourlyRate, positionId " +
                             "FROM employee " +
                             "WHERE status != 'Terminated'";
         
@@ -243,12 +311,13 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
                     Integer employeeId = rs.getInt("employeeId");
                     BigDecimal basicSalary = rs.getBigDecimal("basicSalary");
                     BigDecimal hourlyRate = rs.getBigDecimal("hourlyRate");
+                    Integer positionId = rs.getObject("positionId", Integer.class);
                     
                     // Check if payroll already exists for this employee and period
                     if (!payrollExists(employeeId, payPeriodId)) {
                         // Generate payroll for this employee
                         PayrollModel payroll = generateEmployeePayroll(
-                            employeeId, basicSalary, hourlyRate, payPeriodId, periodStart, periodEnd
+                            employeeId, positionId, basicSalary, hourlyRate, payPeriodId, periodStart, periodEnd
                         );
                         
                         if (save(payroll)) {
@@ -326,12 +395,63 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
         return executeQuery(sql, employeeId);
     }
     
+    /**
+     * Finds the processed payroll of several employees for pay periods ending on or after a date
+     * Used by the retroactive pay engine to find the closed periods a back-dated change reaches
+     * @param employeeIds The employee IDs
+     * @param fromEndDate The earliest pay period end date (inclusive)
+     * @return Payroll records ordered by employee and pay period start
+     */
+    public List<PayrollModel> findProcessedForEmployees(java.util.Collection<Integer> employeeIds, LocalDate fromEndDate) {
+        if (employeeIds == null || employeeIds.isEmpty() || fromEndDate == null) {
+            return new java.util.ArrayList<>();
+        }
+        
+        String placeholders = String.join(", ", java.util.Collections.nCopies(employeeIds.size(), "?"));
+        String sql = "SELECT p.* FROM payroll p " +
+                    "JOIN payperiod pp ON p.payPeriodId = pp.payPeriodId " +
+                    "WHERE p.employeeId IN (" + placeholders + ") AND pp.endDate >= ? " +
+                    "ORDER BY p.employeeId, pp.startDate";
+        
+        List<Object> params = new java.util.ArrayList<>(employeeIds);
+        params.add(Date.valueOf(fromEndDate));
+        return executeQuery(sql, params.toArray());
+    }
+    
     /**
      * Gets payroll summary for a pay period
+     * Read from the maintained pay period totals; falls back to aggregating the payroll table
      * @param payPeriodId The pay period ID
      * @return PayrollSummary with totals
      */
     public PayrollSummary getPayrollSummary(Integer payPeriodId) {
+        PayPeriodTotalsDAO.PeriodTotals totals = totalsDAO.getPeriodTotals(PayPeriodTotalsDAO.Source.PAYROLL, payPeriodId);
+        if (totals != null) {
+            return toPayrollSummary(totals);
+        }
+        return aggregatePayrollSummary(payPeriodId);
+    }
+    
+    /**
+     * Gets payroll summaries per department for a pay period
+     * @param payPeriodId The pay period ID
+     * @return Map of department name to PayrollSummary
+     */
+    public Map<String, PayrollSummary> getPayrollSummaryByDepartment(Integer payPeriodId) {
+        Map<String, PayrollSummary> summaries = new HashMap<>();
+        for (Map.Entry<String, PayPeriodTotalsDAO.PeriodTotals> entry :
+                totalsDAO.getDepartmentTotals(PayPeriodTotalsDAO.Source.PAYROLL, payPeriodId).entrySet()) {
+            summaries.put(entry.getKey(), toPayrollSummary(entry.getValue()));
+        }
+        return summaries;
+    }
+    
+    /**
+     * Aggregates the payroll table directly (used when the totals table is unavailable)
+     * @param payPeriodId The pay period ID
+     * @return PayrollSummary with totals
+     */
+    private PayrollSummary aggregatePayrollSummary(Integer payPeriodId) {
         String sql = "SELECT " +
                     "COUNT(*) as employeeCount, " +
                     "SUM(grossIncome) as totalGrossIncome, " +
@@ -363,6 +483,51 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
         return new PayrollSummary(); // Return empty summary if error
     }
     
+    /**
+     * Gets stored payroll totals per employee for all pay periods ending in a date range
+     * Used for year-end reconciliation against recomputed figures
+     * @param startDate The earliest pay period end date (inclusive)
+     * @param endDate The latest pay period end date (inclusive)
+     * @return Map of employeeId to a PayrollSummary whose employeeCount holds the number of payroll rows
+     */
+    public Map<Integer, PayrollSummary> getPayrollTotalsByEmployee(LocalDate startDate, LocalDate endDate) {
+        String sql = "SELECT p.employeeId, " +
+                    "COUNT(*) as employeeCount, " +
+                    "SUM(p.grossIncome) as totalGrossIncome, " +
+                    "SUM(p.netSalary) as totalNetSalary, " +
+                    "SUM(p.totalDeduction) as totalDeductions, " +
+                    "SUM(p.totalBenefit) as totalBenefits " +
+                    "FROM payroll p " +
+                    "JOIN payperiod pp ON p.payPeriodId = pp.payPeriodId " +
+                    "WHERE pp.endDate BETWEEN ? AND ? " +
+                    "GROUP BY p.employeeId";
+        
+        Map<Integer, PayrollSummary> totals = new HashMap<>();
+        
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setDate(1, Date.valueOf(startDate));
+            stmt.setDate(2, Date.valueOf(endDate));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    PayrollSummary summary = new PayrollSummary();
+                    summary.setEmployeeCount(rs.getInt("employeeCount"));
+                    summary.setTotalGrossIncome(rs.getBigDecimal("totalGrossIncome"));
+                    summary.setTotalNetSalary(rs.getBigDecimal("totalNetSalary"));
+                    summary.setTotalDeductions(rs.getBigDecimal("totalDeductions"));
+                    summary.setTotalBenefits(rs.getBigDecimal("totalBenefits"));
+                    totals.put(rs.getInt("employeeId"), summary);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting payroll totals by employee: " + e.getMessage());
+        }
+        
+        return totals;
+    }
+    
     /**
      * Deletes all payroll records for a specific pay period
      * @param payPeriodId The pay period ID
@@ -370,7 +535,25 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
      */
     public int deletePayrollByPeriod(Integer payPeriodId) {
         String sql = "DELETE FROM payroll WHERE payPeriodId = ?";
-        return executeUpdate(sql, payPeriodId);
+        
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYROLL, payPeriodId);
+                stmt.setInt(1, payPeriodId);
+                int rowsAffected = stmt.executeUpdate();
+                totalsDAO.rebuild(conn, PayPeriodTotalsDAO.Source.PAYROLL, payPeriodId);
+                integrityDAO.rebuild(conn, PayPeriodTotalsDAO.Source.PAYROLL, payPeriodId);
+                conn.commit();
+                return rowsAffected;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error deleting payroll for period: " + e.getMessage());
+            return 0;
+        }
     }
     
     /**
@@ -433,6 +616,7 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
      * Generates a payroll record for a specific employee
      * This method calculates all salary components, benefits, and deductions
      * @param employeeId The employee ID
+     * @param positionId The employee's position ID (may be null)
      * @param basicSalary The employee's basic salary
      * @param hourlyRate The employee's hourly rate
      * @param payPeriodId The pay period ID
@@ -440,7 +624,7 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
      * @param periodEnd The pay period end date
      * @return A fully calculated PayrollModel
      */
-    private PayrollModel generateEmployeePayroll(Integer employeeId, BigDecimal basicSalary,
+    private PayrollModel generateEmployeePayroll(Integer employeeId, Integer positionId, BigDecimal basicSalary,
                                                BigDecimal hourlyRate, Integer payPeriodId,
                                                LocalDate periodStart, LocalDate periodEnd) {
         
@@ -452,7 +636,7 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
         payroll.setBasicSalary(basicSalary);
         
         // Calculate total benefits
-        BigDecimal totalBenefits = calculateTotalBenefits(employeeId, periodStart, periodEnd);
+        BigDecimal totalBenefits = calculateTotalBenefits(positionId);
         payroll.setTotalBenefit(totalBenefits);
         
         // Calculate overtime pay
@@ -474,34 +658,12 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
     }
     
     /**
-     * Calculates total benefits for an employee
-     * @param employeeId The employee ID
-     * @param periodStart The period start date
-     * @param periodEnd The period end date
+     * Calculates total benefits for an employee from the shared position benefit cache
+     * @param positionId The employee's position ID
      * @return Total benefits amount
      */
-    private BigDecimal calculateTotalBenefits(Integer employeeId, LocalDate periodStart, LocalDate periodEnd) {
-        String sql = "SELECT COALESCE(SUM(pb.benefitValue), 0) as totalBenefits " +
-                    "FROM employee e " +
-                    "JOIN positionbenefit pb ON e.positionId = pb.positionId " +
-                    "WHERE e.employeeId = ?";
-        
-        try (Connection conn = databaseConnection.createConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, employeeId);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    BigDecimal benefits = rs.getBigDecimal("totalBenefits");
-                    return benefits != null ? benefits : BigDecimal.ZERO;
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error calculating benefits: " + e.getMessage());
-        }
-        
-        return BigDecimal.ZERO;
+    private BigDecimal calculateTotalBenefits(Integer positionId) {
+        return PositionBenefitCache.getInstance().getTotalForPosition(positionId);
     }
     
     /**
@@ -595,33 +757,213 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
      */
     @Override
     public boolean save(PayrollModel payroll) {
-        String sql = buildInsertSQL();
-        
-        try (Connection conn = databaseConnection.createConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            setInsertParameters(stmt, payroll);
-            int rowsAffected = stmt.executeUpdate();
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYROLL, payroll.getPayPeriodId());
+                
+                if (insertLocked(conn, payroll, buildInsertSQL())) {
+                    conn.commit();
+                    return true;
+                }
+                conn.rollback();
+                return false;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
             
-            if (rowsAffected > 0) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        handleGeneratedKey(payroll, generatedKeys);
+        } catch (SQLException e) {
+            System.err.println("Error saving payroll: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Saves a payroll record unless the employee already has one for the period
+     * The existence check runs after the period's totals row is locked, so two runs processing
+     * the same employee and period cannot both insert; the unique (employeeId, payPeriodId) key
+     * backs this up against writers that bypass the DAO.
+     * @param payroll The payroll to save
+     * @return TRUE if it was inserted, FALSE if the employee already had payroll for the period,
+     *         or null if the save failed
+     */
+    public Boolean saveIfAbsent(PayrollModel payroll) {
+        String sql = ensureUniqueKey() ? buildInsertIfAbsentSQL() : buildInsertSQL();
+        String existsSql = "SELECT 1 FROM payroll WHERE employeeId = ? AND payPeriodId = ? LIMIT 1";
+        
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYROLL, payroll.getPayPeriodId());
+                
+                try (PreparedStatement stmt = conn.prepareStatement(existsSql)) {
+                    stmt.setInt(1, payroll.getEmployeeId());
+                    stmt.setInt(2, payroll.getPayPeriodId());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            conn.rollback();
+                            return false;
+                        }
                     }
                 }
-                return true;
+                
+                boolean inserted = insertLocked(conn, payroll, sql);
+                if (inserted) {
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+                return inserted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
-            return false;
             
         } catch (SQLException e) {
             System.err.println("Error saving payroll: " + e.getMessage());
-            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Saves a payroll record without touching the period's totals or integrity hashes
+     * Used by distributed workers: they never wait on the period's totals row, so any number
+     * of them can commit in parallel. The run must call rebuildPeriodTotals() once its last
+     * insert is done; until then the period's totals and hashes leave these rows out.
+     * The unique (employeeId, payPeriodId) key skips employees that already have payroll;
+     * without the key this falls back to saveIfAbsent().
+     * @param payroll The payroll to save
+     * @return TRUE if it was inserted, FALSE if the employee already had payroll for the period,
+     *         or null if the save failed
+     */
+    public Boolean saveIfAbsentDeferred(PayrollModel payroll) {
+        if (!ensureUniqueKey()) {
+            return saveIfAbsent(payroll);
+        }
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(buildInsertIfAbsentSQL(), Statement.RETURN_GENERATED_KEYS)) {
+
+            setInsertParameters(stmt, payroll);
+            if (stmt.executeUpdate() <= 0) {
+                return false;
+            }
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    payroll.setPayrollId(generatedKeys.getInt(1));
+                }
+            }
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error saving payroll: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Recomputes a period's payroll totals and integrity hashes from the payroll table
+     * Applies rows written by saveIfAbsentDeferred() in one set-based pass; safe to repeat.
+     * @param payPeriodId The pay period ID
+     * @return true if the totals and hashes were rebuilt
+     */
+    public boolean rebuildPeriodTotals(Integer payPeriodId) {
+        if (payPeriodId == null) {
             return false;
         }
+
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYROLL, payPeriodId);
+                totalsDAO.rebuild(conn, PayPeriodTotalsDAO.Source.PAYROLL, payPeriodId);
+                integrityDAO.rebuild(conn, PayPeriodTotalsDAO.Source.PAYROLL, payPeriodId);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding payroll totals for period: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Inserts a payroll row and applies it to the totals and integrity tables
+     * The caller has already locked the period and owns the transaction
+     * @return true if a row was inserted
+     */
+    private boolean insertLocked(Connection conn, PayrollModel payroll, String sql) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            setInsertParameters(stmt, payroll);
+            if (stmt.executeUpdate() <= 0) {
+                return false;
+            }
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    payroll.setPayrollId(generatedKeys.getInt(1));
+                }
+            }
+        }
+        totalsDAO.applyDelta(conn, PayPeriodTotalsDAO.Source.PAYROLL, payroll.getPayPeriodId(),
+            payroll.getEmployeeId(), totalsOf(payroll), 1);
+        integrityDAO.recordChange(conn, PayPeriodTotalsDAO.Source.PAYROLL,
+            payroll.getPayPeriodId(), payroll.getEmployeeId());
+        return true;
+    }
+    
+    /**
+     * Adds the unique (employeeId, payPeriodId) key if it is missing
+     * Fails while duplicate payroll rows exist; those have to be removed by hand first, and
+     * until then saveIfAbsent() relies on the period lock alone.
+     * @return true if the key exists
+     */
+    public boolean ensureUniqueKey() {
+        Boolean ready = uniqueKeyReady;
+        if (ready != null) {
+            return ready;
+        }
+        
+        synchronized (PayrollDAO.class) {
+            if (uniqueKeyReady != null) {
+                return uniqueKeyReady;
+            }
+            
+            String checkSql = "SELECT COUNT(*) FROM information_schema.STATISTICS " +
+                             "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'payroll' AND INDEX_NAME = ?";
+            
+            try (Connection conn = databaseConnection.createConnection()) {
+                boolean exists;
+                try (PreparedStatement stmt = conn.prepareStatement(checkSql)) {
+                    stmt.setString(1, UNIQUE_KEY);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        exists = rs.next() && rs.getInt(1) > 0;
+                    }
+                }
+                if (!exists) {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute("ALTER TABLE payroll ADD UNIQUE KEY " + UNIQUE_KEY + " (employeeId, payPeriodId)");
+                    }
+                }
+                uniqueKeyReady = true;
+            } catch (SQLException e) {
+                System.err.println("Error adding unique (employeeId, payPeriodId) key to payroll " +
+                                   "(remove duplicate rows first): " + e.getMessage());
+                uniqueKeyReady = false;
+            }
+            return uniqueKeyReady;
+        }
     }
     
     /**
      * Override the update method to use custom UPDATE SQL
+     * Like every payroll write, the period totals are locked before the payroll row, so an
+     * update cannot deadlock with a period insert or delete. The row's period is read without
+     * a lock first and re-checked once the row is locked.
      * @param payroll The payroll to update
      * @return true if update was successful, false otherwise
      */
@@ -629,12 +971,34 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
     public boolean update(PayrollModel payroll) {
         String sql = buildUpdateSQL();
         
-        try (Connection conn = databaseConnection.createConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            setUpdateParameters(stmt, payroll);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                PayrollModel previous = lockRow(conn, payroll.getPayrollId(), payroll.getPayPeriodId());
+                if (previous == null) {
+                    conn.rollback();
+                    return false;
+                }
+                
+                setUpdateParameters(stmt, payroll);
+                int rowsAffected = stmt.executeUpdate();
+                
+                if (rowsAffected > 0) {
+                    totalsDAO.applyDelta(conn, PayPeriodTotalsDAO.Source.PAYROLL, previous.getPayPeriodId(),
+                        previous.getEmployeeId(), totalsOf(previous), -1);
+                    totalsDAO.applyDelta(conn, PayPeriodTotalsDAO.Source.PAYROLL, payroll.getPayPeriodId(),
+                        payroll.getEmployeeId(), totalsOf(payroll), 1);
+                    integrityDAO.recordChange(conn, PayPeriodTotalsDAO.Source.PAYROLL,
+                        previous.getPayPeriodId(), previous.getEmployeeId());
+                    integrityDAO.recordChange(conn, PayPeriodTotalsDAO.Source.PAYROLL,
+                        payroll.getPayPeriodId(), payroll.getEmployeeId());
+                }
+                conn.commit();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
             
         } catch (SQLException e) {
             System.err.println("Error updating payroll: " + e.getMessage());
@@ -643,6 +1007,160 @@ public class PayrollDAO extends BaseDAO<PayrollModel, Integer> {
         }
     }
     
+    /**
+     * Override the delete method so the pay period totals are reduced in the same transaction
+     * The period totals are locked before the payroll row, as in update()
+     * @param payrollId The payroll ID to delete
+     * @return true if delete was successful, false otherwise
+     */
+    @Override
+    public boolean delete(Integer payrollId) {
+        String sql = "DELETE FROM payroll WHERE payrollId = ?";
+        
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                PayrollModel previous = lockRow(conn, payrollId, null);
+                if (previous == null) {
+                    conn.rollback();
+                    return false;
+                }
+                
+                stmt.setInt(1, payrollId);
+                int rowsAffected = stmt.executeUpdate();
+                
+                if (rowsAffected > 0) {
+                    totalsDAO.applyDelta(conn, PayPeriodTotalsDAO.Source.PAYROLL, previous.getPayPeriodId(),
+                        previous.getEmployeeId(), totalsOf(previous), -1);
+                    integrityDAO.recordChange(conn, PayPeriodTotalsDAO.Source.PAYROLL,
+                        previous.getPayPeriodId(), previous.getEmployeeId());
+                }
+                conn.commit();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error deleting payroll with ID " + payrollId + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Locks the totals of a payroll row's period (and of the period it moves to), then the row
+     * The period is read without a lock first; if the row moved to another period before it was
+     * locked, the locks are released and taken again for the new period.
+     * @param newPeriodId Period the row is moving to, or null if it stays
+     * @return The locked row, or null if it does not exist
+     */
+    private PayrollModel lockRow(Connection conn, Integer payrollId, Integer newPeriodId) throws SQLException {
+        for (int attempt = 0; attempt < MAX_LOCK_ATTEMPTS; attempt++) {
+            Integer periodId;
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT payPeriodId FROM payroll WHERE payrollId = ?")) {
+                stmt.setInt(1, payrollId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    int value = rs.getInt(1);
+                    periodId = rs.wasNull() ? null : value;
+                }
+            }
+            
+            lockPeriods(conn, periodId, newPeriodId != null ? newPeriodId : periodId);
+            PayrollModel row = findForUpdate(conn, payrollId);
+            if (row == null || Objects.equals(row.getPayPeriodId(), periodId)) {
+                return row;
+            }
+            conn.rollback();
+        }
+        throw new SQLException("Payroll " + payrollId + " kept moving between pay periods while being locked");
+    }
+    
+    /**
+     * Reads and locks a payroll row inside a transaction
+     * @return The current row, or null if it does not exist
+     */
+    private PayrollModel findForUpdate(Connection conn, Integer payrollId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM payroll WHERE payrollId = ? FOR UPDATE")) {
+            stmt.setInt(1, payrollId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapResultSetToEntity(rs) : null;
+            }
+        }
+    }
+    
+    /**
+     * Locks the totals of both pay periods touched by an update, lower ID first
+     */
+    private void lockPeriods(Connection conn, Integer firstPeriodId, Integer secondPeriodId) throws SQLException {
+        if (firstPeriodId == null || firstPeriodId.equals(secondPeriodId)) {
+            totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYROLL, secondPeriodId);
+            return;
+        }
+        if (secondPeriodId == null) {
+            totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYROLL, firstPeriodId);
+            return;
+        }
+        totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYROLL, Math.min(firstPeriodId, secondPeriodId));
+        totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYROLL, Math.max(firstPeriodId, secondPeriodId));
+    }
+    
+    /**
+     * @return The amounts a payroll row contributes to its pay period totals
+     */
+    private PayPeriodTotalsDAO.PeriodTotals totalsOf(PayrollModel payroll) {
+        return PayPeriodTotalsDAO.PeriodTotals.ofRow(payroll.getGrossIncome(), payroll.getNetSalary(),
+            payroll.getTotalDeduction(), payroll.getTotalBenefit());
+    }
+    
+    /**
+     * Converts stored totals into the payroll summary shape
+     */
+    private PayrollSummary toPayrollSummary(PayPeriodTotalsDAO.PeriodTotals totals) {
+        PayrollSummary summary = new PayrollSummary();
+        summary.setEmployeeCount(totals.getEmployeeCount());
+        summary.setTotalGrossIncome(totals.getTotalGrossIncome());
+        summary.setTotalNetSalary(totals.getTotalNetPay());
+        summary.setTotalDeductions(totals.getTotalDeductions());
+        summary.setTotalBenefits(totals.getTotalBenefits());
+        return summary;
+    }
+    
+
+    // INNER CLASS - For payroll rows joined with employee data
+
+    
+    /**
+     * Inner class pairing a payroll record with its employee's current salary data
+     */
+    public static class PayrollEmployeeRow {
+        private PayrollModel payroll;
+        private boolean employeeFound;
+        private String employeeName;
+        private BigDecimal employeeBasicSalary;
+        private BigDecimal employeeHourlyRate;
+        
+        // Getters and setters
+        public PayrollModel getPayroll() { return payroll; }
+        public void setPayroll(PayrollModel payroll) { this.payroll = payroll; }
+        
+        public boolean isEmployeeFound() { return employeeFound; }
+        public void setEmployeeFound(boolean employeeFound) { this.employeeFound = employeeFound; }
+        
+        public String getEmployeeName() { return employeeName; }
+        public void setEmployeeName(String employeeName) { this.employeeName = employeeName; }
+        
+        public BigDecimal getEmployeeBasicSalary() { return employeeBasicSalary; }
+        public void setEmployeeBasicSalary(BigDecimal employeeBasicSalary) { this.employeeBasicSalary = employeeBasicSalary; }
+        
+        public BigDecimal getEmployeeHourlyRate() { return employeeHourlyRate; }
+        public void setEmployeeHourlyRate(BigDecimal employeeHourlyRate) { this.employeeHourlyRate = employeeHourlyRate; }
+    }
+    
 
     // INNER CLASS - For payroll summary
 
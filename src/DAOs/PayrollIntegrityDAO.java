@@ -0,0 +1,939 @@
+package DAOs;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Data Access Object for payroll integrity hashes.
+ * Every payroll and payslip row has a SHA-256 content hash in payrollrowhash, and every pay period
+ * has a Merkle tree over those hashes in payrollmerkle. Rows are spread over LEAF_BUCKETS leaves by
+ * employee ID, so a write only rehashes its own leaf and the TREE_DEPTH nodes above it.
+ * PayrollDAO and PayslipDAO record their changes here inside the same transaction as their own
+ * writes, after locking the period with PayPeriodTotalsDAO.lockPeriod.
+ *
+ * Two snapshots are kept per period: CURRENT follows every write, SEALED is a copy taken when an
+ * auditor signs a period off. Comparing the two roots tells whether a period changed since sign-off;
+ * descending both trees finds the changed leaves.
+ * @author User
+ */
+public class PayrollIntegrityDAO {
+
+    public static final int TREE_DEPTH = 8;
+    public static final int LEAF_BUCKETS = 1 << TREE_DEPTH;
+
+    public static final String CURRENT = "CURRENT";
+    public static final String SEALED = "SEALED";
+
+    private static volatile boolean tablesReady = false;
+
+    private final DatabaseConnection databaseConnection;
+
+    /**
+     * Constructor that accepts a DatabaseConnection instance
+     * @param databaseConnection The database connection to use for all operations
+     */
+    public PayrollIntegrityDAO(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+    }
+
+    /**
+     * Default constructor using default database connection
+     */
+    public PayrollIntegrityDAO() {
+        this(new DatabaseConnection());
+    }
+
+
+    // HASHED COLUMNS
+
+
+    /**
+     * SQL expression hashing one base row (alias "b")
+     * Hashing happens in MySQL so stored and freshly computed hashes always use the same formatting
+     */
+    private static String contentHashExpression(PayPeriodTotalsDAO.Source source) {
+        String[] columns;
+        if (source == PayPeriodTotalsDAO.Source.PAYSLIP) {
+            columns = new String[]{"payslipId", "payPeriodId", "payrollId", "employeeId", "positionId",
+                "employeeName", "periodStart", "periodEnd", "monthlyRate", "dailyRate", "daysWorked", "overtime",
+                "riceSubsidy", "phoneAllowance", "clothingAllowance", "sss", "philhealth", "pagibig",
+                "withholdingTax", "grossIncome", "takeHomePay"};
+        } else {
+            columns = new String[]{"payrollId", "payPeriodId", "employeeId", "basicSalary", "grossIncome",
+                "totalBenefit", "totalDeduction", "netSalary"};
+        }
+
+        StringBuilder expression = new StringBuilder("SHA2(CONCAT_WS('|'");
+        for (String column : columns) {
+            // NULL and '' must hash differently, CONCAT_WS would skip the NULL
+            expression.append(", COALESCE(CONCAT('=', b.").append(column).append("), '~')");
+        }
+        return expression.append("), 256)").toString();
+    }
+
+    private static String rowIdColumn(PayPeriodTotalsDAO.Source source) {
+        return source == PayPeriodTotalsDAO.Source.PAYSLIP ? "payslipId" : "payrollId";
+    }
+
+
+    // TABLE SETUP
+
+
+    /**
+     * Creates the integrity tables if they do not exist yet
+     * Runs on its own connection because DDL commits any open transaction
+     * @return true if the tables are available
+     */
+    public boolean ensureTables() {
+        if (tablesReady) {
+            return true;
+        }
+
+        String[] statements = {
+            "CREATE TABLE IF NOT EXISTS payrollrowhash (" +
+                "source VARCHAR(10) NOT NULL, " +
+                "snapshot VARCHAR(10) NOT NULL, " +
+                "rowId INT NOT NULL, " +
+                "payPeriodId INT NOT NULL, " +
+                "employeeId INT NOT NULL, " +
+                "bucket SMALLINT NOT NULL, " +
+                "contentHash CHAR(64) NOT NULL, " +
+                "PRIMARY KEY (source, snapshot, rowId), " +
+                "INDEX idx_rowhash_bucket (source, snapshot, payPeriodId, bucket))",
+
+            "CREATE TABLE IF NOT EXISTS payrollmerkle (" +
+                "source VARCHAR(10) NOT NULL, " +
+                "payPeriodId INT NOT NULL, " +
+                "snapshot VARCHAR(10) NOT NULL, " +
+                "level TINYINT NOT NULL, " +
+                "position SMALLINT NOT NULL, " +
+                "nodeHash CHAR(64) NOT NULL, " +
+                "PRIMARY KEY (source, payPeriodId, snapshot, level, position))",
+
+            "CREATE TABLE IF NOT EXISTS payrollauditseal (" +
+                "source VARCHAR(10) NOT NULL, " +
+                "payPeriodId INT NOT NULL, " +
+                "rootHash CHAR(64) NOT NULL, " +
+                "rowCount INT NOT NULL, " +
+                "sealedBy INT NULL, " +
+                "sealedAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                "PRIMARY KEY (source, payPeriodId))"
+        };
+
+        try (Connection conn = databaseConnection.createConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+            tablesReady = true;
+        } catch (SQLException e) {
+            System.err.println("Error creating payroll integrity tables: " + e.getMessage());
+        }
+
+        return tablesReady;
+    }
+
+
+    // WRITE HOOKS
+
+
+    /**
+     * Rehashes one employee's rows in a period and the path from their leaf to the root
+     * Call after the base rows changed, inside the same transaction (period already locked)
+     * @param conn Connection with an open transaction
+     * @param source The base table that changed
+     * @param payPeriodId The pay period of the changed rows
+     * @param employeeId The employee of the changed rows
+     * @throws SQLException if the hashes cannot be updated
+     */
+    public void recordChange(Connection conn, PayPeriodTotalsDAO.Source source, Integer payPeriodId,
+                             Integer employeeId) throws SQLException {
+        if (payPeriodId == null || employeeId == null) {
+            return;
+        }
+        if (!ensureTables()) {
+            throw new SQLException("Payroll integrity tables are not available");
+        }
+
+        // First write to a period (or a period written before hashing existed): hash all of it
+        if (loadRoot(conn, source, payPeriodId, CURRENT) == null) {
+            rebuild(conn, source, payPeriodId);
+            return;
+        }
+
+        int bucket = bucketOf(employeeId);
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM payrollrowhash WHERE source = ? AND snapshot = ? AND payPeriodId = ? AND employeeId = ?")) {
+            stmt.setString(1, source.name());
+            stmt.setString(2, CURRENT);
+            stmt.setInt(3, payPeriodId);
+            stmt.setInt(4, employeeId);
+            stmt.executeUpdate();
+        }
+
+        // A row moved here from another period or employee still has its old entry until that side is recorded
+        String insertSql = "INSERT INTO payrollrowhash (source, snapshot, rowId, payPeriodId, employeeId, bucket, contentHash) " +
+                          "SELECT ?, ?, b." + rowIdColumn(source) + ", b.payPeriodId, b.employeeId, ?, " + contentHashExpression(source) + " " +
+                          "FROM " + source.getTableName() + " b WHERE b.payPeriodId = ? AND b.employeeId = ? " +
+                          "ON DUPLICATE KEY UPDATE payPeriodId = VALUES(payPeriodId), employeeId = VALUES(employeeId), " +
+                          "bucket = VALUES(bucket), contentHash = VALUES(contentHash)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+            stmt.setString(1, source.name());
+            stmt.setString(2, CURRENT);
+            stmt.setInt(3, bucket);
+            stmt.setInt(4, payPeriodId);
+            stmt.setInt(5, employeeId);
+            stmt.executeUpdate();
+        }
+
+        updatePath(conn, source, payPeriodId, bucket);
+    }
+
+    /**
+     * Rehashes several employees' rows in a period and only the leaves and nodes they reach
+     * Used by chunked batch writes, so each chunk costs its own rows rather than the whole period
+     * @param conn Connection with an open transaction (period already locked)
+     * @param source The base table that changed
+     * @param payPeriodId The pay period of the changed rows
+     * @param employeeIds The employees of the changed rows
+     * @throws SQLException if the hashes cannot be updated
+     */
+    public void recordChanges(Connection conn, PayPeriodTotalsDAO.Source source, Integer payPeriodId,
+                              Collection<Integer> employeeIds) throws SQLException {
+        if (payPeriodId == null || employeeIds == null || employeeIds.isEmpty()) {
+            return;
+        }
+        if (!ensureTables()) {
+            throw new SQLException("Payroll integrity tables are not available");
+        }
+
+        if (loadRoot(conn, source, payPeriodId, CURRENT) == null) {
+            rebuild(conn, source, payPeriodId);
+            return;
+        }
+
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(employeeIds));
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM payrollrowhash WHERE source = ? AND snapshot = ? AND payPeriodId = ? " +
+                "AND employeeId IN (" + placeholders + ")")) {
+            stmt.setString(1, source.name());
+            stmt.setString(2, CURRENT);
+            stmt.setInt(3, payPeriodId);
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(4 + i, ids.get(i));
+            }
+            stmt.executeUpdate();
+        }
+
+        String insertSql = "INSERT INTO payrollrowhash (source, snapshot, rowId, payPeriodId, employeeId, bucket, contentHash) " +
+                          "SELECT ?, ?, b." + rowIdColumn(source) + ", b.payPeriodId, b.employeeId, MOD(b.employeeId, " + LEAF_BUCKETS + "), " +
+                          contentHashExpression(source) + " " +
+                          "FROM " + source.getTableName() + " b WHERE b.payPeriodId = ? AND b.employeeId IN (" + placeholders + ") " +
+                          "ON DUPLICATE KEY UPDATE payPeriodId = VALUES(payPeriodId), employeeId = VALUES(employeeId), " +
+                          "bucket = VALUES(bucket), contentHash = VALUES(contentHash)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+            stmt.setString(1, source.name());
+            stmt.setString(2, CURRENT);
+            stmt.setInt(3, payPeriodId);
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(4 + i, ids.get(i));
+            }
+            stmt.executeUpdate();
+        }
+
+        Set<Integer> buckets = new TreeSet<>();
+        for (Integer employeeId : ids) {
+            buckets.add(bucketOf(employeeId));
+        }
+        updatePaths(conn, source, payPeriodId, buckets);
+    }
+
+    /**
+     * Rehashes every row of a period and rebuilds its whole tree
+     * Used after set-based writes that touch many employees at once
+     * @param conn Connection with an open transaction (period already locked)
+     * @param source The base table
+     * @param payPeriodId The pay period ID
+     * @throws SQLException if the hashes cannot be rebuilt
+     */
+    public void rebuild(Connection conn, PayPeriodTotalsDAO.Source source, Integer payPeriodId) throws SQLException {
+        if (payPeriodId == null) {
+            return;
+        }
+        if (!ensureTables()) {
+            throw new SQLException("Payroll integrity tables are not available");
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM payrollrowhash WHERE source = ? AND snapshot = ? AND payPeriodId = ?")) {
+            stmt.setString(1, source.name());
+            stmt.setString(2, CURRENT);
+            stmt.setInt(3, payPeriodId);
+            stmt.executeUpdate();
+        }
+
+        String insertSql = "INSERT INTO payrollrowhash (source, snapshot, rowId, payPeriodId, employeeId, bucket, contentHash) " +
+                          "SELECT ?, ?, b." + rowIdColumn(source) + ", b.payPeriodId, b.employeeId, MOD(b.employeeId, " + LEAF_BUCKETS + "), " +
+                          contentHashExpression(source) + " " +
+                          "FROM " + source.getTableName() + " b WHERE b.payPeriodId = ? AND b.employeeId IS NOT NULL " +
+                          "ON DUPLICATE KEY UPDATE payPeriodId = VALUES(payPeriodId), employeeId = VALUES(employeeId), " +
+                          "bucket = VALUES(bucket), contentHash = VALUES(contentHash)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+            stmt.setString(1, source.name());
+            stmt.setString(2, CURRENT);
+            stmt.setInt(3, payPeriodId);
+            stmt.executeUpdate();
+        }
+
+        List<RowHash> rows = loadRowHashes(conn, source, payPeriodId, CURRENT);
+        saveTree(conn, source, payPeriodId, CURRENT, MerkleTree.build(rows));
+    }
+
+    /**
+     * Rebuilds a period's hashes for one source in its own transaction
+     * @param source The base table
+     * @param payPeriodId The pay period ID
+     * @return true if the hashes were rebuilt
+     */
+    public boolean rebuild(PayPeriodTotalsDAO.Source source, Integer payPeriodId) {
+        if (payPeriodId == null || !ensureTables()) {
+            return false;
+        }
+
+        PayPeriodTotalsDAO totalsDAO = new PayPeriodTotalsDAO(databaseConnection);
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                totalsDAO.lockPeriod(conn, source, payPeriodId);
+                rebuild(conn, source, payPeriodId);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding payroll integrity hashes: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Recomputes one leaf from its rows and every node above it
+     */
+    private void updatePath(Connection conn, PayPeriodTotalsDAO.Source source, Integer payPeriodId, int bucket) throws SQLException {
+        List<RowHash> bucketRows = new ArrayList<>();
+        String rowSql = "SELECT rowId, employeeId, contentHash FROM payrollrowhash " +
+                       "WHERE source = ? AND snapshot = ? AND payPeriodId = ? AND bucket = ? " +
+                       "ORDER BY employeeId, rowId";
+
+        try (PreparedStatement stmt = conn.prepareStatement(rowSql)) {
+            stmt.setString(1, source.name());
+            stmt.setString(2, CURRENT);
+            stmt.setInt(3, payPeriodId);
+            stmt.setInt(4, bucket);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    bucketRows.add(new RowHash(rs.getInt("rowId"), rs.getInt("employeeId"), rs.getString("contentHash")));
+                }
+            }
+        }
+
+        // Siblings along the path: one node per level below the root
+        Map<Long, String> siblings = new HashMap<>();
+        StringBuilder siblingSql = new StringBuilder(
+            "SELECT level, position, nodeHash FROM payrollmerkle WHERE source = ? AND payPeriodId = ? AND snapshot = ? AND (");
+        for (int level = 0, position = bucket; level < TREE_DEPTH; level++, position /= 2) {
+            siblingSql.append(level == 0 ? "" : " OR ").append("(level = ").append(level)
+                      .append(" AND position = ").append(position ^ 1).append(")");
+        }
+        siblingSql.append(")");
+
+        try (PreparedStatement stmt = conn.prepareStatement(siblingSql.toString())) {
+            stmt.setString(1, source.name());
+            stmt.setInt(2, payPeriodId);
+            stmt.setString(3, CURRENT);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    siblings.put(nodeKey(rs.getInt("level"), rs.getInt("position")), rs.getString("nodeHash"));
+                }
+            }
+        }
+
+        String upsertSql = "INSERT INTO payrollmerkle (source, payPeriodId, snapshot, level, position, nodeHash) " +
+                          "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE nodeHash = VALUES(nodeHash)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(upsertSql)) {
+            String hash = MerkleTree.leafHash(bucketRows);
+            int position = bucket;
+            for (int level = 0; level <= TREE_DEPTH; level++) {
+                addNode(stmt, source, payPeriodId, CURRENT, level, position, hash);
+                if (level < TREE_DEPTH) {
+                    String sibling = siblings.getOrDefault(nodeKey(level, position ^ 1), MerkleTree.emptyHash(level));
+                    hash = (position % 2 == 0) ? MerkleTree.combine(hash, sibling) : MerkleTree.combine(sibling, hash);
+                    position /= 2;
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+
+    /**
+     * Recomputes several leaves from their rows and every node above them, level by level
+     * Each shared ancestor is hashed once, however many of the leaves sit below it
+     */
+    private void updatePaths(Connection conn, PayPeriodTotalsDAO.Source source, Integer payPeriodId,
+                             Set<Integer> buckets) throws SQLException {
+        if (buckets.size() == 1) {
+            updatePath(conn, source, payPeriodId, buckets.iterator().next());
+            return;
+        }
+
+        Map<Integer, List<RowHash>> bucketRows = new HashMap<>();
+        String placeholders = String.join(", ", Collections.nCopies(buckets.size(), "?"));
+        String rowSql = "SELECT rowId, employeeId, bucket, contentHash FROM payrollrowhash " +
+                       "WHERE source = ? AND snapshot = ? AND payPeriodId = ? AND bucket IN (" + placeholders + ") " +
+                       "ORDER BY employeeId, rowId";
+
+        try (PreparedStatement stmt = conn.prepareStatement(rowSql)) {
+            stmt.setString(1, source.name());
+            stmt.setString(2, CURRENT);
+            stmt.setInt(3, payPeriodId);
+            int paramIndex = 4;
+            for (Integer bucket : buckets) {
+                stmt.setInt(paramIndex++, bucket);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    bucketRows.computeIfAbsent(rs.getInt("bucket"), k -> new ArrayList<>())
+                              .add(new RowHash(rs.getInt("rowId"), rs.getInt("employeeId"), rs.getString("contentHash")));
+                }
+            }
+        }
+
+        // The whole tree is at most 2 * LEAF_BUCKETS nodes, so read it once for the sibling lookups
+        Map<Long, String> nodes = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT level, position, nodeHash FROM payrollmerkle WHERE source = ? AND payPeriodId = ? AND snapshot = ?")) {
+            stmt.setString(1, source.name());
+            stmt.setInt(2, payPeriodId);
+            stmt.setString(3, CURRENT);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    nodes.put(nodeKey(rs.getInt("level"), rs.getInt("position")), rs.getString("nodeHash"));
+                }
+            }
+        }
+
+        String upsertSql = "INSERT INTO payrollmerkle (source, payPeriodId, snapshot, level, position, nodeHash) " +
+                          "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE nodeHash = VALUES(nodeHash)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(upsertSql)) {
+            Set<Integer> positions = buckets;
+            for (Integer bucket : positions) {
+                String hash = MerkleTree.leafHash(bucketRows.getOrDefault(bucket, Collections.emptyList()));
+                nodes.put(nodeKey(0, bucket), hash);
+                addNode(stmt, source, payPeriodId, CURRENT, 0, bucket, hash);
+            }
+            for (int level = 1; level <= TREE_DEPTH; level++) {
+                Set<Integer> parents = new TreeSet<>();
+                for (Integer position : positions) {
+                    parents.add(position / 2);
+                }
+                for (Integer parent : parents) {
+                    String left = nodes.getOrDefault(nodeKey(level - 1, parent * 2), MerkleTree.emptyHash(level - 1));
+                    String right = nodes.getOrDefault(nodeKey(level - 1, parent * 2 + 1), MerkleTree.emptyHash(level - 1));
+                    String hash = MerkleTree.combine(left, right);
+                    nodes.put(nodeKey(level, parent), hash);
+                    addNode(stmt, source, payPeriodId, CURRENT, level, parent, hash);
+                }
+                positions = parents;
+            }
+            stmt.executeBatch();
+        }
+    }
+
+
+    // SEALING
+
+
+    /**
+     * Copies a period's CURRENT hashes to SEALED, marking the state an auditor signed off
+     * @param source The base table
+     * @param payPeriodId The pay period ID
+     * @param sealedBy Employee ID of the auditor
+     * @return true if the period was sealed
+     */
+    public boolean seal(PayPeriodTotalsDAO.Source source, Integer payPeriodId, Integer sealedBy) {
+        if (payPeriodId == null || !ensureTables()) {
+            return false;
+        }
+
+        PayPeriodTotalsDAO totalsDAO = new PayPeriodTotalsDAO(databaseConnection);
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                totalsDAO.lockPeriod(conn, source, payPeriodId);
+                if (loadRoot(conn, source, payPeriodId, CURRENT) == null) {
+                    rebuild(conn, source, payPeriodId);
+                }
+
+                for (String table : new String[]{"payrollrowhash", "payrollmerkle"}) {
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                            "DELETE FROM " + table + " WHERE source = ? AND snapshot = ? AND payPeriodId = ?")) {
+                        stmt.setString(1, source.name());
+                        stmt.setString(2, SEALED);
+                        stmt.setInt(3, payPeriodId);
+                        stmt.executeUpdate();
+                    }
+                }
+
+                String copyRowsSql = "INSERT INTO payrollrowhash (source, snapshot, rowId, payPeriodId, employeeId, bucket, contentHash) " +
+                                    "SELECT source, ?, rowId, payPeriodId, employeeId, bucket, contentHash " +
+                                    "FROM payrollrowhash WHERE source = ? AND snapshot = ? AND payPeriodId = ?";
+                String copyNodesSql = "INSERT INTO payrollmerkle (source, payPeriodId, snapshot, level, position, nodeHash) " +
+                                     "SELECT source, payPeriodId, ?, level, position, nodeHash " +
+                                     "FROM payrollmerkle WHERE source = ? AND snapshot = ? AND payPeriodId = ?";
+
+                int rowCount = 0;
+                for (String sql : new String[]{copyRowsSql, copyNodesSql}) {
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        stmt.setString(1, SEALED);
+                        stmt.setString(2, source.name());
+                        stmt.setString(3, CURRENT);
+                        stmt.setInt(4, payPeriodId);
+                        int copied = stmt.executeUpdate();
+                        if (sql == copyRowsSql) {
+                            rowCount = copied;
+                        }
+                    }
+                }
+
+                String sealSql = "INSERT INTO payrollauditseal (source, payPeriodId, rootHash, rowCount, sealedBy) " +
+                                "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE rootHash = VALUES(rootHash), " +
+                                "rowCount = VALUES(rowCount), sealedBy = VALUES(sealedBy), sealedAt = CURRENT_TIMESTAMP";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sealSql)) {
+                    stmt.setString(1, source.name());
+                    stmt.setInt(2, payPeriodId);
+                    stmt.setString(3, loadRoot(conn, source, payPeriodId, CURRENT));
+                    stmt.setInt(4, rowCount);
+                    if (sealedBy != null) {
+                        stmt.setInt(5, sealedBy);
+                    } else {
+                        stmt.setNull(5, Types.INTEGER);
+                    }
+                    stmt.executeUpdate();
+                }
+
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error sealing payroll integrity hashes: " + e.getMessage());
+            return false;
+        }
+    }
+
+
+    // READ METHODS
+
+
+    /**
+     * Gets the root hash of one snapshot of a period's tree
+     * @param source The base table
+     * @param payPeriodId The pay period ID
+     * @param snapshot CURRENT or SEALED
+     * @return The root hash, or null if the period has no tree for that snapshot
+     */
+    public String getRoot(PayPeriodTotalsDAO.Source source, Integer payPeriodId, String snapshot) {
+        if (payPeriodId == null || !ensureTables()) {
+            return null;
+        }
+        try (Connection conn = databaseConnection.createConnection()) {
+            return loadRoot(conn, source, payPeriodId, snapshot);
+        } catch (SQLException e) {
+            System.err.println("Error reading payroll integrity root: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Loads one snapshot of a period's tree
+     * @param source The base table
+     * @param payPeriodId The pay period ID
+     * @param snapshot CURRENT or SEALED
+     * @return The stored tree, or null if the period has none for that snapshot
+     */
+    public MerkleTree loadTree(PayPeriodTotalsDAO.Source source, Integer payPeriodId, String snapshot) {
+        if (payPeriodId == null || !ensureTables()) {
+            return null;
+        }
+
+        String sql = "SELECT level, position, nodeHash FROM payrollmerkle " +
+                    "WHERE source = ? AND payPeriodId = ? AND snapshot = ?";
+
+        MerkleTree tree = new MerkleTree();
+        boolean found = false;
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, source.name());
+            stmt.setInt(2, payPeriodId);
+            stmt.setString(3, snapshot);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    tree.levels[rs.getInt("level")][rs.getInt("position")] = rs.getString("nodeHash");
+                    found = true;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading payroll integrity tree: " + e.getMessage());
+            return null;
+        }
+
+        return found ? tree : null;
+    }
+
+    /**
+     * Loads the row hashes of one snapshot, optionally limited to some leaves
+     * @param source The base table
+     * @param payPeriodId The pay period ID
+     * @param snapshot CURRENT or SEALED
+     * @param buckets Leaves to load, or null for all of them
+     * @return Row hashes ordered by employee and row ID
+     */
+    public List<RowHash> getRowHashes(PayPeriodTotalsDAO.Source source, Integer payPeriodId, String snapshot,
+                                      Collection<Integer> buckets) {
+        List<RowHash> rows = new ArrayList<>();
+        if (payPeriodId == null || !ensureTables() || (buckets != null && buckets.isEmpty())) {
+            return rows;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT rowId, employeeId, contentHash FROM payrollrowhash " +
+                                              "WHERE source = ? AND snapshot = ? AND payPeriodId = ?");
+        if (buckets != null) {
+            sql.append(" AND bucket IN (").append(String.join(",", Collections.nCopies(buckets.size(), "?"))).append(")");
+        }
+        sql.append(" ORDER BY employeeId, rowId");
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int paramIndex = 1;
+            stmt.setString(paramIndex++, source.name());
+            stmt.setString(paramIndex++, snapshot);
+            stmt.setInt(paramIndex++, payPeriodId);
+            if (buckets != null) {
+                for (Integer bucket : buckets) {
+                    stmt.setInt(paramIndex++, bucket);
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new RowHash(rs.getInt("rowId"), rs.getInt("employeeId"), rs.getString("contentHash")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading payroll row hashes: " + e.getMessage());
+        }
+
+        return rows;
+    }
+
+    /**
+     * Hashes the period's rows as they are in the base table right now
+     * Used to catch changes made without going through the DAOs
+     * @param source The base table
+     * @param payPeriodId The pay period ID
+     * @return Fresh row hashes ordered by employee and row ID
+     */
+    public List<RowHash> computeRowHashes(PayPeriodTotalsDAO.Source source, Integer payPeriodId) {
+        List<RowHash> rows = new ArrayList<>();
+        if (payPeriodId == null) {
+            return rows;
+        }
+
+        String sql = "SELECT b." + rowIdColumn(source) + " AS rowId, b.employeeId, " + contentHashExpression(source) + " AS contentHash " +
+                    "FROM " + source.getTableName() + " b WHERE b.payPeriodId = ? AND b.employeeId IS NOT NULL " +
+                    "ORDER BY b.employeeId, rowId";
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, payPeriodId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new RowHash(rs.getInt("rowId"), rs.getInt("employeeId"), rs.getString("contentHash")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error hashing payroll rows: " + e.getMessage());
+        }
+
+        return rows;
+    }
+
+    /**
+     * Gets the seal recorded for a period, if any
+     * @param source The base table
+     * @param payPeriodId The pay period ID
+     * @return Map with rootHash, rowCount, sealedBy and sealedAt, or null if the period was never sealed
+     */
+    public Map<String, Object> getSeal(PayPeriodTotalsDAO.Source source, Integer payPeriodId) {
+        if (payPeriodId == null || !ensureTables()) {
+            return null;
+        }
+
+        String sql = "SELECT rootHash, rowCount, sealedBy, sealedAt FROM payrollauditseal WHERE source = ? AND payPeriodId = ?";
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, source.name());
+            stmt.setInt(2, payPeriodId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Map<String, Object> seal = new HashMap<>();
+                    seal.put("rootHash", rs.getString("rootHash"));
+                    seal.put("rowCount", rs.getInt("rowCount"));
+                    seal.put("sealedBy", rs.getObject("sealedBy", Integer.class));
+                    seal.put("sealedAt", rs.getTimestamp("sealedAt"));
+                    return seal;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading payroll audit seal: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+
+    // HELPER METHODS
+
+
+    public static int bucketOf(Integer employeeId) {
+        return Math.floorMod(employeeId, LEAF_BUCKETS);
+    }
+
+    private static long nodeKey(int level, int position) {
+        return ((long) level << 32) | position;
+    }
+
+    private String loadRoot(Connection conn, PayPeriodTotalsDAO.Source source, Integer payPeriodId, String snapshot) throws SQLException {
+        String sql = "SELECT nodeHash FROM payrollmerkle " +
+                    "WHERE source = ? AND payPeriodId = ? AND snapshot = ? AND level = ? AND position = 0";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, source.name());
+            stmt.setInt(2, payPeriodId);
+            stmt.setString(3, snapshot);
+            stmt.setInt(4, TREE_DEPTH);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("nodeHash") : null;
+            }
+        }
+    }
+
+    private List<RowHash> loadRowHashes(Connection conn, PayPeriodTotalsDAO.Source source, Integer payPeriodId,
+                                        String snapshot) throws SQLException {
+        List<RowHash> rows = new ArrayList<>();
+        String sql = "SELECT rowId, employeeId, contentHash FROM payrollrowhash " +
+                    "WHERE source = ? AND snapshot = ? AND payPeriodId = ? ORDER BY employeeId, rowId";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, source.name());
+            stmt.setString(2, snapshot);
+            stmt.setInt(3, payPeriodId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new RowHash(rs.getInt("rowId"), rs.getInt("employeeId"), rs.getString("contentHash")));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void saveTree(Connection conn, PayPeriodTotalsDAO.Source source, Integer payPeriodId, String snapshot,
+                          MerkleTree tree) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM payrollmerkle WHERE source = ? AND payPeriodId = ? AND snapshot = ?")) {
+            stmt.setString(1, source.name());
+            stmt.setInt(2, payPeriodId);
+            stmt.setString(3, snapshot);
+            stmt.executeUpdate();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO payrollmerkle (source, payPeriodId, snapshot, level, position, nodeHash) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int level = 0; level <= TREE_DEPTH; level++) {
+                for (int position = 0; position < tree.levels[level].length; position++) {
+                    addNode(stmt, source, payPeriodId, snapshot, level, position, tree.levels[level][position]);
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private void addNode(PreparedStatement stmt, PayPeriodTotalsDAO.Source source, Integer payPeriodId, String snapshot,
+                         int level, int position, String hash) throws SQLException {
+        stmt.setString(1, source.name());
+        stmt.setInt(2, payPeriodId);
+        stmt.setString(3, snapshot);
+        stmt.setInt(4, level);
+        stmt.setInt(5, position);
+        stmt.setString(6, hash);
+        stmt.addBatch();
+    }
+
+
+    // INNER CLASSES
+
+
+    /**
+     * Content hash of one payroll or payslip row
+     */
+    public static class RowHash {
+        private final int rowId;
+        private final int employeeId;
+        private final String contentHash;
+
+        public RowHash(int rowId, int employeeId, String contentHash) {
+            this.rowId = rowId;
+            this.employeeId = employeeId;
+            this.contentHash = contentHash;
+        }
+
+        public int getRowId() { return rowId; }
+        public int getEmployeeId() { return employeeId; }
+        public String getContentHash() { return contentHash; }
+        public int getBucket() { return bucketOf(employeeId); }
+    }
+
+    /**
+     * Fixed-shape Merkle tree: LEAF_BUCKETS leaves at level 0, the root at level TREE_DEPTH
+     * A leaf hashes the rows of its bucket in employee and row order; an empty leaf has a fixed hash
+     */
+    public static class MerkleTree {
+        private static final String[] EMPTY_HASHES = new String[TREE_DEPTH + 1];
+
+        static {
+            EMPTY_HASHES[0] = sha256("");
+            for (int level = 1; level <= TREE_DEPTH; level++) {
+                EMPTY_HASHES[level] = combine(EMPTY_HASHES[level - 1], EMPTY_HASHES[level - 1]);
+            }
+        }
+
+        private final String[][] levels = new String[TREE_DEPTH + 1][];
+
+        private MerkleTree() {
+            for (int level = 0; level <= TREE_DEPTH; level++) {
+                levels[level] = new String[LEAF_BUCKETS >> level];
+                Arrays.fill(levels[level], EMPTY_HASHES[level]);
+            }
+        }
+
+        /**
+         * Builds a tree from row hashes
+         * @param rows Row hashes in employee and row order
+         * @return The complete tree
+         */
+        public static MerkleTree build(List<RowHash> rows) {
+            Map<Integer, List<RowHash>> byBucket = new TreeMap<>();
+            for (RowHash row : rows) {
+                byBucket.computeIfAbsent(row.getBucket(), k -> new ArrayList<>()).add(row);
+            }
+
+            MerkleTree tree = new MerkleTree();
+            for (Map.Entry<Integer, List<RowHash>> entry : byBucket.entrySet()) {
+                tree.levels[0][entry.getKey()] = leafHash(entry.getValue());
+            }
+            for (int level = 1; level <= TREE_DEPTH; level++) {
+                for (int position = 0; position < tree.levels[level].length; position++) {
+                    tree.levels[level][position] = combine(tree.levels[level - 1][2 * position],
+                                                           tree.levels[level - 1][2 * position + 1]);
+                }
+            }
+            return tree;
+        }
+
+        public String getRoot() {
+            return levels[TREE_DEPTH][0];
+        }
+
+        public String getNode(int level, int position) {
+            return levels[level][position];
+        }
+
+        /**
+         * Finds the leaves that differ between two trees by descending only into differing subtrees
+         * @param other The tree to compare with
+         * @param comparisons Receives the number of node comparisons made (may be null)
+         * @return Differing leaf buckets in ascending order
+         */
+        public List<Integer> diffLeaves(MerkleTree other, int[] comparisons) {
+            List<Integer> leaves = new ArrayList<>();
+            Deque<int[]> pending = new ArrayDeque<>();
+            pending.push(new int[]{TREE_DEPTH, 0});
+            int compared = 0;
+
+            while (!pending.isEmpty()) {
+                int[] node = pending.pop();
+                int level = node[0];
+                int position = node[1];
+                compared++;
+                if (levels[level][position].equals(other.levels[level][position])) {
+                    continue;
+                }
+                if (level == 0) {
+                    leaves.add(position);
+                } else {
+                    pending.push(new int[]{level - 1, 2 * position + 1});
+                    pending.push(new int[]{level - 1, 2 * position});
+                }
+            }
+
+            if (comparisons != null && comparisons.length > 0) {
+                comparisons[0] = compared;
+            }
+            return leaves;
+        }
+
+        static String leafHash(List<RowHash> rows) {
+            if (rows.isEmpty()) {
+                return EMPTY_HASHES[0];
+            }
+            StringBuilder content = new StringBuilder();
+            for (RowHash row : rows) {
+                content.append(row.getRowId()).append(':').append(row.getContentHash()).append(';');
+            }
+            return sha256(content.toString());
+        }
+
+        static String emptyHash(int level) {
+            return EMPTY_HASHES[level];
+        }
+
+        static String combine(String left, String right) {
+            return sha256(left + right);
+        }
+
+        private static String sha256(String value) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package DAOs;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for the SQL-pushdown payroll engine.
+ * Computes a whole pay period inside MySQL with one INSERT ... SELECT built from CTEs:
+ * attendance hours, overtime pay and position benefits are aggregated per employee,
+ * contributions are joined from the payrollcontributionrate table and withholding tax from
+ * the payrolltaxbracket table. Results land in the payrollpushdown staging table, from
+ * where they can be compared with the Java engine or published into payroll.
+ * The rules mirror PayrollService.calculateEmployeePayroll; the rate tables are seeded
+ * with the same rates and brackets.
+ * @author User
+ */
+public class PayrollPushdownDAO {
+
+    private static volatile boolean tablesReady = false;
+
+    private final DatabaseConnection databaseConnection;
+    private final PayPeriodTotalsDAO totalsDAO;
+    private final PayrollAdjustmentDAO adjustmentDAO;
+    private final PayrollIntegrityDAO integrityDAO;
+
+    // Closed months moved out of the attendance table, read along with it when a period reaches them
+    private final AttendanceArchiveDAO archiveDAO;
+
+    /**
+     * Constructor that accepts a DatabaseConnection instance
+     * @param databaseConnection The database connection to use for all operations
+     */
+    public PayrollPushdownDAO(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+        this.totalsDAO = new PayPeriodTotalsDAO(databaseConnection);
+        this.adjustmentDAO = new PayrollAdjustmentDAO(databaseConnection);
+        this.integrityDAO = new PayrollIntegrityDAO(databaseConnection);
+        this.archiveDAO = new AttendanceArchiveDAO(databaseConnection);
+    }
+
+    /**
+     * Default constructor using default database connection
+     */
+    public PayrollPushdownDAO() {
+        this(new DatabaseConnection());
+    }
+
+
+    // TABLE SETUP
+
+
+    /**
+     * Creates the rate tables and the staging table if they do not exist yet
+     * Rates are seeded with INSERT IGNORE, so rates changed by an administrator are kept
+     * @return true if the tables are available
+     */
+    public boolean ensureTables() {
+        if (tablesReady) {
+            return true;
+        }
+
+        String[] statements = {
+            "CREATE TABLE IF NOT EXISTS payrollcontributionrate (" +
+                "contributionCode VARCHAR(20) PRIMARY KEY, " +
+                "employeeRate DECIMAL(8,5) NOT NULL, " +
+                "description VARCHAR(100))",
+
+            "CREATE TABLE IF NOT EXISTS payrolltaxbracket (" +
+                "bracketNo INT PRIMARY KEY, " +
+                "lowerBound DECIMAL(14,2) NULL, " +
+                "upperBound DECIMAL(14,2) NULL, " +
+                "excessOver DECIMAL(14,2) NOT NULL DEFAULT 0, " +
+                "rate DECIMAL(6,4) NOT NULL)",
+
+            "CREATE TABLE IF NOT EXISTS payrollpushdown (" +
+                "payPeriodId INT NOT NULL, " +
+                "employeeId INT NOT NULL, " +
+                "basicSalary DECIMAL(12,2) NOT NULL, " +
+                "hoursWorked DECIMAL(10,2) NOT NULL, " +
+                "attendanceEarnings DECIMAL(12,2) NOT NULL, " +
+                "overtimePay DECIMAL(16,6) NOT NULL, " +
+                "totalBenefits DECIMAL(12,2) NOT NULL, " +
+                "grossIncome DECIMAL(16,6) NOT NULL, " +
+                "governmentContributions DECIMAL(12,2) NOT NULL, " +
+                "withholdingTax DECIMAL(12,2) NOT NULL, " +
+                "totalDeductions DECIMAL(12,2) NOT NULL, " +
+                "netSalary DECIMAL(16,6) NOT NULL, " +
+                "adjustmentGross DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+                "adjustmentDeductions DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+                "adjustmentNet DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+                "computedAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                "PRIMARY KEY (payPeriodId, employeeId))",
+
+            // Same rates as PayrollService.calculateGovernmentContributions
+            "INSERT IGNORE INTO payrollcontributionrate (contributionCode, employeeRate, description) VALUES " +
+                "('SSS', 0.04500, 'SSS employee share'), " +
+                "('PHILHEALTH', 0.02750, 'PhilHealth employee share'), " +
+                "('PAGIBIG', 0.02000, 'Pag-IBIG employee share')",
+
+            // Same brackets as PayrollService.calculateWithholdingTax: tax = (gross - excessOver) * rate
+            "INSERT IGNORE INTO payrolltaxbracket (bracketNo, lowerBound, upperBound, excessOver, rate) VALUES " +
+                "(1, NULL, 20833.00, 0.00, 0.0000), " +
+                "(2, 20833.00, 33333.00, 20833.00, 0.2000), " +
+                "(3, 33333.00, NULL, 0.00, 0.2500)"
+        };
+
+        try (Connection conn = databaseConnection.createConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+            tablesReady = adjustmentDAO.ensureTable();
+        } catch (SQLException e) {
+            System.err.println("Error creating payroll pushdown tables: " + e.getMessage());
+        }
+
+        return tablesReady;
+    }
+
+
+    // SQL BUILDERS
+
+
+    /**
+     * Set-based payroll for one pay period
+     * Parameters: payPeriodId, period start and end date (once per attendance branch),
+     * overtime multiplier, payPeriodId (adjustment target), payPeriodId (output)
+     * @param archived Whether the period reaches archived attendance (see AttendanceArchiveDAO.covers)
+     */
+    private String buildComputeSQL(boolean archived) {
+        return "INSERT INTO payrollpushdown " +
+               "(payPeriodId, employeeId, basicSalary, hoursWorked, attendanceEarnings, overtimePay, totalBenefits, " +
+               "grossIncome, governmentContributions, withholdingTax, totalDeductions, netSalary, " +
+               "adjustmentGross, adjustmentDeductions, adjustmentNet) " +
+               "WITH period_row AS (" +
+               "  SELECT startDate, endDate FROM payperiod WHERE payPeriodId = ?" +
+               "), active_employee AS (" +
+               "  SELECT employeeId, positionId, basicSalary, hourlyRate FROM employee " +
+               "  WHERE status != 'Terminated' AND basicSalary IS NOT NULL AND hourlyRate IS NOT NULL" +
+               // Hours per complete record, truncated to whole minutes and rounded to 2 places like AttendanceModel
+               "), attendance_hours AS (" +
+               "  SELECT a.employeeId, SUM(ROUND(FLOOR((TIME_TO_SEC(a.timeOut) - TIME_TO_SEC(a.timeIn) + " +
+               "    CASE WHEN a.timeOut < a.timeIn THEN 86400 ELSE 0 END) / 60) / 60, 2)) AS hoursWorked " +
+               "  FROM " + AttendanceArchiveDAO.rows("date BETWEEN ? AND ? AND timeIn IS NOT NULL AND timeOut IS NOT NULL", archived) + " a " +
+               "  GROUP BY a.employeeId" +
+               // Approved overtime in the month the period starts, each request rounded to 2 places like OvertimeRequestDAO
+               "), overtime_pay AS (" +
+               "  SELECT o.employeeId, SUM(ROUND(TIMESTAMPDIFF(MINUTE, o.overtimeStart, o.overtimeEnd) / 60, 2) * ae.hourlyRate * ?) AS overtimePay " +
+               "  FROM overtimerequest o " +
+               "  JOIN active_employee ae ON ae.employeeId = o.employeeId " +
+               "  JOIN period_row pr ON YEAR(o.overtimeStart) = YEAR(pr.startDate) AND MONTH(o.overtimeStart) = MONTH(pr.startDate) " +
+               "  WHERE o.approvalStatus = 'Approved' AND o.overtimeStart IS NOT NULL AND o.overtimeEnd IS NOT NULL " +
+               "  GROUP BY o.employeeId" +
+               "), position_benefits AS (" +
+               "  SELECT pb.positionId, SUM(pb.benefitValue) AS totalBenefits " +
+               "  FROM positionbenefit pb JOIN benefittype bt ON bt.benefitTypeId = pb.benefitTypeId " +
+               "  GROUP BY pb.positionId" +
+               "), contributions AS (" +
+               "  SELECT ae.employeeId, SUM(ROUND(ae.basicSalary * r.employeeRate, 2)) AS governmentContributions " +
+               "  FROM active_employee ae CROSS JOIN payrollcontributionrate r " +
+               "  GROUP BY ae.employeeId" +
+               "), earnings AS (" +
+               "  SELECT ae.employeeId, " +
+               "    ROUND(ae.basicSalary / 2, 2) AS basicSalary, " +
+               "    COALESCE(ah.hoursWorked, 0) AS hoursWorked, " +
+               "    ROUND(COALESCE(ah.hoursWorked, 0) * ae.hourlyRate, 2) AS attendanceEarnings, " +
+               "    COALESCE(op.overtimePay, 0) AS overtimePay, " +
+               "    COALESCE(pb.totalBenefits, 0) AS totalBenefits, " +
+               "    COALESCE(c.governmentContributions, 0) AS governmentContributions " +
+               "  FROM active_employee ae " +
+               "  LEFT JOIN attendance_hours ah ON ah.employeeId = ae.employeeId " +
+               "  LEFT JOIN overtime_pay op ON op.employeeId = ae.employeeId " +
+               "  LEFT JOIN position_benefits pb ON pb.positionId = ae.positionId " +
+               "  LEFT JOIN contributions c ON c.employeeId = ae.employeeId" +
+               "), gross AS (" +
+               "  SELECT e.*, e.basicSalary + e.attendanceEarnings + e.overtimePay + e.totalBenefits AS grossIncome " +
+               "  FROM earnings e" +
+               "), taxed AS (" +
+               "  SELECT g.*, ROUND((g.grossIncome - tb.excessOver) * tb.rate, 2) AS withholdingTax " +
+               "  FROM gross g JOIN payrolltaxbracket tb " +
+               "    ON (tb.lowerBound IS NULL OR g.grossIncome > tb.lowerBound) " +
+               "   AND (tb.upperBound IS NULL OR g.grossIncome <= tb.upperBound)" +
+               "), adjustments AS (" +
+               "  SELECT employeeId, SUM(grossAdjustment) AS adjustmentGross, " +
+               "    SUM(deductionAdjustment) AS adjustmentDeductions, SUM(netAdjustment) AS adjustmentNet " +
+               "  FROM payrolladjustment WHERE targetPayPeriodId = ? GROUP BY employeeId" +
+               ") " +
+               "SELECT ?, t.employeeId, t.basicSalary, t.hoursWorked, t.attendanceEarnings, t.overtimePay, t.totalBenefits, " +
+               "t.grossIncome, t.governmentContributions, t.withholdingTax, " +
+               "t.governmentContributions + t.withholdingTax, " +
+               "t.grossIncome - t.governmentContributions - t.withholdingTax, " +
+               "COALESCE(adj.adjustmentGross, 0), COALESCE(adj.adjustmentDeductions, 0), COALESCE(adj.adjustmentNet, 0) " +
+               "FROM taxed t LEFT JOIN adjustments adj ON adj.employeeId = t.employeeId";
+    }
+
+
+    // PUSHDOWN OPERATIONS
+
+
+    /**
+     * Computes a pay period into the payrollpushdown staging table, replacing earlier results
+     * The payroll table is not touched, so this can run side by side with the Java engine
+     * @param payPeriodId The pay period ID
+     * @param overtimeMultiplier Overtime rate multiplier (1.5 in PayrollService)
+     * @return Number of employees computed, or -1 if the computation failed
+     */
+    public int computePeriod(Integer payPeriodId, BigDecimal overtimeMultiplier) {
+        if (payPeriodId == null || !ensureTables()) {
+            return -1;
+        }
+
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int computed = computePeriod(conn, payPeriodId, overtimeMultiplier);
+                conn.commit();
+                return computed;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error computing payroll in database: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private int computePeriod(Connection conn, Integer payPeriodId, BigDecimal overtimeMultiplier) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM payrollpushdown WHERE payPeriodId = ?")) {
+            stmt.setInt(1, payPeriodId);
+            stmt.executeUpdate();
+        }
+
+        // Period dates are bound directly so the attendance rows can come from the archive as well
+        Date startDate = null;
+        Date endDate = null;
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT startDate, endDate FROM payperiod WHERE payPeriodId = ?")) {
+            stmt.setInt(1, payPeriodId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    startDate = rs.getDate("startDate");
+                    endDate = rs.getDate("endDate");
+                }
+            }
+        }
+        boolean archived = startDate != null && archiveDAO.covers(startDate.toLocalDate());
+
+        try (PreparedStatement stmt = conn.prepareStatement(buildComputeSQL(archived))) {
+            int paramIndex = 1;
+            stmt.setInt(paramIndex++, payPeriodId);
+            for (int branch = 0; branch < AttendanceArchiveDAO.branches(archived); branch++) {
+                stmt.setDate(paramIndex++, startDate);
+                stmt.setDate(paramIndex++, endDate);
+            }
+            stmt.setBigDecimal(paramIndex++, overtimeMultiplier);
+            stmt.setInt(paramIndex++, payPeriodId);
+            stmt.setInt(paramIndex++, payPeriodId);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Computes a pay period and writes payroll rows for employees that do not have one yet
+     * Computation, payroll inserts and the pay period totals and hash rebuilds share one transaction
+     * @param payPeriodId The pay period ID
+     * @param overtimeMultiplier Overtime rate multiplier (1.5 in PayrollService)
+     * @return Number of payroll rows inserted, or -1 if the run was rolled back
+     */
+    public int computeAndPublish(Integer payPeriodId, BigDecimal overtimeMultiplier) {
+        if (payPeriodId == null || !ensureTables() || !totalsDAO.ensureTable()) {
+            return -1;
+        }
+
+        String publishSql = "INSERT INTO payroll " +
+                           "(basicSalary, grossIncome, totalBenefit, totalDeduction, netSalary, payPeriodId, employeeId) " +
+                           "SELECT s.basicSalary, ROUND(s.grossIncome + s.adjustmentGross, 2), s.totalBenefits, " +
+                           "ROUND(s.totalDeductions + s.adjustmentDeductions, 2), ROUND(s.netSalary + s.adjustmentNet, 2), " +
+                           "s.payPeriodId, s.employeeId " +
+                           "FROM payrollpushdown s " +
+                           "WHERE s.payPeriodId = ? AND NOT EXISTS (" +
+                           "  SELECT 1 FROM payroll p WHERE p.payPeriodId = s.payPeriodId AND p.employeeId = s.employeeId)";
+
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYROLL, payPeriodId);
+                computePeriod(conn, payPeriodId, overtimeMultiplier);
+
+                int published;
+                try (PreparedStatement stmt = conn.prepareStatement(publishSql)) {
+                    stmt.setInt(1, payPeriodId);
+                    published = stmt.executeUpdate();
+                }
+
+                totalsDAO.rebuild(conn, PayPeriodTotalsDAO.Source.PAYROLL, payPeriodId);
+                integrityDAO.rebuild(conn, PayPeriodTotalsDAO.Source.PAYROLL, payPeriodId);
+                conn.commit();
+                return published;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error publishing database-computed payroll: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Loads the staged results of a pay period
+     * @param payPeriodId The pay period ID
+     * @return Staged rows ordered by employee ID
+     */
+    public List<PushdownRow> findComputed(Integer payPeriodId) {
+        List<PushdownRow> rows = new ArrayList<>();
+        if (payPeriodId == null || !ensureTables()) {
+            return rows;
+        }
+
+        String sql = "SELECT * FROM payrollpushdown WHERE payPeriodId = ? ORDER BY employeeId";
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, payPeriodId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    PushdownRow row = new PushdownRow();
+                    row.setPayPeriodId(rs.getInt("payPeriodId"));
+                    row.setEmployeeId(rs.getInt("employeeId"));
+                    row.setBasicSalary(rs.getBigDecimal("basicSalary"));
+                    row.setHoursWorked(rs.getBigDecimal("hoursWorked"));
+                    row.setAttendanceEarnings(rs.getBigDecimal("attendanceEarnings"));
+                    row.setOvertimePay(rs.getBigDecimal("overtimePay"));
+                    row.setTotalBenefits(rs.getBigDecimal("totalBenefits"));
+                    row.setGrossIncome(rs.getBigDecimal("grossIncome"));
+                    row.setGovernmentContributions(rs.getBigDecimal("governmentContributions"));
+                    row.setWithholdingTax(rs.getBigDecimal("withholdingTax"));
+                    row.setTotalDeductions(rs.getBigDecimal("totalDeductions"));
+                    row.setNetSalary(rs.getBigDecimal("netSalary"));
+                    row.setAdjustmentGross(rs.getBigDecimal("adjustmentGross"));
+                    row.setAdjustmentDeductions(rs.getBigDecimal("adjustmentDeductions"));
+                    row.setAdjustmentNet(rs.getBigDecimal("adjustmentNet"));
+                    rows.add(row);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading database-computed payroll: " + e.getMessage());
+        }
+
+        return rows;
+    }
+
+    /**
+     * Removes the staged results of a pay period
+     * @param payPeriodId The pay period ID
+     * @return Number of staged rows deleted
+     */
+    public int clearComputed(Integer payPeriodId) {
+        if (payPeriodId == null || !ensureTables()) {
+            return 0;
+        }
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM payrollpushdown WHERE payPeriodId = ?")) {
+            stmt.setInt(1, payPeriodId);
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error clearing database-computed payroll: " + e.getMessage());
+            return 0;
+        }
+    }
+
+
+    // INNER CLASS - One staged employee result
+
+
+    /**
+     * One employee's payroll as computed by the database, before retro adjustments
+     */
+    public static class PushdownRow {
+        private Integer payPeriodId;
+        private Integer employeeId;
+        private BigDecimal basicSalary = BigDecimal.ZERO;
+        private BigDecimal hoursWorked = BigDecimal.ZERO;
+        private BigDecimal attendanceEarnings = BigDecimal.ZERO;
+        private BigDecimal overtimePay = BigDecimal.ZERO;
+        private BigDecimal totalBenefits = BigDecimal.ZERO;
+        private BigDecimal grossIncome = BigDecimal.ZERO;
+        private BigDecimal governmentContributions = BigDecimal.ZERO;
+        private BigDecimal withholdingTax = BigDecimal.ZERO;
+        private BigDecimal totalDeductions = BigDecimal.ZERO;
+        private BigDecimal netSalary = BigDecimal.ZERO;
+        private BigDecimal adjustmentGross = BigDecimal.ZERO;
+        private BigDecimal adjustmentDeductions = BigDecimal.ZERO;
+        private BigDecimal adjustmentNet = BigDecimal.ZERO;
+
+        // Getters and setters
+        public Integer getPayPeriodId() { return payPeriodId; }
+        public void setPayPeriodId(Integer payPeriodId) { this.payPeriodId = payPeriodId; }
+
+        public Integer getEmployeeId() { return employeeId; }
+        public void setEmployeeId(Integer employeeId) { this.employeeId = employeeId; }
+
+        public BigDecimal getBasicSalary() { return basicSalary; }
+        public void setBasicSalary(BigDecimal basicSalary) { this.basicSalary = basicSalary; }
+
+        public BigDecimal getHoursWorked() { return hoursWorked; }
+        public void setHoursWorked(BigDecimal hoursWorked) { this.hoursWorked = hoursWorked; }
+
+        public BigDecimal getAttendanceEarnings() { return attendanceEarnings; }
+        public void setAttendanceEarnings(BigDecimal attendanceEarnings) { this.attendanceEarnings = attendanceEarnings; }
+
+        public BigDecimal getOvertimePay() { return overtimePay; }
+        public void setOvertimePay(BigDecimal overtimePay) { this.overtimePay = overtimePay; }
+
+        public BigDecimal getTotalBenefits() { return totalBenefits; }
+        public void setTotalBenefits(BigDecimal totalBenefits) { this.totalBenefits = totalBenefits; }
+
+        public BigDecimal getGrossIncome() { return grossIncome; }
+        public void setGrossIncome(BigDecimal grossIncome) { this.grossIncome = grossIncome; }
+
+        public BigDecimal getGovernmentContributions() { return governmentContributions; }
+        public void setGovernmentContributions(BigDecimal governmentContributions) { this.governmentContributions = governmentContributions; }
+
+        public BigDecimal getWithholdingTax() { return withholdingTax; }
+        public void setWithholdingTax(BigDecimal withholdingTax) { this.withholdingTax = withholdingTax; }
+
+        public BigDecimal getTotalDeductions() { return totalDeductions; }
+        public void setTotalDeductions(BigDecimal totalDeductions) { this.totalDeductions = totalDeductions; }
+
+        public BigDecimal getNetSalary() { return netSalary; }
+        public void setNetSalary(BigDecimal netSalary) { this.netSalary = netSalary; }
+
+        public BigDecimal getAdjustmentGross() { return adjustmentGross; }
+        public void setAdjustmentGross(BigDecimal adjustmentGross) { this.adjustmentGross = adjustmentGross; }
+
+        public BigDecimal getAdjustmentDeductions() { return adjustmentDeductions; }
+        public void setAdjustmentDeductions(BigDecimal adjustmentDeductions) { this.adjustmentDeductions = adjustmentDeductions; }
+
+        public BigDecimal getAdjustmentNet() { return adjustmentNet; }
+        public void setAdjustmentNet(BigDecimal adjustmentNet) { this.adjustmentNet = adjustmentNet; }
+    }
+}
@@ -0,0 +1,541 @@
+package DAOs;
+
+import Models.PayrollShardModel;
+import Models.PayrollShardModel.ShardStatus;
+import Models.PayrollShardModel.ShardType;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for PayrollShardModel entities.
+ * The payrollshard table is the lease table of a distributed payroll run: a coordinator
+ * writes one row per shard and any number of worker processes claim rows, renew their
+ * lease while computing and mark them completed. Lease times use the database clock
+ * so workers on different machines agree on when a lease has expired.
+ * @author User
+ */
+public class PayrollShardDAO extends BaseDAO<PayrollShardModel, Integer> {
+
+    private static volatile boolean tableReady = false;
+
+    /**
+     * Constructor that accepts a DatabaseConnection instance
+     * @param databaseConnection The database connection to use for all operations
+     */
+    public PayrollShardDAO(DatabaseConnection databaseConnection) {
+        super(databaseConnection);
+    }
+
+    /**
+     * Default constructor using default database connection
+     */
+    public PayrollShardDAO() {
+        super(new DatabaseConnection());
+    }
+
+
+    // ABSTRACT METHOD IMPLEMENTATIONS - Required by BaseDAO
+
+
+    @Override
+    protected PayrollShardModel mapResultSetToEntity(ResultSet rs) throws SQLException {
+        PayrollShardModel shard = new PayrollShardModel();
+        shard.setShardId(rs.getInt("shardId"));
+        shard.setPayPeriodId(rs.getInt("payPeriodId"));
+        shard.setShardNo(rs.getInt("shardNo"));
+        shard.setShardType(ShardType.fromString(rs.getString("shardType")));
+
+        int rangeStart = rs.getInt("rangeStart");
+        if (!rs.wasNull()) {
+            shard.setRangeStart(rangeStart);
+        }
+        int rangeEnd = rs.getInt("rangeEnd");
+        if (!rs.wasNull()) {
+            shard.setRangeEnd(rangeEnd);
+        }
+
+        shard.setDepartment(rs.getString("department"));
+        shard.setEmployeeCount(rs.getInt("employeeCount"));
+        shard.setStatus(ShardStatus.fromString(rs.getString("status")));
+        shard.setLeaseOwner(rs.getString("leaseOwner"));
+
+        Timestamp leaseExpiresAt = rs.getTimestamp("leaseExpiresAt");
+        if (leaseExpiresAt != null) {
+            shard.setLeaseExpiresAt(leaseExpiresAt.toLocalDateTime());
+        }
+
+        shard.setAttempts(rs.getInt("attempts"));
+        shard.setProcessedEmployees(rs.getInt("processedEmployees"));
+        shard.setFailedEmployees(rs.getInt("failedEmployees"));
+
+        Timestamp updatedAt = rs.getTimestamp("updatedAt");
+        if (updatedAt != null) {
+            shard.setUpdatedAt(updatedAt.toLocalDateTime());
+        }
+        return shard;
+    }
+
+    @Override
+    protected String getTableName() {
+        return "payrollshard";
+    }
+
+    @Override
+    protected String getPrimaryKeyColumn() {
+        return "shardId";
+    }
+
+    @Override
+    protected void setInsertParameters(PreparedStatement stmt, PayrollShardModel shard) throws SQLException {
+        int paramIndex = 1;
+        stmt.setInt(paramIndex++, shard.getPayPeriodId());
+        stmt.setInt(paramIndex++, shard.getShardNo());
+        stmt.setString(paramIndex++, shard.getShardType().getValue());
+
+        if (shard.getRangeStart() != null) {
+            stmt.setInt(paramIndex++, shard.getRangeStart());
+        } else {
+            stmt.setNull(paramIndex++, Types.INTEGER);
+        }
+        if (shard.getRangeEnd() != null) {
+            stmt.setInt(paramIndex++, shard.getRangeEnd());
+        } else {
+            stmt.setNull(paramIndex++, Types.INTEGER);
+        }
+
+        stmt.setString(paramIndex++, shard.getDepartment());
+        stmt.setInt(paramIndex++, shard.getEmployeeCount() != null ? shard.getEmployeeCount() : 0);
+        stmt.setString(paramIndex++, shard.getStatus().getValue());
+    }
+
+    @Override
+    protected void setUpdateParameters(PreparedStatement stmt, PayrollShardModel shard) throws SQLException {
+        setInsertParameters(stmt, shard);
+        stmt.setInt(9, shard.getShardId());
+    }
+
+    @Override
+    protected Integer getEntityId(PayrollShardModel shard) {
+        return shard.getShardId();
+    }
+
+
+    // CUSTOM SQL BUILDERS
+
+
+    /**
+     * Insert that leaves an existing shard untouched, so planning the same run twice is harmless
+     */
+    private String buildInsertSQL() {
+        return "INSERT IGNORE INTO payrollshard " +
+               "(payPeriodId, shardNo, shardType, rangeStart, rangeEnd, department, employeeCount, status) " +
+               "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    private String buildUpdateSQL() {
+        return "UPDATE payrollshard SET payPeriodId = ?, shardNo = ?, shardType = ?, rangeStart = ?, " +
+               "rangeEnd = ?, department = ?, employeeCount = ?, status = ? WHERE shardId = ?";
+    }
+
+
+    // TABLE SETUP
+
+
+    /**
+     * Creates the payrollshard table if it does not exist yet
+     * @return true if the table is available
+     */
+    public boolean ensureTable() {
+        if (tableReady) {
+            return true;
+        }
+
+        String sql = "CREATE TABLE IF NOT EXISTS payrollshard (" +
+                    "shardId INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "payPeriodId INT NOT NULL, " +
+                    "shardNo INT NOT NULL, " +
+                    "shardType VARCHAR(20) NOT NULL, " +
+                    "rangeStart INT NULL, " +
+                    "rangeEnd INT NULL, " +
+                    "department VARCHAR(100) NULL, " +
+                    "employeeCount INT NOT NULL DEFAULT 0, " +
+                    "status VARCHAR(20) NOT NULL DEFAULT 'Pending', " +
+                    "leaseOwner VARCHAR(150) NULL, " +
+                    "leaseExpiresAt DATETIME NULL, " +
+                    "attempts INT NOT NULL DEFAULT 0, " +
+                    "processedEmployees INT NOT NULL DEFAULT 0, " +
+                    "failedEmployees INT NOT NULL DEFAULT 0, " +
+                    "updatedAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                    "UNIQUE KEY uk_payrollshard_period (payPeriodId, shardNo), " +
+                    "INDEX idx_payrollshard_claim (payPeriodId, status, leaseExpiresAt))";
+
+        try (Connection conn = databaseConnection.createConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+            tableReady = true;
+        } catch (SQLException e) {
+            System.err.println("Error creating payroll shard table: " + e.getMessage());
+        }
+
+        return tableReady;
+    }
+
+
+    // SHARD PLANNING
+
+
+    /**
+     * Splits the active employees into consecutive employee ID ranges of at most shardSize employees
+     * The shards are only planned here; createShards stores them
+     * @param payPeriodId The pay period being run
+     * @param shardSize Maximum employees per shard
+     * @return Planned shards, numbered from 1
+     */
+    public List<PayrollShardModel> planEmployeeRangeShards(Integer payPeriodId, int shardSize) {
+        List<PayrollShardModel> shards = new ArrayList<>();
+        if (payPeriodId == null || shardSize <= 0) {
+            return shards;
+        }
+
+        String sql = "SELECT employeeId FROM employee WHERE status != 'Terminated' ORDER BY employeeId";
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            Integer rangeStart = null;
+            int previousId = 0;
+            int count = 0;
+            while (rs.next()) {
+                int employeeId = rs.getInt("employeeId");
+                if (rangeStart == null) {
+                    rangeStart = employeeId;
+                }
+                previousId = employeeId;
+                count++;
+
+                if (count == shardSize) {
+                    shards.add(new PayrollShardModel(payPeriodId, shards.size() + 1, rangeStart, previousId, count));
+                    rangeStart = null;
+                    count = 0;
+                }
+            }
+            if (count > 0) {
+                shards.add(new PayrollShardModel(payPeriodId, shards.size() + 1, rangeStart, previousId, count));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error planning employee range shards: " + e.getMessage());
+        }
+
+        return shards;
+    }
+
+    /**
+     * Plans one shard per department of the active employees
+     * Employees without a position go into the PayPeriodTotalsDAO.UNASSIGNED_DEPARTMENT shard
+     * @param payPeriodId The pay period being run
+     * @return Planned shards, numbered from 1, largest department first
+     */
+    public List<PayrollShardModel> planDepartmentShards(Integer payPeriodId) {
+        List<PayrollShardModel> shards = new ArrayList<>();
+        if (payPeriodId == null) {
+            return shards;
+        }
+
+        String sql = "SELECT COALESCE(p.department, ?) AS department, COUNT(*) AS employeeCount " +
+                    "FROM employee e LEFT JOIN position p ON e.positionId = p.positionId " +
+                    "WHERE e.status != 'Terminated' " +
+                    "GROUP BY COALESCE(p.department, ?) " +
+                    "ORDER BY employeeCount DESC, department";
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, PayPeriodTotalsDAO.UNASSIGNED_DEPARTMENT);
+            stmt.setString(2, PayPeriodTotalsDAO.UNASSIGNED_DEPARTMENT);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    shards.add(new PayrollShardModel(payPeriodId, shards.size() + 1,
+                                                     rs.getString("department"), rs.getInt("employeeCount")));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error planning department shards: " + e.getMessage());
+        }
+
+        return shards;
+    }
+
+    /**
+     * Stores planned shards in one transaction
+     * Shards whose (payPeriodId, shardNo) already exist are left as they are
+     * @param shards The planned shards
+     * @return Number of shards inserted, or -1 if the transaction was rolled back
+     */
+    public int createShards(List<PayrollShardModel> shards) {
+        if (shards == null || shards.isEmpty()) {
+            return 0;
+        }
+        if (!ensureTable()) {
+            return -1;
+        }
+
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(buildInsertSQL())) {
+                for (PayrollShardModel shard : shards) {
+                    setInsertParameters(stmt, shard);
+                    stmt.addBatch();
+                }
+
+                int inserted = 0;
+                for (int count : stmt.executeBatch()) {
+                    if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                        inserted++;
+                    }
+                }
+                conn.commit();
+                return inserted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error creating payroll shards: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Gets the active employee IDs a shard covers
+     * @param shard The shard
+     * @return Employee IDs in ascending order
+     */
+    public List<Integer> findEmployeeIdsForShard(PayrollShardModel shard) {
+        List<Integer> employeeIds = new ArrayList<>();
+        if (shard == null || shard.getShardType() == null) {
+            return employeeIds;
+        }
+
+        String sql;
+        if (shard.getShardType() == ShardType.DEPARTMENT) {
+            sql = "SELECT e.employeeId FROM employee e LEFT JOIN position p ON e.positionId = p.positionId " +
+                  "WHERE e.status != 'Terminated' AND COALESCE(p.department, ?) = ? ORDER BY e.employeeId";
+        } else {
+            sql = "SELECT employeeId FROM employee " +
+                  "WHERE status != 'Terminated' AND employeeId BETWEEN ? AND ? ORDER BY employeeId";
+        }
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            if (shard.getShardType() == ShardType.DEPARTMENT) {
+                stmt.setString(1, PayPeriodTotalsDAO.UNASSIGNED_DEPARTMENT);
+                stmt.setString(2, shard.getDepartment());
+            } else {
+                stmt.setInt(1, shard.getRangeStart());
+                stmt.setInt(2, shard.getRangeEnd());
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    employeeIds.add(rs.getInt("employeeId"));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error finding employees for shard " + shard.getShardId() + ": " + e.getMessage());
+        }
+
+        return employeeIds;
+    }
+
+
+    // LEASES
+
+
+    /**
+     * Claims the next available shard of a pay period for a worker
+     * A shard is available when it is Pending or its lease has expired. Expired shards that
+     * already used up maxAttempts are marked Failed instead of being handed out again.
+     * SKIP LOCKED lets concurrent workers claim different shards without waiting on each other.
+     * @param payPeriodId The pay period being run
+     * @param workerId Unique name of the claiming worker
+     * @param leaseSeconds How long the lease lasts before another worker may take the shard
+     * @param maxAttempts Claims allowed per shard before it is marked Failed
+     * @return The claimed shard, or null if none is available
+     */
+    public PayrollShardModel claimShard(Integer payPeriodId, String workerId, int leaseSeconds, int maxAttempts) {
+        if (payPeriodId == null || workerId == null || !ensureTable()) {
+            return null;
+        }
+
+        String failSql = "UPDATE payrollshard SET status = 'Failed', leaseOwner = NULL, leaseExpiresAt = NULL " +
+                        "WHERE payPeriodId = ? AND status = 'Leased' AND leaseExpiresAt < NOW() AND attempts >= ?";
+
+        String selectSql = "SELECT shardId FROM payrollshard " +
+                          "WHERE payPeriodId = ? AND (status = 'Pending' OR (status = 'Leased' AND leaseExpiresAt < NOW())) " +
+                          "ORDER BY shardNo LIMIT 1 FOR UPDATE SKIP LOCKED";
+
+        String leaseSql = "UPDATE payrollshard SET status = 'Leased', leaseOwner = ?, " +
+                         "leaseExpiresAt = NOW() + INTERVAL ? SECOND, attempts = attempts + 1 WHERE shardId = ?";
+
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement failStmt = conn.prepareStatement(failSql);
+                 PreparedStatement selectStmt = conn.prepareStatement(selectSql);
+                 PreparedStatement leaseStmt = conn.prepareStatement(leaseSql)) {
+
+                failStmt.setInt(1, payPeriodId);
+                failStmt.setInt(2, maxAttempts);
+                failStmt.executeUpdate();
+
+                selectStmt.setInt(1, payPeriodId);
+                Integer shardId = null;
+                try (ResultSet rs = selectStmt.executeQuery()) {
+                    if (rs.next()) {
+                        shardId = rs.getInt("shardId");
+                    }
+                }
+
+                if (shardId == null) {
+                    conn.commit();
+                    return null;
+                }
+
+                leaseStmt.setString(1, workerId);
+                leaseStmt.setInt(2, leaseSeconds);
+                leaseStmt.setInt(3, shardId);
+                leaseStmt.executeUpdate();
+                conn.commit();
+                return findById(shardId);
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error claiming payroll shard: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Extends a worker's lease on a shard
+     * @param shardId The leased shard
+     * @param workerId The worker holding the lease
+     * @param leaseSeconds New lease length from now
+     * @return false if the worker no longer holds the lease (it expired and was reassigned)
+     */
+    public boolean renewLease(Integer shardId, String workerId, int leaseSeconds) {
+        if (shardId == null || workerId == null) {
+            return false;
+        }
+        String sql = "UPDATE payrollshard SET leaseExpiresAt = NOW() + INTERVAL ? SECOND " +
+                    "WHERE shardId = ? AND leaseOwner = ? AND status = 'Leased'";
+        return executeUpdate(sql, leaseSeconds, shardId, workerId) > 0;
+    }
+
+    /**
+     * Marks a leased shard completed with its counts
+     * @param shardId The leased shard
+     * @param workerId The worker holding the lease
+     * @param processedEmployees Employees processed successfully
+     * @param failedEmployees Employees that failed
+     * @return false if the worker no longer holds the lease
+     */
+    public boolean completeShard(Integer shardId, String workerId, int processedEmployees, int failedEmployees) {
+        if (shardId == null || workerId == null) {
+            return false;
+        }
+        String sql = "UPDATE payrollshard SET status = 'Completed', leaseExpiresAt = NULL, " +
+                    "processedEmployees = ?, failedEmployees = ? " +
+                    "WHERE shardId = ? AND leaseOwner = ? AND status = 'Leased'";
+        return executeUpdate(sql, processedEmployees, failedEmployees, shardId, workerId) > 0;
+    }
+
+    /**
+     * Hands a leased shard back so another worker can claim it straight away (e.g. on shutdown)
+     * @param shardId The leased shard
+     * @param workerId The worker holding the lease
+     * @return true if the shard was released
+     */
+    public boolean releaseShard(Integer shardId, String workerId) {
+        if (shardId == null || workerId == null) {
+            return false;
+        }
+        String sql = "UPDATE payrollshard SET status = 'Pending', leaseOwner = NULL, leaseExpiresAt = NULL " +
+                    "WHERE shardId = ? AND leaseOwner = ? AND status = 'Leased'";
+        return executeUpdate(sql, shardId, workerId) > 0;
+    }
+
+    /**
+     * Puts failed shards of a pay period back to Pending with their attempts reset
+     * @param payPeriodId The pay period being run
+     * @return Number of shards reset
+     */
+    public int resetFailedShards(Integer payPeriodId) {
+        if (payPeriodId == null || !ensureTable()) {
+            return 0;
+        }
+        String sql = "UPDATE payrollshard SET status = 'Pending', attempts = 0 WHERE payPeriodId = ? AND status = 'Failed'";
+        return executeUpdate(sql, payPeriodId);
+    }
+
+
+    // QUERIES
+
+
+    /**
+     * Finds all shards of a pay period
+     * @param payPeriodId The pay period being run
+     * @return Shards ordered by shard number
+     */
+    public List<PayrollShardModel> findByPeriod(Integer payPeriodId) {
+        if (payPeriodId == null || !ensureTable()) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT * FROM payrollshard WHERE payPeriodId = ? ORDER BY shardNo";
+        return executeQuery(sql, payPeriodId);
+    }
+
+    /**
+     * Deletes all shards of a pay period so the run can be planned again
+     * @param payPeriodId The pay period being run
+     * @return Number of shards deleted
+     */
+    public int deleteShardsForPeriod(Integer payPeriodId) {
+        if (payPeriodId == null || !ensureTable()) {
+            return 0;
+        }
+        String sql = "DELETE FROM payrollshard WHERE payPeriodId = ?";
+        return executeUpdate(sql, payPeriodId);
+    }
+
+
+    // OVERRIDE METHODS
+
+
+    @Override
+    public boolean save(PayrollShardModel shard) {
+        List<PayrollShardModel> single = new ArrayList<>();
+        single.add(shard);
+        return createShards(single) == 1;
+    }
+
+    @Override
+    public boolean update(PayrollShardModel shard) {
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(buildUpdateSQL())) {
+            setUpdateParameters(stmt, shard);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating payroll shard: " + e.getMessage());
+            return false;
+        }
+    }
+}
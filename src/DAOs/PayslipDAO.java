@@ -6,7 +6,11 @@ import java.math.RoundingMode;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for PayslipModel entities.
@@ -16,12 +20,24 @@ import java.util.List;
  */
 public class PayslipDAO extends BaseDAO<PayslipModel, Integer> {
     
+    // Running per-period totals, kept in step with every payslip write
+    private final PayPeriodTotalsDAO totalsDAO;
+    
+    // Content hashes and per-period Merkle trees, kept in step with every payslip write
+    private final PayrollIntegrityDAO integrityDAO;
+    
+    // Closed months moved out of the attendance table, read along with it when a period reaches them
+    private final AttendanceArchiveDAO archiveDAO;
+    
     /**
      * Constructor that accepts a DatabaseConnection instance
      * @param databaseConnection The database connection to use for all operations
      */
     public PayslipDAO(DatabaseConnection databaseConnection) {
         super(databaseConnection);
+        this.totalsDAO = new PayPeriodTotalsDAO(databaseConnection);
+        this.integrityDAO = new PayrollIntegrityDAO(databaseConnection);
+        this.archiveDAO = new AttendanceArchiveDAO(databaseConnection);
     }
     
 
@@ -300,31 +316,119 @@ public class PayslipDAO extends BaseDAO<PayslipModel, Integer> {
     
     /**
      * Generates payslips for all employees in a pay period
+     * Delegates to the set-based builder; employees who already have a payslip are counted as generated
      * @param payPeriodId The pay period ID
      * @return Number of payslips generated
      */
     public int generateAllPayslips(Integer payPeriodId) {
-        String sql = "SELECT DISTINCT employeeId FROM payroll WHERE payPeriodId = ?";
-        int generatedCount = 0;
-        
-        try (Connection conn = databaseConnection.createConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, payPeriodId);
+        if (generatePayslipsForPeriod(payPeriodId) < 0) {
+            return 0;
+        }
+        return countPayslipsWithPayroll(payPeriodId);
+    }
+    
+    /**
+     * Builds the payslips for every payroll record in a pay period using set-based queries
+     * Loads payroll/employee rows, days worked, overtime minutes and position benefits with one
+     * grouped query each, then writes all payslips with batched inserts. Employees who already
+     * have a payslip for the period are skipped, so the method is safe to rerun.
+     * @param payPeriodId The pay period ID
+     * @return Number of payslips inserted, or -1 if the period data could not be loaded
+     */
+    public int generatePayslipsForPeriod(Integer payPeriodId) {
+        String payrollSql = "SELECT e.employeeId, e.firstName, e.lastName, e.basicSalary, e.hourlyRate, e.positionId, " +
+                           "p.payrollId, p.grossIncome, p.totalBenefit, p.totalDeduction, p.netSalary, " +
+                           "pp.startDate, pp.endDate " +
+                           "FROM payroll p " +
+                           "JOIN employee e ON e.employeeId = p.employeeId " +
+                           "JOIN payperiod pp ON p.payPeriodId = pp.payPeriodId " +
+                           "WHERE p.payPeriodId = ? " +
+                           "AND NOT EXISTS (SELECT 1 FROM payslip ps WHERE ps.employeeId = p.employeeId AND ps.payPeriodId = p.payPeriodId) " +
+                           "ORDER BY p.employeeId, p.payrollId";
+        
+        try (Connection conn = databaseConnection.createConnection()) {
+            List<PayslipModel> payslips = new java.util.ArrayList<>();
+            List<BigDecimal> hourlyRates = new java.util.ArrayList<>();
+            Set<Integer> seenEmployees = new HashSet<>();
+            LocalDate periodStart = null;
+            LocalDate periodEnd = null;
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Integer employeeId = rs.getInt("employeeId");
-                    if (generatePayslip(employeeId, payPeriodId) != null) {
-                        generatedCount++;
+            // 1. Payroll, employee and period data for every payslip still to be built
+            try (PreparedStatement stmt = conn.prepareStatement(payrollSql)) {
+                stmt.setInt(1, payPeriodId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        // Same as generatePayslip: the first payroll row per employee is used
+                        if (!seenEmployees.add(rs.getInt("employeeId"))) {
+                            continue;
+                        }
+                        PayslipModel payslip = new PayslipModel();
+                        payslip.setEmployeeId(rs.getInt("employeeId"));
+                        payslip.setEmployeeName(rs.getString("firstName") + " " + rs.getString("lastName"));
+                        payslip.setPositionId(rs.getInt("positionId"));
+                        payslip.setPayPeriodId(payPeriodId);
+                        payslip.setPayrollId(rs.getInt("payrollId"));
+                        periodStart = rs.getDate("startDate").toLocalDate();
+                        periodEnd = rs.getDate("endDate").toLocalDate();
+                        payslip.setPeriodStart(periodStart);
+                        payslip.setPeriodEnd(periodEnd);
+                        
+                        BigDecimal basicSalary = rs.getBigDecimal("basicSalary");
+                        payslip.setMonthlyRate(basicSalary);
+                        payslip.setDailyRate(basicSalary.divide(new BigDecimal("22"), 2, RoundingMode.HALF_UP));
+                        payslip.setGrossIncome(rs.getBigDecimal("grossIncome"));
+                        payslip.setTakeHomePay(rs.getBigDecimal("netSalary"));
+                        
+                        payslips.add(payslip);
+                        hourlyRates.add(rs.getBigDecimal("hourlyRate"));
                     }
                 }
             }
+            
+            if (payslips.isEmpty()) {
+                return 0;
+            }
+            
+            // 2. Grouped lookups for the whole period
+            Map<Integer, Integer> daysWorked = loadDaysWorkedByEmployee(conn, periodStart, periodEnd);
+            Map<Integer, Long> overtimeMinutes = loadOvertimeMinutesByEmployee(conn, periodStart, periodEnd);
+            Map<Integer, BigDecimal[]> benefitsByPosition = loadBenefitsByPosition();
+            
+            // 3. Fill in the per-employee breakdown in memory
+            for (int i = 0; i < payslips.size(); i++) {
+                PayslipModel payslip = payslips.get(i);
+                payslip.setDaysWorked(daysWorked.getOrDefault(payslip.getEmployeeId(), 0));
+                
+                long minutes = overtimeMinutes.getOrDefault(payslip.getEmployeeId(), 0L);
+                BigDecimal overtimePay = BigDecimal.ZERO;
+                if (minutes > 0) {
+                    BigDecimal overtimeHours = new BigDecimal(minutes).divide(new BigDecimal("60"), 2, RoundingMode.HALF_UP);
+                    overtimePay = overtimeHours.multiply(hourlyRates.get(i)).multiply(new BigDecimal("1.5"));
+                }
+                payslip.setOvertime(overtimePay);
+                
+                BigDecimal[] benefits = benefitsByPosition.getOrDefault(payslip.getPositionId(),
+                    new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO});
+                payslip.setRiceSubsidy(benefits[0]);
+                payslip.setPhoneAllowance(benefits[1]);
+                payslip.setClothingAllowance(benefits[2]);
+                
+                BigDecimal[] deductions = calculateDeductions(payslip.getMonthlyRate());
+                payslip.setSss(deductions[0]);
+                payslip.setPhilhealth(deductions[1]);
+                payslip.setPagibig(deductions[2]);
+                payslip.setWithholdingTax(deductions[3]);
+            }
+            
+            // 4. Batched inserts, committed in chunks
+            int inserted = insertPayslipBatch(conn, payslips);
+            System.out.println("✅ Generated " + inserted + " payslips for period " + payPeriodId);
+            return inserted;
+            
         } catch (SQLException e) {
-            System.err.println("Error generating all payslips: " + e.getMessage());
+            System.err.println("Error generating payslips for period: " + e.getMessage());
+            return -1;
         }
-        
-        return generatedCount;
     }
     
     /**
@@ -368,10 +472,38 @@ public class PayslipDAO extends BaseDAO<PayslipModel, Integer> {
     
     /**
      * Gets payroll summary for a pay period
+     * Read from the maintained pay period totals; falls back to aggregating the payslip table
      * @param payPeriodId The pay period ID
      * @return PayrollSummary with totals
      */
     public PayrollSummary getPayrollSummary(Integer payPeriodId) {
+        PayPeriodTotalsDAO.PeriodTotals totals = totalsDAO.getPeriodTotals(PayPeriodTotalsDAO.Source.PAYSLIP, payPeriodId);
+        if (totals != null) {
+            return toPayrollSummary(totals);
+        }
+        return aggregatePayrollSummary(payPeriodId);
+    }
+    
+    /**
+     * Gets payslip summaries per department for a pay period
+     * @param payPeriodId The pay period ID
+     * @return Map of department name to PayrollSummary
+     */
+    public Map<String, PayrollSummary> getPayrollSummaryByDepartment(Integer payPeriodId) {
+        Map<String, PayrollSummary> summaries = new HashMap<>();
+        for (Map.Entry<String, PayPeriodTotalsDAO.PeriodTotals> entry :
+                totalsDAO.getDepartmentTotals(PayPeriodTotalsDAO.Source.PAYSLIP, payPeriodId).entrySet()) {
+            summaries.put(entry.getKey(), toPayrollSummary(entry.getValue()));
+        }
+        return summaries;
+    }
+    
+    /**
+     * Aggregates the payslip table directly (used when the totals table is unavailable)
+     * @param payPeriodId The pay period ID
+     * @return PayrollSummary with totals
+     */
+    private PayrollSummary aggregatePayrollSummary(Integer payPeriodId) {
         String sql = "SELECT " +
                     "COUNT(*) as employeeCount, " +
                     "COALESCE(SUM(grossIncome), 0) as totalGrossIncome, " +
@@ -408,7 +540,25 @@ public class PayslipDAO extends BaseDAO<PayslipModel, Integer> {
      */
     public int deletePayrollByPeriod(Integer payPeriodId) {
         String sql = "DELETE FROM payslip WHERE payPeriodId = ?";
-        return executeUpdate(sql, payPeriodId);
+        
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYSLIP, payPeriodId);
+                stmt.setInt(1, payPeriodId);
+                int rowsAffected = stmt.executeUpdate();
+                totalsDAO.rebuild(conn, PayPeriodTotalsDAO.Source.PAYSLIP, payPeriodId);
+                integrityDAO.rebuild(conn, PayPeriodTotalsDAO.Source.PAYSLIP, payPeriodId);
+                conn.commit();
+                return rowsAffected;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error deleting payslips for period: " + e.getMessage());
+            return 0;
+        }
     }
     
 
@@ -442,6 +592,151 @@ public class PayslipDAO extends BaseDAO<PayslipModel, Integer> {
         return false;
     }
     
+    /**
+     * Counts employees in a pay period who have both a payroll record and a payslip
+     * @param payPeriodId The pay period ID
+     * @return Number of employees with a payslip for the period
+     */
+    private int countPayslipsWithPayroll(Integer payPeriodId) {
+        String sql = "SELECT COUNT(DISTINCT ps.employeeId) FROM payslip ps " +
+                    "JOIN payroll p ON p.employeeId = ps.employeeId AND p.payPeriodId = ps.payPeriodId " +
+                    "WHERE ps.payPeriodId = ?";
+        
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, payPeriodId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting payslips: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Counts completed attendance days per employee within a period
+     */
+    private Map<Integer, Integer> loadDaysWorkedByEmployee(Connection conn, LocalDate periodStart, LocalDate periodEnd) throws SQLException {
+        boolean archived = archiveDAO.covers(periodStart);
+        String sql = "SELECT employeeId, COUNT(*) AS daysWorked FROM " +
+                    AttendanceArchiveDAO.rows("date BETWEEN ? AND ? AND timeIn IS NOT NULL AND timeOut IS NOT NULL", archived) +
+                    " a GROUP BY employeeId";
+        Map<Integer, Integer> daysWorked = new HashMap<>();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int paramIndex = 1;
+            for (int branch = 0; branch < AttendanceArchiveDAO.branches(archived); branch++) {
+                stmt.setDate(paramIndex++, Date.valueOf(periodStart));
+                stmt.setDate(paramIndex++, Date.valueOf(periodEnd));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    daysWorked.put(rs.getInt("employeeId"), rs.getInt("daysWorked"));
+                }
+            }
+        }
+        return daysWorked;
+    }
+    
+    /**
+     * Sums approved overtime minutes per employee within a period
+     */
+    private Map<Integer, Long> loadOvertimeMinutesByEmployee(Connection conn, LocalDate periodStart, LocalDate periodEnd) throws SQLException {
+        String sql = "SELECT employeeId, COALESCE(SUM(TIMESTAMPDIFF(MINUTE, overtimeStart, overtimeEnd)), 0) AS totalMinutes " +
+                    "FROM overtimerequest " +
+                    "WHERE approvalStatus = 'Approved' AND DATE(overtimeStart) BETWEEN ? AND ? " +
+                    "GROUP BY employeeId";
+        Map<Integer, Long> minutes = new HashMap<>();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(periodStart));
+            stmt.setDate(2, Date.valueOf(periodEnd));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    minutes.put(rs.getInt("employeeId"), rs.getLong("totalMinutes"));
+                }
+            }
+        }
+        return minutes;
+    }
+    
+    /**
+     * Gets the payslip benefit columns for every position from the shared position benefit cache
+     * @return Map of positionId to [riceSubsidy, phoneAllowance, clothingAllowance]
+     */
+    private Map<Integer, BigDecimal[]> loadBenefitsByPosition() {
+        Map<Integer, BigDecimal[]> benefits = new HashMap<>();
+        for (Integer positionId : PositionBenefitCache.getInstance().getTotalsByPosition().keySet()) {
+            benefits.put(positionId, calculateBenefits(positionId));
+        }
+        return benefits;
+    }
+    
+    /**
+     * Inserts payslips with JDBC batches, committing every BATCH_SIZE rows
+     * Each chunk updates the pay period totals and integrity hashes in the same transaction as its inserts
+     * @return Number of payslips inserted
+     */
+    private int insertPayslipBatch(Connection conn, List<PayslipModel> payslips) throws SQLException {
+        final int BATCH_SIZE = 500;
+        int inserted = 0;
+        boolean originalAutoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        
+        try (PreparedStatement stmt = conn.prepareStatement(buildInsertSQL());
+             PreparedStatement totalsStmt = totalsDAO.prepareDelta(conn)) {
+            for (int start = 0; start < payslips.size(); start += BATCH_SIZE) {
+                List<PayslipModel> chunk = payslips.subList(start, Math.min(start + BATCH_SIZE, payslips.size()));
+                
+                Map<Integer, Set<Integer>> employeesByPeriod = new java.util.TreeMap<>();
+                for (PayslipModel payslip : chunk) {
+                    employeesByPeriod.computeIfAbsent(payslip.getPayPeriodId(), k -> new java.util.HashSet<>())
+                                     .add(payslip.getEmployeeId());
+                }
+                for (Integer period : employeesByPeriod.keySet()) {
+                    totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYSLIP, period);
+                }
+                
+                for (PayslipModel payslip : chunk) {
+                    setInsertParameters(stmt, payslip);
+                    stmt.addBatch();
+                    totalsDAO.addDelta(totalsStmt, PayPeriodTotalsDAO.Source.PAYSLIP, payslip.getPayPeriodId(),
+                        payslip.getEmployeeId(), totalsOf(payslip), 1);
+                }
+                inserted += countBatchRows(stmt.executeBatch());
+                totalsStmt.executeBatch();
+                // Only the chunk's own rows and leaves are rehashed, not the whole period
+                for (Map.Entry<Integer, Set<Integer>> entry : employeesByPeriod.entrySet()) {
+                    integrityDAO.recordChanges(conn, PayPeriodTotalsDAO.Source.PAYSLIP, entry.getKey(), entry.getValue());
+                }
+                conn.commit();
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(originalAutoCommit);
+        }
+        return inserted;
+    }
+    
+    /**
+     * Counts rows reported by executeBatch (SUCCESS_NO_INFO counts as one row)
+     */
+    private int countBatchRows(int[] results) {
+        int rows = 0;
+        for (int result : results) {
+            rows += result == Statement.SUCCESS_NO_INFO ? 1 : Math.max(result, 0);
+        }
+        return rows;
+    }
+    
     /**
      * Finds existing payslip for employee and pay period
      * @param employeeId The employee ID
@@ -537,16 +832,20 @@ public class PayslipDAO extends BaseDAO<PayslipModel, Integer> {
      * @return Number of days worked
      */
     private int calculateDaysWorked(Integer employeeId, LocalDate periodStart, LocalDate periodEnd) {
-        String sql = "SELECT COUNT(*) FROM attendance " +
-                    "WHERE employeeId = ? AND date BETWEEN ? AND ? " +
-                    "AND timeIn IS NOT NULL AND timeOut IS NOT NULL";
+        boolean archived = archiveDAO.covers(periodStart);
+        String sql = "SELECT COUNT(*) FROM " +
+                    AttendanceArchiveDAO.rows("employeeId = ? AND date BETWEEN ? AND ? " +
+                    "AND timeIn IS NOT NULL AND timeOut IS NOT NULL", archived) + " a";
         
         try (Connection conn = databaseConnection.createConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, employeeId);
-            stmt.setDate(2, Date.valueOf(periodStart));
-            stmt.setDate(3, Date.valueOf(periodEnd));
+            int paramIndex = 1;
+            for (int branch = 0; branch < AttendanceArchiveDAO.branches(archived); branch++) {
+                stmt.setInt(paramIndex++, employeeId);
+                stmt.setDate(paramIndex++, Date.valueOf(periodStart));
+                stmt.setDate(paramIndex++, Date.valueOf(periodEnd));
+            }
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -599,41 +898,27 @@ public class PayslipDAO extends BaseDAO<PayslipModel, Integer> {
     }
     
     /**
-     * Calculates benefits based on position
+     * Calculates benefits based on position, using the shared position benefit cache
      * @param positionId The position ID
      * @return Array of benefits [riceSubsidy, phoneAllowance, clothingAllowance]
      */
     private BigDecimal[] calculateBenefits(Integer positionId) {
-        String sql = "SELECT bt.benefitName, pb.benefitValue " +
-                    "FROM positionbenefit pb " +
-                    "JOIN benefittype bt ON pb.benefitTypeId = bt.benefitTypeId " +
-                    "WHERE pb.positionId = ?";
-        
         BigDecimal riceSubsidy = BigDecimal.ZERO;
         BigDecimal phoneAllowance = BigDecimal.ZERO;
         BigDecimal clothingAllowance = BigDecimal.ZERO;
         
-        try (Connection conn = databaseConnection.createConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        for (Map<String, Object> benefit : PositionBenefitCache.getInstance().getBenefitsForPosition(positionId)) {
+            String benefitName = (String) benefit.get("benefitName");
+            BigDecimal benefitValue = (BigDecimal) benefit.get("benefitValue");
             
-            stmt.setInt(1, positionId);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    String benefitName = rs.getString("benefitName");
-                    BigDecimal benefitValue = rs.getBigDecimal("benefitValue");
-                    
-                    if (benefitValue != null) {
-                        switch (benefitName) {
-                            case "Rice Subsidy" -> riceSubsidy = benefitValue;
-                            case "Phone Allowance" -> phoneAllowance = benefitValue;
-                            case "Clothing Allowance" -> clothingAllowance = benefitValue;
-                        }
-                    }
+            if (benefitValue != null && benefitName != null) {
+                switch (benefitName) {
+                    case "Rice Subsidy" -> riceSubsidy = benefitValue;
+                    case "Phone Allowance" -> phoneAllowance = benefitValue;
+                    case "Clothing Allowance" -> clothingAllowance = benefitValue;
+                    default -> { }
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Error calculating benefits: " + e.getMessage());
         }
         
         return new BigDecimal[]{riceSubsidy, phoneAllowance, clothingAllowance};
@@ -757,21 +1042,33 @@ public class PayslipDAO extends BaseDAO<PayslipModel, Integer> {
     public boolean save(PayslipModel payslip) {
         String sql = buildInsertSQL();
         
-        try (Connection conn = databaseConnection.createConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            setInsertParameters(stmt, payslip);
-            int rowsAffected = stmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        handleGeneratedKey(payslip, generatedKeys);
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYSLIP, payslip.getPayPeriodId());
+                
+                setInsertParameters(stmt, payslip);
+                int rowsAffected = stmt.executeUpdate();
+                
+                if (rowsAffected > 0) {
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            payslip.setPayslipId(generatedKeys.getInt(1));
+                        }
                     }
+                    totalsDAO.applyDelta(conn, PayPeriodTotalsDAO.Source.PAYSLIP, payslip.getPayPeriodId(),
+                        payslip.getEmployeeId(), totalsOf(payslip), 1);
+                    integrityDAO.recordChange(conn, PayPeriodTotalsDAO.Source.PAYSLIP,
+                        payslip.getPayPeriodId(), payslip.getEmployeeId());
+                    conn.commit();
+                    return true;
                 }
-                return true;
+                conn.rollback();
+                return false;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
-            return false;
             
         } catch (SQLException e) {
             System.err.println("Error saving payslip: " + e.getMessage());
@@ -788,12 +1085,35 @@ public class PayslipDAO extends BaseDAO<PayslipModel, Integer> {
     public boolean update(PayslipModel payslip) {
         String sql = buildUpdateSQL();
         
-        try (Connection conn = databaseConnection.createConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            setUpdateParameters(stmt, payslip);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                PayslipModel previous = findForUpdate(conn, payslip.getPayslipId());
+                if (previous == null) {
+                    conn.rollback();
+                    return false;
+                }
+                lockPeriods(conn, previous.getPayPeriodId(), payslip.getPayPeriodId());
+                
+                setUpdateParameters(stmt, payslip);
+                int rowsAffected = stmt.executeUpdate();
+                
+                if (rowsAffected > 0) {
+                    totalsDAO.applyDelta(conn, PayPeriodTotalsDAO.Source.PAYSLIP, previous.getPayPeriodId(),
+                        previous.getEmployeeId(), totalsOf(previous), -1);
+                    totalsDAO.applyDelta(conn, PayPeriodTotalsDAO.Source.PAYSLIP, payslip.getPayPeriodId(),
+                        payslip.getEmployeeId(), totalsOf(payslip), 1);
+                    integrityDAO.recordChange(conn, PayPeriodTotalsDAO.Source.PAYSLIP,
+                        previous.getPayPeriodId(), previous.getEmployeeId());
+                    integrityDAO.recordChange(conn, PayPeriodTotalsDAO.Source.PAYSLIP,
+                        payslip.getPayPeriodId(), payslip.getEmployeeId());
+                }
+                conn.commit();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
             
         } catch (SQLException e) {
             System.err.println("Error updating payslip: " + e.getMessage());
@@ -801,6 +1121,104 @@ public class PayslipDAO extends BaseDAO<PayslipModel, Integer> {
         }
     }
     
+    /**
+     * Override the delete method so the pay period totals are reduced in the same transaction
+     * @param payslipId The payslip ID to delete
+     * @return true if delete was successful, false otherwise
+     */
+    @Override
+    public boolean delete(Integer payslipId) {
+        String sql = "DELETE FROM payslip WHERE payslipId = ?";
+        
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                PayslipModel previous = findForUpdate(conn, payslipId);
+                if (previous == null) {
+                    conn.rollback();
+                    return false;
+                }
+                totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYSLIP, previous.getPayPeriodId());
+                
+                stmt.setInt(1, payslipId);
+                int rowsAffected = stmt.executeUpdate();
+                
+                if (rowsAffected > 0) {
+                    totalsDAO.applyDelta(conn, PayPeriodTotalsDAO.Source.PAYSLIP, previous.getPayPeriodId(),
+                        previous.getEmployeeId(), totalsOf(previous), -1);
+                    integrityDAO.recordChange(conn, PayPeriodTotalsDAO.Source.PAYSLIP,
+                        previous.getPayPeriodId(), previous.getEmployeeId());
+                }
+                conn.commit();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error deleting payslip with ID " + payslipId + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Reads and locks a payslip row inside a transaction
+     * @return The current row, or null if it does not exist
+     */
+    private PayslipModel findForUpdate(Connection conn, Integer payslipId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM payslip WHERE payslipId = ? FOR UPDATE")) {
+            stmt.setInt(1, payslipId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapResultSetToEntity(rs) : null;
+            }
+        }
+    }
+    
+    /**
+     * Locks the totals of both pay periods touched by an update, lower ID first
+     */
+    private void lockPeriods(Connection conn, Integer firstPeriodId, Integer secondPeriodId) throws SQLException {
+        if (firstPeriodId == null || firstPeriodId.equals(secondPeriodId)) {
+            totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYSLIP, secondPeriodId);
+            return;
+        }
+        if (secondPeriodId == null) {
+            totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYSLIP, firstPeriodId);
+            return;
+        }
+        totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYSLIP, Math.min(firstPeriodId, secondPeriodId));
+        totalsDAO.lockPeriod(conn, PayPeriodTotalsDAO.Source.PAYSLIP, Math.max(firstPeriodId, secondPeriodId));
+    }
+    
+    /**
+     * @return The amounts a payslip contributes to its pay period totals (missing amounts count as zero)
+     */
+    private PayPeriodTotalsDAO.PeriodTotals totalsOf(PayslipModel payslip) {
+        BigDecimal deductions = zeroIfNull(payslip.getSss()).add(zeroIfNull(payslip.getPhilhealth()))
+            .add(zeroIfNull(payslip.getPagibig())).add(zeroIfNull(payslip.getWithholdingTax()));
+        BigDecimal benefits = zeroIfNull(payslip.getRiceSubsidy()).add(zeroIfNull(payslip.getPhoneAllowance()))
+            .add(zeroIfNull(payslip.getClothingAllowance()));
+        return PayPeriodTotalsDAO.PeriodTotals.ofRow(payslip.getGrossIncome(), payslip.getTakeHomePay(),
+            deductions, benefits);
+    }
+    
+    private BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+    
+    /**
+     * Converts stored totals into the payslip summary shape
+     */
+    private PayrollSummary toPayrollSummary(PayPeriodTotalsDAO.PeriodTotals totals) {
+        PayrollSummary summary = new PayrollSummary();
+        summary.setEmployeeCount(totals.getEmployeeCount());
+        summary.setTotalGrossIncome(totals.getTotalGrossIncome());
+        summary.setTotalTakeHomePay(totals.getTotalNetPay());
+        summary.setTotalDeductions(totals.getTotalDeductions());
+        return summary;
+    }
+    
 
     // INNER CLASS - For payroll summary
 
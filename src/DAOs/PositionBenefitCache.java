@@ -0,0 +1,165 @@
+package DAOs;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * PositionBenefitCache - Shared position to benefit lookup
+ * A company has only a few dozen positions, so all position benefits are loaded with one
+ * query and kept in memory instead of joining positionbenefit for every employee.
+ * BenefitTypeDAO, the only writer of positionbenefit, calls invalidate() after each write; the
+ * snapshot is also reloaded after MAX_AGE_MILLIS to pick up writes made by other processes.
+ * If a reload fails the last snapshot that loaded is served until a reload succeeds.
+ * @author User
+ */
+public final class PositionBenefitCache {
+
+    // Reload at least this often even without an invalidation from this JVM
+    private static final long MAX_AGE_MILLIS = 5 * 60 * 1000;
+
+    private static final PositionBenefitCache INSTANCE = new PositionBenefitCache();
+
+    private volatile Snapshot snapshot;
+    // Last snapshot that loaded, kept across invalidations as the fallback for a failed reload
+    private volatile Snapshot lastGood;
+    private long generation = 0;
+
+    private PositionBenefitCache() {
+    }
+
+    /**
+     * @return The shared cache instance
+     */
+    public static PositionBenefitCache getInstance() {
+        return INSTANCE;
+    }
+
+
+    // LOOKUPS
+
+
+    /**
+     * Gets the benefits of a position, ordered by benefit name
+     * Each entry has benefitTypeId, benefitName, benefitDescription and benefitValue,
+     * the same keys as BenefitTypeDAO.getBenefitsForPosition
+     * @param positionId The position ID
+     * @return Read-only list of benefits (empty if the position has none)
+     */
+    public List<Map<String, Object>> getBenefitsForPosition(Integer positionId) {
+        if (positionId == null) {
+            return Collections.emptyList();
+        }
+        return current().benefits.getOrDefault(positionId, Collections.emptyList());
+    }
+
+    /**
+     * Gets the sum of a position's benefit values
+     * @param positionId The position ID
+     * @return Total benefit value (zero if the position has none)
+     */
+    public BigDecimal getTotalForPosition(Integer positionId) {
+        if (positionId == null) {
+            return BigDecimal.ZERO;
+        }
+        return current().totals.getOrDefault(positionId, BigDecimal.ZERO);
+    }
+
+    /**
+     * Gets the benefit total of every position that has benefits
+     * @return Read-only map of positionId to total benefit value
+     */
+    public Map<Integer, BigDecimal> getTotalsByPosition() {
+        return current().totals;
+    }
+
+    /**
+     * Drops the cached benefits; the next lookup reloads them
+     */
+    public synchronized void invalidate() {
+        generation++;
+        snapshot = null;
+    }
+
+
+    // LOADING
+
+
+    private Snapshot current() {
+        Snapshot cached = snapshot;
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < MAX_AGE_MILLIS) {
+            return cached;
+        }
+        return reload();
+    }
+
+    /**
+     * Loads all position benefits with one query
+     * A load that overlaps an invalidate() is returned to its caller but not kept,
+     * so a write made during the load is never hidden behind stale data.
+     */
+    private Snapshot reload() {
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+
+        String sql = "SELECT pb.positionId, bt.benefitTypeId, bt.benefitName, bt.benefitDescription, pb.benefitValue " +
+                    "FROM benefittype bt " +
+                    "JOIN positionbenefit pb ON bt.benefitTypeId = pb.benefitTypeId " +
+                    "ORDER BY pb.positionId, bt.benefitName";
+
+        Map<Integer, List<Map<String, Object>>> benefits = new HashMap<>();
+        Map<Integer, BigDecimal> totals = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                int positionId = rs.getInt("positionId");
+                BigDecimal benefitValue = rs.getBigDecimal("benefitValue");
+
+                Map<String, Object> benefit = new HashMap<>();
+                benefit.put("benefitTypeId", rs.getInt("benefitTypeId"));
+                benefit.put("benefitName", rs.getString("benefitName"));
+                benefit.put("benefitDescription", rs.getString("benefitDescription"));
+                benefit.put("benefitValue", benefitValue);
+
+                benefits.computeIfAbsent(positionId, k -> new ArrayList<>()).add(Collections.unmodifiableMap(benefit));
+                totals.merge(positionId, benefitValue != null ? benefitValue : BigDecimal.ZERO, BigDecimal::add);
+            }
+
+        } catch (SQLException e) {
+            // Nothing is cached, so the next lookup tries again; until then serve the last good data
+            System.err.println("Error loading position benefits: " + e.getMessage());
+            Snapshot fallback = lastGood;
+            return fallback != null ? fallback : new Snapshot(Collections.emptyMap(), Collections.emptyMap());
+        }
+
+        benefits.replaceAll((positionId, list) -> Collections.unmodifiableList(list));
+        Snapshot loaded = new Snapshot(Collections.unmodifiableMap(benefits), Collections.unmodifiableMap(totals));
+
+        synchronized (this) {
+            lastGood = loaded;
+            if (generation == loadGeneration) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Immutable view of all position benefits at one point in time
+     */
+    private static final class Snapshot {
+        private final Map<Integer, List<Map<String, Object>>> benefits;
+        private final Map<Integer, BigDecimal> totals;
+        private final long loadedAt = System.currentTimeMillis();
+
+        private Snapshot(Map<Integer, List<Map<String, Object>>> benefits, Map<Integer, BigDecimal> totals) {
+            this.benefits = benefits;
+            this.totals = totals;
+        }
+    }
+}
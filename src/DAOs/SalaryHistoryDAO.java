@@ -0,0 +1,346 @@
+package DAOs;
+
+import Models.SalaryHistoryModel;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for SalaryHistoryModel entities.
+ * Keeps effective-dated salary rows so payroll can tell which salary applied to any past period.
+ * The employee table's basicSalary/hourlyRate always mirror the row in effect today.
+ * @author User
+ */
+public class SalaryHistoryDAO extends BaseDAO<SalaryHistoryModel, Integer> {
+
+    // Effective date of the baseline row when the employee has no creation date
+    private static final LocalDate BASELINE_EFFECTIVE_DATE = LocalDate.of(1970, 1, 1);
+
+    private static volatile boolean tableReady = false;
+
+    /**
+     * Constructor that accepts a DatabaseConnection instance
+     * @param databaseConnection The database connection to use for all operations
+     */
+    public SalaryHistoryDAO(DatabaseConnection databaseConnection) {
+        super(databaseConnection);
+    }
+
+    /**
+     * Default constructor using default database connection
+     */
+    public SalaryHistoryDAO() {
+        super(new DatabaseConnection());
+    }
+
+
+    // ABSTRACT METHOD IMPLEMENTATIONS - Required by BaseDAO
+
+
+    @Override
+    protected SalaryHistoryModel mapResultSetToEntity(ResultSet rs) throws SQLException {
+        SalaryHistoryModel history = new SalaryHistoryModel();
+        history.setSalaryHistoryId(rs.getInt("salaryHistoryId"));
+        history.setEmployeeId(rs.getInt("employeeId"));
+        history.setBasicSalary(rs.getBigDecimal("basicSalary"));
+        history.setHourlyRate(rs.getBigDecimal("hourlyRate"));
+
+        Date effectiveDate = rs.getDate("effectiveDate");
+        if (effectiveDate != null) {
+            history.setEffectiveDate(effectiveDate.toLocalDate());
+        }
+
+        Timestamp createdAt = rs.getTimestamp("createdAt");
+        if (createdAt != null) {
+            history.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        return history;
+    }
+
+    @Override
+    protected String getTableName() {
+        return "salaryhistory";
+    }
+
+    @Override
+    protected String getPrimaryKeyColumn() {
+        return "salaryHistoryId";
+    }
+
+    @Override
+    protected void setInsertParameters(PreparedStatement stmt, SalaryHistoryModel history) throws SQLException {
+        int paramIndex = 1;
+        stmt.setInt(paramIndex++, history.getEmployeeId());
+        stmt.setBigDecimal(paramIndex++, history.getBasicSalary());
+        stmt.setBigDecimal(paramIndex++, history.getHourlyRate());
+        stmt.setDate(paramIndex++, Date.valueOf(history.getEffectiveDate()));
+    }
+
+    @Override
+    protected void setUpdateParameters(PreparedStatement stmt, SalaryHistoryModel history) throws SQLException {
+        setInsertParameters(stmt, history);
+        stmt.setInt(5, history.getSalaryHistoryId());
+    }
+
+    @Override
+    protected Integer getEntityId(SalaryHistoryModel history) {
+        return history.getSalaryHistoryId();
+    }
+
+    @Override
+    protected void handleGeneratedKey(SalaryHistoryModel entity, ResultSet generatedKeys) throws SQLException {
+        entity.setSalaryHistoryId(generatedKeys.getInt(1));
+    }
+
+
+    // CUSTOM SQL BUILDERS
+
+
+    private String buildInsertSQL() {
+        return "INSERT INTO salaryhistory (employeeId, basicSalary, hourlyRate, effectiveDate) VALUES (?, ?, ?, ?)";
+    }
+
+    private String buildUpdateSQL() {
+        return "UPDATE salaryhistory SET employeeId = ?, basicSalary = ?, hourlyRate = ?, effectiveDate = ? " +
+               "WHERE salaryHistoryId = ?";
+    }
+
+
+    // TABLE SETUP
+
+
+    /**
+     * Creates the salaryhistory table if it does not exist yet
+     * @return true if the table is available
+     */
+    public boolean ensureTable() {
+        if (tableReady) {
+            return true;
+        }
+
+        String sql = "CREATE TABLE IF NOT EXISTS salaryhistory (" +
+                    "salaryHistoryId INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "employeeId INT NOT NULL, " +
+                    "basicSalary DECIMAL(10,2) NOT NULL, " +
+                    "hourlyRate DECIMAL(10,2) NOT NULL, " +
+                    "effectiveDate DATE NOT NULL, " +
+                    "createdAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                    "INDEX idx_salaryhistory_employee (employeeId, effectiveDate))";
+
+        try (Connection conn = databaseConnection.createConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+            tableReady = true;
+        } catch (SQLException e) {
+            System.err.println("Error creating salary history table: " + e.getMessage());
+        }
+
+        return tableReady;
+    }
+
+
+    // CUSTOM SALARY HISTORY METHODS
+
+
+    /**
+     * Records a salary change effective from a given date and refreshes the employee's current salary
+     * The first change for an employee also stores their existing salary as a baseline row,
+     * so earlier periods keep the salary they were paid with. Runs as one transaction.
+     * @param employeeId The employee ID
+     * @param basicSalary The new basic salary
+     * @param hourlyRate The new hourly rate
+     * @param effectiveDate The first day the new salary applies (today or earlier)
+     * @return The stored history row, or null if the change could not be recorded
+     */
+    public SalaryHistoryModel recordSalaryChange(Integer employeeId, BigDecimal basicSalary,
+                                                 BigDecimal hourlyRate, LocalDate effectiveDate) {
+        if (employeeId == null || basicSalary == null || hourlyRate == null || effectiveDate == null) {
+            return null;
+        }
+        if (effectiveDate.isAfter(LocalDate.now())) {
+            System.err.println("Salary changes cannot be effective in the future: " + effectiveDate);
+            return null;
+        }
+        if (!ensureTable()) {
+            return null;
+        }
+
+        String employeeSql = "SELECT basicSalary, hourlyRate, createdAt FROM employee WHERE employeeId = ? FOR UPDATE";
+        String countSql = "SELECT COUNT(*) FROM salaryhistory WHERE employeeId = ?";
+        String currentSql = "SELECT basicSalary, hourlyRate FROM salaryhistory " +
+                           "WHERE employeeId = ? AND effectiveDate <= CURDATE() " +
+                           "ORDER BY effectiveDate DESC, salaryHistoryId DESC LIMIT 1";
+        String updateEmployeeSql = "UPDATE employee SET basicSalary = ?, hourlyRate = ?, updatedAt = CURRENT_TIMESTAMP WHERE employeeId = ?";
+
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // 1. Lock the employee row; unknown employees record nothing
+                BigDecimal previousBasic;
+                BigDecimal previousHourly;
+                LocalDate baselineDate = BASELINE_EFFECTIVE_DATE;
+                try (PreparedStatement stmt = conn.prepareStatement(employeeSql)) {
+                    stmt.setInt(1, employeeId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return null;
+                        }
+                        previousBasic = rs.getBigDecimal("basicSalary");
+                        previousHourly = rs.getBigDecimal("hourlyRate");
+                        Timestamp createdAt = rs.getTimestamp("createdAt");
+                        if (createdAt != null) {
+                            baselineDate = createdAt.toLocalDateTime().toLocalDate();
+                        }
+                    }
+                }
+
+                // 2. Baseline row with the salary the employee has been paid so far
+                boolean hasHistory;
+                try (PreparedStatement stmt = conn.prepareStatement(countSql)) {
+                    stmt.setInt(1, employeeId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        hasHistory = rs.next() && rs.getInt(1) > 0;
+                    }
+                }
+                if (!hasHistory && previousBasic != null && previousHourly != null) {
+                    insertHistory(conn, new SalaryHistoryModel(employeeId, previousBasic, previousHourly,
+                        baselineDate.isBefore(effectiveDate) ? baselineDate : BASELINE_EFFECTIVE_DATE));
+                }
+
+                // 3. The change itself
+                SalaryHistoryModel change = new SalaryHistoryModel(employeeId, basicSalary, hourlyRate, effectiveDate);
+                insertHistory(conn, change);
+
+                // 4. Employee row mirrors the salary in effect today (a back-dated change may be superseded)
+                try (PreparedStatement select = conn.prepareStatement(currentSql);
+                     PreparedStatement update = conn.prepareStatement(updateEmployeeSql)) {
+                    select.setInt(1, employeeId);
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (rs.next()) {
+                            update.setBigDecimal(1, rs.getBigDecimal("basicSalary"));
+                            update.setBigDecimal(2, rs.getBigDecimal("hourlyRate"));
+                            update.setInt(3, employeeId);
+                            update.executeUpdate();
+                        }
+                    }
+                }
+
+                conn.commit();
+                return change;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error recording salary change: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Gets an employee's salary history in effective order (oldest first)
+     * @param employeeId The employee ID
+     * @return List of salary rows
+     */
+    public List<SalaryHistoryModel> findByEmployee(Integer employeeId) {
+        if (employeeId == null || !ensureTable()) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT * FROM salaryhistory WHERE employeeId = ? ORDER BY effectiveDate, salaryHistoryId";
+        return executeQuery(sql, employeeId);
+    }
+
+    /**
+     * Gets the salary history of several employees with one query
+     * @param employeeIds The employee IDs
+     * @return Map of employeeId to salary rows in effective order (oldest first)
+     */
+    public Map<Integer, List<SalaryHistoryModel>> findByEmployees(Collection<Integer> employeeIds) {
+        Map<Integer, List<SalaryHistoryModel>> histories = new HashMap<>();
+        if (employeeIds == null || employeeIds.isEmpty() || !ensureTable()) {
+            return histories;
+        }
+
+        String placeholders = String.join(", ", java.util.Collections.nCopies(employeeIds.size(), "?"));
+        String sql = "SELECT * FROM salaryhistory WHERE employeeId IN (" + placeholders + ") " +
+                    "ORDER BY employeeId, effectiveDate, salaryHistoryId";
+
+        for (SalaryHistoryModel history : executeQuery(sql, employeeIds.toArray())) {
+            histories.computeIfAbsent(history.getEmployeeId(), k -> new ArrayList<>()).add(history);
+        }
+        return histories;
+    }
+
+    /**
+     * Finds the salary in effect on a date from an effective-ordered history
+     * @param history Salary rows, oldest first
+     * @param date The date to look up
+     * @param excludeId A history row to ignore (used to see the salary before a change), may be null
+     * @return The row in effect, or null if none applies
+     */
+    public static SalaryHistoryModel findInEffect(List<SalaryHistoryModel> history, LocalDate date, Integer excludeId) {
+        SalaryHistoryModel inEffect = null;
+        for (SalaryHistoryModel row : history) {
+            if (row.getEffectiveDate().isAfter(date)) {
+                break;
+            }
+            if (excludeId == null || !excludeId.equals(row.getSalaryHistoryId())) {
+                inEffect = row;
+            }
+        }
+        return inEffect;
+    }
+
+
+    // HELPER METHODS
+
+
+    private void insertHistory(Connection conn, SalaryHistoryModel history) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(buildInsertSQL(), Statement.RETURN_GENERATED_KEYS)) {
+            setInsertParameters(stmt, history);
+            stmt.executeUpdate();
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    handleGeneratedKey(history, generatedKeys);
+                }
+            }
+        }
+    }
+
+
+    // OVERRIDE METHODS
+
+
+    @Override
+    public boolean save(SalaryHistoryModel history) {
+        if (!ensureTable()) {
+            return false;
+        }
+        try (Connection conn = databaseConnection.createConnection()) {
+            insertHistory(conn, history);
+            return history.getSalaryHistoryId() != null;
+        } catch (SQLException e) {
+            System.err.println("Error saving salary history: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean update(SalaryHistoryModel history) {
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(buildUpdateSQL())) {
+            setUpdateParameters(stmt, history);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating salary history: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -4,7 +4,9 @@ package DAOs;
 import Models.TardinessRecordModel;
 import Models.TardinessRecordModel.TardinessType;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.YearMonth;
 import java.util.List;
 
@@ -158,6 +160,7 @@ public class TardinessRecordDAO extends BaseDAO<TardinessRecordModel, Integer> {
     /**
      * Gets tardiness records for an employee within a date range
      * This method joins with the attendance table to get employee information
+     * Records of archived attendance are read from the archive when the range reaches it
      * @param employeeId The employee ID
      * @param startDate The start date
      * @param endDate The end date
@@ -166,14 +169,29 @@ public class TardinessRecordDAO extends BaseDAO<TardinessRecordModel, Integer> {
     public List<TardinessRecordModel> getTardinessRecordsForEmployee(Integer employeeId, 
                                                                    LocalDateTime startDate, 
                                                                    LocalDateTime endDate) {
-        String sql = "SELECT t.* FROM tardinessrecord t " +
+        if (!new AttendanceArchiveDAO(databaseConnection).covers(startDate.toLocalDate())) {
+            String sql = "SELECT t.* FROM tardinessrecord t " +
+                        "JOIN attendance a ON t.attendanceId = a.attendanceId " +
+                        "WHERE a.employeeId = ? AND t.createdAt BETWEEN ? AND ? " +
+                        "ORDER BY t.createdAt DESC";
+            
+            return executeQuery(sql, employeeId, 
+                              Timestamp.valueOf(startDate), 
+                              Timestamp.valueOf(endDate));
+        }
+        
+        String sql = "SELECT * FROM (" +
+                    "SELECT t.* FROM tardinessrecord t " +
                     "JOIN attendance a ON t.attendanceId = a.attendanceId " +
                     "WHERE a.employeeId = ? AND t.createdAt BETWEEN ? AND ? " +
-                    "ORDER BY t.createdAt DESC";
+                    "UNION ALL " +
+                    "SELECT t.* FROM tardinessrecordarchive t " +
+                    "JOIN attendancearchive a ON t.attendanceId = a.attendanceId " +
+                    "WHERE a.employeeId = ? AND t.createdAt BETWEEN ? AND ?" +
+                    ") records ORDER BY createdAt DESC";
         
-        return executeQuery(sql, employeeId, 
-                          Timestamp.valueOf(startDate), 
-                          Timestamp.valueOf(endDate));
+        return executeQuery(sql, employeeId, Timestamp.valueOf(startDate), Timestamp.valueOf(endDate),
+                          employeeId, Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
     }
 
     /**
@@ -189,6 +207,118 @@ public class TardinessRecordDAO extends BaseDAO<TardinessRecordModel, Integer> {
         return getTardinessRecordsForEmployee(employeeId, startDate, endDate);
     }
 
+    // BATCH COMPUTATION
+
+    /**
+     * Prefix of the supervisor notes on records written by the application rather than a supervisor
+     */
+    public static final String AUTO_GENERATED_NOTE_PREFIX = "Auto-generated";
+
+    /**
+     * Brings the auto-generated late and undertime records of a date range in line with attendance
+     * Runs set-based in one transaction, per type:
+     *   - auto-generated records whose attendance no longer qualifies are deleted
+     *   - auto-generated records whose hours changed are updated
+     *   - qualifying attendance without a record of the type gets one, dated at the punch
+     * The rules are the ones recordTimeIn and recordTimeOut apply: late when time in is more than
+     * the grace period after the start time, undertime when a complete day ends before the end time.
+     * Records a supervisor wrote or edited are never changed, and running it twice changes nothing.
+     * @param startDate First attendance date (inclusive)
+     * @param endDate Last attendance date (inclusive)
+     * @param standardStart Scheduled start time
+     * @param standardEnd Scheduled end time
+     * @param graceMinutes Minutes late that are not recorded
+     * @return Counts of the changes, or null if the range was rolled back
+     */
+    public TardinessSyncResult syncComputedTardiness(LocalDate startDate, LocalDate endDate,
+                                                     LocalTime standardStart, LocalTime standardEnd, int graceMinutes) {
+        TardinessRule late = new TardinessRule(TardinessType.LATE, "a.timeIn",
+            "a.timeIn IS NOT NULL AND TIMESTAMPDIFF(MINUTE, ?, a.timeIn) > ?",
+            "TIMESTAMPDIFF(MINUTE, ?, a.timeIn)", Time.valueOf(standardStart), graceMinutes);
+        TardinessRule undertime = new TardinessRule(TardinessType.UNDERTIME, "a.timeOut",
+            "a.timeIn IS NOT NULL AND a.timeOut IS NOT NULL AND TIMESTAMPDIFF(SECOND, a.timeOut, ?) > ?",
+            "TIMESTAMPDIFF(MINUTE, a.timeOut, ?)", Time.valueOf(standardEnd), 0);
+
+        // Two ranges sharing an attendance row's gap locks can deadlock; the retry sees the other's result
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            try (Connection conn = databaseConnection.createConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    TardinessSyncResult result = new TardinessSyncResult(startDate, endDate);
+                    for (TardinessRule rule : new TardinessRule[] {late, undertime}) {
+                        syncRule(conn, rule, Date.valueOf(startDate), Date.valueOf(endDate), result);
+                    }
+                    conn.commit();
+                    return result;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                if (attempt == 2) {
+                    System.err.println("Error computing tardiness for " + startDate + " to " + endDate + ": " + e.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+
+    private void syncRule(Connection conn, TardinessRule rule, Date startDate, Date endDate,
+                          TardinessSyncResult result) throws SQLException {
+        String hours = "ROUND(" + rule.minutes + " / 60, 2)";
+        String autoGenerated = "t.supervisorNotes LIKE '" + AUTO_GENERATED_NOTE_PREFIX + "%'";
+
+        String deleteSql = "DELETE t FROM tardinessrecord t JOIN attendance a ON t.attendanceId = a.attendanceId " +
+                          "WHERE a.date BETWEEN ? AND ? AND t.tardinessType = ? AND " + autoGenerated + " " +
+                          "AND NOT COALESCE(" + rule.condition + ", FALSE)";
+        String updateSql = "UPDATE tardinessrecord t JOIN attendance a ON t.attendanceId = a.attendanceId " +
+                          "SET t.tardinessHours = " + hours + " " +
+                          "WHERE a.date BETWEEN ? AND ? AND t.tardinessType = ? AND " + autoGenerated + " " +
+                          "AND " + rule.condition + " AND t.tardinessHours <> " + hours;
+        String insertSql = "INSERT INTO tardinessrecord (attendanceId, tardinessHours, tardinessType, supervisorNotes, createdAt) " +
+                          "SELECT a.attendanceId, " + hours + ", ?, ?, TIMESTAMP(a.date, " + rule.punchColumn + ") " +
+                          "FROM attendance a WHERE a.date BETWEEN ? AND ? AND " + rule.condition + " " +
+                          "AND NOT EXISTS (SELECT 1 FROM tardinessrecord t " +
+                          "WHERE t.attendanceId = a.attendanceId AND t.tardinessType = ?)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
+            int i = 1;
+            stmt.setDate(i++, startDate);
+            stmt.setDate(i++, endDate);
+            stmt.setString(i++, rule.type.getDisplayName());
+            i = rule.setCondition(stmt, i);
+            result.deleted += stmt.executeUpdate();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(updateSql)) {
+            int i = 1;
+            stmt.setTime(i++, rule.reference);
+            stmt.setDate(i++, startDate);
+            stmt.setDate(i++, endDate);
+            stmt.setString(i++, rule.type.getDisplayName());
+            i = rule.setCondition(stmt, i);
+            stmt.setTime(i++, rule.reference);
+            result.updated += stmt.executeUpdate();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+            int i = 1;
+            stmt.setTime(i++, rule.reference);
+            stmt.setString(i++, rule.type.getDisplayName());
+            stmt.setString(i++, AUTO_GENERATED_NOTE_PREFIX + " " + rule.type.getDisplayName().toLowerCase() + " record");
+            stmt.setDate(i++, startDate);
+            stmt.setDate(i++, endDate);
+            i = rule.setCondition(stmt, i);
+            stmt.setString(i++, rule.type.getDisplayName());
+            int inserted = stmt.executeUpdate();
+            if (rule.type == TardinessType.LATE) {
+                result.lateInserted += inserted;
+            } else {
+                result.undertimeInserted += inserted;
+            }
+        }
+    }
+
     // OVERRIDE METHODS
 
     @Override
@@ -236,4 +366,65 @@ public class TardinessRecordDAO extends BaseDAO<TardinessRecordModel, Integer> {
             return false;
         }
     }
+
+    // INNER CLASSES
+
+    /**
+     * SQL for one tardiness type; the condition and minutes expressions take the schedule time
+     * as their first parameter and the condition takes the threshold as its second
+     */
+    private static final class TardinessRule {
+        private final TardinessType type;
+        private final String punchColumn;
+        private final String condition;
+        private final String minutes;
+        private final Time reference;
+        private final int threshold;
+
+        TardinessRule(TardinessType type, String punchColumn, String condition, String minutes, Time reference, int threshold) {
+            this.type = type;
+            this.punchColumn = punchColumn;
+            this.condition = condition;
+            this.minutes = minutes;
+            this.reference = reference;
+            this.threshold = threshold;
+        }
+
+        int setCondition(PreparedStatement stmt, int index) throws SQLException {
+            stmt.setTime(index++, reference);
+            stmt.setInt(index++, threshold);
+            return index;
+        }
+    }
+
+    /**
+     * Changes made by syncComputedTardiness for one date range
+     */
+    public static class TardinessSyncResult {
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private int lateInserted = 0;
+        private int undertimeInserted = 0;
+        private int updated = 0;
+        private int deleted = 0;
+
+        public TardinessSyncResult(LocalDate startDate, LocalDate endDate) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        // Getters
+        public LocalDate getStartDate() { return startDate; }
+        public LocalDate getEndDate() { return endDate; }
+        public int getLateInserted() { return lateInserted; }
+        public int getUndertimeInserted() { return undertimeInserted; }
+        public int getUpdated() { return updated; }
+        public int getDeleted() { return deleted; }
+
+        @Override
+        public String toString() {
+            return String.format("TardinessSyncResult{%s to %s, lateInserted=%d, undertimeInserted=%d, updated=%d, deleted=%d}",
+                    startDate, endDate, lateInserted, undertimeInserted, updated, deleted);
+        }
+    }
 }
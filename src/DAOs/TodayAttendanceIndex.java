@@ -0,0 +1,281 @@
+package DAOs;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TodayAttendanceIndex - In-memory attendance state for the current day
+ * Duplicate-punch checks and "am I clocked in" pages only need today's time in and time out,
+ * so today's rows are loaded once and kept per employee instead of queried on every punch.
+ * AttendanceDAO records every write for today here; the day rolls over at midnight Asia/Manila
+ * (the database's time zone), when the new day is loaded.
+ * Lookups answer null while the day is not loaded yet (or failed to load), and the caller
+ * falls back to the database. Writes made by another JVM are not seen until the next load.
+ * @author User
+ */
+public final class TodayAttendanceIndex {
+
+    public static final ZoneId ZONE = ZoneId.of("Asia/Manila");
+
+    private static final TodayAttendanceIndex INSTANCE = new TodayAttendanceIndex();
+
+    private volatile Day day = new Day(null);
+    private ScheduledExecutorService rollover;
+
+    private TodayAttendanceIndex() {
+    }
+
+    /**
+     * @return The shared index instance
+     */
+    public static TodayAttendanceIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return Today's date in Asia/Manila
+     */
+    public static LocalDate today() {
+        return LocalDate.now(ZONE);
+    }
+
+
+    // LOOKUPS
+
+
+    /**
+     * Tells whether an employee has timed in on a date
+     * @param employeeId The employee ID
+     * @param date The date to check
+     * @return true/false when the date is the loaded day, null when the database must be asked
+     */
+    public Boolean hasTimedIn(Integer employeeId, LocalDate date) {
+        Entry entry = lookup(employeeId, date);
+        return entry == null ? null : entry.timeIn != null;
+    }
+
+    /**
+     * Tells whether an employee has timed out on a date
+     * @param employeeId The employee ID
+     * @param date The date to check
+     * @return true/false when the date is the loaded day, null when the database must be asked
+     */
+    public Boolean hasTimedOut(Integer employeeId, LocalDate date) {
+        Entry entry = lookup(employeeId, date);
+        return entry == null ? null : entry.timeOut != null;
+    }
+
+    /**
+     * Gets today's attendance ID for an employee
+     * @param employeeId The employee ID
+     * @return The attendance ID, or null if the employee has no row today or the day is not loaded
+     */
+    public Integer getAttendanceId(Integer employeeId) {
+        Entry entry = lookup(employeeId, today());
+        return entry == null ? null : entry.attendanceId;
+    }
+
+    /**
+     * @return Number of employees with a row on the loaded day, or -1 if no day is loaded
+     */
+    public int size() {
+        Day current = day;
+        return current.ready ? current.entries.size() : -1;
+    }
+
+    private Entry lookup(Integer employeeId, LocalDate date) {
+        if (employeeId == null || date == null) {
+            return null;
+        }
+        Day current = currentDay();
+        if (!current.ready || !date.equals(current.date)) {
+            return null;
+        }
+        return current.entries.getOrDefault(employeeId, Entry.NONE);
+    }
+
+
+    // WRITES
+
+
+    /**
+     * Records an attendance row as written to the database
+     * Ignored unless the row is for the loaded day. Null times keep what is already known,
+     * the same way AttendanceDAO.markAttendance only sets the times it is given.
+     * @param employeeId The employee ID
+     * @param date The attendance date
+     * @param attendanceId The attendance ID (null if not known)
+     * @param timeIn The time in written (null if unchanged)
+     * @param timeOut The time out written (null if unchanged)
+     */
+    public void record(Integer employeeId, LocalDate date, Integer attendanceId, LocalTime timeIn, LocalTime timeOut) {
+        Day current = day;
+        if (employeeId == null || date == null || !date.equals(current.date)) {
+            return;
+        }
+        current.entries.merge(employeeId, new Entry(attendanceId, timeIn, timeOut), Entry::merge);
+    }
+
+    /**
+     * Records the full state of an attendance row as saved or updated
+     * Unlike record(), null times replace what is known.
+     * @param employeeId The employee ID
+     * @param date The attendance date
+     * @param attendanceId The attendance ID
+     * @param timeIn The row's time in
+     * @param timeOut The row's time out
+     */
+    public void replace(Integer employeeId, LocalDate date, Integer attendanceId, LocalTime timeIn, LocalTime timeOut) {
+        Day current = day;
+        if (employeeId == null || date == null || !date.equals(current.date)) {
+            return;
+        }
+        current.entries.put(employeeId, new Entry(attendanceId, timeIn, timeOut));
+    }
+
+    /**
+     * Drops the loaded day after a write the index cannot follow (e.g. a delete by ID);
+     * the next lookup loads the day again
+     */
+    public synchronized void invalidate() {
+        day = new Day(null);
+    }
+
+
+    // LOADING
+
+
+    /**
+     * Loads today in the background and schedules the load of each following day at midnight
+     * Called once at application startup; lookups fall back to the database until it finishes.
+     */
+    public synchronized void warm() {
+        if (rollover != null) {
+            return;
+        }
+        rollover = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "today-attendance-rollover");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rollover.execute(this::currentDay);
+        scheduleRollover();
+    }
+
+    private synchronized void scheduleRollover() {
+        ZonedDateTime now = ZonedDateTime.now(ZONE);
+        ZonedDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay(ZONE);
+        rollover.schedule(() -> {
+            currentDay();
+            scheduleRollover();
+        }, Duration.between(now, midnight).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the loaded day, loading today first if the date has changed
+     */
+    private Day currentDay() {
+        LocalDate today = today();
+        Day current = day;
+        if (today.equals(current.date) && current.ready) {
+            return current;
+        }
+        return load(today);
+    }
+
+    /**
+     * Loads a day's rows with one query
+     * The new day is published before the query runs so writes made meanwhile are recorded;
+     * rows read by the query never replace those newer entries.
+     */
+    private Day load(LocalDate date) {
+        Day loading;
+        synchronized (this) {
+            if (date.equals(day.date)) {
+                loading = day;
+                if (loading.ready || loading.loading) {
+                    return loading;
+                }
+            } else {
+                loading = new Day(date);
+                day = loading;
+            }
+            loading.loading = true;
+        }
+
+        String sql = "SELECT attendanceId, employeeId, timeIn, timeOut FROM attendance WHERE date = ? ORDER BY attendanceId";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setDate(1, Date.valueOf(date));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Time timeIn = rs.getTime("timeIn");
+                    Time timeOut = rs.getTime("timeOut");
+                    loading.entries.putIfAbsent(rs.getInt("employeeId"), new Entry(rs.getInt("attendanceId"),
+                        timeIn != null ? timeIn.toLocalTime() : null,
+                        timeOut != null ? timeOut.toLocalTime() : null));
+                }
+            }
+            loading.ready = true;
+            System.out.println("📋 Loaded today's attendance for " + loading.entries.size() + " employees (" + date + ")");
+
+        } catch (SQLException e) {
+            System.err.println("Error loading today's attendance: " + e.getMessage());
+        } finally {
+            loading.loading = false;
+        }
+        return loading;
+    }
+
+
+    // INNER CLASSES
+
+
+    /**
+     * The attendance rows of one day, by employee
+     */
+    private static class Day {
+        private final LocalDate date;
+        private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+        private volatile boolean ready = false;
+        private volatile boolean loading = false;
+
+        Day(LocalDate date) {
+            this.date = date;
+        }
+    }
+
+    /**
+     * One employee's row for the day
+     */
+    private static final class Entry {
+        private static final Entry NONE = new Entry(null, null, null);
+
+        private final Integer attendanceId;
+        private final LocalTime timeIn;
+        private final LocalTime timeOut;
+
+        Entry(Integer attendanceId, LocalTime timeIn, LocalTime timeOut) {
+            this.attendanceId = attendanceId;
+            this.timeIn = timeIn;
+            this.timeOut = timeOut;
+        }
+
+        Entry merge(Entry update) {
+            return new Entry(update.attendanceId != null ? update.attendanceId : attendanceId,
+                             update.timeIn != null ? update.timeIn : timeIn,
+                             update.timeOut != null ? update.timeOut : timeOut);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package DAOs;
+
+import Models.HolidayModel;
+import Models.HolidayModel.HolidayType;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WorkCalendar - Compiled working-day and holiday calendar
+ * Working-day counts used to walk every day of a month and knew nothing about holidays.
+ * Each year is now compiled once from WorkCalendarDAO into bitsets indexed by day of year
+ * (working day, rest day, regular holiday, special non-working holiday) plus a running count
+ * of working days, so "is working day" checks, holiday lookups and working-day counts over
+ * any range within a year are O(1).
+ * WorkCalendarDAO calls invalidate() after writing; compiled years are also recompiled after
+ * MAX_AGE_MILLIS to pick up writes made by other processes. If the calendar tables cannot be
+ * read, the lookup is answered as Monday to Friday without holidays, but that year is not
+ * cached, so the next lookup tries the database again.
+ * @author User
+ */
+public final class WorkCalendar {
+
+    // Pay multipliers for the first eight hours worked (Philippine labor code)
+    public static final BigDecimal ORDINARY_DAY_RATE = new BigDecimal("1.00");
+    public static final BigDecimal REST_DAY_RATE = new BigDecimal("1.30");
+    public static final BigDecimal SPECIAL_HOLIDAY_RATE = new BigDecimal("1.30");
+    public static final BigDecimal SPECIAL_HOLIDAY_REST_DAY_RATE = new BigDecimal("1.50");
+    public static final BigDecimal REGULAR_HOLIDAY_RATE = new BigDecimal("2.00");
+    public static final BigDecimal REGULAR_HOLIDAY_REST_DAY_RATE = new BigDecimal("2.60");
+
+    // Recompile a cached year at least this often
+    private static final long MAX_AGE_MILLIS = 5 * 60 * 1000;
+
+    private static final Set<DayOfWeek> DEFAULT_REST_DAYS = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+    private static final WorkCalendar INSTANCE = new WorkCalendar();
+
+    private final Map<Integer, Year> years = new ConcurrentHashMap<>();
+    private final WorkCalendarDAO calendarDAO = new WorkCalendarDAO();
+
+    private WorkCalendar() {
+    }
+
+    /**
+     * @return The shared calendar instance
+     */
+    public static WorkCalendar getInstance() {
+        return INSTANCE;
+    }
+
+
+    // LOOKUPS
+
+
+    /**
+     * Tells whether employees are expected to work on a date
+     * @param date The date
+     * @return false on rest days and regular or special non-working holidays
+     */
+    public boolean isWorkingDay(LocalDate date) {
+        return year(date.getYear()).working.get(date.getDayOfYear() - 1);
+    }
+
+    /**
+     * Tells whether a date is a weekly rest day or a company rest date
+     * @param date The date
+     * @return true if the company is closed that day regardless of holidays
+     */
+    public boolean isRestDay(LocalDate date) {
+        return year(date.getYear()).rest.get(date.getDayOfYear() - 1);
+    }
+
+    /**
+     * Gets the holiday type of a date
+     * @param date The date
+     * @return The holiday type, or null if the date is not a holiday
+     */
+    public HolidayType getHolidayType(LocalDate date) {
+        Year year = year(date.getYear());
+        int index = date.getDayOfYear() - 1;
+        if (year.regular.get(index)) {
+            return HolidayType.REGULAR;
+        }
+        if (year.special.get(index)) {
+            return HolidayType.SPECIAL_NON_WORKING;
+        }
+        if (year.specialWorking.get(index)) {
+            return HolidayType.SPECIAL_WORKING;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the holiday premium of a date, ignoring rest days
+     * @param date The date
+     * @return 2.00 on regular holidays, 1.30 on special non-working holidays, 1.00 otherwise
+     */
+    public BigDecimal getHolidayPremium(LocalDate date) {
+        HolidayType type = getHolidayType(date);
+        if (type == HolidayType.REGULAR) {
+            return REGULAR_HOLIDAY_RATE;
+        }
+        if (type == HolidayType.SPECIAL_NON_WORKING) {
+            return SPECIAL_HOLIDAY_RATE;
+        }
+        return ORDINARY_DAY_RATE;
+    }
+
+    /**
+     * Gets the pay multiplier for work done on a date, combining holiday and rest day premiums
+     * @param date The date
+     * @return The multiplier for the first eight hours worked
+     */
+    public BigDecimal getPayMultiplier(LocalDate date) {
+        boolean restDay = isRestDay(date);
+        HolidayType type = getHolidayType(date);
+        if (type == HolidayType.REGULAR) {
+            return restDay ? REGULAR_HOLIDAY_REST_DAY_RATE : REGULAR_HOLIDAY_RATE;
+        }
+        if (type == HolidayType.SPECIAL_NON_WORKING) {
+            return restDay ? SPECIAL_HOLIDAY_REST_DAY_RATE : SPECIAL_HOLIDAY_RATE;
+        }
+        return restDay ? REST_DAY_RATE : ORDINARY_DAY_RATE;
+    }
+
+    /**
+     * Counts working days in a date range
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @return Number of working days (0 if the range is empty)
+     */
+    public int countWorkingDays(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int y = startDate.getYear(); y <= endDate.getYear(); y++) {
+            Year year = year(y);
+            int from = y == startDate.getYear() ? startDate.getDayOfYear() - 1 : 0;
+            int to = y == endDate.getYear() ? endDate.getDayOfYear() : year.workingBefore.length - 1;
+            count += year.workingBefore[to] - year.workingBefore[from];
+        }
+        return count;
+    }
+
+    /**
+     * Counts working days in a month
+     * @param yearMonth The year and month
+     * @return Number of working days
+     */
+    public int getWorkingDaysInMonth(YearMonth yearMonth) {
+        return countWorkingDays(yearMonth.atDay(1), yearMonth.atEndOfMonth());
+    }
+
+
+    // COMPILING
+
+
+    /**
+     * Drops every compiled year; the next lookup recompiles from the database
+     */
+    public void invalidate() {
+        years.clear();
+    }
+
+    private Year year(int year) {
+        Year cached = years.get(year);
+        if (cached != null && System.currentTimeMillis() - cached.compiledAt < MAX_AGE_MILLIS) {
+            return cached;
+        }
+        Set<DayOfWeek> restDays = calendarDAO.getWeeklyRestDays();
+        List<LocalDate> restDates = calendarDAO.getRestDates(year);
+        List<HolidayModel> holidays = calendarDAO.getHolidays(year);
+        if (restDays == null || restDates == null || holidays == null) {
+            // Answer this lookup only; keeping the default would hide the holidays until MAX_AGE_MILLIS
+            System.err.println("Work calendar for " + year + " unavailable; using Monday to Friday without holidays");
+            return compile(year, DEFAULT_REST_DAYS, Collections.emptyList(), Collections.emptyList());
+        }
+
+        Year compiled = compile(year, restDays, restDates, holidays);
+        years.put(year, compiled);
+        return compiled;
+    }
+
+    /**
+     * Compiles one year from its weekly rest days, rest dates and holidays
+     */
+    private static Year compile(int year, Set<DayOfWeek> restDays, List<LocalDate> restDates, List<HolidayModel> holidays) {
+        int days = LocalDate.of(year, 12, 31).getDayOfYear();
+        Year compiled = new Year(days);
+
+        LocalDate date = LocalDate.of(year, 1, 1);
+        for (int i = 0; i < days; i++, date = date.plusDays(1)) {
+            if (restDays.contains(date.getDayOfWeek())) {
+                compiled.rest.set(i);
+            }
+        }
+        for (LocalDate restDate : restDates) {
+            compiled.rest.set(restDate.getDayOfYear() - 1);
+        }
+        for (HolidayModel holiday : holidays) {
+            int index = holiday.getHolidayDate().getDayOfYear() - 1;
+            switch (holiday.getHolidayType()) {
+                case REGULAR:
+                    compiled.regular.set(index);
+                    break;
+                case SPECIAL_NON_WORKING:
+                    compiled.special.set(index);
+                    break;
+                default:
+                    compiled.specialWorking.set(index);
+                    break;
+            }
+        }
+
+        // Working: neither a rest day nor a non-working holiday
+        compiled.working.set(0, days);
+        compiled.working.andNot(compiled.rest);
+        compiled.working.andNot(compiled.regular);
+        compiled.working.andNot(compiled.special);
+
+        for (int i = 0; i < days; i++) {
+            compiled.workingBefore[i + 1] = compiled.workingBefore[i] + (compiled.working.get(i) ? 1 : 0);
+        }
+        return compiled;
+    }
+
+
+    // INNER CLASSES
+
+
+    /**
+     * One compiled year; bit i is day of year i + 1
+     */
+    private static final class Year {
+        private final BitSet working;
+        private final BitSet rest;
+        private final BitSet regular;
+        private final BitSet special;
+        private final BitSet specialWorking;
+        // workingBefore[i] = working days among the first i days of the year
+        private final int[] workingBefore;
+        private final long compiledAt = System.currentTimeMillis();
+
+        Year(int days) {
+            this.working = new BitSet(days);
+            this.rest = new BitSet(days);
+            this.regular = new BitSet(days);
+            this.special = new BitSet(days);
+            this.specialWorking = new BitSet(days);
+            this.workingBefore = new int[days + 1];
+        }
+    }
+}
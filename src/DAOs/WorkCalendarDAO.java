@@ -0,0 +1,384 @@
+package DAOs;
+
+import Models.HolidayModel;
+import Models.HolidayModel.HolidayType;
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * WorkCalendarDAO - Holidays and company rest days
+ * Two tables make up the work calendar:
+ *   - holiday: one row per date with its name and type (regular, special non-working,
+ *     special working)
+ *   - companyrestday: weekly rest days (dayOfWeek set) and one-off company rest dates
+ *     (restDate set); Saturday and Sunday are added when the table is first created
+ * Every write invalidates WorkCalendar, which compiles the tables into per-year bitsets
+ * for the lookups used by payroll and attendance.
+ * @author User
+ */
+public class WorkCalendarDAO {
+
+    private static volatile boolean tablesReady = false;
+
+    private final DatabaseConnection databaseConnection;
+
+    /**
+     * Constructor that accepts a DatabaseConnection instance
+     * @param databaseConnection The database connection to use for all operations
+     */
+    public WorkCalendarDAO(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+    }
+
+    /**
+     * Default constructor using default database connection
+     */
+    public WorkCalendarDAO() {
+        this(new DatabaseConnection());
+    }
+
+
+    // TABLE SETUP
+
+
+    /**
+     * Creates the calendar tables if needed
+     * @return true if the tables are available
+     */
+    public boolean ensureTables() {
+        if (tablesReady) {
+            return true;
+        }
+
+        synchronized (WorkCalendarDAO.class) {
+            if (tablesReady) {
+                return true;
+            }
+
+            String[] statements = {
+                "CREATE TABLE IF NOT EXISTS holiday (" +
+                    "holidayDate DATE NOT NULL PRIMARY KEY, " +
+                    "holidayName VARCHAR(100) NOT NULL, " +
+                    "holidayType VARCHAR(30) NOT NULL)",
+
+                "CREATE TABLE IF NOT EXISTS companyrestday (" +
+                    "restDayId INT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                    "dayOfWeek TINYINT NULL, " +
+                    "restDate DATE NULL, " +
+                    "description VARCHAR(100) NULL, " +
+                    "UNIQUE KEY uk_restday_dayofweek (dayOfWeek), " +
+                    "UNIQUE KEY uk_restday_date (restDate))"
+            };
+
+            try (Connection conn = databaseConnection.createConnection();
+                 Statement stmt = conn.createStatement()) {
+                for (String sql : statements) {
+                    stmt.execute(sql);
+                }
+
+                // First use: the standard Monday to Friday week
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM companyrestday")) {
+                    if (rs.next() && rs.getInt(1) == 0) {
+                        stmt.executeUpdate("INSERT INTO companyrestday (dayOfWeek, description) " +
+                                           "VALUES (6, 'Saturday'), (7, 'Sunday')");
+                    }
+                }
+                tablesReady = true;
+            } catch (SQLException e) {
+                System.err.println("Error creating work calendar tables: " + e.getMessage());
+            }
+
+            return tablesReady;
+        }
+    }
+
+
+    // READS - Used by WorkCalendar when compiling a year
+
+
+    /**
+     * Gets the holidays of a year
+     * @param year The year
+     * @return Holidays ordered by date, or null if they could not be read
+     */
+    public List<HolidayModel> getHolidays(int year) {
+        if (!ensureTables()) {
+            return null;
+        }
+
+        String sql = "SELECT * FROM holiday WHERE holidayDate BETWEEN ? AND ? ORDER BY holidayDate";
+        List<HolidayModel> holidays = new ArrayList<>();
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(LocalDate.of(year, 1, 1)));
+            stmt.setDate(2, Date.valueOf(LocalDate.of(year, 12, 31)));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    holidays.add(new HolidayModel(rs.getDate("holidayDate").toLocalDate(),
+                        rs.getString("holidayName"), HolidayType.fromString(rs.getString("holidayType"))));
+                }
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            System.err.println("Error reading holidays for " + year + ": " + e.getMessage());
+            return null;
+        }
+
+        return holidays;
+    }
+
+    /**
+     * Gets the weekly rest days
+     * @return Rest days of the week, or null if they could not be read
+     */
+    public Set<DayOfWeek> getWeeklyRestDays() {
+        if (!ensureTables()) {
+            return null;
+        }
+
+        Set<DayOfWeek> restDays = EnumSet.noneOf(DayOfWeek.class);
+
+        try (Connection conn = databaseConnection.createConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT dayOfWeek FROM companyrestday WHERE dayOfWeek IS NOT NULL")) {
+            while (rs.next()) {
+                restDays.add(DayOfWeek.of(rs.getInt("dayOfWeek")));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading weekly rest days: " + e.getMessage());
+            return null;
+        }
+
+        return restDays;
+    }
+
+    /**
+     * Gets the one-off company rest dates of a year
+     * @param year The year
+     * @return Rest dates in order, or null if they could not be read
+     */
+    public List<LocalDate> getRestDates(int year) {
+        if (!ensureTables()) {
+            return null;
+        }
+
+        String sql = "SELECT restDate FROM companyrestday WHERE restDate BETWEEN ? AND ? ORDER BY restDate";
+        List<LocalDate> dates = new ArrayList<>();
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(LocalDate.of(year, 1, 1)));
+            stmt.setDate(2, Date.valueOf(LocalDate.of(year, 12, 31)));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    dates.add(rs.getDate("restDate").toLocalDate());
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading company rest dates for " + year + ": " + e.getMessage());
+            return null;
+        }
+
+        return dates;
+    }
+
+
+    // WRITES
+
+
+    /**
+     * Adds a holiday or replaces the holiday on its date
+     * @param holiday The holiday to save
+     * @return true if saved
+     */
+    public boolean saveHoliday(HolidayModel holiday) {
+        String sql = "INSERT INTO holiday (holidayDate, holidayName, holidayType) VALUES (?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE holidayName = VALUES(holidayName), holidayType = VALUES(holidayType)";
+        return executeWrite(sql, "saving holiday", Date.valueOf(holiday.getHolidayDate()),
+                            holiday.getHolidayName(), holiday.getHolidayType().getDisplayName()) >= 0;
+    }
+
+    /**
+     * Removes the holiday on a date
+     * @param date The holiday date
+     * @return true if a holiday was removed
+     */
+    public boolean deleteHoliday(LocalDate date) {
+        return executeWrite("DELETE FROM holiday WHERE holidayDate = ?", "deleting holiday", Date.valueOf(date)) > 0;
+    }
+
+    /**
+     * Adds a one-off company rest date
+     * @param date The rest date
+     * @param description Why the company is closed
+     * @return true if saved
+     */
+    public boolean addRestDate(LocalDate date, String description) {
+        String sql = "INSERT INTO companyrestday (restDate, description) VALUES (?, ?) " +
+                    "ON DUPLICATE KEY UPDATE description = VALUES(description)";
+        return executeWrite(sql, "adding company rest date", Date.valueOf(date), description) >= 0;
+    }
+
+    /**
+     * Removes a one-off company rest date
+     * @param date The rest date
+     * @return true if a rest date was removed
+     */
+    public boolean removeRestDate(LocalDate date) {
+        return executeWrite("DELETE FROM companyrestday WHERE restDate = ?", "removing company rest date", Date.valueOf(date)) > 0;
+    }
+
+    /**
+     * Replaces the weekly rest days
+     * @param restDays The days of the week the company is closed
+     * @return true if saved
+     */
+    public boolean setWeeklyRestDays(Set<DayOfWeek> restDays) {
+        if (!ensureTables()) {
+            return false;
+        }
+
+        try (Connection conn = databaseConnection.createConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("DELETE FROM companyrestday WHERE dayOfWeek IS NOT NULL");
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO companyrestday (dayOfWeek, description) VALUES (?, ?)")) {
+                    for (DayOfWeek day : restDays) {
+                        stmt.setInt(1, day.getValue());
+                        stmt.setString(2, day.getDisplayName(TextStyle.FULL, Locale.ENGLISH));
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saving weekly rest days: " + e.getMessage());
+            return false;
+        }
+
+        WorkCalendar.getInstance().invalidate();
+        return true;
+    }
+
+    /**
+     * Adds the Philippine holidays that fall on fixed or computable dates for a year
+     * Holidays already on a date are kept, so edits made by HR survive a re-run. Eid'l Fitr,
+     * Eid'l Adha, Chinese New Year and other proclaimed dates must be added with saveHoliday().
+     * @param year The year
+     * @return Number of holidays added, or -1 on error
+     */
+    public int seedPhilippineHolidays(int year) {
+        if (!ensureTables()) {
+            return -1;
+        }
+
+        LocalDate easter = easterSunday(year);
+        List<HolidayModel> holidays = new ArrayList<>();
+        holidays.add(new HolidayModel(LocalDate.of(year, 1, 1), "New Year's Day", HolidayType.REGULAR));
+        holidays.add(new HolidayModel(easter.minusDays(3), "Maundy Thursday", HolidayType.REGULAR));
+        holidays.add(new HolidayModel(easter.minusDays(2), "Good Friday", HolidayType.REGULAR));
+        holidays.add(new HolidayModel(easter.minusDays(1), "Black Saturday", HolidayType.SPECIAL_NON_WORKING));
+        holidays.add(new HolidayModel(LocalDate.of(year, 4, 9), "Araw ng Kagitingan", HolidayType.REGULAR));
+        holidays.add(new HolidayModel(LocalDate.of(year, 5, 1), "Labor Day", HolidayType.REGULAR));
+        holidays.add(new HolidayModel(LocalDate.of(year, 6, 12), "Independence Day", HolidayType.REGULAR));
+        holidays.add(new HolidayModel(LocalDate.of(year, 8, 21), "Ninoy Aquino Day", HolidayType.SPECIAL_NON_WORKING));
+        holidays.add(new HolidayModel(LocalDate.of(year, 8, 1).with(TemporalAdjusters.lastInMonth(DayOfWeek.MONDAY)),
+                                      "National Heroes Day", HolidayType.REGULAR));
+        holidays.add(new HolidayModel(LocalDate.of(year, 11, 1), "All Saints' Day", HolidayType.SPECIAL_NON_WORKING));
+        holidays.add(new HolidayModel(LocalDate.of(year, 11, 2), "All Souls' Day", HolidayType.SPECIAL_NON_WORKING));
+        holidays.add(new HolidayModel(LocalDate.of(year, 11, 30), "Bonifacio Day", HolidayType.REGULAR));
+        holidays.add(new HolidayModel(LocalDate.of(year, 12, 8), "Feast of the Immaculate Conception", HolidayType.SPECIAL_NON_WORKING));
+        holidays.add(new HolidayModel(LocalDate.of(year, 12, 24), "Christmas Eve", HolidayType.SPECIAL_NON_WORKING));
+        holidays.add(new HolidayModel(LocalDate.of(year, 12, 25), "Christmas Day", HolidayType.REGULAR));
+        holidays.add(new HolidayModel(LocalDate.of(year, 12, 30), "Rizal Day", HolidayType.REGULAR));
+        holidays.add(new HolidayModel(LocalDate.of(year, 12, 31), "Last Day of the Year", HolidayType.SPECIAL_NON_WORKING));
+
+        String sql = "INSERT IGNORE INTO holiday (holidayDate, holidayName, holidayType) VALUES (?, ?, ?)";
+        int added = 0;
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (HolidayModel holiday : holidays) {
+                stmt.setDate(1, Date.valueOf(holiday.getHolidayDate()));
+                stmt.setString(2, holiday.getHolidayName());
+                stmt.setString(3, holiday.getHolidayType().getDisplayName());
+                stmt.addBatch();
+            }
+            for (int count : stmt.executeBatch()) {
+                added += count > 0 ? 1 : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error seeding holidays for " + year + ": " + e.getMessage());
+            return -1;
+        }
+
+        WorkCalendar.getInstance().invalidate();
+        return added;
+    }
+
+
+    // HELPER METHODS
+
+
+    private int executeWrite(String sql, String action, Object... params) {
+        if (!ensureTables()) {
+            return -1;
+        }
+
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            int rows = stmt.executeUpdate();
+            WorkCalendar.getInstance().invalidate();
+            return rows;
+        } catch (SQLException e) {
+            System.err.println("Error " + action + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Easter Sunday of a year (anonymous Gregorian algorithm)
+     * Holy Week holidays are seeded relative to it.
+     * @param year The year
+     * @return The date of Easter Sunday
+     */
+    public static LocalDate easterSunday(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = ((h + l - 7 * m + 114) % 31) + 1;
+        return LocalDate.of(year, month, day);
+    }
+}
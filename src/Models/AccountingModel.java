@@ -7,7 +7,6 @@ import DAOs.*;
 import DAOs.DatabaseConnection;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
@@ -19,6 +18,8 @@ public class AccountingModel extends EmployeeModel {
     private final PayrollService payrollService;
     private final ReportService reportService;
     private final AttendanceService attendanceService;
+    private final PayrollVerificationService verificationService;
+    private final PayrollIntegrityService integrityService;
     
     // DAO dependencies for financial operations
     private final EmployeeDAO employeeDAO;
@@ -50,6 +51,8 @@ public class AccountingModel extends EmployeeModel {
         this.payrollService = new PayrollService(dbConnection);
         this.reportService = new ReportService(dbConnection);
         this.attendanceService = new AttendanceService(dbConnection);
+        this.verificationService = new PayrollVerificationService(dbConnection);
+        this.integrityService = new PayrollIntegrityService(dbConnection);
         
         // Initialize DAOs (only using confirmed existing ones)
         this.employeeDAO = new EmployeeDAO(dbConnection);
@@ -71,6 +74,8 @@ public class AccountingModel extends EmployeeModel {
         this.payrollService = new PayrollService(dbConnection);
         this.reportService = new ReportService(dbConnection);
         this.attendanceService = new AttendanceService(dbConnection);
+        this.verificationService = new PayrollVerificationService(dbConnection);
+        this.integrityService = new PayrollIntegrityService(dbConnection);
         
         this.employeeDAO = new EmployeeDAO(dbConnection);
         this.payrollDAO = new PayrollDAO(dbConnection);
@@ -119,37 +124,26 @@ public class AccountingModel extends EmployeeModel {
                 return result;
             }
 
-            List<PayrollModel> payrollRecords = payrollDAO.findByPayPeriod(payPeriodId);
-            int verifiedCount = 0;
-            int discrepancyCount = 0;
-            BigDecimal totalGross = BigDecimal.ZERO;
-            BigDecimal totalNet = BigDecimal.ZERO;
-            BigDecimal totalDeductions = BigDecimal.ZERO;
-
-            for (PayrollModel payroll : payrollRecords) {
-                if (verifyIndividualPayroll(payroll)) {
-                    verifiedCount++;
-                } else {
-                    discrepancyCount++;
-                }
-                totalGross = totalGross.add(payroll.getGrossIncome());
-                totalNet = totalNet.add(payroll.getNetSalary());
-                totalDeductions = totalDeductions.add(payroll.getTotalDeduction());
-            }
+            PayrollVerificationService.VerificationReport report = verificationService.verifyPeriod(payPeriodId);
 
             result.setSuccess(true);
             result.setMessage("Payroll verification completed for period: " + payPeriod.getPeriodName());
-            result.setTotalRecords(payrollRecords.size());
-            result.setVerifiedRecords(verifiedCount);
-            result.setDiscrepancyRecords(discrepancyCount);
-            result.setTotalGross(totalGross);
-            result.setTotalNet(totalNet);
-            result.setTotalDeductions(totalDeductions);
+            result.setTotalRecords(report.getTotalRecords());
+            result.setVerifiedRecords(report.getVerifiedRecords());
+            result.setDiscrepancyRecords(report.getDiscrepancyRecords());
+            result.setTotalGross(report.getTotalGross());
+            result.setTotalNet(report.getTotalNet());
+            result.setTotalDeductions(report.getTotalDeductions());
+            
+            // A clean period is sealed so later audits can skip recomputing it while it stays untouched
+            if (report.getDiscrepancyRecords() == 0) {
+                integrityService.sealPeriod(payPeriodId, getEmployeeId());
+            }
             
             logAccountingActivity("PAYROLL_VERIFIED", 
                 "Verified payroll for period: " + payPeriodId + 
-                " - Records: " + payrollRecords.size() + 
-                ", Discrepancies: " + discrepancyCount);
+                " - Records: " + report.getTotalRecords() + 
+                ", Discrepancies: " + report.getDiscrepancyRecords());
 
         } catch (Exception e) {
             result.setSuccess(false);
@@ -161,61 +155,49 @@ public class AccountingModel extends EmployeeModel {
     }
 
     /**
-     * Verifies individual payroll calculation
+     * Gets the structured discrepancy report for a pay period
+     * Each entry names the employee, field, expected value, actual value and delta
      */
-    private boolean verifyIndividualPayroll(PayrollModel payroll) {
-        try {
-            EmployeeModel employee = employeeDAO.findById(payroll.getEmployeeId());
-            if (employee == null) {
-                System.out.println("Employee not found for payroll: " + payroll.getEmployeeId());
-                return false;
-            }
-
-            // Verify basic salary calculation (semi-monthly)
-            BigDecimal expectedBasicSalary = employee.getBasicSalary().divide(new BigDecimal("2"), 2, RoundingMode.HALF_UP);
-            if (!payroll.getBasicSalary().equals(expectedBasicSalary)) {
-                System.out.println("Basic salary mismatch for employee: " + payroll.getEmployeeId() + 
-                    " - Expected: " + expectedBasicSalary + ", Found: " + payroll.getBasicSalary());
-                return false;
-            }
-
-            // Verify net salary calculation
-            BigDecimal expectedNet = payroll.getGrossIncome().subtract(payroll.getTotalDeduction());
-            if (!payroll.getNetSalary().equals(expectedNet)) {
-                System.out.println("Net salary calculation mismatch for employee: " + payroll.getEmployeeId() + 
-                    " - Expected: " + expectedNet + ", Found: " + payroll.getNetSalary());
-                return false;
-            }
-
-            // Verify deduction calculations (basic government deductions)
-            BigDecimal expectedDeductions = calculateExpectedDeductions(employee.getBasicSalary());
-            BigDecimal deductionDifference = payroll.getTotalDeduction().subtract(expectedDeductions).abs();
-            
-            // Allow small tolerance for rounding differences
-            if (deductionDifference.compareTo(new BigDecimal("1.00")) > 0) {
-                System.out.println("Deduction calculation mismatch for employee: " + payroll.getEmployeeId() + 
-                    " - Expected: " + expectedDeductions + ", Found: " + payroll.getTotalDeduction());
-                return false;
-            }
-
-            return true;
-
-        } catch (Exception e) {
-            System.err.println("Error verifying individual payroll for employee " + payroll.getEmployeeId() + ": " + e.getMessage());
-            return false;
+    public PayrollVerificationService.VerificationReport getPayrollDiscrepancies(Integer payPeriodId) {
+        if (!hasPermission("VERIFY_PAYROLL")) {
+            System.err.println("Accounting: Insufficient permissions to verify payroll");
+            return new PayrollVerificationService.VerificationReport(payPeriodId);
         }
+        
+        return verificationService.verifyPeriod(payPeriodId);
     }
 
     /**
-     * Calculates expected government deductions for verification
+     * Verifies a pay period and exports its discrepancies to a CSV file
      */
-    private BigDecimal calculateExpectedDeductions(BigDecimal basicSalary) {
-        // Philippine government mandated deductions (simplified)
-        BigDecimal sss = basicSalary.multiply(new BigDecimal("0.045")).setScale(2, RoundingMode.HALF_UP); // 4.5% SSS
-        BigDecimal philHealth = basicSalary.multiply(new BigDecimal("0.0275")).setScale(2, RoundingMode.HALF_UP); // 2.75% PhilHealth
-        BigDecimal pagIbig = basicSalary.multiply(new BigDecimal("0.02")).setScale(2, RoundingMode.HALF_UP); // 2% Pag-IBIG
+    public AccountingResult exportPayrollDiscrepancies(Integer payPeriodId, String filePath) {
+        AccountingResult result = new AccountingResult();
         
-        return sss.add(philHealth).add(pagIbig);
+        if (!hasPermission("VERIFY_PAYROLL")) {
+            result.setSuccess(false);
+            result.setMessage("Insufficient permissions to verify payroll");
+            return result;
+        }
+        
+        try {
+            PayrollVerificationService.VerificationReport report = verificationService.verifyPeriod(payPeriodId);
+            report.exportCsv(java.nio.file.Paths.get(filePath));
+            
+            result.setSuccess(true);
+            result.setMessage("Exported " + report.getDiscrepancies().size() + " discrepancies to " + filePath);
+            result.setTotalRecords(report.getTotalRecords());
+            result.setVerifiedRecords(report.getVerifiedRecords());
+            result.setDiscrepancyRecords(report.getDiscrepancyRecords());
+            
+            logAccountingActivity("PAYROLL_DISCREPANCIES_EXPORTED", 
+                "Exported discrepancies for period: " + payPeriodId + " to " + filePath);
+            
+        } catch (Exception e) {
+            result.setSuccess(false);
+            result.setMessage("Error exporting payroll discrepancies: " + e.getMessage());
+        }
+        
+        return result;
     }
 
     // ================================
@@ -295,6 +277,26 @@ public class AccountingModel extends EmployeeModel {
                 return result;
             }
 
+            // Signed off before and no payroll or payslip row changed since: nothing to recompute
+            PayrollIntegrityService.IntegrityReport integrity = integrityService.checkPeriod(payPeriodId);
+            if (integrity.isUntouchedSinceSeal()) {
+                PayrollDAO.PayrollSummary summary = payrollService.getPayrollSummary(payPeriodId);
+                
+                result.setSuccess(true);
+                result.setMessage("Financial audit completed for period: " + payPeriodId + " (unchanged since last audit)");
+                result.setTotalRecords(summary.getEmployeeCount());
+                result.setVerifiedRecords(summary.getEmployeeCount());
+                result.setDiscrepancyRecords(0);
+                result.setTotalGross(summary.getTotalGrossIncome());
+                result.setTotalNet(summary.getTotalNetSalary());
+                result.setTotalDeductions(summary.getTotalDeductions());
+                result.setComplianceScore(BigDecimal.valueOf(100.0));
+                
+                logAccountingActivity("FINANCIAL_AUDIT_PERFORMED", 
+                    "Completed financial audit for period: " + payPeriodId + " - unchanged since last audit");
+                return result;
+            }
+
             // Get payroll verification results
             AccountingResult verificationResult = verifyPayrollForPeriod(payPeriodId);
             
@@ -308,8 +310,11 @@ public class AccountingModel extends EmployeeModel {
             double complianceScore = verificationResult.getTotalRecords() > 0 ? 
                 (double)(verificationResult.getVerifiedRecords()) / verificationResult.getTotalRecords() * 100 : 100;
 
+            String changes = integrity.getChangedEmployees().isEmpty() ? "" :
+                " (changed since last audit: employees " + integrity.getChangedEmployees() + ")";
+
             result.setSuccess(true);
-            result.setMessage("Financial audit completed for period: " + payPeriodId);
+            result.setMessage("Financial audit completed for period: " + payPeriodId + changes);
             result.setTotalRecords(verificationResult.getTotalRecords());
             result.setVerifiedRecords(verificationResult.getVerifiedRecords());
             result.setDiscrepancyRecords(verificationResult.getDiscrepancyRecords());
@@ -330,6 +335,22 @@ public class AccountingModel extends EmployeeModel {
         return result;
     }
 
+    /**
+     * Checks a pay period's payroll and payslip rows against their integrity hashes
+     * Names the employees changed since the last clean audit or outside the application
+     */
+    public PayrollIntegrityService.IntegrityReport checkPayrollIntegrity(Integer payPeriodId) {
+        if (!hasPermission("AUDIT_FINANCIAL_DATA")) {
+            System.err.println("Accounting: Insufficient permissions to audit financial data");
+            return new PayrollIntegrityService.IntegrityReport(payPeriodId);
+        }
+        
+        PayrollIntegrityService.IntegrityReport report = integrityService.checkPeriod(payPeriodId);
+        logAccountingActivity("PAYROLL_INTEGRITY_CHECKED", 
+            "Checked integrity for period: " + payPeriodId + " - Changed employees: " + report.getChangedEmployees());
+        return report;
+    }
+
     // ================================
     // DATA ACCESS METHODS
     // ================================
@@ -0,0 +1,88 @@
+package Models;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * HolidayModel class that maps to the holiday table
+ * Fields: holidayDate, holidayName, holidayType
+ * @author User
+ */
+public class HolidayModel {
+
+    // Enum for holiday types (Philippine labor code classification)
+    public enum HolidayType {
+        REGULAR("Regular Holiday"),
+        SPECIAL_NON_WORKING("Special Non-Working Day"),
+        SPECIAL_WORKING("Special Working Day");
+
+        private final String displayName;
+
+        HolidayType(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public static HolidayType fromString(String text) {
+            for (HolidayType t : HolidayType.values()) {
+                if (t.displayName.equalsIgnoreCase(text)) {
+                    return t;
+                }
+            }
+            throw new IllegalArgumentException("No constant with text " + text + " found");
+        }
+    }
+
+    private LocalDate holidayDate;
+    private String holidayName;
+    private HolidayType holidayType;
+
+    // Constructors
+    public HolidayModel() {}
+
+    public HolidayModel(LocalDate holidayDate, String holidayName, HolidayType holidayType) {
+        this.holidayDate = holidayDate;
+        this.holidayName = holidayName;
+        this.holidayType = holidayType;
+    }
+
+    // Getters and Setters
+    public LocalDate getHolidayDate() { return holidayDate; }
+    public void setHolidayDate(LocalDate holidayDate) { this.holidayDate = holidayDate; }
+
+    public String getHolidayName() { return holidayName; }
+    public void setHolidayName(String holidayName) { this.holidayName = holidayName; }
+
+    public HolidayType getHolidayType() { return holidayType; }
+    public void setHolidayType(HolidayType holidayType) { this.holidayType = holidayType; }
+
+    /**
+     * Whether employees are off on this holiday
+     * @return true for regular and special non-working holidays
+     */
+    public boolean isNonWorking() {
+        return holidayType == HolidayType.REGULAR || holidayType == HolidayType.SPECIAL_NON_WORKING;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        HolidayModel that = (HolidayModel) obj;
+        return Objects.equals(holidayDate, that.holidayDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(holidayDate);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HolidayModel{holidayDate=%s, holidayName='%s', holidayType=%s}",
+                           holidayDate, holidayName, holidayType != null ? holidayType.getDisplayName() : null);
+    }
+}
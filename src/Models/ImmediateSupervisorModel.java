@@ -10,6 +10,9 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -277,6 +280,32 @@ public class ImmediateSupervisorModel extends EmployeeModel {
         }
     }
 
+    /**
+     * Gets team members' pending and approved leave in a date range ("who is out this week")
+     */
+    public List<LeaveCalendarIndex.LeaveInterval> getTeamLeaveCalendar(LocalDate startDate, LocalDate endDate) {
+        if (!hasPermission("VIEW_TEAM_REPORTS")) {
+            System.err.println("Supervisor: Insufficient permissions to view team leave calendar");
+            return new ArrayList<>();
+        }
+
+        try {
+            List<LeaveCalendarIndex.LeaveInterval> calendar = leaveService.getTeamLeaveCalendar(getEmployeeId(), startDate, endDate);
+
+            // Same fallback as getTeamMembers: no direct reports means the team is the department
+            if (calendar.isEmpty() && department != null && employeeDAO.getEmployeesBySupervisor(getEmployeeId()).isEmpty()) {
+                calendar = leaveService.getDepartmentLeaveCalendar(department, startDate, endDate).stream()
+                    .filter(leave -> !leave.getEmployeeId().equals(getEmployeeId()))
+                    .collect(Collectors.toList());
+            }
+
+            return calendar;
+        } catch (Exception e) {
+            System.err.println("Error getting team leave calendar: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Approves a team member's leave request
      */
@@ -361,6 +390,70 @@ public class ImmediateSupervisorModel extends EmployeeModel {
         return result;
     }
 
+    /**
+     * Approves several team members' leave requests at once (single transaction)
+     * @return Outcome per leave request ID, in the order given
+     */
+    public Map<Integer, SupervisorResult> approveTeamLeaveRequests(List<Integer> leaveRequestIds, String supervisorNotes) {
+        return decideTeamLeaveRequests(leaveRequestIds, supervisorNotes, true);
+    }
+
+    /**
+     * Rejects several team members' leave requests at once (single transaction)
+     * @return Outcome per leave request ID, in the order given
+     */
+    public Map<Integer, SupervisorResult> rejectTeamLeaveRequests(List<Integer> leaveRequestIds, String supervisorNotes) {
+        return decideTeamLeaveRequests(leaveRequestIds, supervisorNotes, false);
+    }
+
+    private Map<Integer, SupervisorResult> decideTeamLeaveRequests(List<Integer> leaveRequestIds, String supervisorNotes, boolean approve) {
+        Map<Integer, SupervisorResult> outcomes = new LinkedHashMap<>();
+        if (leaveRequestIds == null || leaveRequestIds.isEmpty()) {
+            return outcomes;
+        }
+
+        try {
+            if (!hasPermission("APPROVE_TEAM_LEAVE")) {
+                return failAll(leaveRequestIds, "Insufficient permissions to " + (approve ? "approve" : "reject") + " leave requests");
+            }
+
+            // Verify team membership for every request with one lookup of the team and the requests
+            Set<Integer> teamIds = getTeamMemberIds();
+            Map<Integer, LeaveRequestModel> requests = leaveService.getLeaveRequests(leaveRequestIds);
+            List<Integer> teamRequestIds = new ArrayList<>();
+            for (Integer leaveRequestId : leaveRequestIds) {
+                LeaveRequestModel leaveRequest = requests.get(leaveRequestId);
+                if (leaveRequest == null || !teamIds.contains(leaveRequest.getEmployeeId())) {
+                    outcomes.put(leaveRequestId, outcome(false, "Leave request does not belong to your team"));
+                } else {
+                    outcomes.put(leaveRequestId, null); // Keeps input order; filled from the service outcome below
+                    teamRequestIds.add(leaveRequestId);
+                }
+            }
+
+            Map<Integer, LeaveService.LeaveApprovalResult> decisions = approve
+                ? leaveService.approveLeaveRequests(teamRequestIds, getEmployeeId(), supervisorNotes)
+                : leaveService.rejectLeaveRequests(teamRequestIds, getEmployeeId(), supervisorNotes);
+
+            List<Integer> decided = new ArrayList<>();
+            for (Map.Entry<Integer, LeaveService.LeaveApprovalResult> decision : decisions.entrySet()) {
+                outcomes.put(decision.getKey(), outcome(decision.getValue().isSuccess(), decision.getValue().getMessage()));
+                if (decision.getValue().isSuccess()) {
+                    decided.add(decision.getKey());
+                }
+            }
+
+            if (!decided.isEmpty()) {
+                logSupervisorActivity(approve ? "LEAVE_APPROVED" : "LEAVE_REJECTED",
+                    (approve ? "Approved" : "Rejected") + " leave requests: " + decided);
+            }
+            return outcomes;
+
+        } catch (Exception e) {
+            return failAll(leaveRequestIds, "Error " + (approve ? "approving" : "rejecting") + " leave requests: " + e.getMessage());
+        }
+    }
+
     // ================================
     // OVERTIME REQUEST MANAGEMENT
     // ================================
@@ -476,6 +569,70 @@ public class ImmediateSupervisorModel extends EmployeeModel {
         return result;
     }
 
+    /**
+     * Approves several team members' overtime requests at once (single transaction)
+     * @return Outcome per overtime request ID, in the order given
+     */
+    public Map<Integer, SupervisorResult> approveTeamOvertimeRequests(List<Integer> overtimeRequestIds, String supervisorNotes) {
+        return decideTeamOvertimeRequests(overtimeRequestIds, supervisorNotes, true);
+    }
+
+    /**
+     * Rejects several team members' overtime requests at once (single transaction)
+     * @return Outcome per overtime request ID, in the order given
+     */
+    public Map<Integer, SupervisorResult> rejectTeamOvertimeRequests(List<Integer> overtimeRequestIds, String supervisorNotes) {
+        return decideTeamOvertimeRequests(overtimeRequestIds, supervisorNotes, false);
+    }
+
+    private Map<Integer, SupervisorResult> decideTeamOvertimeRequests(List<Integer> overtimeRequestIds, String supervisorNotes, boolean approve) {
+        Map<Integer, SupervisorResult> outcomes = new LinkedHashMap<>();
+        if (overtimeRequestIds == null || overtimeRequestIds.isEmpty()) {
+            return outcomes;
+        }
+
+        try {
+            if (!hasPermission("APPROVE_TEAM_OVERTIME")) {
+                return failAll(overtimeRequestIds, "Insufficient permissions to " + (approve ? "approve" : "reject") + " overtime requests");
+            }
+
+            // Verify team membership for every request with one lookup of the team and the requests
+            Set<Integer> teamIds = getTeamMemberIds();
+            Map<Integer, OvertimeRequestModel> requests = overtimeService.getOvertimeRequests(overtimeRequestIds);
+            List<Integer> teamRequestIds = new ArrayList<>();
+            for (Integer overtimeRequestId : overtimeRequestIds) {
+                OvertimeRequestModel overtimeRequest = requests.get(overtimeRequestId);
+                if (overtimeRequest == null || !teamIds.contains(overtimeRequest.getEmployeeId())) {
+                    outcomes.put(overtimeRequestId, outcome(false, "Overtime request does not belong to your team"));
+                } else {
+                    outcomes.put(overtimeRequestId, null); // Keeps input order; filled from the service outcome below
+                    teamRequestIds.add(overtimeRequestId);
+                }
+            }
+
+            Map<Integer, OvertimeService.OvertimeApprovalResult> decisions = approve
+                ? overtimeService.approveOvertimeRequests(teamRequestIds, getEmployeeId(), supervisorNotes)
+                : overtimeService.rejectOvertimeRequests(teamRequestIds, getEmployeeId(), supervisorNotes);
+
+            List<Integer> decided = new ArrayList<>();
+            for (Map.Entry<Integer, OvertimeService.OvertimeApprovalResult> decision : decisions.entrySet()) {
+                outcomes.put(decision.getKey(), outcome(decision.getValue().isSuccess(), decision.getValue().getMessage()));
+                if (decision.getValue().isSuccess()) {
+                    decided.add(decision.getKey());
+                }
+            }
+
+            if (!decided.isEmpty()) {
+                logSupervisorActivity(approve ? "OVERTIME_APPROVED" : "OVERTIME_REJECTED",
+                    (approve ? "Approved" : "Rejected") + " overtime requests: " + decided);
+            }
+            return outcomes;
+
+        } catch (Exception e) {
+            return failAll(overtimeRequestIds, "Error " + (approve ? "approving" : "rejecting") + " overtime requests: " + e.getMessage());
+        }
+    }
+
     // ================================
     // ATTENDANCE MANAGEMENT
     // ================================
@@ -603,6 +760,36 @@ public class ImmediateSupervisorModel extends EmployeeModel {
         }
     }
 
+    /**
+     * Gets the employee IDs of the team once for bulk membership checks
+     */
+    private Set<Integer> getTeamMemberIds() {
+        return getTeamMembers().stream()
+            .map(EmployeeModel::getEmployeeId)
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Builds one item's outcome in a bulk decision
+     */
+    private static SupervisorResult outcome(boolean success, String message) {
+        SupervisorResult result = new SupervisorResult();
+        result.setSuccess(success);
+        result.setMessage(message);
+        return result;
+    }
+
+    /**
+     * Builds the same failure outcome for every request in a bulk decision
+     */
+    private Map<Integer, SupervisorResult> failAll(List<Integer> requestIds, String message) {
+        Map<Integer, SupervisorResult> outcomes = new LinkedHashMap<>();
+        for (Integer requestId : requestIds) {
+            outcomes.put(requestId, outcome(false, message));
+        }
+        return outcomes;
+    }
+
     /**
      * Checks if supervisor has specific permission
      */
@@ -0,0 +1,84 @@
+package Models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * PayrollAdjustmentModel class that maps to the payrolladjustment table
+ * An adjustment line corrects an already-processed (source) pay period and is paid
+ * out in a later open (target) pay period instead of rerunning the source period
+ * @author User
+ */
+public class PayrollAdjustmentModel {
+
+    private Integer adjustmentId;
+    private Integer employeeId;
+    private Integer sourcePayPeriodId;
+    private Integer targetPayPeriodId;
+    private Integer salaryHistoryId;
+    private BigDecimal grossAdjustment = BigDecimal.ZERO;
+    private BigDecimal deductionAdjustment = BigDecimal.ZERO;
+    private BigDecimal netAdjustment = BigDecimal.ZERO;
+    private String reason;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public PayrollAdjustmentModel() {}
+
+    public PayrollAdjustmentModel(Integer employeeId, Integer sourcePayPeriodId, Integer targetPayPeriodId, Integer salaryHistoryId) {
+        this.employeeId = employeeId;
+        this.sourcePayPeriodId = sourcePayPeriodId;
+        this.targetPayPeriodId = targetPayPeriodId;
+        this.salaryHistoryId = salaryHistoryId;
+    }
+
+    // Getters and Setters
+    public Integer getAdjustmentId() { return adjustmentId; }
+    public void setAdjustmentId(Integer adjustmentId) { this.adjustmentId = adjustmentId; }
+
+    public Integer getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Integer employeeId) { this.employeeId = employeeId; }
+
+    public Integer getSourcePayPeriodId() { return sourcePayPeriodId; }
+    public void setSourcePayPeriodId(Integer sourcePayPeriodId) { this.sourcePayPeriodId = sourcePayPeriodId; }
+
+    public Integer getTargetPayPeriodId() { return targetPayPeriodId; }
+    public void setTargetPayPeriodId(Integer targetPayPeriodId) { this.targetPayPeriodId = targetPayPeriodId; }
+
+    public Integer getSalaryHistoryId() { return salaryHistoryId; }
+    public void setSalaryHistoryId(Integer salaryHistoryId) { this.salaryHistoryId = salaryHistoryId; }
+
+    public BigDecimal getGrossAdjustment() { return grossAdjustment; }
+    public void setGrossAdjustment(BigDecimal grossAdjustment) {
+        this.grossAdjustment = grossAdjustment != null ? grossAdjustment : BigDecimal.ZERO;
+    }
+
+    public BigDecimal getDeductionAdjustment() { return deductionAdjustment; }
+    public void setDeductionAdjustment(BigDecimal deductionAdjustment) {
+        this.deductionAdjustment = deductionAdjustment != null ? deductionAdjustment : BigDecimal.ZERO;
+    }
+
+    public BigDecimal getNetAdjustment() { return netAdjustment; }
+    public void setNetAdjustment(BigDecimal netAdjustment) {
+        this.netAdjustment = netAdjustment != null ? netAdjustment : BigDecimal.ZERO;
+    }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    /**
+     * @return true if the adjustment changes nothing
+     */
+    public boolean isZero() {
+        return grossAdjustment.signum() == 0 && deductionAdjustment.signum() == 0 && netAdjustment.signum() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PayrollAdjustmentModel{employeeId=%d, sourcePayPeriodId=%d, targetPayPeriodId=%d, gross=%s, deductions=%s, net=%s}",
+                           employeeId, sourcePayPeriodId, targetPayPeriodId, grossAdjustment, deductionAdjustment, netAdjustment);
+    }
+}
@@ -34,6 +34,40 @@ public class PayrollBenefit {
     private static final BigDecimal PHILHEALTH_MAX_SALARY = new BigDecimal("100000");
     private static final BigDecimal PAGIBIG_MAX_CONTRIBUTION = new BigDecimal("200");
     
+    // Rows per JDBC batch when saving a whole period's benefit calculations
+    private static final int SAVE_BATCH_SIZE = 200;
+    
+    // Upsert shared by the single and batched saves
+    private static final String BENEFIT_UPSERT_SQL = "INSERT INTO payroll_benefit " +
+            "(employeeId, payPeriodId, sssEmployeeContribution, sssEmployerContribution, " +
+            "philhealthEmployeeContribution, philhealthEmployerContribution, " +
+            "pagibigEmployeeContribution, pagibigEmployerContribution, " +
+            "riceSubsidy, phoneAllowance, clothingAllowance, transportationAllowance, mealAllowance, " +
+            "performanceBonus, holidayBonus, thirteenthMonthPay, " +
+            "healthInsurancePremium, lifeInsurancePremium, " +
+            "healthInsuranceCompanyCoverage, lifeInsuranceCompanyCoverage, " +
+            "overtimeAllowance, specialAllowance, " +
+            "totalBenefitPayments, totalBenefitDeductions, netBenefitAdjustment, calculatedDate) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "sssEmployeeContribution = VALUES(sssEmployeeContribution), " +
+            "sssEmployerContribution = VALUES(sssEmployerContribution), " +
+            "philhealthEmployeeContribution = VALUES(philhealthEmployeeContribution), " +
+            "philhealthEmployerContribution = VALUES(philhealthEmployerContribution), " +
+            "pagibigEmployeeContribution = VALUES(pagibigEmployeeContribution), " +
+            "pagibigEmployerContribution = VALUES(pagibigEmployerContribution), " +
+            "riceSubsidy = VALUES(riceSubsidy), phoneAllowance = VALUES(phoneAllowance), " +
+            "clothingAllowance = VALUES(clothingAllowance), transportationAllowance = VALUES(transportationAllowance), " +
+            "mealAllowance = VALUES(mealAllowance), performanceBonus = VALUES(performanceBonus), " +
+            "holidayBonus = VALUES(holidayBonus), thirteenthMonthPay = VALUES(thirteenthMonthPay), " +
+            "healthInsurancePremium = VALUES(healthInsurancePremium), lifeInsurancePremium = VALUES(lifeInsurancePremium), " +
+            "healthInsuranceCompanyCoverage = VALUES(healthInsuranceCompanyCoverage), " +
+            "lifeInsuranceCompanyCoverage = VALUES(lifeInsuranceCompanyCoverage), " +
+            "overtimeAllowance = VALUES(overtimeAllowance), specialAllowance = VALUES(specialAllowance), " +
+            "totalBenefitPayments = VALUES(totalBenefitPayments), " +
+            "totalBenefitDeductions = VALUES(totalBenefitDeductions), " +
+            "netBenefitAdjustment = VALUES(netBenefitAdjustment), calculatedDate = CURRENT_TIMESTAMP";
+    
     /**
      * Constructor
      * @param databaseConnection Database connection instance
@@ -67,47 +101,19 @@ public class PayrollBenefit {
             LocalDate startDate = ((java.sql.Date) payPeriod.get("startDate")).toLocalDate();
             LocalDate endDate = ((java.sql.Date) payPeriod.get("endDate")).toLocalDate();
             
-            // Initialize calculation result
-            PayrollBenefitResult result = new PayrollBenefitResult();
-            result.setEmployeeId(employeeId);
-            result.setPayPeriodId(payPeriodId);
-            result.setStartDate(startDate);
-            result.setEndDate(endDate);
-            
-            // Calculate different benefit components
-            calculateGovernmentBenefits(result, employee);
-            calculateAllowances(result, employee, payPeriodId);
-            calculateBonuses(result, employee, payPeriodId);
-            calculateInsuranceBenefits(result, employee);
-            calculatePerformanceBenefits(result, employee, payPeriodId);
-            calculateSpecialBenefits(result, employee, startDate, endDate);
-            
-            // Calculate totals
-            BigDecimal totalBenefitPayments = result.getRiceSubsidy()
-                .add(result.getPhoneAllowance())
-                .add(result.getClothingAllowance())
-                .add(result.getTransportationAllowance())
-                .add(result.getMealAllowance())
-                .add(result.getPerformanceBonus())
-                .add(result.getHolidayBonus())
-                .add(result.getOvertimeAllowance())
-                .add(result.getSpecialAllowance());
+            // Load this employee's benefit data
+            BenefitInputs inputs = new BenefitInputs();
+            inputs.benefits = getEmployeeBenefits(employeeId);
+            inputs.insurance = getEmployeeInsurance(employeeId);
+            inputs.performanceBonus = getPerformanceBonus(employeeId, payPeriodId);
+            inputs.overtimeAllowance = getOvertimeAllowance(employeeId, payPeriodId);
+            inputs.specialAllowance = getSpecialAllowances(employeeId, startDate, endDate);
             
-            BigDecimal totalBenefitDeductions = result.getSssEmployeeContribution()
-                .add(result.getPhilhealthEmployeeContribution())
-                .add(result.getPagibigEmployeeContribution())
-                .add(result.getHealthInsurancePremium())
-                .add(result.getLifeInsurancePremium());
-            
-            BigDecimal netBenefitAdjustment = totalBenefitPayments.subtract(totalBenefitDeductions);
-            
-            result.setTotalBenefitPayments(totalBenefitPayments);
-            result.setTotalBenefitDeductions(totalBenefitDeductions);
-            result.setNetBenefitAdjustment(netBenefitAdjustment);
+            PayrollBenefitResult result = computeBenefitPayroll(employee, payPeriodId, startDate, endDate, inputs);
             
             System.out.println("Benefit payroll calculated for employee " + employeeId + 
                              " for period " + startDate + " to " + endDate);
-            System.out.println("Net benefit adjustment: " + netBenefitAdjustment);
+            System.out.println("Net benefit adjustment: " + result.getNetBenefitAdjustment());
             
             return result;
             
@@ -118,6 +124,122 @@ public class PayrollBenefit {
         }
     }
     
+    /**
+     * Calculates benefit-related payroll adjustments for all active employees in a pay period
+     * The pay period, allowance entitlements, insurance enrollments and the period's bonus and
+     * allowance rows are each loaded with one query for the whole company; every employee's
+     * result is then computed in parallel and saved in batches.
+     * @param payPeriodId Pay period ID
+     * @return BenefitBatchResult with every employee's PayrollBenefitResult
+     */
+    public BenefitBatchResult calculateBenefitPayrollForPeriod(Integer payPeriodId) {
+        BenefitBatchResult batch = new BenefitBatchResult(payPeriodId);
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            Map<String, Object> payPeriod = getPayPeriodDetails(payPeriodId);
+            if (payPeriod == null) {
+                batch.addError("Pay period not found: " + payPeriodId);
+                return batch;
+            }
+            
+            LocalDate startDate = ((java.sql.Date) payPeriod.get("startDate")).toLocalDate();
+            LocalDate endDate = ((java.sql.Date) payPeriod.get("endDate")).toLocalDate();
+            
+            // Preload everything the per-employee sub-steps used to query one by one
+            List<EmployeeModel> employees = employeeDAO.getActiveEmployees();
+            Map<Integer, List<Map<String, Object>>> benefits = groupByEmployee(getAllEmployeeBenefits());
+            Map<Integer, List<Map<String, Object>>> insurance = groupByEmployee(getAllEmployeeInsurance());
+            Map<Integer, BigDecimal> performanceBonuses = sumByEmployee(
+                "SELECT employeeId, SUM(amount) AS total FROM performance_bonus " +
+                "WHERE payPeriodId = ? GROUP BY employeeId", payPeriodId);
+            Map<Integer, BigDecimal> overtimeAllowances = sumByEmployee(
+                "SELECT employeeId, SUM(allowanceAmount) AS total FROM overtime_allowance " +
+                "WHERE payPeriodId = ? GROUP BY employeeId", payPeriodId);
+            Map<Integer, BigDecimal> specialAllowances = sumByEmployee(
+                "SELECT employeeId, SUM(amount) AS total FROM special_allowance " +
+                "WHERE effectiveDate BETWEEN ? AND ? GROUP BY employeeId",
+                java.sql.Date.valueOf(startDate), java.sql.Date.valueOf(endDate));
+            
+            // Compute in parallel; no database access happens past this point until saving
+            List<PayrollBenefitResult> results = employees.parallelStream()
+                .map(employee -> {
+                    Integer employeeId = employee.getEmployeeId();
+                    BenefitInputs inputs = new BenefitInputs();
+                    inputs.benefits = benefits.getOrDefault(employeeId, Collections.emptyList());
+                    inputs.insurance = insurance.getOrDefault(employeeId, Collections.emptyList());
+                    inputs.performanceBonus = performanceBonuses.getOrDefault(employeeId, BigDecimal.ZERO);
+                    inputs.overtimeAllowance = overtimeAllowances.getOrDefault(employeeId, BigDecimal.ZERO);
+                    inputs.specialAllowance = specialAllowances.getOrDefault(employeeId, BigDecimal.ZERO);
+                    return computeBenefitPayroll(employee, payPeriodId, startDate, endDate, inputs);
+                })
+                .collect(java.util.stream.Collectors.toList());
+            
+            batch.getResults().addAll(results);
+            batch.setSavedCount(saveBenefitPayrollCalculation(results, SAVE_BATCH_SIZE));
+            if (batch.getSavedCount() < results.size()) {
+                batch.addError("Saved " + batch.getSavedCount() + " of " + results.size() + " benefit calculations");
+            }
+            
+            System.out.println("Benefit payroll calculated for " + results.size() + " employees for period " +
+                             startDate + " to " + endDate);
+            
+        } catch (Exception e) {
+            batch.addError("Error calculating benefit payroll for period: " + e.getMessage());
+            System.err.println("Error calculating benefit payroll for period: " + e.getMessage());
+        } finally {
+            batch.setElapsedMillis(System.currentTimeMillis() - startTime);
+        }
+        
+        return batch;
+    }
+    
+    /**
+     * Computes one employee's benefit result from already loaded data (no database access)
+     */
+    private PayrollBenefitResult computeBenefitPayroll(EmployeeModel employee, Integer payPeriodId,
+                                                       LocalDate startDate, LocalDate endDate, BenefitInputs inputs) {
+        // Initialize calculation result
+        PayrollBenefitResult result = new PayrollBenefitResult();
+        result.setEmployeeId(employee.getEmployeeId());
+        result.setPayPeriodId(payPeriodId);
+        result.setStartDate(startDate);
+        result.setEndDate(endDate);
+        
+        // Calculate different benefit components
+        calculateGovernmentBenefits(result, employee);
+        calculateAllowances(result, inputs.benefits);
+        calculateBonuses(result, employee, endDate, inputs.performanceBonus);
+        calculateInsuranceBenefits(result, inputs.insurance);
+        calculatePerformanceBenefits(result, inputs.overtimeAllowance);
+        calculateSpecialBenefits(result, inputs.specialAllowance);
+        
+        // Calculate totals
+        BigDecimal totalBenefitPayments = result.getRiceSubsidy()
+            .add(result.getPhoneAllowance())
+            .add(result.getClothingAllowance())
+            .add(result.getTransportationAllowance())
+            .add(result.getMealAllowance())
+            .add(result.getPerformanceBonus())
+            .add(result.getHolidayBonus())
+            .add(result.getOvertimeAllowance())
+            .add(result.getSpecialAllowance());
+        
+        BigDecimal totalBenefitDeductions = result.getSssEmployeeContribution()
+            .add(result.getPhilhealthEmployeeContribution())
+            .add(result.getPagibigEmployeeContribution())
+            .add(result.getHealthInsurancePremium())
+            .add(result.getLifeInsurancePremium());
+        
+        BigDecimal netBenefitAdjustment = totalBenefitPayments.subtract(totalBenefitDeductions);
+        
+        result.setTotalBenefitPayments(totalBenefitPayments);
+        result.setTotalBenefitDeductions(totalBenefitDeductions);
+        result.setNetBenefitAdjustment(netBenefitAdjustment);
+        
+        return result;
+    }
+    
     /**
      * Calculates government-mandated benefits (SSS, PhilHealth, Pag-IBIG)
      */
@@ -152,10 +274,7 @@ public class PayrollBenefit {
     /**
      * Calculates allowances (rice, phone, clothing, transportation, meal)
      */
-    private void calculateAllowances(PayrollBenefitResult result, EmployeeModel employee, Integer payPeriodId) {
-        // Get employee's benefit entitlements
-        List<Map<String, Object>> employeeBenefits = getEmployeeBenefits(employee.getEmployeeId());
-        
+    private void calculateAllowances(PayrollBenefitResult result, List<Map<String, Object>> employeeBenefits) {
         BigDecimal riceSubsidy = BigDecimal.ZERO;
         BigDecimal phoneAllowance = BigDecimal.ZERO;
         BigDecimal clothingAllowance = BigDecimal.ZERO;
@@ -202,28 +321,18 @@ public class PayrollBenefit {
     /**
      * Calculates bonuses (performance, holiday, 13th month)
      */
-    private void calculateBonuses(PayrollBenefitResult result, EmployeeModel employee, Integer payPeriodId) {
-        BigDecimal performanceBonus = BigDecimal.ZERO;
-        BigDecimal holidayBonus = BigDecimal.ZERO;
+    private void calculateBonuses(PayrollBenefitResult result, EmployeeModel employee, LocalDate endDate,
+                                  BigDecimal performanceBonus) {
         BigDecimal thirteenthMonthPay = BigDecimal.ZERO;
         
-        // Get period details to determine if bonuses apply
-        Map<String, Object> payPeriod = getPayPeriodDetails(payPeriodId);
-        if (payPeriod != null) {
-            LocalDate endDate = ((java.sql.Date) payPeriod.get("endDate")).toLocalDate();
-            
-            // Check for 13th month pay (usually December)
-            if (endDate.getMonthValue() == 12) {
-                thirteenthMonthPay = calculateThirteenthMonthPay(employee, endDate.getYear());
-            }
-            
-            // Check for holiday bonuses
-            holidayBonus = calculateHolidayBonus(employee, endDate);
-            
-            // Get performance bonus from employee benefits
-            performanceBonus = getPerformanceBonus(employee.getEmployeeId(), payPeriodId);
+        // Check for 13th month pay (usually December)
+        if (endDate.getMonthValue() == 12) {
+            thirteenthMonthPay = calculateThirteenthMonthPay(employee, endDate.getYear());
         }
         
+        // Check for holiday bonuses
+        BigDecimal holidayBonus = calculateHolidayBonus(employee, endDate);
+        
         result.setPerformanceBonus(performanceBonus);
         result.setHolidayBonus(holidayBonus);
         result.setThirteenthMonthPay(thirteenthMonthPay);
@@ -232,10 +341,7 @@ public class PayrollBenefit {
     /**
      * Calculates insurance benefits (health, life insurance)
      */
-    private void calculateInsuranceBenefits(PayrollBenefitResult result, EmployeeModel employee) {
-        // Get insurance enrollment details
-        List<Map<String, Object>> insuranceBenefits = getEmployeeInsurance(employee.getEmployeeId());
-        
+    private void calculateInsuranceBenefits(PayrollBenefitResult result, List<Map<String, Object>> insuranceBenefits) {
         BigDecimal healthInsurancePremium = BigDecimal.ZERO;
         BigDecimal lifeInsurancePremium = BigDecimal.ZERO;
         BigDecimal healthInsuranceCompanyCoverage = BigDecimal.ZERO;
@@ -278,18 +384,15 @@ public class PayrollBenefit {
     /**
      * Calculates performance-based benefits
      */
-    private void calculatePerformanceBenefits(PayrollBenefitResult result, EmployeeModel employee, Integer payPeriodId) {
+    private void calculatePerformanceBenefits(PayrollBenefitResult result, BigDecimal overtimeAllowance) {
         // This could be expanded to include performance ratings, sales commissions, etc.
-        BigDecimal overtimeAllowance = getOvertimeAllowance(employee.getEmployeeId(), payPeriodId);
         result.setOvertimeAllowance(overtimeAllowance);
     }
     
     /**
      * Calculates special benefits (project-based, one-time allowances)
      */
-    private void calculateSpecialBenefits(PayrollBenefitResult result, EmployeeModel employee, 
-                                        LocalDate startDate, LocalDate endDate) {
-        BigDecimal specialAllowance = getSpecialAllowances(employee.getEmployeeId(), startDate, endDate);
+    private void calculateSpecialBenefits(PayrollBenefitResult result, BigDecimal specialAllowance) {
         result.setSpecialAllowance(specialAllowance);
     }
     
@@ -317,6 +420,56 @@ public class PayrollBenefit {
         return executeQuery(sql, employeeId);
     }
     
+    /**
+     * Gets the active benefit entitlements of all employees
+     */
+    private List<Map<String, Object>> getAllEmployeeBenefits() {
+        String sql = "SELECT eb.*, bt.benefitName " +
+                    "FROM employeebenefit eb " +
+                    "JOIN benefittype bt ON eb.benefitTypeId = bt.benefitTypeId " +
+                    "WHERE eb.isActive = true";
+        
+        return executeQuery(sql);
+    }
+    
+    /**
+     * Gets the active insurance enrollments of all employees
+     */
+    private List<Map<String, Object>> getAllEmployeeInsurance() {
+        String sql = "SELECT * FROM employee_insurance WHERE isActive = true";
+        
+        return executeQuery(sql);
+    }
+    
+    /**
+     * Groups query rows by their employeeId column
+     */
+    private Map<Integer, List<Map<String, Object>>> groupByEmployee(List<Map<String, Object>> rows) {
+        Map<Integer, List<Map<String, Object>>> grouped = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            Object employeeId = row.get("employeeId");
+            if (employeeId != null) {
+                grouped.computeIfAbsent(((Number) employeeId).intValue(), k -> new ArrayList<>()).add(row);
+            }
+        }
+        return grouped;
+    }
+    
+    /**
+     * Runs a query returning (employeeId, total) rows and maps them by employee
+     */
+    private Map<Integer, BigDecimal> sumByEmployee(String sql, Object... params) {
+        Map<Integer, BigDecimal> totals = new HashMap<>();
+        for (Map<String, Object> row : executeQuery(sql, params)) {
+            Object employeeId = row.get("employeeId");
+            Object total = row.get("total");
+            if (employeeId != null && total != null) {
+                totals.put(((Number) employeeId).intValue(), (BigDecimal) total);
+            }
+        }
+        return totals;
+    }
+    
     /**
      * Calculates 13th month pay
      */
@@ -443,64 +596,10 @@ public class PayrollBenefit {
      * @return true if successful
      */
     public boolean saveBenefitPayrollCalculation(PayrollBenefitResult result) {
-        String sql = "INSERT INTO payroll_benefit " +
-                    "(employeeId, payPeriodId, sssEmployeeContribution, sssEmployerContribution, " +
-                    "philhealthEmployeeContribution, philhealthEmployerContribution, " +
-                    "pagibigEmployeeContribution, pagibigEmployerContribution, " +
-                    "riceSubsidy, phoneAllowance, clothingAllowance, transportationAllowance, mealAllowance, " +
-                    "performanceBonus, holidayBonus, thirteenthMonthPay, " +
-                    "healthInsurancePremium, lifeInsurancePremium, " +
-                    "healthInsuranceCompanyCoverage, lifeInsuranceCompanyCoverage, " +
-                    "overtimeAllowance, specialAllowance, " +
-                    "totalBenefitPayments, totalBenefitDeductions, netBenefitAdjustment, calculatedDate) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
-                    "ON DUPLICATE KEY UPDATE " +
-                    "sssEmployeeContribution = VALUES(sssEmployeeContribution), " +
-                    "sssEmployerContribution = VALUES(sssEmployerContribution), " +
-                    "philhealthEmployeeContribution = VALUES(philhealthEmployeeContribution), " +
-                    "philhealthEmployerContribution = VALUES(philhealthEmployerContribution), " +
-                    "pagibigEmployeeContribution = VALUES(pagibigEmployeeContribution), " +
-                    "pagibigEmployerContribution = VALUES(pagibigEmployerContribution), " +
-                    "riceSubsidy = VALUES(riceSubsidy), phoneAllowance = VALUES(phoneAllowance), " +
-                    "clothingAllowance = VALUES(clothingAllowance), transportationAllowance = VALUES(transportationAllowance), " +
-                    "mealAllowance = VALUES(mealAllowance), performanceBonus = VALUES(performanceBonus), " +
-                    "holidayBonus = VALUES(holidayBonus), thirteenthMonthPay = VALUES(thirteenthMonthPay), " +
-                    "healthInsurancePremium = VALUES(healthInsurancePremium), lifeInsurancePremium = VALUES(lifeInsurancePremium), " +
-                    "healthInsuranceCompanyCoverage = VALUES(healthInsuranceCompanyCoverage), " +
-                    "lifeInsuranceCompanyCoverage = VALUES(lifeInsuranceCompanyCoverage), " +
-                    "overtimeAllowance = VALUES(overtimeAllowance), specialAllowance = VALUES(specialAllowance), " +
-                    "totalBenefitPayments = VALUES(totalBenefitPayments), " +
-                    "totalBenefitDeductions = VALUES(totalBenefitDeductions), " +
-                    "netBenefitAdjustment = VALUES(netBenefitAdjustment), calculatedDate = CURRENT_TIMESTAMP";
-        
         try (Connection conn = databaseConnection.createConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(BENEFIT_UPSERT_SQL)) {
             
-            stmt.setInt(1, result.getEmployeeId());
-            stmt.setInt(2, result.getPayPeriodId());
-            stmt.setBigDecimal(3, result.getSssEmployeeContribution());
-            stmt.setBigDecimal(4, result.getSssEmployerContribution());
-            stmt.setBigDecimal(5, result.getPhilhealthEmployeeContribution());
-            stmt.setBigDecimal(6, result.getPhilhealthEmployerContribution());
-            stmt.setBigDecimal(7, result.getPagibigEmployeeContribution());
-            stmt.setBigDecimal(8, result.getPagibigEmployerContribution());
-            stmt.setBigDecimal(9, result.getRiceSubsidy());
-            stmt.setBigDecimal(10, result.getPhoneAllowance());
-            stmt.setBigDecimal(11, result.getClothingAllowance());
-            stmt.setBigDecimal(12, result.getTransportationAllowance());
-            stmt.setBigDecimal(13, result.getMealAllowance());
-            stmt.setBigDecimal(14, result.getPerformanceBonus());
-            stmt.setBigDecimal(15, result.getHolidayBonus());
-            stmt.setBigDecimal(16, result.getThirteenthMonthPay());
-            stmt.setBigDecimal(17, result.getHealthInsurancePremium());
-            stmt.setBigDecimal(18, result.getLifeInsurancePremium());
-            stmt.setBigDecimal(19, result.getHealthInsuranceCompanyCoverage());
-            stmt.setBigDecimal(20, result.getLifeInsuranceCompanyCoverage());
-            stmt.setBigDecimal(21, result.getOvertimeAllowance());
-            stmt.setBigDecimal(22, result.getSpecialAllowance());
-            stmt.setBigDecimal(23, result.getTotalBenefitPayments());
-            stmt.setBigDecimal(24, result.getTotalBenefitDeductions());
-            stmt.setBigDecimal(25, result.getNetBenefitAdjustment());
+            setBenefitParameters(stmt, result);
             
             int rowsAffected = stmt.executeUpdate();
             
@@ -518,6 +617,124 @@ public class PayrollBenefit {
         return false;
     }
     
+    /**
+     * Saves many benefit payroll calculations, committing one JDBC batch at a time
+     * A failed batch is rolled back and reported; later batches are still attempted.
+     * @param results PayrollBenefitResults to save
+     * @param batchSize Rows per batch
+     * @return Number of results saved
+     */
+    public int saveBenefitPayrollCalculation(List<PayrollBenefitResult> results, int batchSize) {
+        if (results == null || results.isEmpty()) {
+            return 0;
+        }
+        
+        int saved = 0;
+        try (Connection conn = databaseConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement(BENEFIT_UPSERT_SQL)) {
+            
+            conn.setAutoCommit(false);
+            for (int start = 0; start < results.size(); start += batchSize) {
+                List<PayrollBenefitResult> chunk = results.subList(start, Math.min(start + batchSize, results.size()));
+                try {
+                    for (PayrollBenefitResult result : chunk) {
+                        setBenefitParameters(stmt, result);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    conn.commit();
+                    saved += chunk.size();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    stmt.clearBatch();
+                    System.err.println("Error saving benefit payroll batch starting at row " + start + ": " + e.getMessage());
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error saving benefit payroll calculations: " + e.getMessage());
+        }
+        
+        return saved;
+    }
+    
+    /**
+     * Binds a result to BENEFIT_UPSERT_SQL
+     */
+    private void setBenefitParameters(PreparedStatement stmt, PayrollBenefitResult result) throws SQLException {
+        stmt.setInt(1, result.getEmployeeId());
+        stmt.setInt(2, result.getPayPeriodId());
+        stmt.setBigDecimal(3, result.getSssEmployeeContribution());
+        stmt.setBigDecimal(4, result.getSssEmployerContribution());
+        stmt.setBigDecimal(5, result.getPhilhealthEmployeeContribution());
+        stmt.setBigDecimal(6, result.getPhilhealthEmployerContribution());
+        stmt.setBigDecimal(7, result.getPagibigEmployeeContribution());
+        stmt.setBigDecimal(8, result.getPagibigEmployerContribution());
+        stmt.setBigDecimal(9, result.getRiceSubsidy());
+        stmt.setBigDecimal(10, result.getPhoneAllowance());
+        stmt.setBigDecimal(11, result.getClothingAllowance());
+        stmt.setBigDecimal(12, result.getTransportationAllowance());
+        stmt.setBigDecimal(13, result.getMealAllowance());
+        stmt.setBigDecimal(14, result.getPerformanceBonus());
+        stmt.setBigDecimal(15, result.getHolidayBonus());
+        stmt.setBigDecimal(16, result.getThirteenthMonthPay());
+        stmt.setBigDecimal(17, result.getHealthInsurancePremium());
+        stmt.setBigDecimal(18, result.getLifeInsurancePremium());
+        stmt.setBigDecimal(19, result.getHealthInsuranceCompanyCoverage());
+        stmt.setBigDecimal(20, result.getLifeInsuranceCompanyCoverage());
+        stmt.setBigDecimal(21, result.getOvertimeAllowance());
+        stmt.setBigDecimal(22, result.getSpecialAllowance());
+        stmt.setBigDecimal(23, result.getTotalBenefitPayments());
+        stmt.setBigDecimal(24, result.getTotalBenefitDeductions());
+        stmt.setBigDecimal(25, result.getNetBenefitAdjustment());
+    }
+    
+    /**
+     * Benefit data for one employee, loaded either per employee or from the period-wide preload
+     */
+    private static class BenefitInputs {
+        private List<Map<String, Object>> benefits = Collections.emptyList();
+        private List<Map<String, Object>> insurance = Collections.emptyList();
+        private BigDecimal performanceBonus = BigDecimal.ZERO;
+        private BigDecimal overtimeAllowance = BigDecimal.ZERO;
+        private BigDecimal specialAllowance = BigDecimal.ZERO;
+    }
+    
+    /**
+     * Results of a period-wide benefit calculation
+     */
+    public static class BenefitBatchResult {
+        private final Integer payPeriodId;
+        private final List<PayrollBenefitResult> results = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private int savedCount = 0;
+        private long elapsedMillis = 0;
+        
+        public BenefitBatchResult(Integer payPeriodId) {
+            this.payPeriodId = payPeriodId;
+        }
+        
+        public void addError(String error) { errors.add(error); }
+        
+        /**
+         * @return true if every employee's result was computed and saved
+         */
+        public boolean isSuccess() {
+            return errors.isEmpty();
+        }
+        
+        // Getters and setters
+        public Integer getPayPeriodId() { return payPeriodId; }
+        public List<PayrollBenefitResult> getResults() { return results; }
+        public List<String> getErrors() { return errors; }
+        
+        public int getSavedCount() { return savedCount; }
+        public void setSavedCount(int savedCount) { this.savedCount = savedCount; }
+        
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+    }
+    
     /**
      * Inner class to hold benefit payroll calculation results
      */
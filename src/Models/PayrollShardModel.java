@@ -0,0 +1,170 @@
+package Models;
+
+import java.time.LocalDateTime;
+
+/**
+ * PayrollShardModel class that maps to the payrollshard table
+ * A shard is one slice of a pay period's payroll run (an employee ID range or a department)
+ * that a worker process leases, computes and marks completed
+ * @author User
+ */
+public class PayrollShardModel {
+
+    private Integer shardId;
+    private Integer payPeriodId;
+    private Integer shardNo;
+    private ShardType shardType;
+    private Integer rangeStart;
+    private Integer rangeEnd;
+    private String department;
+    private Integer employeeCount = 0;
+    private ShardStatus status = ShardStatus.PENDING;
+    private String leaseOwner;
+    private LocalDateTime leaseExpiresAt;
+    private Integer attempts = 0;
+    private Integer processedEmployees = 0;
+    private Integer failedEmployees = 0;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public PayrollShardModel() {}
+
+    public PayrollShardModel(Integer payPeriodId, Integer shardNo, Integer rangeStart, Integer rangeEnd, Integer employeeCount) {
+        this.payPeriodId = payPeriodId;
+        this.shardNo = shardNo;
+        this.shardType = ShardType.EMPLOYEE_RANGE;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.employeeCount = employeeCount;
+    }
+
+    public PayrollShardModel(Integer payPeriodId, Integer shardNo, String department, Integer employeeCount) {
+        this.payPeriodId = payPeriodId;
+        this.shardNo = shardNo;
+        this.shardType = ShardType.DEPARTMENT;
+        this.department = department;
+        this.employeeCount = employeeCount;
+    }
+
+    // Getters and Setters
+    public Integer getShardId() { return shardId; }
+    public void setShardId(Integer shardId) { this.shardId = shardId; }
+
+    public Integer getPayPeriodId() { return payPeriodId; }
+    public void setPayPeriodId(Integer payPeriodId) { this.payPeriodId = payPeriodId; }
+
+    public Integer getShardNo() { return shardNo; }
+    public void setShardNo(Integer shardNo) { this.shardNo = shardNo; }
+
+    public ShardType getShardType() { return shardType; }
+    public void setShardType(ShardType shardType) { this.shardType = shardType; }
+
+    public Integer getRangeStart() { return rangeStart; }
+    public void setRangeStart(Integer rangeStart) { this.rangeStart = rangeStart; }
+
+    public Integer getRangeEnd() { return rangeEnd; }
+    public void setRangeEnd(Integer rangeEnd) { this.rangeEnd = rangeEnd; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public Integer getEmployeeCount() { return employeeCount; }
+    public void setEmployeeCount(Integer employeeCount) { this.employeeCount = employeeCount; }
+
+    public ShardStatus getStatus() { return status; }
+    public void setStatus(ShardStatus status) { this.status = status; }
+
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+
+    public LocalDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public Integer getProcessedEmployees() { return processedEmployees; }
+    public void setProcessedEmployees(Integer processedEmployees) { this.processedEmployees = processedEmployees; }
+
+    public Integer getFailedEmployees() { return failedEmployees; }
+    public void setFailedEmployees(Integer failedEmployees) { this.failedEmployees = failedEmployees; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    /**
+     * @return Short description of the employees this shard covers
+     */
+    public String getScope() {
+        if (shardType == ShardType.DEPARTMENT) {
+            return "department " + department;
+        }
+        return "employees " + rangeStart + "-" + rangeEnd;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PayrollShardModel{shardId=%d, payPeriodId=%d, shardNo=%d, scope=%s, status=%s, leaseOwner=%s, attempts=%d}",
+                           shardId, payPeriodId, shardNo, getScope(), status, leaseOwner, attempts);
+    }
+
+
+    // SHARD ENUMS - Match the values stored in the payrollshard table
+
+
+    /**
+     * How a pay period is split into shards
+     */
+    public enum ShardType {
+        EMPLOYEE_RANGE("EmployeeRange"),
+        DEPARTMENT("Department");
+
+        private final String value;
+
+        ShardType(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public static ShardType fromString(String value) {
+            for (ShardType type : ShardType.values()) {
+                if (type.value.equalsIgnoreCase(value)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Invalid shard type: " + value);
+        }
+    }
+
+    /**
+     * Lifecycle of a shard: Pending -> Leased -> Completed, or Failed after too many attempts
+     */
+    public enum ShardStatus {
+        PENDING("Pending"),
+        LEASED("Leased"),
+        COMPLETED("Completed"),
+        FAILED("Failed");
+
+        private final String value;
+
+        ShardStatus(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public static ShardStatus fromString(String value) {
+            for (ShardStatus status : ShardStatus.values()) {
+                if (status.value.equalsIgnoreCase(value)) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Invalid shard status: " + value);
+        }
+    }
+}
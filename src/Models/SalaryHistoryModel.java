@@ -0,0 +1,64 @@
+package Models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * SalaryHistoryModel class that maps to the salaryhistory table
+ * Fields: salaryHistoryId, employeeId, basicSalary, hourlyRate, effectiveDate, createdAt
+ * Each row is the salary an employee earns from its effective date until the next row's
+ * @author User
+ */
+public class SalaryHistoryModel {
+
+    private Integer salaryHistoryId;
+    private Integer employeeId;
+    private BigDecimal basicSalary;
+    private BigDecimal hourlyRate;
+    private LocalDate effectiveDate;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public SalaryHistoryModel() {}
+
+    public SalaryHistoryModel(Integer employeeId, BigDecimal basicSalary, BigDecimal hourlyRate, LocalDate effectiveDate) {
+        this.employeeId = employeeId;
+        this.basicSalary = basicSalary;
+        this.hourlyRate = hourlyRate;
+        this.effectiveDate = effectiveDate;
+    }
+
+    // Getters and Setters
+    public Integer getSalaryHistoryId() { return salaryHistoryId; }
+    public void setSalaryHistoryId(Integer salaryHistoryId) { this.salaryHistoryId = salaryHistoryId; }
+
+    public Integer getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Integer employeeId) { this.employeeId = employeeId; }
+
+    public BigDecimal getBasicSalary() { return basicSalary; }
+    public void setBasicSalary(BigDecimal basicSalary) { this.basicSalary = basicSalary; }
+
+    public BigDecimal getHourlyRate() { return hourlyRate; }
+    public void setHourlyRate(BigDecimal hourlyRate) { this.hourlyRate = hourlyRate; }
+
+    public LocalDate getEffectiveDate() { return effectiveDate; }
+    public void setEffectiveDate(LocalDate effectiveDate) { this.effectiveDate = effectiveDate; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    /**
+     * Checks if this salary was back-dated, i.e. takes effect before today
+     * @return true if the effective date is in the past
+     */
+    public boolean isRetroactive() {
+        return effectiveDate != null && effectiveDate.isBefore(LocalDate.now());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SalaryHistoryModel{salaryHistoryId=%d, employeeId=%d, basicSalary=%s, hourlyRate=%s, effectiveDate=%s}",
+                           salaryHistoryId, employeeId, basicSalary, hourlyRate, effectiveDate);
+    }
+}
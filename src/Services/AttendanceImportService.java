@@ -0,0 +1,378 @@
+package Services;
+import CSV.CSVDatabaseProcessor;
+import DAOs.*;
+import Models.AttendanceModel;
+import Models.EmployeeModel;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * AttendanceImportService - Streaming import of attendance log files
+ * Reads biometric/attendance exports in the "Attendance Record 2024.csv" layout line by line,
+ * parses each line with CSVDatabaseProcessor.parseAttendanceLine, and writes them in chunks:
+ *   - lines are validated (known employee, valid date and times) and rejected lines are counted
+ *     by reason with a few samples kept for the report
+ *   - each chunk is checked against existing (employeeId, date) rows with one query, so a
+ *     re-imported file only fills times that are still missing
+ *   - each chunk is written with one batched upsert and its own commit
+ *   - late and undertime records are then computed for the dates written
+ * Only one chunk is held in memory at a time, so file size does not matter.
+ * @author User
+ */
+
+public class AttendanceImportService {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    private static final int MAX_REJECT_SAMPLES = 100;
+    private static final int PROGRESS_EVERY_CHUNKS = 50;
+
+    private static final String[] EXPECTED_HEADER = {"Employee ID", "Last Name", "First Name", "Date", "Log In", "Log Out"};
+
+    private final AttendanceDAO attendanceDAO;
+    private final EmployeeDAO employeeDAO;
+    private final AttendanceService attendanceService;
+
+    /**
+     * Constructor - initializes required DAOs
+     */
+    public AttendanceImportService() {
+        this(new DatabaseConnection());
+    }
+
+    /**
+     * Constructor with custom database connection (for dependency injection)
+     */
+    public AttendanceImportService(DatabaseConnection databaseConnection) {
+        this.attendanceDAO = new AttendanceDAO(databaseConnection);
+        this.employeeDAO = new EmployeeDAO(databaseConnection);
+        this.attendanceService = new AttendanceService(databaseConnection);
+    }
+
+    // ================================
+    // IMPORT
+    // ================================
+
+    /**
+     * Imports an attendance log file with the default chunk size
+     * @param file Path of the CSV file
+     * @return ImportReport with counts, rejected lines and throughput
+     */
+    public ImportReport importFile(Path file) {
+        return importFile(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Imports an attendance log file
+     * @param file Path of the CSV file
+     * @param chunkSize Lines written per transaction
+     * @return ImportReport with counts, rejected lines and throughput
+     */
+    public ImportReport importFile(Path file, int chunkSize) {
+        ImportReport report = new ImportReport(file.toString());
+        long startTime = System.currentTimeMillis();
+
+        Set<Integer> employeeIds = new HashSet<>();
+        for (EmployeeModel employee : employeeDAO.getAllEmployees()) {
+            employeeIds.add(employee.getEmployeeId());
+        }
+        if (employeeIds.isEmpty()) {
+            report.setError("No employees found; nothing can be imported");
+            return report;
+        }
+
+        CSVDatabaseProcessor parser = new CSVDatabaseProcessor();
+        LocalDate today = LocalDate.now();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (!isExpectedHeader(header)) {
+                report.setError("Unexpected header, expected: " + String.join(",", EXPECTED_HEADER));
+                return report;
+            }
+
+            Map<String, AttendanceModel> chunk = new LinkedHashMap<>();
+            String line;
+            int lineNumber = 1;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                report.incrementLinesRead();
+
+                AttendanceModel row = parseLine(parser, line, lineNumber, employeeIds, today, report);
+                if (row == null) {
+                    continue;
+                }
+
+                // Same employee and date twice in a chunk: keep the first
+                String key = AttendanceDAO.importKey(row.getEmployeeId(), row.getDate());
+                if (chunk.putIfAbsent(key, row) != null) {
+                    report.reject(lineNumber, "duplicate line", line);
+                    continue;
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            writeChunk(chunk, report);
+
+        } catch (IOException e) {
+            report.setError("Error reading " + file + ": " + e.getMessage());
+            System.err.println("❌ " + report.getError());
+        }
+
+        // Imported punches never went through recordTimeIn/recordTimeOut
+        if (report.getFirstDateWritten() != null) {
+            report.setTardiness(attendanceService.computeTardiness(report.getFirstDateWritten(), report.getLastDateWritten()));
+        }
+
+        report.setElapsedMillis(System.currentTimeMillis() - startTime);
+        System.out.println("✅ Attendance import finished: " + report);
+        return report;
+    }
+
+    /**
+     * Parses and validates one line
+     * @return The line as an attendance row, or null if it was rejected
+     */
+    private AttendanceModel parseLine(CSVDatabaseProcessor parser, String line, int lineNumber,
+                                 Set<Integer> employeeIds, LocalDate today, ImportReport report) {
+        Map<String, Object> values = parser.parseAttendanceLine(line);
+
+        Integer employeeId;
+        try {
+            employeeId = Integer.valueOf(String.valueOf(values.get("Employee ID")).trim());
+        } catch (NumberFormatException e) {
+            report.reject(lineNumber, "invalid employee ID", line);
+            return null;
+        }
+        if (!employeeIds.contains(employeeId)) {
+            report.reject(lineNumber, "unknown employee", line);
+            return null;
+        }
+
+        LocalDate date = (LocalDate) values.get("Date");
+        if (date == null) {
+            report.reject(lineNumber, "invalid date", line);
+            return null;
+        }
+        if (date.isAfter(today)) {
+            report.reject(lineNumber, "future date", line);
+            return null;
+        }
+
+        LocalTime timeIn = (LocalTime) values.get("Log In");
+        LocalTime timeOut = (LocalTime) values.get("Log Out");
+        if (timeIn == null && timeOut == null) {
+            report.reject(lineNumber, "no valid log in or log out", line);
+            return null;
+        }
+        if (timeIn != null && timeOut != null && timeOut.isBefore(timeIn)) {
+            report.reject(lineNumber, "log out before log in", line);
+            return null;
+        }
+
+        AttendanceModel row = new AttendanceModel();
+        row.setEmployeeId(employeeId);
+        row.setDate(date);
+        row.setTimeIn(timeIn);
+        row.setTimeOut(timeOut);
+        return row;
+    }
+
+    /**
+     * Dedupes a chunk against existing rows and writes what is left in one transaction
+     */
+    private void writeChunk(Map<String, AttendanceModel> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> chunkEmployees = new HashSet<>();
+        LocalDate minDate = null;
+        LocalDate maxDate = null;
+        for (AttendanceModel row : chunk.values()) {
+            chunkEmployees.add(row.getEmployeeId());
+            minDate = minDate == null || row.getDate().isBefore(minDate) ? row.getDate() : minDate;
+            maxDate = maxDate == null || row.getDate().isAfter(maxDate) ? row.getDate() : maxDate;
+        }
+
+        Map<String, AttendanceModel> existing = attendanceDAO.findByEmployeesAndDateRange(chunkEmployees, minDate, maxDate);
+        if (existing == null) {
+            report.addFailed(chunk.size());
+            return;
+        }
+
+        List<AttendanceModel> toWrite = new ArrayList<>();
+        int inserts = 0;
+        int fills = 0;
+        for (Map.Entry<String, AttendanceModel> entry : chunk.entrySet()) {
+            AttendanceModel row = entry.getValue();
+            AttendanceModel current = existing.get(entry.getKey());
+            if (current == null) {
+                toWrite.add(row);
+                inserts++;
+            } else if ((current.getTimeIn() == null && row.getTimeIn() != null)
+                    || (current.getTimeOut() == null && row.getTimeOut() != null)) {
+                // Keep recorded punches; an archived day is written back whole, since the
+                // new attendance row replaces the archived one
+                if (current.getTimeIn() != null) {
+                    row.setTimeIn(current.getTimeIn());
+                }
+                if (current.getTimeOut() != null) {
+                    row.setTimeOut(current.getTimeOut());
+                }
+                toWrite.add(row);
+                fills++;
+            } else {
+                report.addAlreadyRecorded(1);
+            }
+        }
+
+        if (attendanceDAO.upsertAttendanceBatch(toWrite) < 0) {
+            report.addFailed(toWrite.size());
+            return;
+        }
+        report.addInserted(inserts);
+        report.addFilled(fills);
+        for (AttendanceModel row : toWrite) {
+            report.addDateWritten(row.getDate());
+        }
+
+        if (report.incrementChunks() % PROGRESS_EVERY_CHUNKS == 0) {
+            System.out.println("📥 Attendance import: " + report.getLinesRead() + " lines read, " +
+                               (report.getInserted() + report.getFilled()) + " written");
+        }
+    }
+
+    private boolean isExpectedHeader(String header) {
+        if (header == null) {
+            return false;
+        }
+        String[] columns = header.replace("\uFEFF", "").split(",");
+        if (columns.length < EXPECTED_HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < EXPECTED_HEADER.length; i++) {
+            if (!EXPECTED_HEADER[i].equalsIgnoreCase(columns[i].trim())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Command line entry point: AttendanceImportService <file> [chunkSize]
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: <attendance csv file> [chunkSize]");
+            return;
+        }
+        int chunkSize = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CHUNK_SIZE;
+        ImportReport report = new AttendanceImportService().importFile(Paths.get(args[0]), chunkSize);
+        for (Map.Entry<String, Integer> entry : report.getRejectedByReason().entrySet()) {
+            System.out.println("  " + entry.getKey() + ": " + entry.getValue());
+        }
+        for (String sample : report.getRejectSamples()) {
+            System.out.println("  " + sample);
+        }
+    }
+
+    // ===============================
+    // INNER CLASSES
+    // ===============================
+
+    /**
+     * Outcome of one import
+     */
+    public static class ImportReport {
+        private final String source;
+        private long linesRead = 0;
+        private long inserted = 0;
+        private long filled = 0;
+        private long alreadyRecorded = 0;
+        private long rejected = 0;
+        private long failed = 0;
+        private int chunks = 0;
+        private long elapsedMillis = 0;
+        private LocalDate firstDateWritten;
+        private LocalDate lastDateWritten;
+        private AttendanceService.TardinessComputationResult tardiness;
+        private String error;
+        private final Map<String, Integer> rejectedByReason = new TreeMap<>();
+        private final List<String> rejectSamples = new ArrayList<>();
+
+        public ImportReport(String source) {
+            this.source = source;
+        }
+
+        public void reject(int lineNumber, String reason, String line) {
+            rejected++;
+            rejectedByReason.merge(reason, 1, Integer::sum);
+            if (rejectSamples.size() < MAX_REJECT_SAMPLES) {
+                rejectSamples.add("line " + lineNumber + " (" + reason + "): " + line);
+            }
+        }
+
+        public boolean isSuccess() {
+            return error == null && failed == 0;
+        }
+
+        public double getLinesPerSecond() {
+            return elapsedMillis > 0 ? linesRead * 1000.0 / elapsedMillis : 0.0;
+        }
+
+        void incrementLinesRead() { linesRead++; }
+        int incrementChunks() { return ++chunks; }
+        void addInserted(long count) { inserted += count; }
+        void addFilled(long count) { filled += count; }
+        void addAlreadyRecorded(long count) { alreadyRecorded += count; }
+        void addFailed(long count) { failed += count; }
+
+        void addDateWritten(LocalDate date) {
+            firstDateWritten = firstDateWritten == null || date.isBefore(firstDateWritten) ? date : firstDateWritten;
+            lastDateWritten = lastDateWritten == null || date.isAfter(lastDateWritten) ? date : lastDateWritten;
+        }
+
+        // Getters and setters
+        public String getSource() { return source; }
+        public long getLinesRead() { return linesRead; }
+        public long getInserted() { return inserted; }
+        public long getFilled() { return filled; }
+        public long getAlreadyRecorded() { return alreadyRecorded; }
+        public long getRejected() { return rejected; }
+        public long getFailed() { return failed; }
+        public int getChunks() { return chunks; }
+        public Map<String, Integer> getRejectedByReason() { return rejectedByReason; }
+        public List<String> getRejectSamples() { return rejectSamples; }
+        public LocalDate getFirstDateWritten() { return firstDateWritten; }
+        public LocalDate getLastDateWritten() { return lastDateWritten; }
+
+        public AttendanceService.TardinessComputationResult getTardiness() { return tardiness; }
+        public void setTardiness(AttendanceService.TardinessComputationResult tardiness) { this.tardiness = tardiness; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+
+        @Override
+        public String toString() {
+            return String.format("ImportReport{source=%s, lines=%d, inserted=%d, filled=%d, alreadyRecorded=%d, rejected=%d, failed=%d, chunks=%d, %.0f lines/s}",
+                    source, linesRead, inserted, filled, alreadyRecorded, rejected, failed, chunks, getLinesPerSecond());
+        }
+    }
+}
@@ -27,11 +27,12 @@ public class AttendanceService {
     private final EmployeeDAO employeeDAO;
     private final TardinessRecordDAO tardinessDAO;
     
-    // Business Rules Configuration
-    private static final LocalTime STANDARD_START_TIME = LocalTime.of(8, 0); // 8:00 AM
-    private static final LocalTime STANDARD_END_TIME = LocalTime.of(17, 0);  // 5:00 PM
-    private static final int STANDARD_WORK_HOURS = 8;
-    private static final int GRACE_PERIOD_MINUTES = 15; // 15-minute grace period for late
+    // Business Rules Configuration (package-visible so batch paths apply the same rules)
+    static final LocalTime STANDARD_START_TIME = AttendanceRollupDAO.STANDARD_START_TIME; // 8:00 AM
+    static final LocalTime STANDARD_END_TIME = AttendanceRollupDAO.STANDARD_END_TIME;     // 5:00 PM
+    static final int STANDARD_WORK_HOURS = 8;
+    static final int GRACE_PERIOD_MINUTES = AttendanceRollupDAO.GRACE_PERIOD_MINUTES; // 15-minute grace period for late
+    static final int TARDINESS_PARTITION_DAYS = 7; // Days per transaction in computeTardiness
     
     /**
      * Constructor - initializes required DAOs
@@ -64,8 +65,20 @@ public class AttendanceService {
      * @return AttendanceResult with success status and details
      */
     public AttendanceResult recordTimeIn(Integer employeeId, LocalTime timeIn) {
+        return recordTimeIn(employeeId, LocalDate.now(), timeIn);
+    }
+    
+    /**
+     * Records time in for an employee on a given date
+     * Used by ClockInPipeline to retry a punch on the date it was submitted, even if its
+     * batch is written after midnight
+     * @param employeeId Employee ID
+     * @param today The attendance date of the punch
+     * @param timeIn Time in (null for current time)
+     * @return AttendanceResult with success status and details
+     */
+    public AttendanceResult recordTimeIn(Integer employeeId, LocalDate today, LocalTime timeIn) {
         AttendanceResult result = new AttendanceResult();
-        LocalDate today = LocalDate.now();
         LocalTime actualTimeIn = timeIn != null ? timeIn : LocalTime.now();
         
         try {
@@ -78,7 +91,7 @@ public class AttendanceService {
             }
             
             // Check if already timed in today
-            if (attendanceDAO.hasMarkedTimeInToday(employeeId)) {
+            if (attendanceDAO.hasMarkedTimeIn(employeeId, today)) {
                 result.setSuccess(false);
                 result.setMessage("Employee " + employee.getFullName() + " has already timed in today");
                 return result;
@@ -104,6 +117,10 @@ public class AttendanceService {
                 }
                 
                 System.out.println("✅ Time in recorded: " + employee.getFullName() + " at " + actualTimeIn);
+            } else if (attendanceDAO.hasMarkedTimeIn(employeeId, today)) {
+                // Another terminal's punch got in first
+                result.setSuccess(false);
+                result.setMessage("Employee " + employee.getFullName() + " has already timed in today");
             } else {
                 result.setSuccess(false);
                 result.setMessage("Failed to record time in for " + employee.getFullName());
@@ -118,6 +135,18 @@ public class AttendanceService {
         return result;
     }
     
+    /**
+     * Records time in through the shared group-commit pipeline
+     * Meant for clock-in terminals during shift-start bursts: punches from many callers are
+     * committed together in small batches, and each caller still gets its own result.
+     * @param employeeId Employee ID
+     * @param timeIn Time in (null for current time)
+     * @return AttendanceResult with success status and details, as from recordTimeIn
+     */
+    public AttendanceResult recordTimeInGrouped(Integer employeeId, LocalTime timeIn) {
+        return ClockInPipeline.getInstance().recordTimeIn(employeeId, timeIn);
+    }
+    
     /**
      * Records time out for an employee
      * @param employeeId Employee ID
@@ -240,6 +269,44 @@ public class AttendanceService {
         return summary;
     }
     
+    /**
+     * Gets the monthly attendance summary of every active employee
+     * Same values as getMonthlyAttendanceSummary per employee, built from one grouped query
+     * instead of several queries per employee.
+     * @param yearMonth The year and month
+     * @return Summaries ordered by employee ID (empty if the query failed)
+     */
+    public List<AttendanceSummary> getMonthlyAttendanceSummaries(YearMonth yearMonth) {
+        List<AttendanceSummary> summaries = new ArrayList<>();
+        
+        List<AttendanceDAO.MonthlyAttendanceRow> rows = attendanceDAO.getMonthlyAttendanceForActiveEmployees(yearMonth);
+        if (rows == null) {
+            return summaries;
+        }
+        
+        int workingDays = getWorkingDaysInMonth(yearMonth);
+        for (AttendanceDAO.MonthlyAttendanceRow row : rows) {
+            AttendanceDAO.AttendanceStatistics stats = row.getStatistics();
+            
+            AttendanceSummary summary = new AttendanceSummary();
+            summary.setEmployeeId(row.getEmployeeId());
+            summary.setEmployeeName(row.getEmployeeName());
+            summary.setYearMonth(yearMonth);
+            summary.setTotalDays(stats.getTotalDays());
+            summary.setCompleteDays(stats.getCompleteDays());
+            summary.setIncompleteDays(stats.getIncompleteDays());
+            summary.setTotalHours(stats.getTotalHours());
+            summary.setAttendanceRate(calculateAttendanceRate(stats.getCompleteDays(), workingDays));
+            summary.setAverageHoursPerDay(calculateAverageHoursPerDay(stats.getTotalHours(), stats.getCompleteDays()));
+            summary.setLateInstances(row.getLateInstances());
+            summary.setUndertimeInstances(row.getUndertimeInstances());
+            summary.setTotalLateHours(row.getTotalLateHours());
+            summaries.add(summary);
+        }
+        
+        return summaries;
+    }
+    
     /**
      * Gets daily attendance report for a specific date
      * @param date The date to get attendance for
@@ -357,8 +424,42 @@ public class AttendanceService {
         }
     }
     
+    /**
+     * Computes late and undertime records from attendance for a date range
+     * For attendance that was imported or corrected after the punch: the range is split into
+     * partitions of TARDINESS_PARTITION_DAYS days, each brought in line with attendance by one
+     * set-based transaction (TardinessRecordDAO.syncComputedTardiness), and partitions run in
+     * parallel. Uses the same schedule and grace period as recordTimeIn and recordTimeOut, and
+     * can be rerun over the same range safely.
+     * @param startDate First attendance date (inclusive)
+     * @param endDate Last attendance date (inclusive)
+     * @return TardinessComputationResult with the changes made and any failed partitions
+     */
+    public TardinessComputationResult computeTardiness(LocalDate startDate, LocalDate endDate) {
+        TardinessComputationResult result = new TardinessComputationResult(startDate, endDate);
+        long startTime = System.currentTimeMillis();
+        
+        List<LocalDate[]> partitions = new ArrayList<>();
+        for (LocalDate from = startDate; !from.isAfter(endDate); from = from.plusDays(TARDINESS_PARTITION_DAYS)) {
+            LocalDate to = from.plusDays(TARDINESS_PARTITION_DAYS - 1);
+            partitions.add(new LocalDate[] {from, to.isAfter(endDate) ? endDate : to});
+        }
+        
+        partitions.parallelStream().forEach(partition -> {
+            TardinessRecordDAO.TardinessSyncResult changes = tardinessDAO.syncComputedTardiness(
+                partition[0], partition[1], STANDARD_START_TIME, STANDARD_END_TIME, GRACE_PERIOD_MINUTES);
+            result.addPartition(partition[0], partition[1], changes);
+        });
+        
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        System.out.println((result.isSuccess() ? "✅ " : "⚠️ ") + result);
+        return result;
+    }
+    
     /**
      * Gets employees with perfect attendance for a month
+     * Complete days are counted in the year's AttendanceColumnStore instead of one statistics
+     * query per employee; only employees with a complete month have their tardiness looked up.
      * @param yearMonth Year and month
      * @return List of employee IDs with perfect attendance
      */
@@ -368,12 +469,15 @@ public class AttendanceService {
         try {
             List<EmployeeModel> activeEmployees = employeeDAO.getActiveEmployees();
             int workingDays = getWorkingDaysInMonth(yearMonth);
+            AttendanceColumnStore store = AttendanceColumnStore.forYear(attendanceDAO, yearMonth.getYear());
             
             for (EmployeeModel employee : activeEmployees) {
-                AttendanceDAO.AttendanceStatistics stats = attendanceDAO.getMonthlyAttendanceStatistics(employee.getEmployeeId(), yearMonth);
+                int completeDays = store != null
+                    ? store.count(employee.getEmployeeId(), yearMonth.atDay(1), yearMonth.atEndOfMonth(), AttendanceColumnStore.FLAG_COMPLETE)
+                    : attendanceDAO.getMonthlyAttendanceStatistics(employee.getEmployeeId(), yearMonth).getCompleteDays();
                 
                 // Perfect attendance: complete days equals working days and no tardiness
-                if (stats.getCompleteDays() == workingDays) {
+                if (completeDays == workingDays) {
                     List<TardinessRecordModel> tardinessRecords = getTardinessRecordsForMonth(employee.getEmployeeId(), yearMonth);
                     if (tardinessRecords.isEmpty()) {
                         perfectAttendance.add(employee.getEmployeeId());
@@ -395,21 +499,21 @@ public class AttendanceService {
     /**
      * Checks if a time in is considered late
      */
-    private boolean isLate(LocalTime timeIn) {
+    static boolean isLate(LocalTime timeIn) {
         return timeIn.isAfter(STANDARD_START_TIME);
     }
     
     /**
      * Checks if a time out is considered early leave
      */
-    private boolean isEarlyLeave(LocalTime timeOut) {
+    static boolean isEarlyLeave(LocalTime timeOut) {
         return timeOut.isBefore(STANDARD_END_TIME);
     }
     
     /**
      * Calculates minutes late from standard start time
      */
-    private long calculateLateMinutes(LocalTime timeIn) {
+    static long calculateLateMinutes(LocalTime timeIn) {
         if (!isLate(timeIn)) return 0;
         return Duration.between(STANDARD_START_TIME, timeIn).toMinutes();
     }
@@ -417,7 +521,7 @@ public class AttendanceService {
     /**
      * Calculates undertime minutes from standard end time
      */
-    private long calculateUndertimeMinutes(LocalTime timeOut) {
+    static long calculateUndertimeMinutes(LocalTime timeOut) {
         if (!isEarlyLeave(timeOut)) return 0;
         return Duration.between(timeOut, STANDARD_END_TIME).toMinutes();
     }
@@ -440,30 +544,17 @@ public class AttendanceService {
     }
     
     /**
-     * Gets working days in a month (excludes weekends)
+     * Gets working days in a month (excludes rest days and non-working holidays)
      */
     private int getWorkingDaysInMonth(YearMonth yearMonth) {
-        LocalDate start = yearMonth.atDay(1);
-        LocalDate end = yearMonth.atEndOfMonth();
-        int workingDays = 0;
-        
-        LocalDate current = start;
-        while (!current.isAfter(end)) {
-            if (current.getDayOfWeek().getValue() <= 5) { // Monday to Friday
-                workingDays++;
-            }
-            current = current.plusDays(1);
-        }
-        
-        return workingDays;
+        return WorkCalendar.getInstance().getWorkingDaysInMonth(yearMonth);
     }
     
     /**
-     * Gets tardiness records for a month (placeholder - needs TardinessRecordDAO implementation)
+     * Gets tardiness records for a month
      */
     private List<TardinessRecordModel> getTardinessRecordsForMonth(Integer employeeId, YearMonth yearMonth) {
-        // This would need implementation in TardinessRecordDAO
-        return new ArrayList<>();
+        return tardinessDAO.getTardinessRecordsForMonth(employeeId, yearMonth);
     }
     
     /**
@@ -512,6 +603,71 @@ public class AttendanceService {
         return attendanceDAO.findByEmployeeAndDate(employeeId, date);
     }
     
+    // ================================
+    // ROLLUP MAINTENANCE
+    // ================================
+    
+    /**
+     * Rebuilds the daily and monthly attendance rollups from the attendance table
+     * Use after attendance was changed outside the application
+     * @param yearMonth The month to rebuild (null for all months)
+     * @return true if the rollups were rebuilt
+     */
+    public boolean rebuildAttendanceRollups(YearMonth yearMonth) {
+        AttendanceRollupDAO rollupDAO = new AttendanceRollupDAO(databaseConnection);
+        return yearMonth != null ? rollupDAO.rebuild(yearMonth) : rollupDAO.rebuildAll();
+    }
+    
+    // ================================
+    // ARCHIVAL
+    // ================================
+    
+    /**
+     * Moves closed months of attendance before a month to the attendance archive
+     * History, statistics and reports keep reading archived months transparently.
+     * @param firstKept First month that stays in the attendance table
+     * @return Number of attendance records archived, or -1 on error
+     */
+    public int archiveAttendanceBefore(YearMonth firstKept) {
+        return new AttendanceArchiveDAO(databaseConnection).archiveMonthsBefore(firstKept);
+    }
+    
+    /**
+     * Gets the manifest of archived attendance months
+     */
+    public List<AttendanceArchiveDAO.ArchivedMonth> getArchivedAttendanceMonths() {
+        return new AttendanceArchiveDAO(databaseConnection).getManifest();
+    }
+    
+    /**
+     * Command line entry point: rebuild-rollups [yyyy-MM] | compute-tardiness <from> <to> | archive-attendance <yyyy-MM> | seed-holidays <yyyy>
+     */
+    public static void main(String[] args) {
+        if (args.length >= 1 && "rebuild-rollups".equalsIgnoreCase(args[0])) {
+            YearMonth yearMonth = args.length > 1 ? YearMonth.parse(args[1]) : null;
+            boolean rebuilt = new AttendanceService().rebuildAttendanceRollups(yearMonth);
+            System.out.println(rebuilt ? "Attendance rollups rebuilt" : "Attendance rollup rebuild failed");
+        } else if (args.length >= 3 && "compute-tardiness".equalsIgnoreCase(args[0])) {
+            new AttendanceService().computeTardiness(LocalDate.parse(args[1]), LocalDate.parse(args[2]));
+        } else if (args.length >= 2 && "seed-holidays".equalsIgnoreCase(args[0])) {
+            int added = new WorkCalendarDAO().seedPhilippineHolidays(Integer.parseInt(args[1]));
+            System.out.println(added >= 0 ? "Added " + added + " holidays for " + args[1] : "Holiday seeding failed");
+        } else if (args.length >= 2 && "archive-attendance".equalsIgnoreCase(args[0])) {
+            AttendanceService service = new AttendanceService();
+            int archived = service.archiveAttendanceBefore(YearMonth.parse(args[1]));
+            System.out.println(archived >= 0 ? "Archived " + archived + " attendance records" : "Attendance archival failed");
+            for (AttendanceArchiveDAO.ArchivedMonth month : service.getArchivedAttendanceMonths()) {
+                System.out.println("  " + month);
+            }
+        } else {
+            System.out.println("Usage:");
+            System.out.println("  rebuild-rollups [yyyy-MM]");
+            System.out.println("  compute-tardiness <yyyy-MM-dd> <yyyy-MM-dd>");
+            System.out.println("  archive-attendance <yyyy-MM>   (archives closed months before it)");
+            System.out.println("  seed-holidays <yyyy>");
+        }
+    }
+    
     // ================================
     // INNER CLASSES
     // ================================
@@ -644,4 +800,57 @@ public class AttendanceService {
         public long getUndertimeMinutes() { return undertimeMinutes; }
         public void setUndertimeMinutes(long undertimeMinutes) { this.undertimeMinutes = undertimeMinutes; }
     }
+    
+    /**
+     * Outcome of computeTardiness over a date range
+     */
+    public static class TardinessComputationResult {
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private int partitions = 0;
+        private int lateInserted = 0;
+        private int undertimeInserted = 0;
+        private int updated = 0;
+        private int deleted = 0;
+        private final List<String> failedPartitions = new ArrayList<>();
+        private long elapsedMillis = 0;
+        
+        public TardinessComputationResult(LocalDate startDate, LocalDate endDate) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+        
+        synchronized void addPartition(LocalDate from, LocalDate to, TardinessRecordDAO.TardinessSyncResult changes) {
+            partitions++;
+            if (changes == null) {
+                failedPartitions.add(from + " to " + to);
+                return;
+            }
+            lateInserted += changes.getLateInserted();
+            undertimeInserted += changes.getUndertimeInserted();
+            updated += changes.getUpdated();
+            deleted += changes.getDeleted();
+        }
+        
+        public boolean isSuccess() { return failedPartitions.isEmpty(); }
+        
+        // Getters and setters
+        public LocalDate getStartDate() { return startDate; }
+        public LocalDate getEndDate() { return endDate; }
+        public int getPartitions() { return partitions; }
+        public int getLateInserted() { return lateInserted; }
+        public int getUndertimeInserted() { return undertimeInserted; }
+        public int getUpdated() { return updated; }
+        public int getDeleted() { return deleted; }
+        public List<String> getFailedPartitions() { return failedPartitions; }
+        
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+        
+        @Override
+        public String toString() {
+            return String.format("Tardiness computed for %s to %s: %d partitions, %d late and %d undertime added, %d updated, %d removed, %d failed (%d ms)",
+                    startDate, endDate, partitions, lateInserted, undertimeInserted, updated, deleted, failedPartitions.size(), elapsedMillis);
+        }
+    }
 }
@@ -0,0 +1,353 @@
+package Services;
+import DAOs.*;
+import DAOs.AttendanceDAO.TimeInOutcome;
+import Models.TardinessRecordModel;
+import Services.AttendanceService.AttendanceResult;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ClockInPipeline - Group commit for time-in punches
+ * At shift start many employees clock in within a few minutes. Instead of each punch running
+ * its own lookups, insert and commit, punches are put on a bounded queue and a single writer
+ * commits them in small batches (AttendanceDAO.markTimeInBatch), so the database sees a flat
+ * number of transactions however many terminals are punching.
+ *   - each punch still gets its own AttendanceResult, with the same messages and late minutes
+ *     as AttendanceService.recordTimeIn
+ *   - a batch is closed at MAX_BATCH_SIZE punches or MAX_BATCH_WAIT_MILLIS after its first one,
+ *     so a lone punch is never held longer than that
+ *   - a full queue rejects the punch right away rather than letting waits grow without bound
+ *   - a failed batch is rolled back and its punches retried one by one through recordTimeIn
+ * @author User
+ */
+
+public class ClockInPipeline {
+
+    private static final int QUEUE_CAPACITY = 2000;
+    private static final int MAX_BATCH_SIZE = 50;
+    private static final long MAX_BATCH_WAIT_MILLIS = 20;
+    private static final long RESULT_TIMEOUT_SECONDS = 5;
+    private static final long IDLE_POLL_MILLIS = 200;
+
+    private static ClockInPipeline instance;
+
+    private final DatabaseConnection databaseConnection;
+    private final AttendanceDAO attendanceDAO;
+    private final BlockingQueue<PendingPunch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Counters for PipelineStats
+    private final AtomicLong punches = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+    /**
+     * Constructor with custom database connection (for dependency injection)
+     * Starts the writer thread; call shutdown() when done.
+     */
+    public ClockInPipeline(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+        this.attendanceDAO = new AttendanceDAO(databaseConnection);
+        this.writer = new Thread(this::runWriter, "clock-in-pipeline");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Shared pipeline used by AttendanceService.recordTimeInGrouped
+     */
+    public static synchronized ClockInPipeline getInstance() {
+        if (instance == null) {
+            instance = new ClockInPipeline(new DatabaseConnection());
+        }
+        return instance;
+    }
+
+    // ================================
+    // SUBMITTING PUNCHES
+    // ================================
+
+    /**
+     * Queues a time-in punch without waiting for it to be committed
+     * The date and time are taken when the punch is submitted, not when its batch is written.
+     * @param employeeId Employee ID
+     * @param timeIn Time in (null for current time)
+     * @return Future completed with the punch's own result once its batch is committed
+     */
+    public CompletableFuture<AttendanceResult> submit(Integer employeeId, LocalTime timeIn) {
+        PendingPunch punch = new PendingPunch(employeeId, LocalDate.now(), timeIn != null ? timeIn : LocalTime.now());
+
+        if (!running || !queue.offer(punch)) {
+            rejected.incrementAndGet();
+            punch.complete(failure("Clock-in is busy, please try again in a moment"));
+        }
+        return punch.result;
+    }
+
+    /**
+     * Records a time-in punch and waits for its result
+     * @param employeeId Employee ID
+     * @param timeIn Time in (null for current time)
+     * @return AttendanceResult with success status and details
+     */
+    public AttendanceResult recordTimeIn(Integer employeeId, LocalTime timeIn) {
+        try {
+            return submit(employeeId, timeIn).get(RESULT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            // The punch may still be committed, so the caller should look before punching again
+            return failure("Time in for employee " + employeeId + " is still being recorded, " +
+                           "please check attendance before trying again");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failure("Error recording time in: interrupted");
+        } catch (ExecutionException e) {
+            return failure("Error recording time in: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Stops accepting punches and waits for the queued ones to be written
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(RESULT_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (ClockInPipeline.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+
+    /**
+     * @return Counters since the pipeline started
+     */
+    public PipelineStats getStats() {
+        return new PipelineStats(punches.get(), batches.get(), fallbacks.get(), rejected.get(),
+                                 maxLatencyMillis.get(), queue.size());
+    }
+
+    // ================================
+    // WRITER
+    // ================================
+
+    private void runWriter() {
+        List<PendingPunch> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                // Wake up now and then so shutdown() is noticed without interrupting a write
+                PendingPunch first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Close the batch when it is full or its first punch has waited long enough
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_BATCH_WAIT_MILLIS);
+                while (batch.size() < MAX_BATCH_SIZE) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingPunch next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingPunch> batch) {
+        batches.incrementAndGet();
+
+        // Punches straddling midnight are written per date
+        Map<LocalDate, List<PendingPunch>> byDate = new TreeMap<>();
+        for (PendingPunch punch : batch) {
+            byDate.computeIfAbsent(punch.date, k -> new ArrayList<>()).add(punch);
+        }
+
+        for (Map.Entry<LocalDate, List<PendingPunch>> entry : byDate.entrySet()) {
+            try {
+                writeDate(entry.getKey(), entry.getValue());
+            } catch (RuntimeException e) {
+                System.err.println("❌ Error writing clock-in batch: " + e.getMessage());
+                for (PendingPunch punch : entry.getValue()) {
+                    punch.complete(failure("Error recording time in: " + e.getMessage()));
+                }
+            }
+        }
+    }
+
+    private void writeDate(LocalDate date, List<PendingPunch> punchesForDate) {
+        // 1. First punch per employee wins, later ones in the same batch are duplicates
+        Map<Integer, PendingPunch> firstPunch = new LinkedHashMap<>();
+        List<PendingPunch> duplicates = new ArrayList<>();
+        for (PendingPunch punch : punchesForDate) {
+            if (firstPunch.putIfAbsent(punch.employeeId, punch) != null) {
+                duplicates.add(punch);
+            }
+        }
+
+        Map<Integer, LocalTime> timeIns = new LinkedHashMap<>();
+        Map<Integer, BigDecimal> tardinessHours = new HashMap<>();
+        for (PendingPunch punch : firstPunch.values()) {
+            timeIns.put(punch.employeeId, punch.timeIn);
+            long lateMinutes = AttendanceService.calculateLateMinutes(punch.timeIn);
+            if (lateMinutes > AttendanceService.GRACE_PERIOD_MINUTES) {
+                tardinessHours.put(punch.employeeId, TardinessRecordModel.minutesToHours((int) lateMinutes));
+            }
+        }
+
+        // 2. One transaction for the whole date
+        Map<Integer, TimeInOutcome> outcomes = attendanceDAO.markTimeInBatch(date, timeIns, tardinessHours,
+                                                                             "Auto-generated late record");
+        if (outcomes == null) {
+            fallback(punchesForDate);
+            return;
+        }
+
+        // 3. Hand each caller its own result
+        for (PendingPunch punch : firstPunch.values()) {
+            punch.complete(toResult(punch, outcomes.get(punch.employeeId)));
+        }
+        for (PendingPunch punch : duplicates) {
+            TimeInOutcome outcome = outcomes.get(punch.employeeId);
+            punch.complete(outcome.getStatus() == TimeInOutcome.Status.EMPLOYEE_NOT_FOUND
+                ? failure("Employee not found: " + punch.employeeId)
+                : failure("Employee " + outcome.getEmployeeName() + " has already timed in today"));
+        }
+    }
+
+    /**
+     * Retries a rolled-back batch one punch at a time, so one bad punch cannot fail the others
+     * Each retry keeps the date the punch was submitted on
+     */
+    private void fallback(List<PendingPunch> punchesForDate) {
+        fallbacks.incrementAndGet();
+        AttendanceService attendanceService = new AttendanceService(databaseConnection);
+        for (PendingPunch punch : punchesForDate) {
+            try {
+                punch.complete(attendanceService.recordTimeIn(punch.employeeId, punch.date, punch.timeIn));
+            } catch (RuntimeException e) {
+                punch.complete(failure("Error recording time in: " + e.getMessage()));
+            }
+        }
+    }
+
+    // ================================
+    // HELPER METHODS
+    // ================================
+
+    private AttendanceResult toResult(PendingPunch punch, TimeInOutcome outcome) {
+        switch (outcome.getStatus()) {
+            case EMPLOYEE_NOT_FOUND:
+                return failure("Employee not found: " + punch.employeeId);
+            case ALREADY_TIMED_IN:
+                return failure("Employee " + outcome.getEmployeeName() + " has already timed in today");
+            default:
+                break;
+        }
+
+        AttendanceResult result = new AttendanceResult();
+        result.setSuccess(true);
+        result.setMessage("Time in recorded successfully for " + outcome.getEmployeeName() + " at " + punch.timeIn);
+        if (AttendanceService.isLate(punch.timeIn)) {
+            long lateMinutes = AttendanceService.calculateLateMinutes(punch.timeIn);
+            result.setLateMinutes(lateMinutes);
+            result.setMessage(result.getMessage() + " (Late by " + lateMinutes + " minutes)");
+        }
+        return result;
+    }
+
+    private AttendanceResult failure(String message) {
+        AttendanceResult result = new AttendanceResult();
+        result.setSuccess(false);
+        result.setMessage(message);
+        return result;
+    }
+
+    // ===============================
+    // INNER CLASSES
+    // ===============================
+
+    /**
+     * A punch waiting in the queue
+     */
+    private class PendingPunch {
+        private final Integer employeeId;
+        private final LocalDate date;
+        private final LocalTime timeIn;
+        private final long submittedAt = System.nanoTime();
+        private final CompletableFuture<AttendanceResult> result = new CompletableFuture<>();
+
+        PendingPunch(Integer employeeId, LocalDate date, LocalTime timeIn) {
+            this.employeeId = employeeId;
+            this.date = date;
+            this.timeIn = timeIn;
+        }
+
+        void complete(AttendanceResult attendanceResult) {
+            if (result.complete(attendanceResult)) {
+                punches.incrementAndGet();
+                maxLatencyMillis.accumulateAndGet(
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedAt), Math::max);
+            }
+        }
+    }
+
+    /**
+     * Pipeline counters
+     */
+    public static class PipelineStats {
+        private final long punches;
+        private final long batches;
+        private final long fallbacks;
+        private final long rejected;
+        private final long maxLatencyMillis;
+        private final int queued;
+
+        public PipelineStats(long punches, long batches, long fallbacks, long rejected,
+                             long maxLatencyMillis, int queued) {
+            this.punches = punches;
+            this.batches = batches;
+            this.fallbacks = fallbacks;
+            this.rejected = rejected;
+            this.maxLatencyMillis = maxLatencyMillis;
+            this.queued = queued;
+        }
+
+        public double getAverageBatchSize() {
+            return batches > 0 ? (double) (punches - rejected) / batches : 0.0;
+        }
+
+        // Getters
+        public long getPunches() { return punches; }
+        public long getBatches() { return batches; }
+        public long getFallbacks() { return fallbacks; }
+        public long getRejected() { return rejected; }
+        public long getMaxLatencyMillis() { return maxLatencyMillis; }
+        public int getQueued() { return queued; }
+
+        @Override
+        public String toString() {
+            return String.format("PipelineStats{punches=%d, batches=%d, avgBatch=%.1f, fallbacks=%d, rejected=%d, maxLatency=%dms, queued=%d}",
+                    punches, batches, getAverageBatchSize(), fallbacks, rejected, maxLatencyMillis, queued);
+        }
+    }
+}
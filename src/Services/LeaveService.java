@@ -9,6 +9,14 @@ import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * LeaveService - Business logic for leave management
@@ -28,6 +36,8 @@ public class LeaveService {
     private static final int DEFAULT_ANNUAL_LEAVE_DAYS = 15;
     private static final int DEFAULT_SICK_LEAVE_DAYS = 10;
     private static final int MAX_ADVANCE_DAYS = 60; // Can't request leave more than 60 days in advance
+    private static final int MAX_CARRY_OVER_DAYS = 5; // Unused annual/vacation days kept at year rollover
+    private static final int ROLLOVER_CHUNK_SIZE = 500; // Employees per transaction during year rollover
     
     /**
      * Constructor - initializes required DAOs
@@ -154,23 +164,30 @@ public class LeaveService {
                 return result;
             }
             
-            // Approve the request
-            boolean success = leaveDAO.approveLeaveRequest(leaveRequestId, supervisorNotes);
+            // Balance row must exist before the relative update
+            int year = leaveRequest.getLeaveStart().getYear();
+            if (getLeaveBalance(leaveRequest.getEmployeeId(), leaveRequest.getLeaveTypeId(), year) == null) {
+                initializeEmployeeLeaveBalances(leaveRequest.getEmployeeId(), year);
+            }
             
-            if (success) {
-                // Update leave balance
-                updateLeaveBalance(leaveRequest.getEmployeeId(), leaveRequest.getLeaveTypeId(), 
-                                 (int)leaveRequest.getLeaveDays(), leaveRequest.getLeaveStart().getYear());
-                
+            // Approve the request and use the days in one transaction; only a still-pending
+            // request is approved, and only then are its days added to the balance
+            Set<Integer> decided = leaveDAO.applyDecisions(Collections.singletonList(leaveRequest),
+                                                           ApprovalStatus.APPROVED, supervisorNotes);
+            
+            if (decided == null) {
+                result.setSuccess(false);
+                result.setMessage("Failed to approve leave request (missing or insufficient leave balance)");
+            } else if (!decided.contains(leaveRequestId)) {
+                result.setSuccess(false);
+                result.setMessage("Leave request has already been processed");
+            } else {
                 result.setSuccess(true);
                 result.setMessage("Leave request approved successfully");
                 
                 EmployeeModel employee = employeeDAO.findById(leaveRequest.getEmployeeId());
                 System.out.println("✅ Leave request approved: " + (employee != null ? employee.getFullName() : "Employee " + leaveRequest.getEmployeeId()) + 
                                  " by " + supervisor.getFullName());
-            } else {
-                result.setSuccess(false);
-                result.setMessage("Failed to approve leave request");
             }
             
         } catch (Exception e) {
@@ -240,6 +257,171 @@ public class LeaveService {
         return result;
     }
     
+    /**
+     * Approves several leave requests at once
+     * Requests are validated in one pass, then status changes and leave balance updates are
+     * written in a single transaction with batched statements.
+     * @param leaveRequestIds Leave request IDs to approve
+     * @param supervisorId ID of supervisor approving
+     * @param supervisorNotes Optional notes stored on every request
+     * @return Outcome per leave request ID, in the order given
+     */
+    public Map<Integer, LeaveApprovalResult> approveLeaveRequests(List<Integer> leaveRequestIds, Integer supervisorId, String supervisorNotes) {
+        return decideLeaveRequests(leaveRequestIds, supervisorId, supervisorNotes, ApprovalStatus.APPROVED);
+    }
+    
+    /**
+     * Rejects several leave requests at once in a single transaction
+     * @param leaveRequestIds Leave request IDs to reject
+     * @param supervisorId ID of supervisor rejecting
+     * @param supervisorNotes Required notes stored on every request
+     * @return Outcome per leave request ID, in the order given
+     */
+    public Map<Integer, LeaveApprovalResult> rejectLeaveRequests(List<Integer> leaveRequestIds, Integer supervisorId, String supervisorNotes) {
+        return decideLeaveRequests(leaveRequestIds, supervisorId, supervisorNotes, ApprovalStatus.REJECTED);
+    }
+    
+    /**
+     * Gets several leave requests with one query
+     * @param leaveRequestIds Leave request IDs
+     * @return Requests found, by ID (empty if the query failed)
+     */
+    public Map<Integer, LeaveRequestModel> getLeaveRequests(Collection<Integer> leaveRequestIds) {
+        Map<Integer, LeaveRequestModel> requests = leaveDAO.findByIds(new LinkedHashSet<>(leaveRequestIds));
+        return requests != null ? requests : new LinkedHashMap<>();
+    }
+    
+    private Map<Integer, LeaveApprovalResult> decideLeaveRequests(List<Integer> leaveRequestIds, Integer supervisorId,
+                                                                 String supervisorNotes, ApprovalStatus status) {
+        Map<Integer, LeaveApprovalResult> outcomes = new LinkedHashMap<>();
+        if (leaveRequestIds == null || leaveRequestIds.isEmpty()) {
+            return outcomes;
+        }
+        boolean approving = status == ApprovalStatus.APPROVED;
+        String action = approving ? "approve" : "reject";
+        
+        // Checks shared by every request
+        String commonError = null;
+        Map<Integer, LeaveRequestModel> requests = null;
+        EmployeeModel supervisor = employeeDAO.findById(supervisorId);
+        if (!approving && (supervisorNotes == null || supervisorNotes.trim().isEmpty())) {
+            commonError = "Supervisor notes are required when rejecting a leave request";
+        } else if (approving && supervisor == null) {
+            commonError = "Supervisor not found: " + supervisorId;
+        } else {
+            requests = leaveDAO.findByIds(new LinkedHashSet<>(leaveRequestIds));
+            if (requests == null) {
+                commonError = "Failed to load leave requests";
+            }
+        }
+        
+        // Validate every request in one pass
+        List<LeaveRequestModel> pending = new ArrayList<>();
+        for (Integer leaveRequestId : leaveRequestIds) {
+            if (outcomes.containsKey(leaveRequestId)) {
+                continue;
+            }
+            LeaveApprovalResult result = new LeaveApprovalResult();
+            outcomes.put(leaveRequestId, result);
+            
+            LeaveRequestModel leaveRequest = requests != null ? requests.get(leaveRequestId) : null;
+            if (commonError != null) {
+                result.setMessage(commonError);
+            } else if (leaveRequest == null) {
+                result.setMessage("Leave request not found: " + leaveRequestId);
+            } else if (leaveRequest.isProcessed()) {
+                result.setMessage("Leave request has already been " + leaveRequest.getApprovalStatus().getValue().toLowerCase());
+            } else {
+                result.setMessage("Failed to " + action + " leave request");
+                pending.add(leaveRequest);
+            }
+        }
+        if (pending.isEmpty()) {
+            return outcomes;
+        }
+        
+        // Balance rows must exist and cover the days before the batched relative updates;
+        // requests that fail here are left out so they don't roll back the rest of the batch
+        if (approving) {
+            try {
+                pending = withUsableBalances(pending, outcomes);
+            } catch (Exception e) {
+                System.err.println("❌ Error checking leave balances for bulk approval: " + e.getMessage());
+                for (LeaveRequestModel leaveRequest : pending) {
+                    outcomes.get(leaveRequest.getLeaveRequestId()).setMessage("Error checking leave balance: " + e.getMessage());
+                }
+                return outcomes;
+            }
+            if (pending.isEmpty()) {
+                return outcomes;
+            }
+        }
+        
+        Set<Integer> decided = leaveDAO.applyDecisions(pending, status, supervisorNotes);
+        if (decided == null) {
+            return outcomes;
+        }
+        for (LeaveRequestModel leaveRequest : pending) {
+            LeaveApprovalResult result = outcomes.get(leaveRequest.getLeaveRequestId());
+            if (decided.contains(leaveRequest.getLeaveRequestId())) {
+                result.setSuccess(true);
+                result.setMessage("Leave request " + (approving ? "approved" : "rejected") + " successfully");
+            } else {
+                result.setMessage("Leave request has already been processed");
+            }
+        }
+        
+        System.out.println((approving ? "✅" : "❌") + " Bulk leave " + (approving ? "approval" : "rejection") + ": " +
+                           decided.size() + " of " + outcomes.size() + " requests by " +
+                           (supervisor != null ? supervisor.getFullName() : "Supervisor " + supervisorId));
+        return outcomes;
+    }
+    
+    /**
+     * Keeps the requests whose leave balance exists and has enough remaining days
+     * Missing balance rows are initialized first. Requests from the same employee, leave type
+     * and year draw on one running total, in the order given. Every request that is dropped
+     * gets a message saying why.
+     */
+    private List<LeaveRequestModel> withUsableBalances(List<LeaveRequestModel> pending,
+                                                      Map<Integer, LeaveApprovalResult> outcomes) {
+        List<LeaveRequestModel> usable = new ArrayList<>();
+        Set<String> initialized = new HashSet<>();
+        Map<String, Integer> remaining = new HashMap<>();
+        
+        for (LeaveRequestModel leaveRequest : pending) {
+            LeaveApprovalResult result = outcomes.get(leaveRequest.getLeaveRequestId());
+            if (leaveRequest.getLeaveStart() == null) {
+                result.setMessage("Leave request has no start date");
+                continue;
+            }
+            int year = leaveRequest.getLeaveStart().getYear();
+            LeaveBalance balance = getLeaveBalance(leaveRequest.getEmployeeId(), leaveRequest.getLeaveTypeId(), year);
+            if (balance == null && initialized.add(leaveRequest.getEmployeeId() + ":" + year)) {
+                initializeEmployeeLeaveBalances(leaveRequest.getEmployeeId(), year);
+                balance = getLeaveBalance(leaveRequest.getEmployeeId(), leaveRequest.getLeaveTypeId(), year);
+            }
+            if (balance == null) {
+                result.setMessage("No leave balance for leave type " + leaveRequest.getLeaveTypeId() + " in " + year);
+                continue;
+            }
+            
+            String key = leaveRequest.getEmployeeId() + ":" + leaveRequest.getLeaveTypeId() + ":" + year;
+            Integer available = remaining.get(key);
+            if (available == null) {
+                available = balance.getRemainingLeaveDays() != null ? balance.getRemainingLeaveDays() : 0;
+            }
+            int days = (int) leaveRequest.getLeaveDays();
+            if (days > 0 && days > available) {
+                result.setMessage("Insufficient leave balance. Available: " + available + " days, Requested: " + days + " days");
+                continue;
+            }
+            remaining.put(key, available - days);
+            usable.add(leaveRequest);
+        }
+        return usable;
+    }
+    
     // ================================
     // LEAVE BALANCE MANAGEMENT
     // ================================
@@ -252,7 +434,7 @@ public class LeaveService {
      * @return LeaveBalance object or null if not found
      */
     public LeaveBalance getLeaveBalance(Integer employeeId, Integer leaveTypeId, Integer year) {
-        return leaveBalanceDAO.findByEmployeeLeaveTypeAndYear(employeeId, leaveTypeId, year);
+        return LeaveBalanceCache.getInstance().get(leaveBalanceDAO, employeeId, leaveTypeId, year);
     }
     
     /**
@@ -262,7 +444,7 @@ public class LeaveService {
      * @return List of leave balances
      */
     public List<LeaveBalance> getEmployeeLeaveBalances(Integer employeeId, Integer year) {
-        return leaveBalanceDAO.findByEmployeeAndYear(employeeId, year);
+        return LeaveBalanceCache.getInstance().getAll(leaveBalanceDAO, employeeId, year);
     }
     
     /**
@@ -308,38 +490,26 @@ public class LeaveService {
     }
     
     /**
-     * Updates leave balance when leave is taken
-     * @param employeeId Employee ID
-     * @param leaveTypeId Leave type ID
-     * @param daysUsed Number of days used
-     * @param year Year to update
-     * @return true if successful
+     * Creates leave balances for every active employee for a new year in one set-based pass.
+     * Each leave type gets its default entitlement; unused annual/vacation days from the previous
+     * year carry over up to MAX_CARRY_OVER_DAYS. Existing balances are left as they are, so the
+     * rollover can be rerun safely.
+     * @param year Year to create balances for
+     * @return Rollover counts, or null if it could not start
      */
-    private boolean updateLeaveBalance(Integer employeeId, Integer leaveTypeId, int daysUsed, int year) {
-        try {
-            LeaveBalance balance = leaveBalanceDAO.findByEmployeeLeaveTypeAndYear(employeeId, leaveTypeId, year);
-            
-            if (balance == null) {
-                // Initialize if doesn't exist
-                initializeEmployeeLeaveBalances(employeeId, year);
-                balance = leaveBalanceDAO.findByEmployeeLeaveTypeAndYear(employeeId, leaveTypeId, year);
-            }
-            
-            if (balance != null) {
-                int newUsedDays = (balance.getUsedLeaveDays() != null ? balance.getUsedLeaveDays() : 0) + daysUsed;
-                int totalAvailable = (balance.getTotalLeaveDays() != null ? balance.getTotalLeaveDays() : 0) + 
-                                   (balance.getCarryOverDays() != null ? balance.getCarryOverDays() : 0);
-                int newRemainingDays = totalAvailable - newUsedDays;
-                
-                return leaveBalanceDAO.updateUsedLeaveDays(balance.getLeaveBalanceId(), newUsedDays);
-            }
-            
-            return false;
-            
-        } catch (Exception e) {
-            System.err.println("Error updating leave balance: " + e.getMessage());
-            return false;
+    public LeaveBalanceDAO.RolloverResult rolloverLeaveBalances(int year) {
+        List<LeaveTypeModel> leaveTypes = leaveTypeDAO.findAll();
+        List<LeaveBalanceDAO.LeaveEntitlement> entitlements = new ArrayList<>();
+        for (LeaveTypeModel leaveType : leaveTypes) {
+            entitlements.add(new LeaveBalanceDAO.LeaveEntitlement(
+                leaveType.getLeaveTypeId(), getDefaultLeaveDays(leaveType), getCarryOverCap(leaveType)));
+        }
+        
+        LeaveBalanceDAO.RolloverResult result = leaveBalanceDAO.rolloverYearlyLeaveBalances(year, entitlements, ROLLOVER_CHUNK_SIZE);
+        if (result != null) {
+            System.out.println("📅 Leave rollover " + year + " finished: " + result);
         }
+        return result;
     }
     
     // ================================
@@ -393,15 +563,27 @@ public class LeaveService {
             }
         }
         
-        // Check for overlapping leave requests
-        List<LeaveRequestModel> existingRequests = leaveDAO.findByEmployeeId(employeeId);
-        for (LeaveRequestModel existing : existingRequests) {
-            if (existing.getApprovalStatus() == ApprovalStatus.APPROVED || existing.getApprovalStatus() == ApprovalStatus.PENDING) {
-                if (datesOverlap(startDate, endDate, existing.getLeaveStart(), existing.getLeaveEnd())) {
-                    result.setValid(false);
-                    result.setErrorMessage("Leave request overlaps with existing request from " + 
-                                         existing.getLeaveStart() + " to " + existing.getLeaveEnd());
-                    return result;
+        // Check for overlapping leave requests (interval index first, database if it isn't loaded)
+        List<LeaveCalendarIndex.LeaveInterval> overlapping =
+            LeaveCalendarIndex.getInstance().findForEmployee(employeeId, startDate, endDate);
+        if (overlapping != null) {
+            if (!overlapping.isEmpty()) {
+                LeaveCalendarIndex.LeaveInterval existing = overlapping.get(0);
+                result.setValid(false);
+                result.setErrorMessage("Leave request overlaps with existing request from " + 
+                                     existing.getLeaveStart() + " to " + existing.getLeaveEnd());
+                return result;
+            }
+        } else {
+            List<LeaveRequestModel> existingRequests = leaveDAO.findByEmployeeId(employeeId);
+            for (LeaveRequestModel existing : existingRequests) {
+                if (existing.getApprovalStatus() == ApprovalStatus.APPROVED || existing.getApprovalStatus() == ApprovalStatus.PENDING) {
+                    if (datesOverlap(startDate, endDate, existing.getLeaveStart(), existing.getLeaveEnd())) {
+                        result.setValid(false);
+                        result.setErrorMessage("Leave request overlaps with existing request from " + 
+                                             existing.getLeaveStart() + " to " + existing.getLeaveEnd());
+                        return result;
+                    }
                 }
             }
         }
@@ -432,6 +614,17 @@ public class LeaveService {
         }
     }
     
+    /**
+     * Gets the most unused days of a leave type that carry over into the next year
+     */
+    private int getCarryOverCap(LeaveTypeModel leaveType) {
+        String typeName = leaveType.getLeaveTypeName() != null ? leaveType.getLeaveTypeName().toLowerCase() : "";
+        if (typeName.contains("annual") || typeName.contains("vacation")) {
+            return MAX_CARRY_OVER_DAYS;
+        }
+        return 0;
+    }
+    
     // ================================
     // REPORTING AND QUERIES
     // ================================
@@ -450,6 +643,58 @@ public class LeaveService {
         return leaveDAO.findByEmployeeId(employeeId);
     }
     
+    /**
+     * Gets pending and approved leave of a supervisor's direct reports in a date range
+     * ("who on my team is out this week")
+     * @param supervisorId Supervisor's employee ID
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @return Leave overlapping the range, ordered by start date
+     */
+    public List<LeaveCalendarIndex.LeaveInterval> getTeamLeaveCalendar(Integer supervisorId, LocalDate startDate, LocalDate endDate) {
+        List<LeaveCalendarIndex.LeaveInterval> calendar =
+            LeaveCalendarIndex.getInstance().findForSupervisor(supervisorId, startDate, endDate);
+        if (calendar != null) {
+            return calendar;
+        }
+        return findLeaveInRange(employeeDAO.getEmployeesBySupervisor(supervisorId), startDate, endDate);
+    }
+    
+    /**
+     * Gets pending and approved leave of a department's employees in a date range
+     * @param department Department name
+     * @param startDate First date (inclusive)
+     * @param endDate Last date (inclusive)
+     * @return Leave overlapping the range, ordered by start date
+     */
+    public List<LeaveCalendarIndex.LeaveInterval> getDepartmentLeaveCalendar(String department, LocalDate startDate, LocalDate endDate) {
+        List<LeaveCalendarIndex.LeaveInterval> calendar =
+            LeaveCalendarIndex.getInstance().findForDepartment(department, startDate, endDate);
+        if (calendar != null) {
+            return calendar;
+        }
+        return findLeaveInRange(employeeDAO.getEmployeesByDepartment(department), startDate, endDate);
+    }
+    
+    /**
+     * Database fallback for the leave calendars when the interval index is not loaded
+     */
+    private List<LeaveCalendarIndex.LeaveInterval> findLeaveInRange(List<EmployeeModel> employees,
+                                                                   LocalDate startDate, LocalDate endDate) {
+        List<LeaveCalendarIndex.LeaveInterval> calendar = new ArrayList<>();
+        for (EmployeeModel employee : employees) {
+            for (LeaveRequestModel leave : leaveDAO.findByEmployeeId(employee.getEmployeeId())) {
+                if ((leave.getApprovalStatus() == ApprovalStatus.APPROVED || leave.getApprovalStatus() == ApprovalStatus.PENDING)
+                        && leave.getLeaveStart() != null && leave.getLeaveEnd() != null
+                        && datesOverlap(startDate, endDate, leave.getLeaveStart(), leave.getLeaveEnd())) {
+                    calendar.add(LeaveCalendarIndex.LeaveInterval.from(leave));
+                }
+            }
+        }
+        calendar.sort((a, b) -> a.getLeaveStart().compareTo(b.getLeaveStart()));
+        return calendar;
+    }
+    
     /**
      * Gets leave summary for an employee in a specific year
      */
@@ -483,6 +728,21 @@ public class LeaveService {
         return summary;
     }
     
+    /**
+     * Command line entry point: rollover-leave <yyyy>
+     */
+    public static void main(String[] args) {
+        if (args.length >= 2 && "rollover-leave".equalsIgnoreCase(args[0])) {
+            LeaveBalanceDAO.RolloverResult result = new LeaveService().rolloverLeaveBalances(Integer.parseInt(args[1]));
+            if (result == null || !result.isSuccess()) {
+                System.out.println("Leave rollover failed or incomplete; rerun to finish");
+            }
+        } else {
+            System.out.println("Usage:");
+            System.out.println("  rollover-leave <yyyy>");
+        }
+    }
+    
     // ================================
     // INNER CLASSES
     // ================================
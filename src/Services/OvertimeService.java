@@ -12,6 +12,12 @@ import java.time.YearMonth;
 import java.time.Duration;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * OvertimeService - Business logic for overtime management
@@ -239,6 +245,119 @@ public class OvertimeService {
         return result;
     }
 
+    /**
+     * Approves several overtime requests at once
+     * Requests are validated in one pass and their status changes are written with one batched
+     * statement in a single transaction.
+     * @param overtimeRequestIds Overtime request IDs to approve
+     * @param supervisorId ID of supervisor approving
+     * @param supervisorNotes Optional notes stored on every request
+     * @return Outcome per overtime request ID (with overtime pay when approved), in the order given
+     */
+    public Map<Integer, OvertimeApprovalResult> approveOvertimeRequests(List<Integer> overtimeRequestIds, Integer supervisorId, String supervisorNotes) {
+        return decideOvertimeRequests(overtimeRequestIds, supervisorId, supervisorNotes, ApprovalStatus.APPROVED);
+    }
+
+    /**
+     * Rejects several overtime requests at once in a single transaction
+     * @param overtimeRequestIds Overtime request IDs to reject
+     * @param supervisorId ID of supervisor rejecting
+     * @param supervisorNotes Required notes stored on every request
+     * @return Outcome per overtime request ID, in the order given
+     */
+    public Map<Integer, OvertimeApprovalResult> rejectOvertimeRequests(List<Integer> overtimeRequestIds, Integer supervisorId, String supervisorNotes) {
+        return decideOvertimeRequests(overtimeRequestIds, supervisorId, supervisorNotes, ApprovalStatus.REJECTED);
+    }
+
+    /**
+     * Gets several overtime requests with one query
+     * @param overtimeRequestIds Overtime request IDs
+     * @return Requests found, by ID (empty if the query failed)
+     */
+    public Map<Integer, OvertimeRequestModel> getOvertimeRequests(Collection<Integer> overtimeRequestIds) {
+        Map<Integer, OvertimeRequestModel> requests = overtimeDAO.findByIds(new LinkedHashSet<>(overtimeRequestIds));
+        return requests != null ? requests : new LinkedHashMap<>();
+    }
+
+    private Map<Integer, OvertimeApprovalResult> decideOvertimeRequests(List<Integer> overtimeRequestIds, Integer supervisorId,
+                                                                       String supervisorNotes, ApprovalStatus status) {
+        Map<Integer, OvertimeApprovalResult> outcomes = new LinkedHashMap<>();
+        if (overtimeRequestIds == null || overtimeRequestIds.isEmpty()) {
+            return outcomes;
+        }
+        boolean approving = status == ApprovalStatus.APPROVED;
+        String action = approving ? "approve" : "reject";
+
+        // Checks shared by every request
+        String commonError = null;
+        Map<Integer, OvertimeRequestModel> requests = null;
+        EmployeeModel supervisor = employeeDAO.findById(supervisorId);
+        if (!approving && (supervisorNotes == null || supervisorNotes.trim().isEmpty())) {
+            commonError = "Supervisor notes are required when rejecting an overtime request";
+        } else if (approving && supervisor == null) {
+            commonError = "Supervisor not found: " + supervisorId;
+        } else {
+            requests = overtimeDAO.findByIds(new LinkedHashSet<>(overtimeRequestIds));
+            if (requests == null) {
+                commonError = "Failed to load overtime requests";
+            }
+        }
+
+        // Validate every request in one pass
+        List<Integer> pending = new ArrayList<>();
+        for (Integer overtimeRequestId : overtimeRequestIds) {
+            if (outcomes.containsKey(overtimeRequestId)) {
+                continue;
+            }
+            OvertimeApprovalResult result = new OvertimeApprovalResult();
+            outcomes.put(overtimeRequestId, result);
+
+            OvertimeRequestModel overtimeRequest = requests != null ? requests.get(overtimeRequestId) : null;
+            if (commonError != null) {
+                result.setMessage(commonError);
+            } else if (overtimeRequest == null) {
+                result.setMessage("Overtime request not found: " + overtimeRequestId);
+            } else if (overtimeRequest.isProcessed()) {
+                result.setMessage("Overtime request has already been " + overtimeRequest.getApprovalStatus().getValue().toLowerCase());
+            } else {
+                result.setMessage("Failed to " + action + " overtime request");
+                pending.add(overtimeRequestId);
+            }
+        }
+        if (pending.isEmpty()) {
+            return outcomes;
+        }
+
+        Set<Integer> decided = overtimeDAO.applyDecisions(pending, status, supervisorNotes);
+        if (decided == null) {
+            return outcomes;
+        }
+
+        Map<Integer, EmployeeModel> employees = new HashMap<>();
+        for (Integer overtimeRequestId : pending) {
+            OvertimeApprovalResult result = outcomes.get(overtimeRequestId);
+            if (!decided.contains(overtimeRequestId)) {
+                result.setMessage("Overtime request has already been processed");
+                continue;
+            }
+            result.setSuccess(true);
+            result.setMessage("Overtime request " + (approving ? "approved" : "rejected") + " successfully");
+
+            if (approving) {
+                OvertimeRequestModel overtimeRequest = requests.get(overtimeRequestId);
+                EmployeeModel employee = employees.computeIfAbsent(overtimeRequest.getEmployeeId(), employeeDAO::findById);
+                if (employee != null) {
+                    result.setOvertimePay(calculateOvertimePay(overtimeRequest, employee.getHourlyRate()));
+                }
+            }
+        }
+
+        System.out.println((approving ? "✅" : "❌") + " Bulk overtime " + (approving ? "approval" : "rejection") + ": " +
+                           decided.size() + " of " + outcomes.size() + " requests by " +
+                           (supervisor != null ? supervisor.getFullName() : "Supervisor " + supervisorId));
+        return outcomes;
+    }
+
     // ================================
     // OVERTIME CALCULATIONS
     // ================================
@@ -262,11 +381,16 @@ public class OvertimeService {
             multiplier = multiplier.add(NIGHT_SHIFT_MULTIPLIER.subtract(BigDecimal.ONE)); // Add night differential
         }
 
-        // Apply weekend premium if applicable
-        if (overtimeRequest.isWeekendOvertime()) {
+        // Apply rest day premium if applicable (weekly rest days and company rest dates)
+        LocalDate overtimeDate = overtimeRequest.getOvertimeStart().toLocalDate();
+        WorkCalendar calendar = WorkCalendar.getInstance();
+        if (calendar.isRestDay(overtimeDate)) {
             multiplier = multiplier.add(WEEKEND_MULTIPLIER.subtract(BigDecimal.ONE)); // Add weekend premium
         }
 
+        // Apply holiday premium if applicable
+        multiplier = multiplier.add(calendar.getHolidayPremium(overtimeDate).subtract(BigDecimal.ONE));
+
         return overtimeHours.multiply(hourlyRate).multiply(multiplier).setScale(2, RoundingMode.HALF_UP);
     }
 
@@ -0,0 +1,319 @@
+package Services;
+import DAOs.*;
+import DAOs.PayPeriodTotalsDAO.Source;
+import DAOs.PayrollIntegrityDAO.MerkleTree;
+import DAOs.PayrollIntegrityDAO.RowHash;
+import java.util.*;
+
+/**
+ * PayrollIntegrityService - Change detection for payroll and payslip data
+ * Uses the content hashes and per-period Merkle trees kept by PayrollIntegrityDAO:
+ *   - the CURRENT root against the SEALED root tells whether a signed-off period was changed
+ *     through the application since the last audit
+ *   - a tree rebuilt from the base rows against the CURRENT tree catches changes made
+ *     directly in the database, bypassing the DAOs
+ * Differing trees are descended only where hashes differ, so changed employees are found
+ * without recomputing any payroll.
+ * @author User
+ */
+
+public class PayrollIntegrityService {
+
+    private final PayrollIntegrityDAO integrityDAO;
+
+    /**
+     * Constructor - initializes required DAOs
+     */
+    public PayrollIntegrityService() {
+        this(new DatabaseConnection());
+    }
+
+    /**
+     * Constructor with custom database connection (for dependency injection)
+     */
+    public PayrollIntegrityService(DatabaseConnection databaseConnection) {
+        this.integrityDAO = new PayrollIntegrityDAO(databaseConnection);
+    }
+
+    // ================================
+    // INTEGRITY CHECKS
+    // ================================
+
+    /**
+     * Tells whether a sealed period is unchanged, comparing only stored root hashes
+     * @param payPeriodId The pay period ID
+     * @return true if both payroll and payslip roots still equal their sealed roots
+     */
+    public boolean isUnchangedSinceSeal(Integer payPeriodId) {
+        for (Source source : Source.values()) {
+            String sealedRoot = integrityDAO.getRoot(source, payPeriodId, PayrollIntegrityDAO.SEALED);
+            if (sealedRoot == null || !sealedRoot.equals(integrityDAO.getRoot(source, payPeriodId, PayrollIntegrityDAO.CURRENT))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks a period's payroll and payslip rows against their recorded and sealed hashes
+     * A period without recorded hashes (written before hashing existed) gets them built first.
+     * @param payPeriodId The pay period ID
+     * @return IntegrityReport with one entry per source
+     */
+    public IntegrityReport checkPeriod(Integer payPeriodId) {
+        IntegrityReport report = new IntegrityReport(payPeriodId);
+        for (Source source : Source.values()) {
+            report.addSource(checkSource(source, payPeriodId));
+        }
+        return report;
+    }
+
+    private SourceIntegrity checkSource(Source source, Integer payPeriodId) {
+        SourceIntegrity integrity = new SourceIntegrity(source);
+
+        MerkleTree current = integrityDAO.loadTree(source, payPeriodId, PayrollIntegrityDAO.CURRENT);
+        if (current == null) {
+            if (!integrityDAO.rebuild(source, payPeriodId)) {
+                integrity.setError("Could not build integrity hashes for " + source.getTableName());
+                return integrity;
+            }
+            integrity.setBaselineCreated(true);
+            current = integrityDAO.loadTree(source, payPeriodId, PayrollIntegrityDAO.CURRENT);
+            if (current == null) {
+                integrity.setError("Integrity hashes for " + source.getTableName() + " are not available");
+                return integrity;
+            }
+        }
+        integrity.setCurrentRoot(current.getRoot());
+
+        // 1. Base rows as they are now against what the DAOs recorded
+        List<RowHash> actualRows = integrityDAO.computeRowHashes(source, payPeriodId);
+        MerkleTree actual = MerkleTree.build(actualRows);
+        integrity.setActualRoot(actual.getRoot());
+        integrity.setRowCount(actualRows.size());
+
+        int[] comparisons = new int[1];
+        if (!actual.getRoot().equals(current.getRoot())) {
+            List<Integer> leaves = actual.diffLeaves(current, comparisons);
+            integrity.addComparisons(comparisons[0]);
+            integrity.getTamperedEmployees().addAll(changedEmployees(
+                inBuckets(actualRows, leaves),
+                integrityDAO.getRowHashes(source, payPeriodId, PayrollIntegrityDAO.CURRENT, leaves)));
+        } else {
+            integrity.addComparisons(1);
+        }
+
+        // 2. Recorded state against the state sealed at the last audit
+        MerkleTree sealed = integrityDAO.loadTree(source, payPeriodId, PayrollIntegrityDAO.SEALED);
+        if (sealed != null) {
+            integrity.setSealedRoot(sealed.getRoot());
+            if (!sealed.getRoot().equals(current.getRoot())) {
+                List<Integer> leaves = current.diffLeaves(sealed, comparisons);
+                integrity.addComparisons(comparisons[0]);
+                integrity.getChangedSinceSeal().addAll(changedEmployees(
+                    integrityDAO.getRowHashes(source, payPeriodId, PayrollIntegrityDAO.CURRENT, leaves),
+                    integrityDAO.getRowHashes(source, payPeriodId, PayrollIntegrityDAO.SEALED, leaves)));
+            } else {
+                integrity.addComparisons(1);
+            }
+        }
+
+        return integrity;
+    }
+
+    /**
+     * Records the current state of a period as signed off by an auditor
+     * A source whose base rows no longer match their recorded hashes is not sealed.
+     * @param payPeriodId The pay period ID
+     * @param sealedBy Employee ID of the auditor
+     * @return true if both payroll and payslip were sealed
+     */
+    public boolean sealPeriod(Integer payPeriodId, Integer sealedBy) {
+        boolean sealed = true;
+        for (SourceIntegrity integrity : checkPeriod(payPeriodId).getSources()) {
+            if (!integrity.matchesRecorded()) {
+                System.err.println("⚠️ Not sealing " + integrity.getSource().getTableName() + " for pay period " +
+                                   payPeriodId + ": rows changed outside the application for employees " +
+                                   integrity.getTamperedEmployees());
+                sealed = false;
+                continue;
+            }
+            sealed &= integrityDAO.seal(integrity.getSource(), payPeriodId, sealedBy);
+        }
+        return sealed;
+    }
+
+    /**
+     * Rebuilds a period's recorded hashes from the base rows
+     * Accepts the current rows as correct, so only use after the period has been verified
+     * @param payPeriodId The pay period ID
+     * @return true if both payroll and payslip hashes were rebuilt
+     */
+    public boolean rebuildPeriod(Integer payPeriodId) {
+        boolean rebuilt = true;
+        for (Source source : Source.values()) {
+            rebuilt &= integrityDAO.rebuild(source, payPeriodId);
+        }
+        return rebuilt;
+    }
+
+    // ================================
+    // HELPER METHODS
+    // ================================
+
+    private List<RowHash> inBuckets(List<RowHash> rows, List<Integer> buckets) {
+        Set<Integer> wanted = new HashSet<>(buckets);
+        List<RowHash> selected = new ArrayList<>();
+        for (RowHash row : rows) {
+            if (wanted.contains(row.getBucket())) {
+                selected.add(row);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Employees whose rows (IDs and content hashes) differ between two sets of row hashes
+     */
+    private Set<Integer> changedEmployees(List<RowHash> left, List<RowHash> right) {
+        Map<Integer, Set<String>> leftRows = byEmployee(left);
+        Map<Integer, Set<String>> rightRows = byEmployee(right);
+
+        Set<Integer> employees = new TreeSet<>(leftRows.keySet());
+        employees.addAll(rightRows.keySet());
+        employees.removeIf(employeeId -> Objects.equals(leftRows.get(employeeId), rightRows.get(employeeId)));
+        return employees;
+    }
+
+    private Map<Integer, Set<String>> byEmployee(List<RowHash> rows) {
+        Map<Integer, Set<String>> byEmployee = new HashMap<>();
+        for (RowHash row : rows) {
+            byEmployee.computeIfAbsent(row.getEmployeeId(), k -> new HashSet<>())
+                      .add(row.getRowId() + ":" + row.getContentHash());
+        }
+        return byEmployee;
+    }
+
+    // ===============================
+    // INNER CLASSES
+    // ===============================
+
+    /**
+     * Integrity of one pay period across payroll and payslip
+     */
+    public static class IntegrityReport {
+        private final Integer payPeriodId;
+        private final List<SourceIntegrity> sources = new ArrayList<>();
+
+        public IntegrityReport(Integer payPeriodId) {
+            this.payPeriodId = payPeriodId;
+        }
+
+        public void addSource(SourceIntegrity source) { sources.add(source); }
+
+        /**
+         * @return true if every source was sealed and nothing changed since, in or outside the application
+         */
+        public boolean isUntouchedSinceSeal() {
+            return !sources.isEmpty() && sources.stream().allMatch(SourceIntegrity::isUntouchedSinceSeal);
+        }
+
+        /**
+         * @return true if no base row was changed outside the application
+         */
+        public boolean matchesRecorded() {
+            return sources.stream().allMatch(SourceIntegrity::matchesRecorded);
+        }
+
+        /**
+         * @return Employees whose payroll or payslip changed since the seal or outside the application
+         */
+        public Set<Integer> getChangedEmployees() {
+            Set<Integer> employees = new TreeSet<>();
+            for (SourceIntegrity source : sources) {
+                employees.addAll(source.getChangedSinceSeal());
+                employees.addAll(source.getTamperedEmployees());
+            }
+            return employees;
+        }
+
+        // Getters
+        public Integer getPayPeriodId() { return payPeriodId; }
+        public List<SourceIntegrity> getSources() { return sources; }
+
+        @Override
+        public String toString() {
+            return String.format("IntegrityReport{payPeriodId=%d, untouchedSinceSeal=%s, matchesRecorded=%s, changedEmployees=%s}",
+                    payPeriodId, isUntouchedSinceSeal(), matchesRecorded(), getChangedEmployees());
+        }
+    }
+
+    /**
+     * Integrity of one source table within a pay period
+     */
+    public static class SourceIntegrity {
+        private final Source source;
+        private String currentRoot;
+        private String actualRoot;
+        private String sealedRoot;
+        private int rowCount = 0;
+        private int comparisons = 0;
+        private boolean baselineCreated = false;
+        private String error;
+        private final Set<Integer> tamperedEmployees = new TreeSet<>();
+        private final Set<Integer> changedSinceSeal = new TreeSet<>();
+
+        public SourceIntegrity(Source source) {
+            this.source = source;
+        }
+
+        /**
+         * @return true if the base rows still hash to the recorded root
+         */
+        public boolean matchesRecorded() {
+            return error == null && actualRoot != null && actualRoot.equals(currentRoot);
+        }
+
+        /**
+         * @return true if the source was sealed and is unchanged since, in or outside the application
+         */
+        public boolean isUntouchedSinceSeal() {
+            return matchesRecorded() && sealedRoot != null && sealedRoot.equals(currentRoot);
+        }
+
+        public void addComparisons(int count) { comparisons += count; }
+
+        // Getters and setters
+        public Source getSource() { return source; }
+
+        public String getCurrentRoot() { return currentRoot; }
+        public void setCurrentRoot(String currentRoot) { this.currentRoot = currentRoot; }
+
+        public String getActualRoot() { return actualRoot; }
+        public void setActualRoot(String actualRoot) { this.actualRoot = actualRoot; }
+
+        public String getSealedRoot() { return sealedRoot; }
+        public void setSealedRoot(String sealedRoot) { this.sealedRoot = sealedRoot; }
+
+        public int getRowCount() { return rowCount; }
+        public void setRowCount(int rowCount) { this.rowCount = rowCount; }
+
+        public int getComparisons() { return comparisons; }
+
+        public boolean isBaselineCreated() { return baselineCreated; }
+        public void setBaselineCreated(boolean baselineCreated) { this.baselineCreated = baselineCreated; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+
+        public Set<Integer> getTamperedEmployees() { return tamperedEmployees; }
+        public Set<Integer> getChangedSinceSeal() { return changedSinceSeal; }
+
+        @Override
+        public String toString() {
+            return String.format("SourceIntegrity{source=%s, rows=%d, matchesRecorded=%s, sealed=%s, untouchedSinceSeal=%s, tampered=%s, changedSinceSeal=%s, comparisons=%d}",
+                    source, rowCount, matchesRecorded(), sealedRoot != null, isUntouchedSinceSeal(),
+                    tamperedEmployees, changedSinceSeal, comparisons);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package Services;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PayrollProgressPublisher - Delivers payroll run progress events to subscribers
+ * Events are handed to a single background thread, so payroll computation never waits
+ * on a slow GUI, log or metrics listener. Listeners receive events in publish order.
+ * @author User
+ */
+
+public class PayrollProgressPublisher {
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private ExecutorService dispatcher;
+
+    /**
+     * Registers a listener for progress events
+     * @param listener The listener to add
+     */
+    public void addListener(Listener listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Unregisters a listener
+     * @param listener The listener to remove
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return true if at least one listener is registered
+     */
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Queues an event for asynchronous delivery and returns immediately
+     * Does nothing when there are no listeners
+     * @param event The event to deliver
+     */
+    public void publish(ProgressEvent event) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        ExecutorService current = getDispatcher();
+        try {
+            current.execute(() -> deliver(event));
+        } catch (RejectedExecutionException e) {
+            // shutdown() won the race with this publish; the event is dropped like any late event
+        }
+    }
+
+    /**
+     * Waits for queued events to be delivered and stops the dispatcher thread
+     * @param timeoutMillis Maximum time to wait
+     */
+    public synchronized void shutdown(long timeoutMillis) {
+        if (dispatcher == null) {
+            return;
+        }
+        // Detach first so a publish() after this point starts a fresh dispatcher instead of hitting this one
+        ExecutorService stopping = dispatcher;
+        dispatcher = null;
+        stopping.shutdown();
+        try {
+            stopping.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliver(ProgressEvent event) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onProgress(event);
+            } catch (Exception e) {
+                // A failing listener must not stop delivery to the others
+                System.err.println("Payroll progress listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized ExecutorService getDispatcher() {
+        if (dispatcher == null) {
+            dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "payroll-progress-dispatcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return dispatcher;
+    }
+
+    /**
+     * Prints events to the console in the same format as the payroll run log
+     * @return A listener that logs every event
+     */
+    public static Listener consoleLogger() {
+        return event -> {
+            if (event.getType() == EventType.ERROR) {
+                System.err.println("❌ " + event);
+            } else {
+                System.out.println("📊 " + event);
+            }
+        };
+    }
+
+    // ===============================
+    // INNER TYPES
+    // ===============================
+
+    /**
+     * Subscriber for payroll progress events
+     * Called on the dispatcher thread; Swing listeners should hand off with SwingUtilities.invokeLater
+     */
+    public interface Listener {
+        void onProgress(ProgressEvent event);
+    }
+
+    /**
+     * Kinds of progress events raised during a payroll run
+     */
+    public enum EventType {
+        RUN_STARTED,
+        EMPLOYEE_COMPLETED,
+        PROGRESS_CHECKPOINT, // every PROGRESS_BATCH_SIZE processed employees; each payroll record commits on its own
+        ERROR,
+        RUN_FINISHED
+    }
+
+    /**
+     * Immutable snapshot of a payroll run at the moment an event was raised
+     */
+    public static class ProgressEvent {
+        private final EventType type;
+        private final Integer payPeriodId;
+        private final Integer employeeId;
+        private final int totalEmployees;
+        private final int processedEmployees;
+        private final int failedEmployees;
+        private final long elapsedMillis;
+        private final String message;
+
+        public ProgressEvent(EventType type, Integer payPeriodId, Integer employeeId, int totalEmployees,
+                             int processedEmployees, int failedEmployees, long elapsedMillis, String message) {
+            this.type = type;
+            this.payPeriodId = payPeriodId;
+            this.employeeId = employeeId;
+            this.totalEmployees = totalEmployees;
+            this.processedEmployees = processedEmployees;
+            this.failedEmployees = failedEmployees;
+            this.elapsedMillis = elapsedMillis;
+            this.message = message;
+        }
+
+        // Getters
+        public EventType getType() { return type; }
+        public Integer getPayPeriodId() { return payPeriodId; }
+        public Integer getEmployeeId() { return employeeId; }
+        public int getTotalEmployees() { return totalEmployees; }
+        public int getProcessedEmployees() { return processedEmployees; }
+        public int getFailedEmployees() { return failedEmployees; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public String getMessage() { return message; }
+
+        /**
+         * @return Employees finished so far, successful or not
+         */
+        public int getCompletedEmployees() {
+            return processedEmployees + failedEmployees;
+        }
+
+        /**
+         * @return Completion percentage between 0 and 100
+         */
+        public double getPercentComplete() {
+            return totalEmployees == 0 ? 100.0 : getCompletedEmployees() * 100.0 / totalEmployees;
+        }
+
+        /**
+         * @return Employees completed per second since the run started
+         */
+        public double getThroughputPerSecond() {
+            return elapsedMillis <= 0 ? 0.0 : getCompletedEmployees() * 1000.0 / elapsedMillis;
+        }
+
+        /**
+         * @return Estimated milliseconds until the run finishes, -1 if not yet known
+         */
+        public long getEstimatedRemainingMillis() {
+            double throughput = getThroughputPerSecond();
+            if (throughput <= 0) {
+                return -1;
+            }
+            int remaining = Math.max(0, totalEmployees - getCompletedEmployees());
+            return (long) (remaining * 1000.0 / throughput);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ProgressEvent{type=%s, payPeriodId=%d, completed=%d/%d, failed=%d, rate=%.1f/s, eta=%dms%s}",
+                    type, payPeriodId, getCompletedEmployees(), totalEmployees, failedEmployees,
+                    getThroughputPerSecond(), getEstimatedRemainingMillis(),
+                    message != null ? ", message=" + message : "");
+        }
+    }
+}
@@ -8,6 +8,7 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 
 /**
  * PayrollService - Core business logic for payroll processing
@@ -26,6 +27,12 @@ public class PayrollService {
     private final DeductionDAO deductionDAO;
     private final BenefitTypeDAO benefitDAO;
     private final PayPeriodDAO payPeriodDAO;
+    private final PayPeriodTotalsDAO payPeriodTotalsDAO;
+    private final PayrollAdjustmentDAO adjustmentDAO;
+    
+    // A progress checkpoint is published each time this many more employees are processed
+    private static final int PROGRESS_BATCH_SIZE = 25;
+    private final PayrollProgressPublisher progressPublisher = new PayrollProgressPublisher();
     
     /**
      * Constructor - initializes all required DAOs
@@ -40,6 +47,8 @@ public class PayrollService {
         this.deductionDAO = new DeductionDAO();
         this.benefitDAO = new BenefitTypeDAO();
         this.payPeriodDAO = new PayPeriodDAO();
+        this.payPeriodTotalsDAO = new PayPeriodTotalsDAO(databaseConnection);
+        this.adjustmentDAO = new PayrollAdjustmentDAO(databaseConnection);
     }
     
     /**
@@ -55,6 +64,8 @@ public class PayrollService {
         this.deductionDAO = new DeductionDAO();
         this.benefitDAO = new BenefitTypeDAO();
         this.payPeriodDAO = new PayPeriodDAO();
+        this.payPeriodTotalsDAO = new PayPeriodTotalsDAO(databaseConnection);
+        this.adjustmentDAO = new PayrollAdjustmentDAO(databaseConnection);
     }
     
     // ================================
@@ -70,6 +81,7 @@ public class PayrollService {
         PayrollProcessingResult result = new PayrollProcessingResult();
         result.setPayPeriodId(payPeriodId);
         result.setProcessedDate(LocalDate.now());
+        long startTime = System.currentTimeMillis();
         
         try {
             // Validate pay period exists
@@ -77,6 +89,8 @@ public class PayrollService {
             if (payPeriod == null) {
                 result.setSuccess(false);
                 result.addError("Pay period not found: " + payPeriodId);
+                publishProgress(PayrollProgressPublisher.EventType.ERROR, result, null, startTime, "Pay period not found: " + payPeriodId);
+                publishProgress(PayrollProgressPublisher.EventType.RUN_FINISHED, result, null, startTime, null);
                 return result;
             }
             
@@ -85,8 +99,10 @@ public class PayrollService {
             result.setTotalEmployees(activeEmployees.size());
             
             System.out.println("🔄 Processing payroll for " + activeEmployees.size() + " employees in pay period " + payPeriodId);
+            publishProgress(PayrollProgressPublisher.EventType.RUN_STARTED, result, null, startTime, payPeriod.getPeriodName());
             
             // Process each employee
+            int lastCheckpoint = 0;
             for (EmployeeModel employee : activeEmployees) {
                 try {
                     boolean success = processEmployeePayroll(employee.getEmployeeId(), payPeriodId);
@@ -97,13 +113,28 @@ public class PayrollService {
                         result.incrementFailedEmployees();
                         result.addError("Failed to process payroll for employee: " + employee.getEmployeeId());
                         System.out.println("❌ Failed to process payroll for: " + employee.getFullName());
+                        publishProgress(PayrollProgressPublisher.EventType.ERROR, result, employee.getEmployeeId(), startTime,
+                            "Failed to process payroll for employee: " + employee.getEmployeeId());
                     }
                 } catch (Exception e) {
                     result.incrementFailedEmployees();
                     result.addError("Error processing employee " + employee.getEmployeeId() + ": " + e.getMessage());
                     System.err.println("❌ Error processing employee " + employee.getFullName() + ": " + e.getMessage());
+                    publishProgress(PayrollProgressPublisher.EventType.ERROR, result, employee.getEmployeeId(), startTime, e.getMessage());
+                }
+                
+                publishProgress(PayrollProgressPublisher.EventType.EMPLOYEE_COMPLETED, result, employee.getEmployeeId(), startTime, null);
+                // Checkpoint only when the processed count reaches a new multiple (failures don't move it)
+                if (result.getProcessedEmployees() - lastCheckpoint >= PROGRESS_BATCH_SIZE) {
+                    lastCheckpoint = result.getProcessedEmployees();
+                    publishProgress(PayrollProgressPublisher.EventType.PROGRESS_CHECKPOINT, result, null, startTime,
+                        lastCheckpoint + " payroll records processed");
                 }
             }
+            if (result.getProcessedEmployees() != lastCheckpoint) {
+                publishProgress(PayrollProgressPublisher.EventType.PROGRESS_CHECKPOINT, result, null, startTime,
+                    result.getProcessedEmployees() + " payroll records processed");
+            }
             
             // Calculate summary totals
             calculatePayrollSummary(result, payPeriodId);
@@ -115,8 +146,10 @@ public class PayrollService {
             result.setSuccess(false);
             result.addError("Fatal error during payroll processing: " + e.getMessage());
             System.err.println("💥 Fatal error during payroll processing: " + e.getMessage());
+            publishProgress(PayrollProgressPublisher.EventType.ERROR, result, null, startTime, "Fatal error: " + e.getMessage());
         }
         
+        publishProgress(PayrollProgressPublisher.EventType.RUN_FINISHED, result, null, startTime, result.isSuccess() ? "Success" : "Completed with errors");
         return result;
     }
     
@@ -127,8 +160,22 @@ public class PayrollService {
      * @return true if successful, false otherwise
      */
     public boolean processEmployeePayroll(Integer employeeId, Integer payPeriodId) {
+        return processEmployeePayroll(employeeId, payPeriodId, false);
+    }
+    
+    /**
+     * Processes payroll for a single employee
+     * With deferPeriodWrites set, only the payroll row is written: period totals, integrity
+     * hashes and the payslip are left to finalizeDeferredPayroll(), so parallel workers do not
+     * serialize on the period's totals rows.
+     * @param employeeId Employee ID
+     * @param payPeriodId Pay period ID
+     * @param deferPeriodWrites true when the caller finalizes the period afterwards
+     * @return true if successful, false otherwise
+     */
+    public boolean processEmployeePayroll(Integer employeeId, Integer payPeriodId, boolean deferPeriodWrites) {
         try {
-            // Check if payroll already exists
+            // Skip the calculation when payroll clearly exists; saveIfAbsent() below is the real guard
             if (payrollDAO.isPayrollGenerated(payPeriodId) && hasEmployeePayroll(employeeId, payPeriodId)) {
                 System.out.println("⚠️ Payroll already exists for employee " + employeeId + " in period " + payPeriodId);
                 return true; // Consider existing payroll as success
@@ -151,14 +198,26 @@ public class PayrollService {
             // Calculate payroll components
             PayrollCalculation calculation = calculateEmployeePayroll(employee, payPeriod);
             
-            // Create and save payroll record
+            // Pay out retro adjustments for earlier periods that were routed to this one
+            applyRetroAdjustment(calculation);
+            
+            // Create and save payroll record; a concurrent run may have saved it first
             PayrollModel payroll = createPayrollRecord(employee, payPeriodId, calculation);
-            boolean payrollSaved = payrollDAO.save(payroll);
+            Boolean payrollSaved = deferPeriodWrites
+                ? payrollDAO.saveIfAbsentDeferred(payroll)
+                : payrollDAO.saveIfAbsent(payroll);
             
-            if (!payrollSaved) {
+            if (payrollSaved == null) {
                 System.err.println("❌ Failed to save payroll record for employee: " + employeeId);
                 return false;
             }
+            if (!payrollSaved) {
+                System.out.println("⚠️ Payroll already exists for employee " + employeeId + " in period " + payPeriodId);
+                return true; // Consider existing payroll as success
+            }
+            if (deferPeriodWrites) {
+                return true;
+            }
             
             // Generate and save payslip
             PayslipModel payslip = payslipDAO.generatePayslip(employeeId, payPeriodId);
@@ -174,7 +233,26 @@ public class PayrollService {
             return false;
         }
     }
-    
+
+    /**
+     * Applies the period-wide writes skipped by deferred processEmployeePayroll() calls
+     * Rebuilds the period's payroll totals and integrity hashes, then generates the missing
+     * payslips with the set-based builder. Safe to repeat.
+     * @param payPeriodId Pay period ID
+     * @return true if the totals were rebuilt and the payslips generated
+     */
+    public boolean finalizeDeferredPayroll(Integer payPeriodId) {
+        if (!payrollDAO.rebuildPeriodTotals(payPeriodId)) {
+            System.err.println("❌ Failed to rebuild payroll totals for pay period " + payPeriodId);
+            return false;
+        }
+        if (payslipDAO.generatePayslipsForPeriod(payPeriodId) < 0) {
+            System.err.println("❌ Failed to generate payslips for pay period " + payPeriodId);
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Calculates all payroll components for an employee
      * @param employee Employee model
@@ -182,6 +260,29 @@ public class PayrollService {
      * @return PayrollCalculation with all calculated values
      */
     public PayrollCalculation calculateEmployeePayroll(EmployeeModel employee, PayPeriodModel payPeriod) {
+        return calculateEmployeePayroll(
+            employee,
+            payPeriod,
+            calculateHoursWorked(employee, payPeriod),
+            calculateOvertimePay(employee, payPeriod),
+            calculateBenefits(employee, payPeriod)
+        );
+    }
+    
+    /**
+     * Calculates all payroll components for an employee from preloaded inputs
+     * Used by batch callers that already hold the attendance, overtime and benefit data,
+     * so the same payroll rules apply without any further database lookups
+     * @param employee Employee model
+     * @param payPeriod Pay period model
+     * @param hoursWorked Total hours from complete attendance records in the period
+     * @param overtimePay Overtime pay credited to the period
+     * @param totalBenefits Total position benefits for the employee
+     * @return PayrollCalculation with all calculated values
+     */
+    public PayrollCalculation calculateEmployeePayroll(EmployeeModel employee, PayPeriodModel payPeriod,
+                                                       BigDecimal hoursWorked, BigDecimal overtimePay,
+                                                       BigDecimal totalBenefits) {
         PayrollCalculation calc = new PayrollCalculation();
         calc.setEmployeeId(employee.getEmployeeId());
         calc.setPayPeriodId(payPeriod.getPayPeriodId());
@@ -191,16 +292,12 @@ public class PayrollService {
         BigDecimal semiMonthlyBasic = basicSalary.divide(new BigDecimal("2"), 2, RoundingMode.HALF_UP);
         calc.setBasicSalary(semiMonthlyBasic);
         
-        // Calculate attendance-based earnings
-        BigDecimal attendanceEarnings = calculateAttendanceEarnings(employee, payPeriod);
+        // Attendance-based earnings
+        BigDecimal attendanceEarnings = hoursWorked.multiply(employee.getHourlyRate()).setScale(2, RoundingMode.HALF_UP);
         calc.setAttendanceEarnings(attendanceEarnings);
         
-        // Calculate overtime pay
-        BigDecimal overtimePay = calculateOvertimePay(employee, payPeriod);
+        // Overtime pay and benefits
         calc.setOvertimePay(overtimePay);
-        
-        // Calculate benefits
-        BigDecimal totalBenefits = calculateBenefits(employee, payPeriod);
         calc.setTotalBenefits(totalBenefits);
         
         // Calculate gross income
@@ -210,8 +307,13 @@ public class PayrollService {
             .add(totalBenefits);
         calc.setGrossIncome(grossIncome);
         
-        // Calculate deductions
-        BigDecimal totalDeductions = calculateDeductions(employee, grossIncome);
+        // Calculate deductions (government contributions + withholding tax)
+        BigDecimal contributions = calculateGovernmentContributions(employee);
+        BigDecimal withholdingTax = calculateWithholdingTax(grossIncome);
+        calc.setGovernmentContributions(contributions);
+        calc.setWithholdingTax(withholdingTax);
+        
+        BigDecimal totalDeductions = contributions.add(withholdingTax);
         calc.setTotalDeductions(totalDeductions);
         
         // Calculate net salary
@@ -226,9 +328,9 @@ public class PayrollService {
     // ===============================
     
     /**
-     * Calculates earnings based on attendance records
+     * Calculates hours worked from complete attendance records in the pay period
      */
-    private BigDecimal calculateAttendanceEarnings(EmployeeModel employee, PayPeriodModel payPeriod) {
+    private BigDecimal calculateHoursWorked(EmployeeModel employee, PayPeriodModel payPeriod) {
         try {
             // Get attendance records for the pay period
             List<AttendanceModel> attendanceRecords = attendanceDAO.getAttendanceHistory(
@@ -244,11 +346,10 @@ public class PayrollService {
                 }
             }
             
-            // Calculate earnings based on hours worked
-            return totalHours.multiply(employee.getHourlyRate()).setScale(2, RoundingMode.HALF_UP);
+            return totalHours;
             
         } catch (Exception e) {
-            System.err.println("Error calculating attendance earnings: " + e.getMessage());
+            System.err.println("Error calculating attendance hours: " + e.getMessage());
             return BigDecimal.ZERO;
         }
     }
@@ -280,19 +381,8 @@ public class PayrollService {
                 return BigDecimal.ZERO;
             }
             
-            // Get benefits for employee's position
-            List<java.util.Map<String, Object>> positionBenefits = 
-                benefitDAO.getBenefitsForPosition(employee.getPositionId());
-            
-            BigDecimal totalBenefits = BigDecimal.ZERO;
-            for (java.util.Map<String, Object> benefit : positionBenefits) {
-                BigDecimal benefitValue = (BigDecimal) benefit.get("benefitValue");
-                if (benefitValue != null) {
-                    totalBenefits = totalBenefits.add(benefitValue);
-                }
-            }
-            
-            return totalBenefits;
+            // Position benefits are served from the shared PositionBenefitCache
+            return benefitDAO.getTotalBenefitsForPosition(employee.getPositionId());
             
         } catch (Exception e) {
             System.err.println("Error calculating benefits: " + e.getMessage());
@@ -301,36 +391,39 @@ public class PayrollService {
     }
     
     /**
-     * Calculates total deductions (government mandated + others)
+     * Calculates government mandated contributions (employee share)
      */
-    private BigDecimal calculateDeductions(EmployeeModel employee, BigDecimal grossIncome) {
+    private BigDecimal calculateGovernmentContributions(EmployeeModel employee) {
         try {
-            BigDecimal basicSalary = employee.getBasicSalary();
-            
-            // SSS: 4.5% of basic salary (employee share)
-            BigDecimal sss = basicSalary.multiply(new BigDecimal("0.045")).setScale(2, RoundingMode.HALF_UP);
-            
-            // PhilHealth: 2.75% of basic salary (employee share) 
-            BigDecimal philhealth = basicSalary.multiply(new BigDecimal("0.0275")).setScale(2, RoundingMode.HALF_UP);
-            
-            // Pag-IBIG: 2% of basic salary (employee share)
-            BigDecimal pagibig = basicSalary.multiply(new BigDecimal("0.02")).setScale(2, RoundingMode.HALF_UP);
-            
-            // Withholding Tax: Based on tax brackets
-            BigDecimal withholdingTax = calculateWithholdingTax(grossIncome);
-            
-            return sss.add(philhealth).add(pagibig).add(withholdingTax);
-            
+            return calculateGovernmentContributions(employee.getBasicSalary());
         } catch (Exception e) {
-            System.err.println("Error calculating deductions: " + e.getMessage());
+            System.err.println("Error calculating government contributions: " + e.getMessage());
             return BigDecimal.ZERO;
         }
     }
     
+    /**
+     * Calculates government mandated contributions (employee share) from a monthly basic salary
+     * Shared with PayrollVerificationService so verification applies the same rules
+     */
+    public static BigDecimal calculateGovernmentContributions(BigDecimal basicSalary) {
+        // SSS: 4.5% of basic salary (employee share)
+        BigDecimal sss = basicSalary.multiply(new BigDecimal("0.045")).setScale(2, RoundingMode.HALF_UP);
+        
+        // PhilHealth: 2.75% of basic salary (employee share) 
+        BigDecimal philhealth = basicSalary.multiply(new BigDecimal("0.0275")).setScale(2, RoundingMode.HALF_UP);
+        
+        // Pag-IBIG: 2% of basic salary (employee share)
+        BigDecimal pagibig = basicSalary.multiply(new BigDecimal("0.02")).setScale(2, RoundingMode.HALF_UP);
+        
+        return sss.add(philhealth).add(pagibig);
+    }
+    
     /**
      * Calculates withholding tax based on BIR tax brackets
+     * Shared with PayrollVerificationService so verification applies the same rules
      */
-    private BigDecimal calculateWithholdingTax(BigDecimal grossIncome) {
+    public static BigDecimal calculateWithholdingTax(BigDecimal grossIncome) {
         BigDecimal monthlyGross = grossIncome;
         
         // Tax brackets (monthly basis)
@@ -351,7 +444,23 @@ public class PayrollService {
     // ===============================
     // UTILITY AND HELPER METHODS
     // ===============================
-    
+
+    /**
+     * Adds the retro pay adjustment lines targeted at this employee and period to a calculation
+     * (see RetroPayService); gross, deductions and net all carry the adjustment
+     */
+    private void applyRetroAdjustment(PayrollCalculation calc) {
+        PayrollAdjustmentModel adjustment = adjustmentDAO.getAdjustmentTotal(calc.getEmployeeId(), calc.getPayPeriodId());
+        if (adjustment.isZero()) {
+            return;
+        }
+
+        calc.setRetroAdjustment(adjustment.getNetAdjustment());
+        calc.setGrossIncome(calc.getGrossIncome().add(adjustment.getGrossAdjustment()));
+        calc.setTotalDeductions(calc.getTotalDeductions().add(adjustment.getDeductionAdjustment()));
+        calc.setNetSalary(calc.getNetSalary().add(adjustment.getNetAdjustment()));
+    }
+
     /**
      * Creates a PayrollModel from calculation results
      */
@@ -395,6 +504,44 @@ public class PayrollService {
         }
     }
     
+    /**
+     * Publishes a progress snapshot of the current run without blocking the caller
+     */
+    private void publishProgress(PayrollProgressPublisher.EventType type, PayrollProcessingResult result,
+                                 Integer employeeId, long startTime, String message) {
+        if (!progressPublisher.hasListeners()) {
+            return;
+        }
+        progressPublisher.publish(new PayrollProgressPublisher.ProgressEvent(
+            type,
+            result.getPayPeriodId(),
+            employeeId,
+            result.getTotalEmployees(),
+            result.getProcessedEmployees(),
+            result.getFailedEmployees(),
+            System.currentTimeMillis() - startTime,
+            message
+        ));
+    }
+    
+    // ===============================
+    // PROGRESS LISTENERS
+    // ===============================
+    
+    /**
+     * Subscribes to payroll run progress events (delivered asynchronously)
+     */
+    public void addProgressListener(PayrollProgressPublisher.Listener listener) {
+        progressPublisher.addListener(listener);
+    }
+    
+    /**
+     * Unsubscribes from payroll run progress events
+     */
+    public void removeProgressListener(PayrollProgressPublisher.Listener listener) {
+        progressPublisher.removeListener(listener);
+    }
+    
     // ===============================
     // PUBLIC QUERY METHODS
     // ===============================
@@ -420,6 +567,26 @@ public class PayrollService {
         return payrollDAO.getPayrollSummary(payPeriodId);
     }
     
+    /**
+     * Gets payroll summaries per department for a pay period
+     */
+    public Map<String, PayrollDAO.PayrollSummary> getPayrollSummaryByDepartment(Integer payPeriodId) {
+        return payrollDAO.getPayrollSummaryByDepartment(payPeriodId);
+    }
+    
+    /**
+     * Checks the stored pay period totals against the payroll and payslip tables
+     * and rebuilds any that have drifted (e.g. after direct SQL edits or employee transfers)
+     * @return The mismatches that were found and repaired
+     */
+    public List<PayPeriodTotalsDAO.TotalsMismatch> reconcilePeriodTotals(Integer payPeriodId) {
+        List<PayPeriodTotalsDAO.TotalsMismatch> mismatches = payPeriodTotalsDAO.reconcileAndRepair(payPeriodId);
+        for (PayPeriodTotalsDAO.TotalsMismatch mismatch : mismatches) {
+            System.err.println("⚠️ " + mismatch);
+        }
+        return mismatches;
+    }
+    
     /**
      * Deletes payroll for a pay period (use with caution)
      */
@@ -442,8 +609,11 @@ public class PayrollService {
         private BigDecimal overtimePay = BigDecimal.ZERO;
         private BigDecimal totalBenefits = BigDecimal.ZERO;
         private BigDecimal grossIncome = BigDecimal.ZERO;
+        private BigDecimal governmentContributions = BigDecimal.ZERO;
+        private BigDecimal withholdingTax = BigDecimal.ZERO;
         private BigDecimal totalDeductions = BigDecimal.ZERO;
         private BigDecimal netSalary = BigDecimal.ZERO;
+        private BigDecimal retroAdjustment = BigDecimal.ZERO;
         
         // Getters and setters
         public Integer getEmployeeId() { return employeeId; }
@@ -467,11 +637,20 @@ public class PayrollService {
         public BigDecimal getGrossIncome() { return grossIncome; }
         public void setGrossIncome(BigDecimal grossIncome) { this.grossIncome = grossIncome; }
         
+        public BigDecimal getGovernmentContributions() { return governmentContributions; }
+        public void setGovernmentContributions(BigDecimal governmentContributions) { this.governmentContributions = governmentContributions; }
+        
+        public BigDecimal getWithholdingTax() { return withholdingTax; }
+        public void setWithholdingTax(BigDecimal withholdingTax) { this.withholdingTax = withholdingTax; }
+        
         public BigDecimal getTotalDeductions() { return totalDeductions; }
         public void setTotalDeductions(BigDecimal totalDeductions) { this.totalDeductions = totalDeductions; }
         
         public BigDecimal getNetSalary() { return netSalary; }
         public void setNetSalary(BigDecimal netSalary) { this.netSalary = netSalary; }
+        
+        public BigDecimal getRetroAdjustment() { return retroAdjustment; }
+        public void setRetroAdjustment(BigDecimal retroAdjustment) { this.retroAdjustment = retroAdjustment; }
     }
     
     /**
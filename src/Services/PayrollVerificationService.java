@@ -0,0 +1,366 @@
+package Services;
+import DAOs.*;
+import Models.*;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * PayrollVerificationService - Bulk verification of stored payroll against expected values
+ * Loads a period's payroll joined with employee data in one query, recomputes the expected
+ * figures in parallel and reports every mismatch as a structured discrepancy
+ * @author User
+ */
+
+public class PayrollVerificationService {
+    // Deductions may differ from the expected contributions by up to this amount
+    private static final BigDecimal DEDUCTION_TOLERANCE = new BigDecimal("1.00");
+
+    private final PayrollDAO payrollDAO;
+    private final PayrollAdjustmentDAO adjustmentDAO;
+    private final SalaryHistoryDAO salaryHistoryDAO;
+    private final PayPeriodDAO payPeriodDAO;
+
+    /**
+     * Constructor - initializes required DAOs
+     */
+    public PayrollVerificationService() {
+        this(new DatabaseConnection());
+    }
+
+    /**
+     * Constructor with custom database connection (for dependency injection)
+     */
+    public PayrollVerificationService(DatabaseConnection databaseConnection) {
+        this.payrollDAO = new PayrollDAO(databaseConnection);
+        this.adjustmentDAO = new PayrollAdjustmentDAO(databaseConnection);
+        this.salaryHistoryDAO = new SalaryHistoryDAO(databaseConnection);
+        this.payPeriodDAO = new PayPeriodDAO();
+    }
+
+    // ================================
+    // VERIFICATION
+    // ================================
+
+    /**
+     * Verifies every payroll record in a pay period
+     * @param payPeriodId The pay period to verify
+     * @return VerificationReport with totals and all discrepancies
+     */
+    public VerificationReport verifyPeriod(Integer payPeriodId) {
+        return verifyPeriod(payPeriodId, null);
+    }
+
+    /**
+     * Verifies every payroll record in a pay period, streaming discrepancies to a sink
+     * Records are checked in parallel; the sink receives discrepancies in employee order
+     * on the calling thread
+     * @param payPeriodId The pay period to verify
+     * @param sink Receives each discrepancy as it is reported (may be null)
+     * @return VerificationReport with totals and all discrepancies
+     */
+    public VerificationReport verifyPeriod(Integer payPeriodId, Consumer<Discrepancy> sink) {
+        long startTime = System.currentTimeMillis();
+        VerificationReport report = new VerificationReport(payPeriodId);
+
+        List<PayrollDAO.PayrollEmployeeRow> rows = payrollDAO.findPayrollWithEmployee(payPeriodId);
+        Map<Integer, PayrollAdjustmentModel> adjustments = adjustmentDAO.getAdjustmentTotalsForPeriod(payPeriodId);
+
+        // Salaries in effect during the period, for every employee in one query
+        PayPeriodModel period = payPeriodDAO.findById(payPeriodId);
+        Set<Integer> employeeIds = new HashSet<>();
+        for (PayrollDAO.PayrollEmployeeRow row : rows) {
+            employeeIds.add(row.getPayroll().getEmployeeId());
+        }
+        Map<Integer, List<SalaryHistoryModel>> histories = salaryHistoryDAO.findByEmployees(employeeIds);
+
+        List<List<Discrepancy>> perRecord = rows.parallelStream()
+            .map(row -> verifyRecord(row, adjustments.get(row.getPayroll().getEmployeeId()),
+                salariesForPeriod(row, histories.get(row.getPayroll().getEmployeeId()), period)))
+            .collect(Collectors.toList());
+
+        for (int i = 0; i < rows.size(); i++) {
+            PayrollModel payroll = rows.get(i).getPayroll();
+            List<Discrepancy> discrepancies = perRecord.get(i);
+
+            report.addRecord(payroll, discrepancies.isEmpty());
+            for (Discrepancy discrepancy : discrepancies) {
+                report.addDiscrepancy(discrepancy);
+                if (sink != null) {
+                    sink.accept(discrepancy);
+                }
+            }
+        }
+
+        report.setElapsedMillis(System.currentTimeMillis() - startTime);
+        return report;
+    }
+
+    /**
+     * Recomputes the expected values for one payroll record
+     * Same checks AccountingModel has always applied: semi-monthly basic salary,
+     * net = gross - deductions, and deductions close to what PayrollService would deduct
+     * (contributions, withholding tax on the gross before retro pay, plus retro deductions)
+     * @param adjustment Retro pay routed to this employee and period, or null if none
+     * @param salaries Monthly salaries the record may have been computed from (see salariesForPeriod)
+     */
+    private List<Discrepancy> verifyRecord(PayrollDAO.PayrollEmployeeRow row, PayrollAdjustmentModel adjustment,
+                                           List<BigDecimal> salaries) {
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        PayrollModel payroll = row.getPayroll();
+
+        if (!row.isEmployeeFound() || salaries.isEmpty()) {
+            discrepancies.add(new Discrepancy(payroll.getEmployeeId(), null, payroll.getPayrollId(),
+                Field.EMPLOYEE, null, null));
+            return discrepancies;
+        }
+
+        // Basic salary (semi-monthly), checked against the salary the record matches, if any
+        BigDecimal basicSalary = salaries.get(0);
+        BigDecimal expectedBasic = semiMonthly(basicSalary);
+        for (BigDecimal salary : salaries) {
+            if (payroll.getBasicSalary() != null && payroll.getBasicSalary().compareTo(semiMonthly(salary)) == 0) {
+                basicSalary = salary;
+                expectedBasic = semiMonthly(salary);
+                break;
+            }
+        }
+        if (payroll.getBasicSalary() == null || payroll.getBasicSalary().compareTo(expectedBasic) != 0) {
+            discrepancies.add(new Discrepancy(payroll.getEmployeeId(), row.getEmployeeName(), payroll.getPayrollId(),
+                Field.BASIC_SALARY, expectedBasic, payroll.getBasicSalary()));
+        }
+
+        // Net salary = gross income - total deductions
+        if (payroll.getGrossIncome() != null && payroll.getTotalDeduction() != null) {
+            BigDecimal expectedNet = payroll.getGrossIncome().subtract(payroll.getTotalDeduction());
+            if (payroll.getNetSalary() == null || payroll.getNetSalary().compareTo(expectedNet) != 0) {
+                discrepancies.add(new Discrepancy(payroll.getEmployeeId(), row.getEmployeeName(), payroll.getPayrollId(),
+                    Field.NET_SALARY, expectedNet, payroll.getNetSalary()));
+            }
+        }
+
+        // Deductions against contributions + withholding tax (+ retro), with rounding tolerance
+        BigDecimal expectedDeductions = calculateExpectedDeductions(basicSalary, payroll.getGrossIncome(), adjustment);
+        BigDecimal actualDeductions = payroll.getTotalDeduction();
+        if (actualDeductions == null || actualDeductions.subtract(expectedDeductions).abs().compareTo(DEDUCTION_TOLERANCE) > 0) {
+            discrepancies.add(new Discrepancy(payroll.getEmployeeId(), row.getEmployeeName(), payroll.getPayrollId(),
+                Field.TOTAL_DEDUCTION, expectedDeductions, actualDeductions));
+        }
+
+        return discrepancies;
+    }
+
+    /**
+     * Gets the monthly salaries a period's payroll record may have been computed from
+     * PayrollService uses the salary in effect when payroll is run, normally the one in effect
+     * on the period's last day. A raise inside the period that was recorded after payroll ran is
+     * paid through retro pay in a later period, so the salary in effect on the first day is
+     * accepted as well. Without salary history (or period dates) the employee's current salary
+     * is used.
+     * @return Candidate salaries, most likely first (empty if none is known)
+     */
+    private static List<BigDecimal> salariesForPeriod(PayrollDAO.PayrollEmployeeRow row,
+                                                      List<SalaryHistoryModel> history, PayPeriodModel period) {
+        List<BigDecimal> salaries = new ArrayList<>();
+        if (history != null && !history.isEmpty() && period != null
+                && period.getStartDate() != null && period.getEndDate() != null) {
+            for (LocalDate date : new LocalDate[] { period.getEndDate(), period.getStartDate() }) {
+                SalaryHistoryModel inEffect = SalaryHistoryDAO.findInEffect(history, date, null);
+                if (inEffect != null && inEffect.getBasicSalary() != null && !salaries.contains(inEffect.getBasicSalary())) {
+                    salaries.add(inEffect.getBasicSalary());
+                }
+            }
+        }
+        if (salaries.isEmpty() && row.getEmployeeBasicSalary() != null) {
+            salaries.add(row.getEmployeeBasicSalary());
+        }
+        return salaries;
+    }
+
+    private static BigDecimal semiMonthly(BigDecimal monthlySalary) {
+        return monthlySalary.divide(new BigDecimal("2"), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calculates the deductions PayrollService would have stored for a payroll record
+     * PayrollService taxes the gross before retro pay is added, then adds the retro lines'
+     * deductions on top, so the retro gross is taken back out before applying the tax brackets.
+     */
+    private BigDecimal calculateExpectedDeductions(BigDecimal basicSalary, BigDecimal storedGross,
+                                                   PayrollAdjustmentModel adjustment) {
+        BigDecimal expected = PayrollService.calculateGovernmentContributions(basicSalary);
+        if (storedGross != null) {
+            BigDecimal grossBeforeRetro = adjustment != null ? storedGross.subtract(adjustment.getGrossAdjustment()) : storedGross;
+            expected = expected.add(PayrollService.calculateWithholdingTax(grossBeforeRetro));
+        }
+        if (adjustment != null) {
+            expected = expected.add(adjustment.getDeductionAdjustment());
+        }
+        return expected;
+    }
+
+    // ===============================
+    // INNER CLASSES
+    // ===============================
+
+    /**
+     * Payroll fields that verification checks
+     */
+    public enum Field {
+        EMPLOYEE,
+        BASIC_SALARY,
+        NET_SALARY,
+        TOTAL_DEDUCTION
+    }
+
+    /**
+     * One mismatch between a stored payroll value and its expected value
+     */
+    public static class Discrepancy {
+        private final Integer employeeId;
+        private final String employeeName;
+        private final Integer payrollId;
+        private final Field field;
+        private final BigDecimal expected;
+        private final BigDecimal actual;
+
+        public Discrepancy(Integer employeeId, String employeeName, Integer payrollId,
+                           Field field, BigDecimal expected, BigDecimal actual) {
+            this.employeeId = employeeId;
+            this.employeeName = employeeName;
+            this.payrollId = payrollId;
+            this.field = field;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        // Getters
+        public Integer getEmployeeId() { return employeeId; }
+        public String getEmployeeName() { return employeeName; }
+        public Integer getPayrollId() { return payrollId; }
+        public Field getField() { return field; }
+        public BigDecimal getExpected() { return expected; }
+        public BigDecimal getActual() { return actual; }
+
+        /**
+         * @return actual - expected, or null when either side is missing
+         */
+        public BigDecimal getDelta() {
+            return expected != null && actual != null ? actual.subtract(expected) : null;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Discrepancy{employeeId=%d, field=%s, expected=%s, actual=%s, delta=%s}",
+                    employeeId, field, expected, actual, getDelta());
+        }
+    }
+
+    /**
+     * Holds the outcome of verifying a pay period
+     */
+    public static class VerificationReport {
+        private final Integer payPeriodId;
+        private int totalRecords = 0;
+        private int verifiedRecords = 0;
+        private int discrepancyRecords = 0;
+        private long elapsedMillis = 0;
+        private BigDecimal totalGross = BigDecimal.ZERO;
+        private BigDecimal totalNet = BigDecimal.ZERO;
+        private BigDecimal totalDeductions = BigDecimal.ZERO;
+        private final List<Discrepancy> discrepancies = new ArrayList<>();
+
+        public VerificationReport(Integer payPeriodId) {
+            this.payPeriodId = payPeriodId;
+        }
+
+        void addRecord(PayrollModel payroll, boolean verified) {
+            totalRecords++;
+            if (verified) {
+                verifiedRecords++;
+            } else {
+                discrepancyRecords++;
+            }
+            if (payroll.getGrossIncome() != null) totalGross = totalGross.add(payroll.getGrossIncome());
+            if (payroll.getNetSalary() != null) totalNet = totalNet.add(payroll.getNetSalary());
+            if (payroll.getTotalDeduction() != null) totalDeductions = totalDeductions.add(payroll.getTotalDeduction());
+        }
+
+        void addDiscrepancy(Discrepancy discrepancy) {
+            discrepancies.add(discrepancy);
+        }
+
+        /**
+         * Writes the discrepancies as CSV (employeeId, employeeName, payrollId, field, expected, actual, delta)
+         * @param writer Destination writer; not closed by this method
+         */
+        public void writeCsv(Writer writer) {
+            PrintWriter out = new PrintWriter(writer);
+            out.println("employeeId,employeeName,payrollId,field,expected,actual,delta");
+            for (Discrepancy d : discrepancies) {
+                out.println(d.getEmployeeId() + "," +
+                    csvText(d.getEmployeeName()) + "," +
+                    d.getPayrollId() + "," +
+                    d.getField() + "," +
+                    csvNumber(d.getExpected()) + "," +
+                    csvNumber(d.getActual()) + "," +
+                    csvNumber(d.getDelta()));
+            }
+            out.flush();
+        }
+
+        /**
+         * Exports the discrepancies to a CSV file
+         * @param path Destination file
+         * @throws IOException if the file cannot be written
+         */
+        public void exportCsv(Path path) throws IOException {
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                writeCsv(writer);
+            }
+        }
+
+        private static String csvText(String value) {
+            if (value == null) {
+                return "";
+            }
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        private static String csvNumber(BigDecimal value) {
+            return value != null ? value.toPlainString() : "";
+        }
+
+        // Getters and setters
+        public Integer getPayPeriodId() { return payPeriodId; }
+        public int getTotalRecords() { return totalRecords; }
+        public int getVerifiedRecords() { return verifiedRecords; }
+        public int getDiscrepancyRecords() { return discrepancyRecords; }
+        public BigDecimal getTotalGross() { return totalGross; }
+        public BigDecimal getTotalNet() { return totalNet; }
+        public BigDecimal getTotalDeductions() { return totalDeductions; }
+        public List<Discrepancy> getDiscrepancies() { return discrepancies; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("VerificationReport{payPeriodId=%d, records=%d, verified=%d, discrepancies=%d, elapsed=%dms}",
+                    payPeriodId, totalRecords, verifiedRecords, discrepancies.size(), elapsedMillis);
+        }
+    }
+}
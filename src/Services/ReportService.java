@@ -269,16 +269,13 @@ public class ReportService {
         report.setGeneratedDate(LocalDate.now());
         
         try {
-            List<EmployeeModel> activeEmployees = employeeDAO.getActiveEmployees();
             List<EmployeeAttendanceSummary> employeeSummaries = new ArrayList<>();
             
-            for (EmployeeModel employee : activeEmployees) {
-                AttendanceService.AttendanceSummary summary = 
-                        attendanceService.getMonthlyAttendanceSummary(employee.getEmployeeId(), yearMonth);
-                
+            // One grouped query for all active employees
+            for (AttendanceService.AttendanceSummary summary : attendanceService.getMonthlyAttendanceSummaries(yearMonth)) {
                 EmployeeAttendanceSummary empSummary = new EmployeeAttendanceSummary();
-                empSummary.setEmployeeId(employee.getEmployeeId());
-                empSummary.setEmployeeName(employee.getFullName());
+                empSummary.setEmployeeId(summary.getEmployeeId());
+                empSummary.setEmployeeName(summary.getEmployeeName());
                 empSummary.setTotalDays(summary.getTotalDays());
                 empSummary.setCompleteDays(summary.getCompleteDays());
                 empSummary.setTotalHours(summary.getTotalHours());
@@ -0,0 +1,389 @@
+package Services;
+import DAOs.*;
+import Models.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RetroPayService - Retroactive pay adjustments for back-dated salary changes
+ * Records effective-dated salary changes, finds the closed pay periods they reach,
+ * recomputes the affected employees in one batch and writes the differences as
+ * adjustment lines to the next open pay period instead of rerunning whole periods
+ * @author User
+ */
+
+public class RetroPayService {
+    // Same multiplier PayrollService applies to approved overtime
+    private static final BigDecimal OVERTIME_MULTIPLIER = new BigDecimal("1.5");
+
+    // DAO Dependencies
+    private final EmployeeDAO employeeDAO;
+    private final PayrollDAO payrollDAO;
+    private final SalaryHistoryDAO salaryHistoryDAO;
+    private final PayrollAdjustmentDAO adjustmentDAO;
+    private final AttendanceDAO attendanceDAO;
+    private final OvertimeRequestDAO overtimeDAO;
+    private final BenefitTypeDAO benefitDAO;
+    private final PayPeriodDAO payPeriodDAO;
+    private final PayrollService payrollService;
+
+    /**
+     * Constructor - initializes all required DAOs
+     */
+    public RetroPayService() {
+        this(new DatabaseConnection());
+    }
+
+    /**
+     * Constructor with custom database connection (for dependency injection)
+     */
+    public RetroPayService(DatabaseConnection databaseConnection) {
+        this.employeeDAO = new EmployeeDAO(databaseConnection);
+        this.payrollDAO = new PayrollDAO(databaseConnection);
+        this.salaryHistoryDAO = new SalaryHistoryDAO(databaseConnection);
+        this.adjustmentDAO = new PayrollAdjustmentDAO(databaseConnection);
+        this.attendanceDAO = new AttendanceDAO(databaseConnection);
+        this.overtimeDAO = new OvertimeRequestDAO(databaseConnection);
+        this.benefitDAO = new BenefitTypeDAO();
+        this.payPeriodDAO = new PayPeriodDAO();
+        this.payrollService = new PayrollService(databaseConnection);
+    }
+
+    // ================================
+    // RETROACTIVE PAY
+    // ================================
+
+    /**
+     * Records a salary change and, when it is back-dated, adjusts the closed periods it reaches
+     * @param employeeId The employee ID
+     * @param basicSalary The new basic salary
+     * @param hourlyRate The new hourly rate
+     * @param effectiveDate The first day the new salary applies (today or earlier)
+     * @return RetroPayResult with the adjustment lines written
+     */
+    public RetroPayResult applySalaryChange(Integer employeeId, BigDecimal basicSalary,
+                                            BigDecimal hourlyRate, LocalDate effectiveDate) {
+        SalaryHistoryModel change = salaryHistoryDAO.recordSalaryChange(employeeId, basicSalary, hourlyRate, effectiveDate);
+        if (change == null) {
+            RetroPayResult result = new RetroPayResult();
+            result.setSuccess(false);
+            result.addError("Salary change could not be recorded for employee " + employeeId);
+            return result;
+        }
+
+        List<SalaryHistoryModel> changes = new ArrayList<>();
+        changes.add(change);
+        return processRetroChanges(changes);
+    }
+
+    /**
+     * Recomputes the closed periods reached by recorded salary changes and writes adjustment lines
+     * All affected employees are handled in one pass: attendance, overtime, benefits and salary
+     * history are loaded once for the whole affected date range. Rerunning with the same changes
+     * replaces unpaid lines and only tops up lines that were already paid.
+     * @param changes Salary history rows already stored by SalaryHistoryDAO
+     * @return RetroPayResult with the adjustment lines written
+     */
+    public RetroPayResult processRetroChanges(List<SalaryHistoryModel> changes) {
+        long startTime = System.currentTimeMillis();
+        RetroPayResult result = new RetroPayResult();
+
+        try {
+            // 1. Employees and the earliest date any change reaches back to
+            Set<Integer> employeeIds = new LinkedHashSet<>();
+            LocalDate earliest = null;
+            for (SalaryHistoryModel change : changes) {
+                employeeIds.add(change.getEmployeeId());
+                if (earliest == null || change.getEffectiveDate().isBefore(earliest)) {
+                    earliest = change.getEffectiveDate();
+                }
+            }
+            if (earliest == null) {
+                result.setSuccess(true);
+                return result;
+            }
+
+            // 2. Processed payroll the changes reach, grouped by employee
+            Map<Integer, List<PayrollModel>> processed = new HashMap<>();
+            Map<Integer, PayPeriodModel> periods = new HashMap<>();
+            for (PayrollModel payroll : payrollDAO.findProcessedForEmployees(employeeIds, earliest)) {
+                processed.computeIfAbsent(payroll.getEmployeeId(), k -> new ArrayList<>()).add(payroll);
+                if (!periods.containsKey(payroll.getPayPeriodId())) {
+                    periods.put(payroll.getPayPeriodId(), payPeriodDAO.findById(payroll.getPayPeriodId()));
+                }
+            }
+            periods.values().removeIf(period -> period == null);
+
+            if (periods.isEmpty()) {
+                result.setSuccess(true);
+                System.out.println("ℹ️ No processed pay periods are affected by the salary changes");
+                return result;
+            }
+
+            LocalDate rangeStart = null;
+            LocalDate rangeEnd = null;
+            for (PayPeriodModel period : periods.values()) {
+                if (rangeStart == null || period.getStartDate().isBefore(rangeStart)) rangeStart = period.getStartDate();
+                if (rangeEnd == null || period.getEndDate().isAfter(rangeEnd)) rangeEnd = period.getEndDate();
+            }
+
+            // 3. The open period that receives the adjustments
+            PayPeriodModel target = payPeriodDAO.findNextOpenPeriod(rangeEnd);
+            if (target == null) {
+                result.setSuccess(false);
+                result.addError("No open pay period after " + rangeEnd + " to receive the adjustments");
+                return result;
+            }
+            result.setTargetPayPeriodId(target.getPayPeriodId());
+
+            // 4. Reference data loaded once for all affected employees
+            Map<Integer, List<SalaryHistoryModel>> histories = salaryHistoryDAO.findByEmployees(employeeIds);
+            Map<Integer, BigDecimal> benefitsByPosition = benefitDAO.getBenefitTotalsByPosition();
+            Map<Integer, Map<YearMonth, BigDecimal>> overtimeHours = loadOvertimeHours(employeeIds, rangeStart, rangeEnd);
+
+            System.out.println("🔄 Recomputing " + periods.size() + " closed pay periods for " + employeeIds.size() + " employees");
+
+            // 5. Employee rows and attendance hours, loaded once per employee rather than per change
+            Map<Integer, EmployeeModel> employees = new HashMap<>();
+            Map<Integer, Map<Integer, BigDecimal>> hoursByEmployee = new HashMap<>();
+            for (Integer employeeId : employeeIds) {
+                EmployeeModel employee = employeeDAO.findById(employeeId);
+                List<PayrollModel> employeePayroll = processed.get(employeeId);
+                if (employee == null || employeePayroll == null) {
+                    continue;
+                }
+                employees.put(employeeId, employee);
+                hoursByEmployee.put(employeeId, loadHoursByPeriod(employeeId, employeePayroll, periods, rangeStart, rangeEnd));
+            }
+
+            // 6. Recompute each affected employee/period for the sub-range the change starts.
+            //    A change's line is the difference between it and the salary it replaced, from its
+            //    effective date to the period end; a later change in the same period adds its own
+            //    line on top, so every rate in the period is counted once.
+            List<PayrollAdjustmentModel> adjustments = new ArrayList<>();
+            Set<Integer> affectedPeriods = new LinkedHashSet<>();
+            for (SalaryHistoryModel change : changes) {
+                EmployeeModel employee = employees.get(change.getEmployeeId());
+                if (employee == null) {
+                    continue;
+                }
+
+                List<SalaryHistoryModel> history = histories.getOrDefault(change.getEmployeeId(), new ArrayList<>());
+                SalaryHistoryModel before = SalaryHistoryDAO.findInEffect(history, change.getEffectiveDate().minusDays(1),
+                                                                          change.getSalaryHistoryId());
+                if (before == null) {
+                    continue;
+                }
+
+                Map<Integer, BigDecimal> hoursByPeriod = hoursByEmployee.get(employee.getEmployeeId());
+                BigDecimal benefits = employee.getPositionId() != null
+                    ? benefitsByPosition.getOrDefault(employee.getPositionId(), BigDecimal.ZERO)
+                    : BigDecimal.ZERO;
+                Map<YearMonth, BigDecimal> employeeOvertime = overtimeHours.getOrDefault(employee.getEmployeeId(), new HashMap<>());
+
+                for (PayrollModel payroll : processed.get(change.getEmployeeId())) {
+                    PayPeriodModel period = periods.get(payroll.getPayPeriodId());
+                    if (period == null || period.getEndDate().isBefore(change.getEffectiveDate())) {
+                        continue;
+                    }
+
+                    BigDecimal hours = hoursByPeriod.getOrDefault(period.getPayPeriodId(), BigDecimal.ZERO);
+                    BigDecimal overtime = employeeOvertime.getOrDefault(YearMonth.from(period.getStartDate()), BigDecimal.ZERO);
+
+                    PayrollService.PayrollCalculation paid = recompute(employee, before, period, hours, overtime, benefits);
+                    PayrollService.PayrollCalculation owed = recompute(employee, change, period, hours, overtime, benefits);
+
+                    // A change that starts mid-period only applies to the days it covers
+                    BigDecimal share = coveredShare(period, change.getEffectiveDate());
+
+                    PayrollAdjustmentModel adjustment = new PayrollAdjustmentModel(
+                        employee.getEmployeeId(), period.getPayPeriodId(), target.getPayPeriodId(), change.getSalaryHistoryId());
+                    adjustment.setGrossAdjustment(difference(owed.getGrossIncome(), paid.getGrossIncome(), share));
+                    adjustment.setDeductionAdjustment(difference(owed.getTotalDeductions(), paid.getTotalDeductions(), share));
+                    adjustment.setNetAdjustment(adjustment.getGrossAdjustment().subtract(adjustment.getDeductionAdjustment()));
+                    adjustment.setReason("Salary change effective " + change.getEffectiveDate() + " for " + period.getPeriodName());
+
+                    if (!adjustment.isZero()) {
+                        adjustments.add(adjustment);
+                        affectedPeriods.add(period.getPayPeriodId());
+                    }
+                }
+            }
+
+            // 7. Write every line in one batch (lines already paid out are only topped up)
+            if (adjustmentDAO.saveAdjustments(adjustments) < 0) {
+                result.setSuccess(false);
+                result.addError("Failed to save payroll adjustments");
+                return result;
+            }
+
+            for (PayrollAdjustmentModel adjustment : adjustments) {
+                result.addAdjustment(adjustment);
+            }
+            result.setAffectedPeriods(affectedPeriods.size());
+            result.setSuccess(true);
+            System.out.println("🏁 Retro pay completed. Adjustment lines: " + adjustments.size() +
+                               ", target period: " + target.getPeriodName());
+
+        } catch (Exception e) {
+            result.setSuccess(false);
+            result.addError("Fatal error during retro pay processing: " + e.getMessage());
+            System.err.println("💥 Fatal error during retro pay processing: " + e.getMessage());
+        } finally {
+            result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        }
+
+        return result;
+    }
+
+    // ===============================
+    // CALCULATION HELPER METHODS
+    // ===============================
+
+    /**
+     * Runs the normal payroll calculation with the salary from one history row
+     */
+    private PayrollService.PayrollCalculation recompute(EmployeeModel employee, SalaryHistoryModel salary, PayPeriodModel period,
+                                                        BigDecimal hoursWorked, BigDecimal overtimeHours, BigDecimal benefits) {
+        EmployeeModel atSalary = new EmployeeModel();
+        atSalary.setEmployeeId(employee.getEmployeeId());
+        atSalary.setPositionId(employee.getPositionId());
+        atSalary.setBasicSalary(salary.getBasicSalary());
+        atSalary.setHourlyRate(salary.getHourlyRate());
+
+        BigDecimal overtimePay = overtimeHours.multiply(salary.getHourlyRate())
+                                              .multiply(OVERTIME_MULTIPLIER)
+                                              .setScale(2, RoundingMode.HALF_UP);
+
+        return payrollService.calculateEmployeePayroll(atSalary, period, hoursWorked, overtimePay, benefits);
+    }
+
+    /**
+     * Fraction of the period's days on or after the effective date (1 when the whole period is covered)
+     */
+    private BigDecimal coveredShare(PayPeriodModel period, LocalDate effectiveDate) {
+        if (!effectiveDate.isAfter(period.getStartDate())) {
+            return BigDecimal.ONE;
+        }
+        long totalDays = ChronoUnit.DAYS.between(period.getStartDate(), period.getEndDate()) + 1;
+        long coveredDays = ChronoUnit.DAYS.between(effectiveDate, period.getEndDate()) + 1;
+        return new BigDecimal(coveredDays).divide(new BigDecimal(totalDays), 6, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal difference(BigDecimal owed, BigDecimal paid, BigDecimal share) {
+        return owed.subtract(paid).multiply(share).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Completed hours per pay period for one employee, from a single attendance query
+     */
+    private Map<Integer, BigDecimal> loadHoursByPeriod(Integer employeeId, List<PayrollModel> employeePayroll,
+                                                      Map<Integer, PayPeriodModel> periods,
+                                                      LocalDate rangeStart, LocalDate rangeEnd) {
+        Map<Integer, BigDecimal> hours = new HashMap<>();
+        List<AttendanceModel> attendance = attendanceDAO.getAttendanceHistory(employeeId, rangeStart, rangeEnd);
+
+        for (PayrollModel payroll : employeePayroll) {
+            PayPeriodModel period = periods.get(payroll.getPayPeriodId());
+            if (period == null) {
+                continue;
+            }
+            BigDecimal total = BigDecimal.ZERO;
+            for (AttendanceModel record : attendance) {
+                if (record.isComplete() && period.containsDate(record.getDate())) {
+                    total = total.add(record.getHoursWorked());
+                }
+            }
+            hours.put(period.getPayPeriodId(), total);
+        }
+        return hours;
+    }
+
+    /**
+     * Approved overtime for the affected employees, as rounded hours per employee and month
+     */
+    private Map<Integer, Map<YearMonth, BigDecimal>> loadOvertimeHours(Set<Integer> employeeIds,
+                                                                      LocalDate rangeStart, LocalDate rangeEnd) {
+        YearMonth firstMonth = YearMonth.from(rangeStart);
+        YearMonth lastMonth = YearMonth.from(rangeEnd);
+
+        List<OvertimeRequestModel> requests = overtimeDAO.findApprovedByStartRange(
+            firstMonth.atDay(1).atStartOfDay(), lastMonth.plusMonths(1).atDay(1).atStartOfDay());
+
+        Map<Integer, Map<YearMonth, BigDecimal>> hours = new HashMap<>();
+        for (OvertimeRequestModel request : requests) {
+            if (!employeeIds.contains(request.getEmployeeId()) ||
+                request.getOvertimeStart() == null || request.getOvertimeEnd() == null) {
+                continue;
+            }
+            // Each request is rounded to 2 decimal places before summing, matching OvertimeRequestDAO
+            long minutes = java.time.Duration.between(request.getOvertimeStart(), request.getOvertimeEnd()).toMinutes();
+            BigDecimal requestHours = new BigDecimal(minutes).divide(new BigDecimal(60), 2, RoundingMode.HALF_UP);
+
+            hours.computeIfAbsent(request.getEmployeeId(), k -> new HashMap<>())
+                 .merge(YearMonth.from(request.getOvertimeStart()), requestHours, BigDecimal::add);
+        }
+        return hours;
+    }
+
+    // ===============================
+    // INNER CLASSES
+    // ===============================
+
+    /**
+     * Holds the outcome of a retro pay run
+     */
+    public static class RetroPayResult {
+        private boolean success = false;
+        private Integer targetPayPeriodId;
+        private int affectedPeriods = 0;
+        private BigDecimal totalGrossAdjustment = BigDecimal.ZERO;
+        private BigDecimal totalNetAdjustment = BigDecimal.ZERO;
+        private long elapsedMillis = 0;
+        private final List<PayrollAdjustmentModel> adjustments = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+
+        public void addAdjustment(PayrollAdjustmentModel adjustment) {
+            adjustments.add(adjustment);
+            totalGrossAdjustment = totalGrossAdjustment.add(adjustment.getGrossAdjustment());
+            totalNetAdjustment = totalNetAdjustment.add(adjustment.getNetAdjustment());
+        }
+
+        public void addError(String error) { errors.add(error); }
+
+        // Getters and setters
+        public boolean isSuccess() { return success; }
+        public void setSuccess(boolean success) { this.success = success; }
+
+        public Integer getTargetPayPeriodId() { return targetPayPeriodId; }
+        public void setTargetPayPeriodId(Integer targetPayPeriodId) { this.targetPayPeriodId = targetPayPeriodId; }
+
+        public int getAffectedPeriods() { return affectedPeriods; }
+        public void setAffectedPeriods(int affectedPeriods) { this.affectedPeriods = affectedPeriods; }
+
+        public BigDecimal getTotalGrossAdjustment() { return totalGrossAdjustment; }
+        public BigDecimal getTotalNetAdjustment() { return totalNetAdjustment; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+        public List<PayrollAdjustmentModel> getAdjustments() { return adjustments; }
+        public List<String> getErrors() { return errors; }
+
+        @Override
+        public String toString() {
+            return String.format("RetroPayResult{success=%s, targetPayPeriodId=%s, periods=%d, lines=%d, gross=%s, net=%s, elapsed=%dms}",
+                    success, targetPayPeriodId, affectedPeriods, adjustments.size(),
+                    totalGrossAdjustment, totalNetAdjustment, elapsedMillis);
+        }
+    }
+}
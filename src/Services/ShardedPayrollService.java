@@ -0,0 +1,364 @@
+package Services;
+import DAOs.*;
+import Models.*;
+import Models.PayrollShardModel.ShardStatus;
+import Models.PayrollShardModel.ShardType;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ShardedPayrollService - Distributed payroll runs across several worker processes
+ * A coordinator splits a pay period into shards (employee ID ranges or departments) stored in
+ * the payrollshard lease table. Headless workers, started in as many JVMs as needed against the
+ * same database, claim shards, compute them with PayrollService and mark them completed.
+ * Shards whose lease expires (worker crashed or stalled) are handed to the next worker that asks.
+ * Workers write payroll rows only; the period totals, integrity hashes and payslips are applied
+ * once by whichever worker completes the last shard (or by the finalize command), so workers
+ * never queue on the period's totals rows.
+ *
+ * Command line (run each worker in its own JVM):
+ *   java -cp CLASSPATH Services.ShardedPayrollService plan PAY_PERIOD_ID [range|department] [SHARD_SIZE]
+ *   java -cp CLASSPATH Services.ShardedPayrollService work PAY_PERIOD_ID [LEASE_SECONDS]
+ *   java -cp CLASSPATH Services.ShardedPayrollService status PAY_PERIOD_ID
+ *   java -cp CLASSPATH Services.ShardedPayrollService finalize PAY_PERIOD_ID
+ * @author User
+ */
+
+public class ShardedPayrollService {
+    public static final int DEFAULT_SHARD_SIZE = 50;
+    public static final int DEFAULT_LEASE_SECONDS = 120;
+    public static final int MAX_ATTEMPTS = 3;
+
+    // DAO Dependencies
+    private final PayrollShardDAO shardDAO;
+    private final PayPeriodDAO payPeriodDAO;
+    private final PayrollService payrollService;
+
+    /**
+     * Constructor - initializes all required DAOs
+     */
+    public ShardedPayrollService() {
+        this(new DatabaseConnection());
+    }
+
+    /**
+     * Constructor with custom database connection (for dependency injection)
+     */
+    public ShardedPayrollService(DatabaseConnection databaseConnection) {
+        this.shardDAO = new PayrollShardDAO(databaseConnection);
+        this.payPeriodDAO = new PayPeriodDAO();
+        this.payrollService = new PayrollService(databaseConnection);
+    }
+
+    // ================================
+    // COORDINATOR
+    // ================================
+
+    /**
+     * Splits a pay period into shards in the lease table
+     * Planning a period that already has shards returns the existing ones unchanged,
+     * so a coordinator restarted mid-run does not reshuffle work already handed out.
+     * @param payPeriodId The pay period to run
+     * @param shardType Split by employee ID range or by department
+     * @param shardSize Employees per shard (employee ranges only)
+     * @return The period's shards, or an empty list if planning failed
+     */
+    public List<PayrollShardModel> planRun(Integer payPeriodId, ShardType shardType, int shardSize) {
+        if (payPeriodId == null || payPeriodDAO.findById(payPeriodId) == null) {
+            System.err.println("❌ Pay period not found: " + payPeriodId);
+            return new ArrayList<>();
+        }
+
+        List<PayrollShardModel> existing = shardDAO.findByPeriod(payPeriodId);
+        if (!existing.isEmpty()) {
+            System.out.println("ℹ️ Pay period " + payPeriodId + " already has " + existing.size() + " shards");
+            return existing;
+        }
+
+        List<PayrollShardModel> planned = shardType == ShardType.DEPARTMENT
+            ? shardDAO.planDepartmentShards(payPeriodId)
+            : shardDAO.planEmployeeRangeShards(payPeriodId, shardSize);
+
+        if (shardDAO.createShards(planned) < 0) {
+            System.err.println("❌ Failed to create shards for pay period " + payPeriodId);
+            return new ArrayList<>();
+        }
+
+        System.out.println("🧩 Planned " + planned.size() + " shards for pay period " + payPeriodId);
+        return shardDAO.findByPeriod(payPeriodId);
+    }
+
+    /**
+     * Summarizes the shards of a distributed run
+     * @param payPeriodId The pay period being run
+     * @return ShardRunStatus with counts per shard status and employees processed so far
+     */
+    public ShardRunStatus getRunStatus(Integer payPeriodId) {
+        ShardRunStatus status = new ShardRunStatus(payPeriodId);
+        for (PayrollShardModel shard : shardDAO.findByPeriod(payPeriodId)) {
+            status.add(shard);
+        }
+        return status;
+    }
+
+    /**
+     * Puts shards that exhausted their attempts back in the queue
+     * @param payPeriodId The pay period being run
+     * @return Number of shards requeued
+     */
+    public int retryFailedShards(Integer payPeriodId) {
+        return shardDAO.resetFailedShards(payPeriodId);
+    }
+
+    /**
+     * Applies the period totals, integrity hashes and payslips once every shard is completed
+     * Workers call this after completing a shard; two workers finishing together both rebuild,
+     * which is harmless because the rebuild is repeatable.
+     * @param payPeriodId The pay period being run
+     * @return true if the run was complete and has been finalized
+     */
+    public boolean finalizeRun(Integer payPeriodId) {
+        ShardRunStatus status = getRunStatus(payPeriodId);
+        if (!status.isComplete()) {
+            System.out.println("ℹ️ Pay period " + payPeriodId + " still has unfinished shards: " + status);
+            return false;
+        }
+
+        if (!payrollService.finalizeDeferredPayroll(payPeriodId)) {
+            System.err.println("❌ Failed to finalize pay period " + payPeriodId);
+            return false;
+        }
+        System.out.println("🏁 Finalized totals and payslips for pay period " + payPeriodId);
+        return true;
+    }
+
+    // ================================
+    // WORKER
+    // ================================
+
+    /**
+     * Claims and processes shards of a pay period until none are left
+     * The lease is renewed before every employee; if it was lost (expired and taken by
+     * another worker) this worker drops the shard without completing it.
+     * Employees that already have payroll for the period are skipped by PayrollService,
+     * so a shard picked up again after a crash only computes the remaining employees.
+     * Rows are saved without period totals; the worker that completes the last shard finalizes the run.
+     * @param payPeriodId The pay period being run
+     * @param workerId Unique name of this worker
+     * @param leaseSeconds Lease length per claim and renewal
+     * @return WorkerResult with what this worker processed
+     */
+    public WorkerResult runWorker(Integer payPeriodId, String workerId, int leaseSeconds) {
+        WorkerResult result = new WorkerResult(workerId);
+        long startTime = System.currentTimeMillis();
+
+        PayrollShardModel shard;
+        while ((shard = shardDAO.claimShard(payPeriodId, workerId, leaseSeconds, MAX_ATTEMPTS)) != null) {
+            System.out.println("🔒 " + workerId + " leased shard " + shard.getShardNo() + " (" + shard.getScope() +
+                               ", attempt " + shard.getAttempts() + ")");
+
+            int processed = 0;
+            int failed = 0;
+            boolean leaseLost = false;
+
+            for (Integer employeeId : shardDAO.findEmployeeIdsForShard(shard)) {
+                if (!shardDAO.renewLease(shard.getShardId(), workerId, leaseSeconds)) {
+                    leaseLost = true;
+                    break;
+                }
+                try {
+                    if (payrollService.processEmployeePayroll(employeeId, payPeriodId, true)) {
+                        processed++;
+                    } else {
+                        failed++;
+                        result.addError("Failed to process payroll for employee: " + employeeId);
+                    }
+                } catch (Exception e) {
+                    failed++;
+                    result.addError("Error processing employee " + employeeId + ": " + e.getMessage());
+                }
+            }
+
+            result.addEmployees(processed, failed);
+
+            if (leaseLost || !shardDAO.completeShard(shard.getShardId(), workerId, processed, failed)) {
+                result.incrementLostLeases();
+                System.err.println("⚠️ " + workerId + " lost the lease on shard " + shard.getShardNo() + "; leaving it to its new owner");
+            } else {
+                result.incrementCompletedShards();
+                System.out.println("✅ " + workerId + " completed shard " + shard.getShardNo() +
+                                   " (" + processed + " processed, " + failed + " failed)");
+                if (getRunStatus(payPeriodId).isComplete() && finalizeRun(payPeriodId)) {
+                    result.setFinalizedRun(true);
+                }
+            }
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * Default worker name: host name and process ID, unique per JVM on a machine
+     */
+    public static String defaultWorkerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "localhost";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    // ================================
+    // COMMAND LINE
+    // ================================
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage:");
+            System.out.println("  plan <payPeriodId> [range|department] [shardSize]");
+            System.out.println("  work <payPeriodId> [leaseSeconds]");
+            System.out.println("  status <payPeriodId>");
+            System.out.println("  finalize <payPeriodId>");
+            return;
+        }
+
+        ShardedPayrollService service = new ShardedPayrollService();
+        Integer payPeriodId = Integer.valueOf(args[1]);
+
+        switch (args[0].toLowerCase()) {
+            case "plan": {
+                ShardType type = args.length > 2 && args[2].equalsIgnoreCase("department")
+                    ? ShardType.DEPARTMENT : ShardType.EMPLOYEE_RANGE;
+                int shardSize = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_SHARD_SIZE;
+                for (PayrollShardModel shard : service.planRun(payPeriodId, type, shardSize)) {
+                    System.out.println(shard);
+                }
+                break;
+            }
+            case "work": {
+                int leaseSeconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_LEASE_SECONDS;
+                System.out.println(service.runWorker(payPeriodId, defaultWorkerId(), leaseSeconds));
+                break;
+            }
+            case "status":
+                System.out.println(service.getRunStatus(payPeriodId));
+                break;
+            case "finalize":
+                service.finalizeRun(payPeriodId);
+                break;
+            default:
+                System.err.println("Unknown command: " + args[0]);
+        }
+    }
+
+    // ===============================
+    // INNER CLASSES
+    // ===============================
+
+    /**
+     * Progress of a distributed run, built from the lease table
+     */
+    public static class ShardRunStatus {
+        private final Integer payPeriodId;
+        private int totalShards = 0;
+        private int pendingShards = 0;
+        private int leasedShards = 0;
+        private int completedShards = 0;
+        private int failedShards = 0;
+        private int totalEmployees = 0;
+        private int processedEmployees = 0;
+        private int failedEmployees = 0;
+
+        public ShardRunStatus(Integer payPeriodId) {
+            this.payPeriodId = payPeriodId;
+        }
+
+        private void add(PayrollShardModel shard) {
+            totalShards++;
+            totalEmployees += shard.getEmployeeCount();
+            processedEmployees += shard.getProcessedEmployees();
+            failedEmployees += shard.getFailedEmployees();
+
+            if (shard.getStatus() == ShardStatus.PENDING) pendingShards++;
+            else if (shard.getStatus() == ShardStatus.LEASED) leasedShards++;
+            else if (shard.getStatus() == ShardStatus.COMPLETED) completedShards++;
+            else if (shard.getStatus() == ShardStatus.FAILED) failedShards++;
+        }
+
+        /**
+         * @return true once every shard is completed
+         */
+        public boolean isComplete() {
+            return totalShards > 0 && completedShards == totalShards;
+        }
+
+        // Getters
+        public Integer getPayPeriodId() { return payPeriodId; }
+        public int getTotalShards() { return totalShards; }
+        public int getPendingShards() { return pendingShards; }
+        public int getLeasedShards() { return leasedShards; }
+        public int getCompletedShards() { return completedShards; }
+        public int getFailedShards() { return failedShards; }
+        public int getTotalEmployees() { return totalEmployees; }
+        public int getProcessedEmployees() { return processedEmployees; }
+        public int getFailedEmployees() { return failedEmployees; }
+
+        @Override
+        public String toString() {
+            return String.format("ShardRunStatus{payPeriodId=%d, shards=%d, pending=%d, leased=%d, completed=%d, failed=%d, employees=%d/%d, failedEmployees=%d}",
+                    payPeriodId, totalShards, pendingShards, leasedShards, completedShards, failedShards,
+                    processedEmployees, totalEmployees, failedEmployees);
+        }
+    }
+
+    /**
+     * What one worker process did during a run
+     */
+    public static class WorkerResult {
+        private final String workerId;
+        private int completedShards = 0;
+        private int lostLeases = 0;
+        private int processedEmployees = 0;
+        private int failedEmployees = 0;
+        private long elapsedMillis = 0;
+        private boolean finalizedRun = false;
+        private final List<String> errors = new ArrayList<>();
+
+        public WorkerResult(String workerId) {
+            this.workerId = workerId;
+        }
+
+        public void addEmployees(int processed, int failed) {
+            processedEmployees += processed;
+            failedEmployees += failed;
+        }
+
+        public void incrementCompletedShards() { completedShards++; }
+        public void incrementLostLeases() { lostLeases++; }
+        public void addError(String error) { errors.add(error); }
+
+        // Getters and setters
+        public String getWorkerId() { return workerId; }
+        public int getCompletedShards() { return completedShards; }
+        public int getLostLeases() { return lostLeases; }
+        public int getProcessedEmployees() { return processedEmployees; }
+        public int getFailedEmployees() { return failedEmployees; }
+        public List<String> getErrors() { return errors; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+        public boolean isFinalizedRun() { return finalizedRun; }
+        public void setFinalizedRun(boolean finalizedRun) { this.finalizedRun = finalizedRun; }
+
+        @Override
+        public String toString() {
+            return String.format("WorkerResult{workerId=%s, shards=%d, lostLeases=%d, processed=%d, failed=%d, finalizedRun=%b, elapsed=%dms}",
+                    workerId, completedShards, lostLeases, processedEmployees, failedEmployees, finalizedRun, elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package Services;
+import DAOs.*;
+import DAOs.PayrollPushdownDAO.PushdownRow;
+import Models.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * SqlPayrollService - Payroll computed inside MySQL
+ * Runs a whole pay period as one set-based statement (PayrollPushdownDAO) instead of
+ * loading every employee, attendance record and overtime request into Java.
+ * The verification harness computes the same period with both engines and lists every
+ * employee and field where they disagree, so the pushdown engine can be checked against
+ * PayrollService before it is trusted with a real run.
+ *
+ * Command line:
+ *   java -cp CLASSPATH Services.SqlPayrollService run PAY_PERIOD_ID
+ *   java -cp CLASSPATH Services.SqlPayrollService verify PAY_PERIOD_ID
+ * @author User
+ */
+
+public class SqlPayrollService {
+    // Same multiplier PayrollService passes to OvertimeRequestDAO
+    public static final BigDecimal OVERTIME_MULTIPLIER = new BigDecimal("1.5");
+
+    // DAO Dependencies
+    private final PayrollPushdownDAO pushdownDAO;
+    private final PayslipDAO payslipDAO;
+    private final PayPeriodDAO payPeriodDAO;
+    private final EmployeeDAO employeeDAO;
+    private final PayrollService payrollService;
+
+    /**
+     * Constructor - initializes all required DAOs
+     */
+    public SqlPayrollService() {
+        this(new DatabaseConnection());
+    }
+
+    /**
+     * Constructor with custom database connection (for dependency injection)
+     */
+    public SqlPayrollService(DatabaseConnection databaseConnection) {
+        this.pushdownDAO = new PayrollPushdownDAO(databaseConnection);
+        this.payslipDAO = new PayslipDAO(databaseConnection);
+        this.payPeriodDAO = new PayPeriodDAO();
+        this.employeeDAO = new EmployeeDAO(databaseConnection);
+        this.payrollService = new PayrollService(databaseConnection);
+    }
+
+    // ================================
+    // PAYROLL RUN
+    // ================================
+
+    /**
+     * Processes payroll for a pay period entirely in the database
+     * Employees that already have payroll for the period are left untouched, as in PayrollService.
+     * @param payPeriodId The pay period to process
+     * @return SqlRunResult with row counts and timing
+     */
+    public SqlRunResult processPayrollForPeriod(Integer payPeriodId) {
+        SqlRunResult result = new SqlRunResult(payPeriodId);
+        long startTime = System.currentTimeMillis();
+
+        if (payPeriodId == null || payPeriodDAO.findById(payPeriodId) == null) {
+            result.addError("Pay period not found: " + payPeriodId);
+            return result;
+        }
+
+        int published = pushdownDAO.computeAndPublish(payPeriodId, OVERTIME_MULTIPLIER);
+        if (published < 0) {
+            result.addError("Database payroll computation failed for pay period " + payPeriodId);
+            result.setElapsedMillis(System.currentTimeMillis() - startTime);
+            return result;
+        }
+
+        result.setComputedEmployees(pushdownDAO.findComputed(payPeriodId).size());
+        result.setPublishedPayrolls(published);
+        result.setGeneratedPayslips(payslipDAO.generatePayslipsForPeriod(payPeriodId));
+        result.setSuccess(true);
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+
+        System.out.println("🏁 " + result);
+        return result;
+    }
+
+    // ================================
+    // VERIFICATION HARNESS
+    // ================================
+
+    /**
+     * Computes a pay period with both engines and compares the results to the cent
+     * Nothing is written to payroll or payslip; the staging rows of the period are replaced.
+     * Retro adjustments are excluded from the comparison because PayrollService applies them
+     * after calculateEmployeePayroll; both engines read them from the same payrolladjustment rows.
+     * @param payPeriodId The pay period to verify
+     * @return EngineComparison listing every mismatch
+     */
+    public EngineComparison verifyAgainstJavaEngine(Integer payPeriodId) {
+        EngineComparison comparison = new EngineComparison(payPeriodId);
+        long startTime = System.currentTimeMillis();
+
+        PayPeriodModel payPeriod = payPeriodId != null ? payPeriodDAO.findById(payPeriodId) : null;
+        if (payPeriod == null) {
+            comparison.addError("Pay period not found: " + payPeriodId);
+            return comparison;
+        }
+
+        if (pushdownDAO.computePeriod(payPeriodId, OVERTIME_MULTIPLIER) < 0) {
+            comparison.addError("Database payroll computation failed for pay period " + payPeriodId);
+            return comparison;
+        }
+        long sqlFinished = System.currentTimeMillis();
+        comparison.setSqlMillis(sqlFinished - startTime);
+
+        Map<Integer, PushdownRow> sqlRows = new HashMap<>();
+        for (PushdownRow row : pushdownDAO.findComputed(payPeriodId)) {
+            sqlRows.put(row.getEmployeeId(), row);
+        }
+
+        Map<Integer, PayrollService.PayrollCalculation> javaRows = new ConcurrentHashMap<>();
+        employeeDAO.getActiveEmployees().parallelStream().forEach(employee -> {
+            try {
+                javaRows.put(employee.getEmployeeId(), payrollService.calculateEmployeePayroll(employee, payPeriod));
+            } catch (Exception e) {
+                comparison.addError("Java engine failed for employee " + employee.getEmployeeId() + ": " + e.getMessage());
+            }
+        });
+        comparison.setJavaMillis(System.currentTimeMillis() - sqlFinished);
+
+        Set<Integer> employeeIds = new TreeSet<>(sqlRows.keySet());
+        employeeIds.addAll(javaRows.keySet());
+
+        for (Integer employeeId : employeeIds) {
+            PushdownRow sqlRow = sqlRows.get(employeeId);
+            PayrollService.PayrollCalculation javaRow = javaRows.get(employeeId);
+
+            if (sqlRow == null) {
+                comparison.addJavaOnly(employeeId);
+            } else if (javaRow == null) {
+                comparison.addSqlOnly(employeeId);
+            } else {
+                compare(comparison, employeeId, "basicSalary", javaRow.getBasicSalary(), sqlRow.getBasicSalary());
+                compare(comparison, employeeId, "attendanceEarnings", javaRow.getAttendanceEarnings(), sqlRow.getAttendanceEarnings());
+                compare(comparison, employeeId, "overtimePay", javaRow.getOvertimePay(), sqlRow.getOvertimePay());
+                compare(comparison, employeeId, "totalBenefits", javaRow.getTotalBenefits(), sqlRow.getTotalBenefits());
+                compare(comparison, employeeId, "grossIncome", javaRow.getGrossIncome(), sqlRow.getGrossIncome());
+                compare(comparison, employeeId, "governmentContributions", javaRow.getGovernmentContributions(), sqlRow.getGovernmentContributions());
+                compare(comparison, employeeId, "withholdingTax", javaRow.getWithholdingTax(), sqlRow.getWithholdingTax());
+                compare(comparison, employeeId, "totalDeductions", javaRow.getTotalDeductions(), sqlRow.getTotalDeductions());
+                compare(comparison, employeeId, "netSalary", javaRow.getNetSalary(), sqlRow.getNetSalary());
+                comparison.incrementComparedEmployees();
+            }
+        }
+
+        System.out.println(comparison.isMatch() ? "✅ " + comparison : "⚠️ " + comparison);
+        return comparison;
+    }
+
+    /**
+     * Records a difference when two amounts disagree once rounded to centavos
+     */
+    private void compare(EngineComparison comparison, Integer employeeId, String field,
+                         BigDecimal javaValue, BigDecimal sqlValue) {
+        Function<BigDecimal, BigDecimal> cents = value ->
+            (value != null ? value : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+
+        BigDecimal javaCents = cents.apply(javaValue);
+        BigDecimal sqlCents = cents.apply(sqlValue);
+        if (javaCents.compareTo(sqlCents) != 0) {
+            comparison.addDifference(new EngineDifference(employeeId, field, javaCents, sqlCents));
+        }
+    }
+
+    // ================================
+    // COMMAND LINE
+    // ================================
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage:");
+            System.out.println("  run <payPeriodId>");
+            System.out.println("  verify <payPeriodId>");
+            return;
+        }
+
+        SqlPayrollService service = new SqlPayrollService();
+        Integer payPeriodId = Integer.valueOf(args[1]);
+
+        switch (args[0].toLowerCase()) {
+            case "run":
+                System.out.println(service.processPayrollForPeriod(payPeriodId));
+                break;
+            case "verify": {
+                EngineComparison comparison = service.verifyAgainstJavaEngine(payPeriodId);
+                for (EngineDifference difference : comparison.getDifferences()) {
+                    System.out.println(difference);
+                }
+                for (String error : comparison.getErrors()) {
+                    System.err.println(error);
+                }
+                break;
+            }
+            default:
+                System.err.println("Unknown command: " + args[0]);
+        }
+    }
+
+    // ===============================
+    // INNER CLASSES
+    // ===============================
+
+    /**
+     * Result of a database-side payroll run
+     */
+    public static class SqlRunResult {
+        private final Integer payPeriodId;
+        private boolean success = false;
+        private int computedEmployees = 0;
+        private int publishedPayrolls = 0;
+        private int generatedPayslips = 0;
+        private long elapsedMillis = 0;
+        private final List<String> errors = new ArrayList<>();
+
+        public SqlRunResult(Integer payPeriodId) {
+            this.payPeriodId = payPeriodId;
+        }
+
+        // Getters and setters
+        public Integer getPayPeriodId() { return payPeriodId; }
+
+        public boolean isSuccess() { return success; }
+        public void setSuccess(boolean success) { this.success = success; }
+
+        public int getComputedEmployees() { return computedEmployees; }
+        public void setComputedEmployees(int computedEmployees) { this.computedEmployees = computedEmployees; }
+
+        public int getPublishedPayrolls() { return publishedPayrolls; }
+        public void setPublishedPayrolls(int publishedPayrolls) { this.publishedPayrolls = publishedPayrolls; }
+
+        public int getGeneratedPayslips() { return generatedPayslips; }
+        public void setGeneratedPayslips(int generatedPayslips) { this.generatedPayslips = generatedPayslips; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+        public List<String> getErrors() { return errors; }
+        public void addError(String error) { errors.add(error); }
+
+        @Override
+        public String toString() {
+            return String.format("SqlRunResult{payPeriodId=%d, success=%s, computed=%d, payrolls=%d, payslips=%d, elapsed=%dms}",
+                    payPeriodId, success, computedEmployees, publishedPayrolls, generatedPayslips, elapsedMillis);
+        }
+    }
+
+    /**
+     * Outcome of running both payroll engines over the same pay period
+     */
+    public static class EngineComparison {
+        private final Integer payPeriodId;
+        private int comparedEmployees = 0;
+        private final List<Integer> javaOnlyEmployees = new ArrayList<>();
+        private final List<Integer> sqlOnlyEmployees = new ArrayList<>();
+        private final List<EngineDifference> differences = new ArrayList<>();
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        private long sqlMillis = 0;
+        private long javaMillis = 0;
+
+        public EngineComparison(Integer payPeriodId) {
+            this.payPeriodId = payPeriodId;
+        }
+
+        /**
+         * @return true if both engines produced the same employees with the same amounts
+         */
+        public boolean isMatch() {
+            return errors.isEmpty() && differences.isEmpty()
+                && javaOnlyEmployees.isEmpty() && sqlOnlyEmployees.isEmpty();
+        }
+
+        public void incrementComparedEmployees() { comparedEmployees++; }
+        public void addJavaOnly(Integer employeeId) { javaOnlyEmployees.add(employeeId); }
+        public void addSqlOnly(Integer employeeId) { sqlOnlyEmployees.add(employeeId); }
+        public void addDifference(EngineDifference difference) { differences.add(difference); }
+        public void addError(String error) { errors.add(error); }
+
+        // Getters and setters
+        public Integer getPayPeriodId() { return payPeriodId; }
+        public int getComparedEmployees() { return comparedEmployees; }
+        public List<Integer> getJavaOnlyEmployees() { return javaOnlyEmployees; }
+        public List<Integer> getSqlOnlyEmployees() { return sqlOnlyEmployees; }
+        public List<EngineDifference> getDifferences() { return differences; }
+        public List<String> getErrors() { return errors; }
+
+        public long getSqlMillis() { return sqlMillis; }
+        public void setSqlMillis(long sqlMillis) { this.sqlMillis = sqlMillis; }
+
+        public long getJavaMillis() { return javaMillis; }
+        public void setJavaMillis(long javaMillis) { this.javaMillis = javaMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("EngineComparison{payPeriodId=%d, compared=%d, differences=%d, javaOnly=%d, sqlOnly=%d, errors=%d, sql=%dms, java=%dms}",
+                    payPeriodId, comparedEmployees, differences.size(), javaOnlyEmployees.size(),
+                    sqlOnlyEmployees.size(), errors.size(), sqlMillis, javaMillis);
+        }
+    }
+
+    /**
+     * One field of one employee where the two engines disagree
+     */
+    public static class EngineDifference {
+        private final Integer employeeId;
+        private final String field;
+        private final BigDecimal javaValue;
+        private final BigDecimal sqlValue;
+
+        public EngineDifference(Integer employeeId, String field, BigDecimal javaValue, BigDecimal sqlValue) {
+            this.employeeId = employeeId;
+            this.field = field;
+            this.javaValue = javaValue;
+            this.sqlValue = sqlValue;
+        }
+
+        // Getters
+        public Integer getEmployeeId() { return employeeId; }
+        public String getField() { return field; }
+        public BigDecimal getJavaValue() { return javaValue; }
+        public BigDecimal getSqlValue() { return sqlValue; }
+
+        public BigDecimal getDifference() {
+            return sqlValue.subtract(javaValue);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("EngineDifference{employeeId=%d, field=%s, java=%s, sql=%s, difference=%s}",
+                    employeeId, field, javaValue, sqlValue, getDifference());
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package Services;
+import DAOs.*;
+import Models.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * YearEndPayrollService - Multi-period payroll recompute for a whole year
+ * Loads the year's attendance and overtime once and computes every pay period for each
+ * employee in a single pass, producing annualized totals for BIR alphalist reconciliation
+ * @author User
+ */
+
+public class YearEndPayrollService {
+    // Same multiplier PayrollService applies to approved overtime
+    private static final BigDecimal OVERTIME_MULTIPLIER = new BigDecimal("1.5");
+
+    // DAO Dependencies
+    private final EmployeeDAO employeeDAO;
+    private final PayrollDAO payrollDAO;
+    private final AttendanceDAO attendanceDAO;
+    private final OvertimeRequestDAO overtimeDAO;
+    private final BenefitTypeDAO benefitDAO;
+    private final PayPeriodDAO payPeriodDAO;
+    private final PayrollService payrollService;
+
+    /**
+     * Constructor - initializes all required DAOs
+     */
+    public YearEndPayrollService() {
+        this(new DatabaseConnection());
+    }
+
+    /**
+     * Constructor with custom database connection (for dependency injection)
+     */
+    public YearEndPayrollService(DatabaseConnection databaseConnection) {
+        this.employeeDAO = new EmployeeDAO(databaseConnection);
+        this.payrollDAO = new PayrollDAO(databaseConnection);
+        this.attendanceDAO = new AttendanceDAO(databaseConnection);
+        this.overtimeDAO = new OvertimeRequestDAO(databaseConnection);
+        this.benefitDAO = new BenefitTypeDAO();
+        this.payPeriodDAO = new PayPeriodDAO();
+        this.payrollService = new PayrollService(databaseConnection);
+    }
+
+    // ================================
+    // YEAR-END PROCESSING
+    // ================================
+
+    /**
+     * Recomputes payroll for every pay period ending in the given year
+     * Nothing is written to the database; the result compares the recomputed
+     * annual totals against the payroll rows already stored for the year
+     * @param year The calendar year to recompute
+     * @return YearEndReconciliation with per-employee annual totals
+     */
+    public YearEndReconciliation recomputeYear(int year) {
+        long startTime = System.currentTimeMillis();
+        YearEndReconciliation result = new YearEndReconciliation();
+        result.setYear(year);
+
+        try {
+            // Pay periods that close within the year, in chronological order
+            List<PayPeriodModel> periods = new ArrayList<>();
+            for (PayPeriodModel period : payPeriodDAO.findByYear(year)) {
+                if (period.getEndDate() != null && period.getEndDate().getYear() == year) {
+                    periods.add(period);
+                }
+            }
+            periods.sort(Comparator.comparing(PayPeriodModel::getStartDate));
+
+            if (periods.isEmpty()) {
+                result.setSuccess(false);
+                result.addError("No pay periods found for year " + year);
+                return result;
+            }
+            result.setPeriodCount(periods.size());
+
+            LocalDate rangeStart = periods.get(0).getStartDate();
+            LocalDate rangeEnd = periods.get(periods.size() - 1).getEndDate();
+
+            // Reference data loaded once for the whole year
+            Map<Integer, EmployeeModel> employees = new TreeMap<>();
+            for (EmployeeModel employee : employeeDAO.getActiveEmployees()) {
+                employees.put(employee.getEmployeeId(), employee);
+            }
+            Map<Integer, BigDecimal> benefitsByPosition = benefitDAO.getBenefitTotalsByPosition();
+            Map<Integer, Map<YearMonth, BigDecimal>> overtimeHours = loadOvertimeHours(periods);
+
+            System.out.println("🔄 Recomputing " + periods.size() + " pay periods for " + employees.size() + " employees in " + year);
+
+            // Stream the year's attendance once; rows arrive grouped by employee
+            Map<Integer, AnnualEmployeeTotals> totals = new TreeMap<>();
+            AttendanceAccumulator accumulator = new AttendanceAccumulator(periods);
+
+            int streamed = attendanceDAO.streamAttendanceForRange(rangeStart, rangeEnd, attendance -> {
+                if (!attendance.getEmployeeId().equals(accumulator.employeeId)) {
+                    flushEmployee(accumulator, employees, periods, benefitsByPosition, overtimeHours, totals);
+                    accumulator.reset(attendance.getEmployeeId());
+                }
+                accumulator.add(attendance);
+            });
+            flushEmployee(accumulator, employees, periods, benefitsByPosition, overtimeHours, totals);
+            result.setAttendanceRecordsStreamed(streamed);
+
+            // Employees with no attendance in the year still get basic pay and benefits
+            accumulator.reset(null);
+            for (EmployeeModel employee : employees.values()) {
+                if (!totals.containsKey(employee.getEmployeeId())) {
+                    accumulator.employeeId = employee.getEmployeeId();
+                    flushEmployee(accumulator, employees, periods, benefitsByPosition, overtimeHours, totals);
+                }
+            }
+
+            // Reconcile against stored payroll for the year
+            Map<Integer, PayrollDAO.PayrollSummary> stored = payrollDAO.getPayrollTotalsByEmployee(
+                LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+            for (AnnualEmployeeTotals employeeTotals : totals.values()) {
+                PayrollDAO.PayrollSummary storedTotals = stored.get(employeeTotals.getEmployeeId());
+                if (storedTotals != null) {
+                    employeeTotals.setStoredPeriods(storedTotals.getEmployeeCount());
+                    employeeTotals.setStoredGrossIncome(storedTotals.getTotalGrossIncome());
+                    employeeTotals.setStoredNetSalary(storedTotals.getTotalNetSalary());
+                }
+                result.addEmployeeTotals(employeeTotals);
+            }
+
+            result.setSuccess(true);
+            System.out.println("🏁 Year-end recompute completed. Employees: " + totals.size() + ", attendance rows: " + streamed);
+
+        } catch (Exception e) {
+            result.setSuccess(false);
+            result.addError("Fatal error during year-end recompute: " + e.getMessage());
+            System.err.println("💥 Fatal error during year-end recompute: " + e.getMessage());
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    // ===============================
+    // CALCULATION HELPER METHODS
+    // ===============================
+
+    /**
+     * Computes every period for the accumulator's employee and records the annual totals
+     */
+    private void flushEmployee(AttendanceAccumulator accumulator, Map<Integer, EmployeeModel> employees,
+                               List<PayPeriodModel> periods, Map<Integer, BigDecimal> benefitsByPosition,
+                               Map<Integer, Map<YearMonth, BigDecimal>> overtimeHours,
+                               Map<Integer, AnnualEmployeeTotals> totals) {
+        if (accumulator.employeeId == null) {
+            return;
+        }
+
+        EmployeeModel employee = employees.get(accumulator.employeeId);
+        if (employee == null || employee.getBasicSalary() == null || employee.getHourlyRate() == null) {
+            return; // Terminated or incomplete employee records are not part of the run
+        }
+
+        BigDecimal benefits = employee.getPositionId() != null
+            ? benefitsByPosition.getOrDefault(employee.getPositionId(), BigDecimal.ZERO)
+            : BigDecimal.ZERO;
+        Map<YearMonth, BigDecimal> employeeOvertime = overtimeHours.getOrDefault(employee.getEmployeeId(), new HashMap<>());
+
+        AnnualEmployeeTotals employeeTotals = new AnnualEmployeeTotals(employee.getEmployeeId(), employee.getFullName());
+        for (int i = 0; i < periods.size(); i++) {
+            PayPeriodModel period = periods.get(i);
+
+            // Overtime is credited by the month the period starts in, as PayrollService does
+            BigDecimal hours = employeeOvertime.getOrDefault(YearMonth.from(period.getStartDate()), BigDecimal.ZERO);
+            BigDecimal overtimePay = hours.multiply(employee.getHourlyRate())
+                                          .multiply(OVERTIME_MULTIPLIER)
+                                          .setScale(2, RoundingMode.HALF_UP);
+
+            PayrollService.PayrollCalculation calc = payrollService.calculateEmployeePayroll(
+                employee, period, accumulator.hoursByPeriod[i], overtimePay, benefits);
+            employeeTotals.addPeriod(calc);
+        }
+        totals.put(employee.getEmployeeId(), employeeTotals);
+    }
+
+    /**
+     * Loads approved overtime for the year once, as rounded hours per employee and month
+     */
+    private Map<Integer, Map<YearMonth, BigDecimal>> loadOvertimeHours(List<PayPeriodModel> periods) {
+        YearMonth firstMonth = YearMonth.from(periods.get(0).getStartDate());
+        YearMonth lastMonth = YearMonth.from(periods.get(periods.size() - 1).getStartDate());
+
+        List<OvertimeRequestModel> requests = overtimeDAO.findApprovedByStartRange(
+            firstMonth.atDay(1).atStartOfDay(), lastMonth.plusMonths(1).atDay(1).atStartOfDay());
+
+        Map<Integer, Map<YearMonth, BigDecimal>> hours = new HashMap<>();
+        for (OvertimeRequestModel request : requests) {
+            if (request.getOvertimeStart() == null || request.getOvertimeEnd() == null) {
+                continue;
+            }
+            // Each request is rounded to 2 decimal places before summing, matching OvertimeRequestDAO
+            long minutes = java.time.Duration.between(request.getOvertimeStart(), request.getOvertimeEnd()).toMinutes();
+            BigDecimal requestHours = new BigDecimal(minutes).divide(new BigDecimal(60), 2, RoundingMode.HALF_UP);
+
+            hours.computeIfAbsent(request.getEmployeeId(), k -> new HashMap<>())
+                 .merge(YearMonth.from(request.getOvertimeStart()), requestHours, BigDecimal::add);
+        }
+        return hours;
+    }
+
+    /**
+     * Collects one employee's completed hours per pay period while attendance streams past
+     */
+    private static class AttendanceAccumulator {
+        private final LocalDate[] periodStarts;
+        private final LocalDate[] periodEnds;
+        private final BigDecimal[] hoursByPeriod;
+        private Integer employeeId;
+
+        AttendanceAccumulator(List<PayPeriodModel> periods) {
+            this.periodStarts = new LocalDate[periods.size()];
+            this.periodEnds = new LocalDate[periods.size()];
+            this.hoursByPeriod = new BigDecimal[periods.size()];
+            for (int i = 0; i < periods.size(); i++) {
+                periodStarts[i] = periods.get(i).getStartDate();
+                periodEnds[i] = periods.get(i).getEndDate();
+            }
+            reset(null);
+        }
+
+        void reset(Integer employeeId) {
+            this.employeeId = employeeId;
+            java.util.Arrays.fill(hoursByPeriod, BigDecimal.ZERO);
+        }
+
+        void add(AttendanceModel attendance) {
+            if (!attendance.isComplete()) {
+                return;
+            }
+            int index = findPeriodIndex(attendance.getDate());
+            if (index >= 0) {
+                hoursByPeriod[index] = hoursByPeriod[index].add(attendance.getHoursWorked());
+            }
+        }
+
+        /**
+         * Binary search for the period containing a date, -1 if it falls between periods
+         */
+        private int findPeriodIndex(LocalDate date) {
+            int low = 0;
+            int high = periodStarts.length - 1;
+            int candidate = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (!periodStarts[mid].isAfter(date)) {
+                    candidate = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return candidate >= 0 && !date.isAfter(periodEnds[candidate]) ? candidate : -1;
+        }
+    }
+
+    // ===============================
+    // INNER CLASSES
+    // ===============================
+
+    /**
+     * Annualized payroll totals for one employee (one alphalist line)
+     */
+    public static class AnnualEmployeeTotals {
+        private final Integer employeeId;
+        private final String employeeName;
+        private final List<PayrollService.PayrollCalculation> periodCalculations = new ArrayList<>();
+        private BigDecimal basicSalary = BigDecimal.ZERO;
+        private BigDecimal attendanceEarnings = BigDecimal.ZERO;
+        private BigDecimal overtimePay = BigDecimal.ZERO;
+        private BigDecimal totalBenefits = BigDecimal.ZERO;
+        private BigDecimal grossIncome = BigDecimal.ZERO;
+        private BigDecimal governmentContributions = BigDecimal.ZERO;
+        private BigDecimal withholdingTax = BigDecimal.ZERO;
+        private BigDecimal totalDeductions = BigDecimal.ZERO;
+        private BigDecimal netSalary = BigDecimal.ZERO;
+        private int storedPeriods = 0;
+        private BigDecimal storedGrossIncome = BigDecimal.ZERO;
+        private BigDecimal storedNetSalary = BigDecimal.ZERO;
+
+        public AnnualEmployeeTotals(Integer employeeId, String employeeName) {
+            this.employeeId = employeeId;
+            this.employeeName = employeeName;
+        }
+
+        /**
+         * Adds one recomputed pay period to the annual totals
+         */
+        public void addPeriod(PayrollService.PayrollCalculation calc) {
+            periodCalculations.add(calc);
+            basicSalary = basicSalary.add(calc.getBasicSalary());
+            attendanceEarnings = attendanceEarnings.add(calc.getAttendanceEarnings());
+            overtimePay = overtimePay.add(calc.getOvertimePay());
+            totalBenefits = totalBenefits.add(calc.getTotalBenefits());
+            grossIncome = grossIncome.add(calc.getGrossIncome());
+            governmentContributions = governmentContributions.add(calc.getGovernmentContributions());
+            withholdingTax = withholdingTax.add(calc.getWithholdingTax());
+            totalDeductions = totalDeductions.add(calc.getTotalDeductions());
+            netSalary = netSalary.add(calc.getNetSalary());
+        }
+
+        // Getters and setters
+        public Integer getEmployeeId() { return employeeId; }
+        public String getEmployeeName() { return employeeName; }
+        public List<PayrollService.PayrollCalculation> getPeriodCalculations() { return periodCalculations; }
+
+        public BigDecimal getBasicSalary() { return basicSalary; }
+        public BigDecimal getAttendanceEarnings() { return attendanceEarnings; }
+        public BigDecimal getOvertimePay() { return overtimePay; }
+        public BigDecimal getTotalBenefits() { return totalBenefits; }
+        public BigDecimal getGrossIncome() { return grossIncome; }
+        public BigDecimal getGovernmentContributions() { return governmentContributions; }
+        public BigDecimal getWithholdingTax() { return withholdingTax; }
+        public BigDecimal getTotalDeductions() { return totalDeductions; }
+        public BigDecimal getNetSalary() { return netSalary; }
+
+        /**
+         * Taxable compensation: gross income less mandatory contributions
+         */
+        public BigDecimal getTaxableIncome() { return grossIncome.subtract(governmentContributions); }
+
+        public int getStoredPeriods() { return storedPeriods; }
+        public void setStoredPeriods(int storedPeriods) { this.storedPeriods = storedPeriods; }
+
+        public BigDecimal getStoredGrossIncome() { return storedGrossIncome; }
+        public void setStoredGrossIncome(BigDecimal storedGrossIncome) {
+            this.storedGrossIncome = storedGrossIncome != null ? storedGrossIncome : BigDecimal.ZERO;
+        }
+
+        public BigDecimal getStoredNetSalary() { return storedNetSalary; }
+        public void setStoredNetSalary(BigDecimal storedNetSalary) {
+            this.storedNetSalary = storedNetSalary != null ? storedNetSalary : BigDecimal.ZERO;
+        }
+
+        public BigDecimal getGrossVariance() { return grossIncome.subtract(storedGrossIncome); }
+        public BigDecimal getNetVariance() { return netSalary.subtract(storedNetSalary); }
+
+        public boolean hasVariance() {
+            return getGrossVariance().signum() != 0 || getNetVariance().signum() != 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("AnnualEmployeeTotals{employeeId=%d, periods=%d, gross=%s, tax=%s, net=%s, grossVariance=%s}",
+                    employeeId, periodCalculations.size(), grossIncome, withholdingTax, netSalary, getGrossVariance());
+        }
+    }
+
+    /**
+     * Holds results from a year-end recompute
+     */
+    public static class YearEndReconciliation {
+        private int year;
+        private boolean success = false;
+        private int periodCount = 0;
+        private int attendanceRecordsStreamed = 0;
+        private long elapsedMillis = 0;
+        private BigDecimal totalGrossIncome = BigDecimal.ZERO;
+        private BigDecimal totalWithholdingTax = BigDecimal.ZERO;
+        private BigDecimal totalNetSalary = BigDecimal.ZERO;
+        private List<AnnualEmployeeTotals> employeeTotals = new ArrayList<>();
+        private List<String> errors = new ArrayList<>();
+
+        // Getters and setters
+        public int getYear() { return year; }
+        public void setYear(int year) { this.year = year; }
+
+        public boolean isSuccess() { return success; }
+        public void setSuccess(boolean success) { this.success = success; }
+
+        public int getPeriodCount() { return periodCount; }
+        public void setPeriodCount(int periodCount) { this.periodCount = periodCount; }
+
+        public int getAttendanceRecordsStreamed() { return attendanceRecordsStreamed; }
+        public void setAttendanceRecordsStreamed(int attendanceRecordsStreamed) { this.attendanceRecordsStreamed = attendanceRecordsStreamed; }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+        public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+        public BigDecimal getTotalGrossIncome() { return totalGrossIncome; }
+        public BigDecimal getTotalWithholdingTax() { return totalWithholdingTax; }
+        public BigDecimal getTotalNetSalary() { return totalNetSalary; }
+
+        public List<AnnualEmployeeTotals> getEmployeeTotals() { return employeeTotals; }
+        public void addEmployeeTotals(AnnualEmployeeTotals totals) {
+            this.employeeTotals.add(totals);
+            this.totalGrossIncome = totalGrossIncome.add(totals.getGrossIncome());
+            this.totalWithholdingTax = totalWithholdingTax.add(totals.getWithholdingTax());
+            this.totalNetSalary = totalNetSalary.add(totals.getNetSalary());
+        }
+
+        /**
+         * Employees whose recomputed totals differ from the stored payroll
+         */
+        public List<AnnualEmployeeTotals> getEmployeesWithVariance() {
+            List<AnnualEmployeeTotals> variances = new ArrayList<>();
+            for (AnnualEmployeeTotals totals : employeeTotals) {
+                if (totals.hasVariance()) {
+                    variances.add(totals);
+                }
+            }
+            return variances;
+        }
+
+        public List<String> getErrors() { return errors; }
+        public void addError(String error) { this.errors.add(error); }
+
+        @Override
+        public String toString() {
+            return String.format("YearEndReconciliation{year=%d, success=%s, periods=%d, employees=%d, totalGross=%s, totalTax=%s}",
+                    year, success, periodCount, employeeTotals.size(), totalGrossIncome, totalWithholdingTax);
+        }
+    }
+}
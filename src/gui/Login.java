@@ -276,6 +276,9 @@ public class Login extends javax.swing.JFrame {
         //</editor-fold>
         
 
+        // Load today's attendance in the background for clock-in checks
+        DAOs.TodayAttendanceIndex.getInstance().warm();
+
         /* Create and display the form */
         java.awt.EventQueue.invokeLater(new Runnable() {
             public void run() {
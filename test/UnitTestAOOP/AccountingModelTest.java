@@ -9,6 +9,7 @@ import Models.AccountingModel;
 import Models.EmployeeModel;
 import Models.PayrollModel;
 import Models.PayPeriodModel;
+import Services.PayrollIntegrityService;
 import Services.ReportService;
 import DAOs.DatabaseConnection;
 import DAOs.EmployeeDAO;
@@ -251,6 +252,55 @@ public class AccountingModelTest {
         }
     }
     
+    /**
+     * Test that the integrity check names employees changed after a period was sealed
+     */
+    @Test
+    public void testPayrollIntegrity_detectsChangesSinceSeal() {
+        System.out.println("Testing: Payroll integrity check after seal");
+        
+        insertTestPayPeriod();
+        PayrollIntegrityService integrityService = new PayrollIntegrityService(dbConnection);
+        assertTrue("Hashes should rebuild", integrityService.rebuildPeriod(TEST_PAY_PERIOD_ID));
+        
+        PayrollModel payroll = new PayrollModel();
+        payroll.setEmployeeId(TEST_EMPLOYEE_ID);
+        payroll.setPayPeriodId(TEST_PAY_PERIOD_ID);
+        payroll.setBasicSalary(new BigDecimal("15000.00"));
+        payroll.setGrossIncome(new BigDecimal("18000.00"));
+        payroll.setTotalBenefit(new BigDecimal("3000.00"));
+        payroll.setTotalDeduction(new BigDecimal("2000.00"));
+        payroll.setNetSalary(new BigDecimal("16000.00"));
+        assertTrue("Payroll should save", payrollDAO.save(payroll));
+        
+        assertTrue("Period should seal", integrityService.sealPeriod(TEST_PAY_PERIOD_ID, TEST_ACCOUNTING_ID));
+        assertTrue("Sealed period should be unchanged", integrityService.isUnchangedSinceSeal(TEST_PAY_PERIOD_ID));
+        assertTrue("Sealed period should be untouched", 
+            accountingUser.checkPayrollIntegrity(TEST_PAY_PERIOD_ID).isUntouchedSinceSeal());
+        
+        // Change through the DAO: recorded hashes follow, the seal does not
+        payroll.setNetSalary(new BigDecimal("16500.00"));
+        assertTrue("Payroll should update", payrollDAO.update(payroll));
+        
+        PayrollIntegrityService.IntegrityReport report = accountingUser.checkPayrollIntegrity(TEST_PAY_PERIOD_ID);
+        assertFalse("Period should no longer be untouched", report.isUntouchedSinceSeal());
+        assertTrue("DAO writes should match the recorded hashes", report.matchesRecorded());
+        assertTrue("Changed employee should be named", report.getChangedEmployees().contains(TEST_EMPLOYEE_ID));
+        
+        // Change behind the DAO's back: the base row no longer matches its recorded hash
+        try (Connection conn = dbConnection.createConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE payroll SET netSalary = 99999 WHERE payrollId = ?")) {
+            stmt.setInt(1, payroll.getPayrollId());
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            fail("Direct update failed: " + e.getMessage());
+        }
+        
+        report = accountingUser.checkPayrollIntegrity(TEST_PAY_PERIOD_ID);
+        assertFalse("Direct update should be detected", report.matchesRecorded());
+        assertTrue("Tampered employee should be named", report.getChangedEmployees().contains(TEST_EMPLOYEE_ID));
+    }
+    
     // ================================
     // NEGATIVE TEST CASES
     // ================================
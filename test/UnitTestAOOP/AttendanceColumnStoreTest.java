@@ -0,0 +1,227 @@
+package UnitTestAOOP;
+
+import DAOs.AttendanceColumnStore;
+import DAOs.AttendanceColumnStore.Measure;
+import DAOs.AttendanceDAO;
+import DAOs.DatabaseConnection;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import static org.junit.Assert.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit test class for AttendanceColumnStore operators.
+ * Rows are fed by a stub AttendanceDAO, so no database is needed.
+ * Standard hours are 08:00 to 17:00 with a 15 minute grace period.
+ * @author martin
+ */
+
+public class AttendanceColumnStoreTest {
+
+    private static final Integer EMPLOYEE_A = 10001;
+    private static final Integer EMPLOYEE_B = 10002;
+    private static final Integer UNKNOWN_EMPLOYEE = 99999;
+    private static final LocalDate DAY_1 = LocalDate.of(2025, 7, 1);
+    private static final LocalDate DAY_2 = DAY_1.plusDays(1);
+    private static final LocalDate DAY_3 = DAY_1.plusDays(2);
+    private static final LocalDate DAY_4 = DAY_1.plusDays(3);
+    private static final LocalDate DAY_5 = DAY_1.plusDays(4);
+
+    private List<int[]> rows;
+    private AttendanceColumnStore store;
+
+    @Before
+    public void setUp() {
+        // Rows must arrive ordered by employee and date, as the DAO streams them
+        rows = new ArrayList<>();
+        addRow(EMPLOYEE_A, DAY_1, "08:00", "17:00");  // on time, full day
+        addRow(EMPLOYEE_A, DAY_2, "08:15", "17:00");  // late, within grace
+        addRow(EMPLOYEE_A, DAY_3, "08:16", "16:30");  // late beyond grace, undertime
+        addRow(EMPLOYEE_A, DAY_4, "09:00", null);     // incomplete
+        addRow(EMPLOYEE_A, DAY_5, null, null);        // no punches
+        addRow(EMPLOYEE_B, DAY_1, "07:45", "18:00");
+        addRow(EMPLOYEE_B, DAY_3, "08:30", "17:00");
+        addRow(EMPLOYEE_B, DAY_5, "08:00", "12:00");
+        store = load();
+    }
+
+    @After
+    public void tearDown() {
+        store = null;
+        rows = null;
+    }
+
+    // ==================== FLAGS ====================
+
+    @Test
+    public void testFlags_completeAndIncomplete() {
+        assertEquals("Rows with both punches are complete",
+                     3, store.count(EMPLOYEE_A, DAY_1, DAY_5, AttendanceColumnStore.FLAG_COMPLETE));
+        assertEquals("Only the row without a time out is incomplete",
+                     1, store.count(EMPLOYEE_A, DAY_1, DAY_5, AttendanceColumnStore.FLAG_INCOMPLETE));
+        assertEquals("Incomplete row is on day 4",
+                     1, store.count(EMPLOYEE_A, DAY_4, DAY_4, AttendanceColumnStore.FLAG_INCOMPLETE));
+    }
+
+    @Test
+    public void testFlags_lateAndGracePeriod() {
+        assertEquals("08:15, 08:16 and 09:00 are late",
+                     3, store.count(EMPLOYEE_A, DAY_1, DAY_5, AttendanceColumnStore.FLAG_LATE));
+        assertEquals("08:15 is still within the grace period",
+                     0, store.count(EMPLOYEE_A, DAY_2, DAY_2, AttendanceColumnStore.FLAG_LATE_BEYOND_GRACE));
+        assertEquals("08:16 is beyond the grace period",
+                     1, store.count(EMPLOYEE_A, DAY_3, DAY_3, AttendanceColumnStore.FLAG_LATE_BEYOND_GRACE));
+        assertEquals("On-time row is not late",
+                     0, store.count(EMPLOYEE_A, DAY_1, DAY_1, AttendanceColumnStore.FLAG_LATE));
+    }
+
+    @Test
+    public void testFlags_undertime() {
+        assertEquals("Only the 16:30 time out is undertime",
+                     1, store.count(EMPLOYEE_A, DAY_1, DAY_5, AttendanceColumnStore.FLAG_UNDERTIME));
+        assertEquals("Missing time out is not undertime",
+                     0, store.count(EMPLOYEE_A, DAY_4, DAY_4, AttendanceColumnStore.FLAG_UNDERTIME));
+    }
+
+    @Test
+    public void testCount_allFlagsVersusAnyFlag() {
+        int lateAndUndertime = AttendanceColumnStore.FLAG_LATE | AttendanceColumnStore.FLAG_UNDERTIME;
+
+        assertEquals("Only day 3 is both late and undertime",
+                     1, store.count(EMPLOYEE_A, DAY_1, DAY_5, lateAndUndertime));
+        assertEquals("Days 2, 3 and 4 are late or undertime",
+                     3, store.countAny(EMPLOYEE_A, DAY_1, DAY_5, lateAndUndertime));
+        assertEquals("A zero mask counts every row",
+                     5, store.count(EMPLOYEE_A, DAY_1, DAY_5, 0));
+    }
+
+    // ==================== RANGE BOUNDS ====================
+
+    @Test
+    public void testBounds_rangeIsInclusive() {
+        assertEquals("Single day range holds one row", 1, store.count(EMPLOYEE_A, DAY_1, DAY_1, 0));
+        assertEquals("First and last day are both included", 3, store.count(EMPLOYEE_A, DAY_2, DAY_4, 0));
+        assertEquals("Last row is included", 1, store.count(EMPLOYEE_A, DAY_5, DAY_5, 0));
+    }
+
+    @Test
+    public void testBounds_rangeOutsideRows() {
+        assertEquals("Range before every row is empty",
+                     0, store.count(EMPLOYEE_A, DAY_1.minusDays(10), DAY_1.minusDays(1), 0));
+        assertEquals("Range after every row is empty",
+                     0, store.count(EMPLOYEE_A, DAY_5.plusDays(1), DAY_5.plusDays(10), 0));
+        assertEquals("Range wider than the rows holds all of them",
+                     5, store.count(EMPLOYEE_A, DAY_1.minusDays(10), DAY_5.plusDays(10), 0));
+    }
+
+    @Test
+    public void testBounds_rangeBetweenRows() {
+        // Employee B has no row on day 2 or day 4
+        assertEquals("Gap day holds no row", 0, store.count(EMPLOYEE_B, DAY_2, DAY_2, 0));
+        assertEquals("Range starting and ending in gaps", 1, store.count(EMPLOYEE_B, DAY_2, DAY_4, 0));
+    }
+
+    @Test
+    public void testBounds_employeesDoNotLeakIntoEachOther() {
+        assertEquals("Employee B has three rows", 3, store.count(EMPLOYEE_B, DAY_1, DAY_5, 0));
+        assertEquals("All employees together", 8, store.count(null, DAY_1, DAY_5, 0));
+        assertEquals("Both employees on day 1", 2, store.count(null, DAY_1, DAY_1, 0));
+        assertEquals("Unknown employee has no rows", 0, store.count(UNKNOWN_EMPLOYEE, DAY_1, DAY_5, 0));
+    }
+
+    // ==================== SUMS AND PERCENTILES ====================
+
+    @Test
+    public void testSum_lateMinutes() {
+        // 0 + 15 + 16 + 60; day 5 has no time in
+        assertEquals(91, store.sum(EMPLOYEE_A, DAY_1, DAY_5, Measure.LATE_MINUTES));
+    }
+
+    @Test
+    public void testPercentile_nearestRank() {
+        // Employee A minutes worked: 494, 525, 540 (complete rows only)
+        assertEquals("0th percentile is the minimum",
+                     494, store.percentile(EMPLOYEE_A, DAY_1, DAY_5, Measure.MINUTES_WORKED, 0));
+        assertEquals("Median of three is the middle value",
+                     525, store.percentile(EMPLOYEE_A, DAY_1, DAY_5, Measure.MINUTES_WORKED, 50));
+        assertEquals("34th percentile rounds up to the second value",
+                     525, store.percentile(EMPLOYEE_A, DAY_1, DAY_5, Measure.MINUTES_WORKED, 34));
+        assertEquals("33rd percentile stays on the first value",
+                     494, store.percentile(EMPLOYEE_A, DAY_1, DAY_5, Measure.MINUTES_WORKED, 33));
+        assertEquals("100th percentile is the maximum",
+                     540, store.percentile(EMPLOYEE_A, DAY_1, DAY_5, Measure.MINUTES_WORKED, 100));
+    }
+
+    @Test
+    public void testPercentile_outOfRangePercentilesAreClamped() {
+        assertEquals(494, store.percentile(EMPLOYEE_A, DAY_1, DAY_5, Measure.MINUTES_WORKED, -20));
+        assertEquals(540, store.percentile(EMPLOYEE_A, DAY_1, DAY_5, Measure.MINUTES_WORKED, 150));
+    }
+
+    @Test
+    public void testPercentile_allEmployees() {
+        // Minutes worked: 240, 494, 510, 525, 540, 615
+        assertEquals(510, store.percentile(null, DAY_1, DAY_5, Measure.MINUTES_WORKED, 50));
+        assertEquals(615, store.percentile(null, DAY_1, DAY_5, Measure.MINUTES_WORKED, 90));
+    }
+
+    @Test
+    public void testPercentile_noValues() {
+        assertEquals("Day 5 of employee A has no time in",
+                     -1, store.percentile(EMPLOYEE_A, DAY_5, DAY_5, Measure.TIME_IN_MINUTE, 50));
+        assertEquals("Unknown employee has no values",
+                     -1, store.percentile(UNKNOWN_EMPLOYEE, DAY_1, DAY_5, Measure.MINUTES_WORKED, 50));
+    }
+
+    // ==================== NEGATIVE TESTS ====================
+
+    @Test
+    public void testEmptyStore() {
+        rows.clear();
+        AttendanceColumnStore empty = load();
+
+        assertNotNull("Empty load should still build a store", empty);
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.count(null, DAY_1, DAY_5, 0));
+        assertEquals(-1, empty.percentile(null, DAY_1, DAY_5, Measure.MINUTES_WORKED, 50));
+        assertEquals(0, empty.getEmployeeIds().length);
+    }
+
+    // ==================== HELPERS ====================
+
+    private void addRow(Integer employeeId, LocalDate date, String timeIn, String timeOut) {
+        rows.add(new int[] { employeeId, (int) date.toEpochDay(), minute(timeIn), minute(timeOut) });
+    }
+
+    private static int minute(String time) {
+        return time == null ? -1 : LocalTime.parse(time).toSecondOfDay() / 60;
+    }
+
+    private AttendanceColumnStore load() {
+        return AttendanceColumnStore.load(new RowsDAO(rows), DAY_1.minusDays(30), DAY_5.plusDays(30));
+    }
+
+    /**
+     * Streams fixed rows instead of reading the attendance table
+     */
+    private static class RowsDAO extends AttendanceDAO {
+        private final List<int[]> rows;
+
+        RowsDAO(List<int[]> rows) {
+            super(new DatabaseConnection());
+            this.rows = rows;
+        }
+
+        @Override
+        public int streamAttendanceColumns(LocalDate startDate, LocalDate endDate, AttendanceColumnVisitor visitor) {
+            for (int[] row : rows) {
+                visitor.visit(row[0], row[1], row[2], row[3]);
+            }
+            return rows.size();
+        }
+    }
+}
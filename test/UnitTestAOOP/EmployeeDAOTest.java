@@ -2,8 +2,10 @@ package UnitTestAOOP;
 
 import DAOs.EmployeeDAO;
 import DAOs.DatabaseConnection;
+import DAOs.SalaryHistoryDAO;
 import Models.EmployeeModel;
 import Models.EmployeeModel.EmployeeStatus;
+import Models.SalaryHistoryModel;
 
 import org.junit.*;
 import static org.junit.Assert.*;
@@ -591,7 +593,36 @@ public class EmployeeDAOTest {
         assertFalse("Should fail with null hourly rate", 
             employeeDAO.updateSalary(employee.getEmployeeId(), new BigDecimal("50000"), null));
     }
-    
+
+    @Test
+    public void testUpdateSalary_backdatedKeepsHistory() {
+        System.out.println("\n[TEST] testUpdateSalary_backdatedKeepsHistory");
+
+        EmployeeModel employee = createValidEmployee();
+        employeeDAO.save(employee);
+        createdEmployeeIds.add(employee.getEmployeeId());
+        BigDecimal originalBasic = employee.getBasicSalary();
+
+        // Back-dated change takes effect immediately and keeps the previous salary as history
+        LocalDate effectiveDate = LocalDate.now().minusMonths(2);
+        assertTrue("Back-dated salary update should succeed",
+            employeeDAO.updateSalary(employee.getEmployeeId(), new BigDecimal("95000.00"), new BigDecimal("475.00"), effectiveDate));
+
+        EmployeeModel retrieved = employeeDAO.findById(employee.getEmployeeId());
+        assertEquals("Current salary should be the new one", new BigDecimal("95000.00"), retrieved.getBasicSalary());
+
+        List<SalaryHistoryModel> history = new SalaryHistoryDAO().findByEmployee(employee.getEmployeeId());
+        assertEquals("History should hold the previous and the new salary", 2, history.size());
+
+        SalaryHistoryModel before = SalaryHistoryDAO.findInEffect(history, effectiveDate.minusDays(1), null);
+        assertNotNull("Previous salary should still be in effect before the change", before);
+        assertEquals("Previous salary should be kept", 0, originalBasic.compareTo(before.getBasicSalary()));
+
+        // Future-dated changes are rejected
+        assertFalse("Future-dated salary update should fail",
+            employeeDAO.updateSalary(employee.getEmployeeId(), new BigDecimal("99000.00"), new BigDecimal("495.00"), LocalDate.now().plusDays(7)));
+    }
+
     @Test
     public void testUpdateLastLogin_validEmployee() {
         System.out.println("\n[TEST] testUpdateLastLogin_validEmployee");
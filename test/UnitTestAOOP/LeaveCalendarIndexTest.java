@@ -0,0 +1,218 @@
+package UnitTestAOOP;
+
+import DAOs.LeaveCalendarIndex;
+import DAOs.LeaveCalendarIndex.LeaveInterval;
+import Models.LeaveRequestModel;
+import Models.LeaveRequestModel.ApprovalStatus;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import static org.junit.Assert.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * JUnit test class for the interval tree behind LeaveCalendarIndex.
+ * Queries go through LeaveCalendarIndex.findOverlapping, so no database is needed.
+ * @author martin
+ */
+
+public class LeaveCalendarIndexTest {
+
+    private List<LeaveInterval> intervals;
+    private int nextRequestId;
+    private static final Integer EMPLOYEE_ID = 10001;
+    private static final LocalDate BASE_DATE = LocalDate.of(2025, 7, 1);
+
+    @Before
+    public void setUp() {
+        intervals = new ArrayList<>();
+        nextRequestId = 1;
+    }
+
+    @After
+    public void tearDown() {
+        intervals = null;
+    }
+
+    // ==================== BOUNDARY DAYS ====================
+
+    @Test
+    public void testQuery_intervalEndingOnFirstDayIsIncluded() {
+        LeaveInterval leave = addLeave(BASE_DATE.minusDays(5), BASE_DATE);
+
+        List<LeaveInterval> result = query(BASE_DATE, BASE_DATE.plusDays(3));
+
+        assertEquals("Leave ending on the first day should overlap", 1, result.size());
+        assertSame("Should return the indexed interval", leave, result.get(0));
+    }
+
+    @Test
+    public void testQuery_intervalEndingDayBeforeIsExcluded() {
+        addLeave(BASE_DATE.minusDays(5), BASE_DATE.minusDays(1));
+
+        assertTrue("Leave ending the day before should not overlap",
+                   query(BASE_DATE, BASE_DATE.plusDays(3)).isEmpty());
+    }
+
+    @Test
+    public void testQuery_intervalStartingOnLastDayIsIncluded() {
+        addLeave(BASE_DATE.plusDays(3), BASE_DATE.plusDays(8));
+
+        assertEquals("Leave starting on the last day should overlap",
+                     1, query(BASE_DATE, BASE_DATE.plusDays(3)).size());
+    }
+
+    @Test
+    public void testQuery_intervalStartingDayAfterIsExcluded() {
+        addLeave(BASE_DATE.plusDays(4), BASE_DATE.plusDays(8));
+
+        assertTrue("Leave starting the day after should not overlap",
+                   query(BASE_DATE, BASE_DATE.plusDays(3)).isEmpty());
+    }
+
+    @Test
+    public void testQuery_singleDayRangeAndSingleDayLeave() {
+        addLeave(BASE_DATE, BASE_DATE);
+
+        assertEquals("Same single day should overlap", 1, query(BASE_DATE, BASE_DATE).size());
+        assertTrue("Next day should not overlap", query(BASE_DATE.plusDays(1), BASE_DATE.plusDays(1)).isEmpty());
+        assertTrue("Previous day should not overlap", query(BASE_DATE.minusDays(1), BASE_DATE.minusDays(1)).isEmpty());
+    }
+
+    // ==================== PRUNING ====================
+
+    @Test
+    public void testQuery_longLeaveInLeftSubtreeIsFound() {
+        // One long leave starts first; every later leave ends before the range, so the
+        // subtree maxEnd is the only thing keeping the long leave from being pruned
+        LeaveInterval longLeave = addLeave(BASE_DATE, BASE_DATE.plusDays(60));
+        for (int i = 1; i <= 20; i++) {
+            addLeave(BASE_DATE.plusDays(i), BASE_DATE.plusDays(i));
+        }
+
+        List<LeaveInterval> result = query(BASE_DATE.plusDays(50), BASE_DATE.plusDays(55));
+
+        assertEquals("Only the long leave should overlap", 1, result.size());
+        assertSame("Should return the long leave", longLeave, result.get(0));
+    }
+
+    @Test
+    public void testQuery_leaveStartingAfterRangeIsPrunedWithRightSubtree() {
+        for (int i = 0; i < 20; i++) {
+            addLeave(BASE_DATE.plusDays(i * 10), BASE_DATE.plusDays(i * 10 + 2));
+        }
+
+        List<LeaveInterval> result = query(BASE_DATE.plusDays(11), BASE_DATE.plusDays(21));
+
+        assertEquals("Only the leave on days 10-12 and 20-22 should overlap", 2, result.size());
+        assertEquals(BASE_DATE.plusDays(10), result.get(0).getLeaveStart());
+        assertEquals(BASE_DATE.plusDays(20), result.get(1).getLeaveStart());
+    }
+
+    @Test
+    public void testQuery_matchesLinearScan() {
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            LocalDate start = BASE_DATE.plusDays(random.nextInt(365));
+            addLeave(start, start.plusDays(random.nextInt(random.nextInt(10) == 0 ? 90 : 5)));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            LocalDate from = BASE_DATE.plusDays(random.nextInt(400) - 20);
+            LocalDate to = from.plusDays(random.nextInt(15));
+
+            List<LeaveInterval> expected = new ArrayList<>();
+            for (LeaveInterval interval : intervals) {
+                if (!interval.getLeaveEnd().isBefore(from) && !interval.getLeaveStart().isAfter(to)) {
+                    expected.add(interval);
+                }
+            }
+            List<LeaveInterval> result = query(from, to);
+
+            assertEquals("Tree should find the same leave as a scan for " + from + " to " + to,
+                         expected.size(), result.size());
+            assertTrue("Tree should find the same leave as a scan for " + from + " to " + to,
+                       result.containsAll(expected));
+        }
+    }
+
+    @Test
+    public void testQuery_insertedInStartOrderMatchesLinearScan() {
+        // Ascending and descending inserts force the tree to rebalance on every write
+        for (int i = 0; i < 100; i++) {
+            addLeave(BASE_DATE.plusDays(i * 3), BASE_DATE.plusDays(i * 3 + (i % 7)));
+        }
+        for (int i = 100; i > 0; i--) {
+            addLeave(BASE_DATE.plusDays(i * 2), BASE_DATE.plusDays(i * 2 + 1));
+        }
+
+        for (int day = -5; day < 320; day += 4) {
+            LocalDate from = BASE_DATE.plusDays(day);
+            LocalDate to = from.plusDays(6);
+
+            List<LeaveInterval> expected = new ArrayList<>();
+            for (LeaveInterval interval : intervals) {
+                if (!interval.getLeaveEnd().isBefore(from) && !interval.getLeaveStart().isAfter(to)) {
+                    expected.add(interval);
+                }
+            }
+            List<LeaveInterval> result = query(from, to);
+
+            assertEquals("Tree should find the same leave as a scan for " + from + " to " + to,
+                         expected.size(), result.size());
+            assertTrue(result.containsAll(expected));
+        }
+    }
+
+    @Test
+    public void testQuery_resultsOrderedByStartDate() {
+        addLeave(BASE_DATE.plusDays(6), BASE_DATE.plusDays(9));
+        addLeave(BASE_DATE, BASE_DATE.plusDays(9));
+        addLeave(BASE_DATE.plusDays(3), BASE_DATE.plusDays(4));
+
+        List<LeaveInterval> result = query(BASE_DATE, BASE_DATE.plusDays(9));
+
+        assertEquals(3, result.size());
+        assertEquals(BASE_DATE, result.get(0).getLeaveStart());
+        assertEquals(BASE_DATE.plusDays(3), result.get(1).getLeaveStart());
+        assertEquals(BASE_DATE.plusDays(6), result.get(2).getLeaveStart());
+    }
+
+    // ==================== NEGATIVE TESTS ====================
+
+    @Test
+    public void testQuery_emptyIndex() {
+        assertTrue("Empty index should find nothing", query(BASE_DATE, BASE_DATE.plusDays(30)).isEmpty());
+    }
+
+    @Test
+    public void testQuery_invalidRanges() {
+        addLeave(BASE_DATE, BASE_DATE.plusDays(10));
+
+        assertTrue("End before start should find nothing", query(BASE_DATE.plusDays(5), BASE_DATE).isEmpty());
+        assertTrue("Null start should find nothing", query(null, BASE_DATE).isEmpty());
+        assertTrue("Null end should find nothing", query(BASE_DATE, null).isEmpty());
+    }
+
+    // ==================== HELPERS ====================
+
+    private LeaveInterval addLeave(LocalDate start, LocalDate end) {
+        LeaveRequestModel leave = new LeaveRequestModel();
+        leave.setLeaveRequestId(nextRequestId++);
+        leave.setEmployeeId(EMPLOYEE_ID);
+        leave.setLeaveTypeId(1);
+        leave.setLeaveStart(start);
+        leave.setLeaveEnd(end);
+        leave.setApprovalStatus(ApprovalStatus.APPROVED);
+        LeaveInterval interval = LeaveInterval.from(leave);
+        intervals.add(interval);
+        return interval;
+    }
+
+    private List<LeaveInterval> query(LocalDate from, LocalDate to) {
+        return LeaveCalendarIndex.findOverlapping(intervals, from, to);
+    }
+}
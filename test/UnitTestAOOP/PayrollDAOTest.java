@@ -210,7 +210,42 @@ public class PayrollDAOTest {
         assertTrue("Employee count should be positive", summary.getEmployeeCount() > 0);
         assertTrue("Total gross income should be positive", summary.getTotalGrossIncome().compareTo(BigDecimal.ZERO) > 0);
     }
-    
+
+    @Test
+    public void testGetPayrollSummary_TracksSaveUpdateDelete() {
+        // Arrange - Summary before any payroll in the period
+        PayrollDAO.PayrollSummary before = payrollDAO.getPayrollSummary(testPayPeriodId);
+
+        // Act & Assert - Save adds the row to the totals
+        PayrollModel payroll = createAndSaveTestPayroll();
+        PayrollDAO.PayrollSummary afterSave = payrollDAO.getPayrollSummary(testPayPeriodId);
+        assertEquals("Count should grow by one", before.getEmployeeCount() + 1, afterSave.getEmployeeCount());
+        assertEquals("Gross should grow by the row's gross", 0,
+            before.getTotalGrossIncome().add(new BigDecimal("30000.00")).compareTo(afterSave.getTotalGrossIncome()));
+
+        // Update replaces the row's amounts
+        payroll.setNetSalary(new BigDecimal("26000.00"));
+        assertTrue("Should update payroll", payrollDAO.update(payroll));
+        PayrollDAO.PayrollSummary afterUpdate = payrollDAO.getPayrollSummary(testPayPeriodId);
+        assertEquals("Net should drop by the change", 0,
+            afterSave.getTotalNetSalary().subtract(new BigDecimal("1000.00")).compareTo(afterUpdate.getTotalNetSalary()));
+
+        // Department totals add up to the period totals
+        BigDecimal departmentGross = BigDecimal.ZERO;
+        for (PayrollDAO.PayrollSummary department : payrollDAO.getPayrollSummaryByDepartment(testPayPeriodId).values()) {
+            departmentGross = departmentGross.add(department.getTotalGrossIncome());
+        }
+        assertEquals("Department gross should match period gross", 0,
+            afterUpdate.getTotalGrossIncome().compareTo(departmentGross));
+
+        // Delete removes the row again
+        assertTrue("Should delete payroll", payrollDAO.delete(payroll.getPayrollId()));
+        PayrollDAO.PayrollSummary afterDelete = payrollDAO.getPayrollSummary(testPayPeriodId);
+        assertEquals("Count should be back to the starting value", before.getEmployeeCount(), afterDelete.getEmployeeCount());
+        assertEquals("Gross should be back to the starting value", 0,
+            before.getTotalGrossIncome().compareTo(afterDelete.getTotalGrossIncome()));
+    }
+
     // ==================== NEGATIVE TEST CASES ====================
     
     @Test
@@ -291,6 +291,35 @@ public class PayrollServiceTest {
     }
     
  
+    @Test
+    public void testCalculateEmployeePayroll_preloadedInputsMatchDatabasePath() {
+        // Given: Attendance and overtime recorded in the database
+        createCompleteAttendanceRecords();
+        createApprovedOvertime();
+        PayrollService.PayrollCalculation fromDatabase = payrollService.calculateEmployeePayroll(
+            testEmployee, testPayPeriod
+        );
+        
+        // When: The same inputs are supplied directly, as year-end batch runs do
+        BigDecimal hoursWorked = BigDecimal.ZERO;
+        for (AttendanceModel attendance : attendanceDAO.getAttendanceHistory(
+                testEmployee.getEmployeeId(), testPayPeriod.getStartDate(), testPayPeriod.getEndDate())) {
+            if (attendance.isComplete()) {
+                hoursWorked = hoursWorked.add(attendance.getHoursWorked());
+            }
+        }
+        PayrollService.PayrollCalculation preloaded = payrollService.calculateEmployeePayroll(
+            testEmployee, testPayPeriod, hoursWorked, fromDatabase.getOvertimePay(), fromDatabase.getTotalBenefits()
+        );
+        
+        // Then: Both paths apply the same rules
+        assertEquals("Gross income should match", fromDatabase.getGrossIncome(), preloaded.getGrossIncome());
+        assertEquals("Deductions should match", fromDatabase.getTotalDeductions(), preloaded.getTotalDeductions());
+        assertEquals("Deductions should split into contributions and tax",
+            preloaded.getTotalDeductions(),
+            preloaded.getGovernmentContributions().add(preloaded.getWithholdingTax()));
+    }
+    
     @Test
     public void testCalculatePayroll_extremeOvertimeHours() {
         // Given: Extreme overtime hours (24 hours in one day)
@@ -0,0 +1,151 @@
+package UnitTestAOOP;
+
+import DAOs.WorkCalendar;
+import DAOs.WorkCalendarDAO;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import static org.junit.Assert.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * JUnit test class for WorkCalendar working-day counts and the Easter date used for Holy Week.
+ * Counts are checked against isWorkingDay day by day, so they hold whether the calendar comes
+ * from the database or falls back to Monday to Friday without holidays.
+ * @author martin
+ */
+
+public class WorkCalendarTest {
+
+    private WorkCalendar calendar;
+
+    @Before
+    public void setUp() {
+        calendar = WorkCalendar.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        calendar = null;
+    }
+
+    // ==================== WORKING DAY COUNTS ====================
+
+    @Test
+    public void testCountWorkingDays_acrossYearBoundary() {
+        LocalDate start = LocalDate.of(2025, 12, 15);
+        LocalDate end = LocalDate.of(2026, 1, 15);
+
+        assertEquals("Count across the new year should match a day-by-day check",
+                     countByDay(start, end), calendar.countWorkingDays(start, end));
+    }
+
+    @Test
+    public void testCountWorkingDays_lastAndFirstDayOfYear() {
+        LocalDate lastDay = LocalDate.of(2025, 12, 31);
+        LocalDate firstDay = LocalDate.of(2026, 1, 1);
+
+        assertEquals("Last day of the year alone", countByDay(lastDay, lastDay), calendar.countWorkingDays(lastDay, lastDay));
+        assertEquals("First day of the year alone", countByDay(firstDay, firstDay), calendar.countWorkingDays(firstDay, firstDay));
+        assertEquals("Both days together", countByDay(lastDay, firstDay), calendar.countWorkingDays(lastDay, firstDay));
+    }
+
+    @Test
+    public void testCountWorkingDays_leapYearBoundary() {
+        // 2024 has 366 days, so December 31 is day 366
+        LocalDate start = LocalDate.of(2024, 12, 30);
+        LocalDate end = LocalDate.of(2025, 1, 3);
+
+        assertEquals(countByDay(start, end), calendar.countWorkingDays(start, end));
+        assertEquals(countByDay(LocalDate.of(2024, 2, 28), LocalDate.of(2024, 3, 1)),
+                     calendar.countWorkingDays(LocalDate.of(2024, 2, 28), LocalDate.of(2024, 3, 1)));
+    }
+
+    @Test
+    public void testCountWorkingDays_spanningSeveralYears() {
+        LocalDate start = LocalDate.of(2023, 6, 1);
+        LocalDate end = LocalDate.of(2026, 2, 28);
+
+        assertEquals("Whole middle year is counted once",
+                     countByDay(start, end), calendar.countWorkingDays(start, end));
+    }
+
+    @Test
+    public void testCountWorkingDays_splitAtYearEndAddsUp() {
+        LocalDate start = LocalDate.of(2025, 11, 1);
+        LocalDate yearEnd = LocalDate.of(2025, 12, 31);
+        LocalDate end = LocalDate.of(2026, 2, 1);
+
+        assertEquals("Splitting the range at the year end should not lose or repeat a day",
+                     calendar.countWorkingDays(start, yearEnd) + calendar.countWorkingDays(yearEnd.plusDays(1), end),
+                     calendar.countWorkingDays(start, end));
+    }
+
+    @Test
+    public void testCountWorkingDays_weekendsAreNotCounted() {
+        // Saturday 2026-01-03 and Sunday 2026-01-04
+        LocalDate saturday = LocalDate.of(2026, 1, 3);
+        assertEquals(DayOfWeek.SATURDAY, saturday.getDayOfWeek());
+
+        assertEquals("A weekend with the default rest days has no working days",
+                     countByDay(saturday, saturday.plusDays(1)), calendar.countWorkingDays(saturday, saturday.plusDays(1)));
+    }
+
+    @Test
+    public void testGetWorkingDaysInMonth_december() {
+        YearMonth december = YearMonth.of(2025, 12);
+
+        assertEquals(countByDay(december.atDay(1), december.atEndOfMonth()),
+                     calendar.getWorkingDaysInMonth(december));
+    }
+
+    // ==================== NEGATIVE TESTS ====================
+
+    @Test
+    public void testCountWorkingDays_emptyRanges() {
+        assertEquals("End before start", 0, calendar.countWorkingDays(LocalDate.of(2026, 1, 2), LocalDate.of(2025, 12, 30)));
+        assertEquals("Null start", 0, calendar.countWorkingDays(null, LocalDate.of(2026, 1, 2)));
+        assertEquals("Null end", 0, calendar.countWorkingDays(LocalDate.of(2026, 1, 2), null));
+    }
+
+    // ==================== EASTER ====================
+
+    @Test
+    public void testEasterSunday_knownDates() {
+        assertEquals(LocalDate.of(2000, 4, 23), WorkCalendarDAO.easterSunday(2000));
+        assertEquals(LocalDate.of(2019, 4, 21), WorkCalendarDAO.easterSunday(2019));
+        assertEquals(LocalDate.of(2024, 3, 31), WorkCalendarDAO.easterSunday(2024));
+        assertEquals(LocalDate.of(2025, 4, 20), WorkCalendarDAO.easterSunday(2025));
+        assertEquals(LocalDate.of(2026, 4, 5), WorkCalendarDAO.easterSunday(2026));
+    }
+
+    @Test
+    public void testEasterSunday_earliestAndLatestDates() {
+        assertEquals("Earliest possible date", LocalDate.of(2285, 3, 22), WorkCalendarDAO.easterSunday(2285));
+        assertEquals("Latest possible date", LocalDate.of(2038, 4, 25), WorkCalendarDAO.easterSunday(2038));
+    }
+
+    @Test
+    public void testEasterSunday_alwaysSundayInRange() {
+        for (int year = 1900; year <= 2100; year++) {
+            LocalDate easter = WorkCalendarDAO.easterSunday(year);
+            assertEquals("Easter " + year + " should be a Sunday", DayOfWeek.SUNDAY, easter.getDayOfWeek());
+            assertFalse("Easter " + year + " should not be before March 22", easter.isBefore(LocalDate.of(year, 3, 22)));
+            assertFalse("Easter " + year + " should not be after April 25", easter.isAfter(LocalDate.of(year, 4, 25)));
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private int countByDay(LocalDate start, LocalDate end) {
+        int count = 0;
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            if (calendar.isWorkingDay(date)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}